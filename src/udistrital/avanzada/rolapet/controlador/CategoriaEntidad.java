@@ -0,0 +1,66 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import java.util.List;
+
+/**
+ * Categorías de entidades que se pueden importar y exportar en bloque.
+ * 
+ * Cada categoría define las columnas de sus archivos: en CSV son los
+ * nombres de la fila de encabezado y en JSON lines son las claves de cada
+ * objeto. La última columna de vehículos, items y publicaciones indica la
+ * cédula del usuario o proveedor al que pertenece la entidad y es opcional.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public enum CategoriaEntidad {
+    
+    /** Usuarios, administradores y proveedores */
+    PERSONAS("cedula", "nombre", "telefono", "password", "email", "rol"),
+    
+    /** Scooters y motos eléctricas */
+    VEHICULOS("id", "tipo", "marca", "modelo", "autonomiaKm", "propietario"),
+    
+    /** Servicios y productos de los proveedores */
+    ITEMS("id", "tipo", "nombre", "descripcion", "proveedor"),
+    
+    /** Publicaciones de los proveedores */
+    PUBLICACIONES("id", "tipo", "titulo", "descripcion", "fechaCreacion", "proveedor");
+    
+    /** Nombres de las columnas de la categoría */
+    private final List<String> columnas;
+    
+    /**
+     * Constructor de la categoría.
+     * 
+     * @param columnas Nombres de las columnas de la categoría
+     */
+    CategoriaEntidad(String... columnas) {
+        this.columnas = List.of(columnas);
+    }
+    
+    /**
+     * Obtiene los nombres de las columnas de la categoría.
+     * 
+     * @return Lista inmutable con los nombres de las columnas, en orden
+     */
+    public List<String> getColumnas() {
+        return columnas;
+    }
+    
+    /**
+     * Obtiene la posición de una columna sin distinguir mayúsculas.
+     * 
+     * @param nombre Nombre de la columna
+     * @return La posición de la columna, o -1 si no pertenece a la categoría
+     */
+    int posicionDe(String nombre) {
+        for (int i = 0; i < columnas.size(); i++) {
+            if (columnas.get(i).equalsIgnoreCase(nombre.trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
\ No newline at end of file
@@ -1,8 +1,13 @@
 package udistrital.avanzada.rolapet.controlador;
 
 import udistrital.avanzada.rolapet.modelo.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 /**
  * Implementación del controlador principal del sistema RolaPet.
@@ -21,6 +26,12 @@ public class ControladorRolaPET implements IControladorRolaPET {
     /** Instancia del repositorio Singleton para acceso a los datos */
     private final Repositorio repositorio;
     
+    /** Gestor de las sesiones iniciadas en este controlador */
+    private final GestorSesiones sesiones;
+    
+    /** Limitador de los intentos de inicio de sesión por cuenta y por origen */
+    private final LimitadorIntentos limitador;
+    
     /**
      * Constructor del controlador.
      * 
@@ -30,10 +41,37 @@ public class ControladorRolaPET implements IControladorRolaPET {
      */
     public ControladorRolaPET() {
         this.repositorio = Repositorio.getInstancia();
+        this.sesiones = new GestorSesiones(GestorSesiones.INACTIVIDAD_POR_OMISION_MS,
+                GestorSesiones.DURACION_MAXIMA_POR_OMISION_MS,
+                persona -> repositorio.buscarPersonaPorCedula(persona.getCedula()) == persona);
+        this.limitador = new LimitadorIntentos();
     }
     
     // === MÉTODOS DE AUTENTICACIÓN ===
     
+    /**
+     * Autentica a una persona de cualquier rol utilizando su credencial y contraseña.
+     * 
+     * Este método consulta una sola vez el índice de credenciales del
+     * repositorio, que resuelve a la vez la persona y su rol, y verifica
+     * la contraseña. Si las credenciales son válidas, devuelve la persona;
+     * en caso contrario, devuelve null. El intento se cuenta como hecho
+     * desde la propia aplicación.
+     * 
+     * @param credencial Email o cédula de la persona
+     * @param password   Contraseña de acceso de la persona
+     * @return La persona autenticada o null si las credenciales son inválidas
+     *         o si el intento fue rechazado por el limitador de intentos
+     */
+    @Override
+    public Persona autenticar(String credencial, String password) {
+        try {
+            return autenticar(credencial, password, LimitadorIntentos.ORIGEN_LOCAL);
+        } catch (IntentosExcedidosException e) {
+            return null;
+        }
+    }
+    
     /**
      * Autentica un usuario en el sistema utilizando email y contraseña.
      * 
@@ -53,22 +91,19 @@ public class ControladorRolaPET implements IControladorRolaPET {
             return null;
         }
         
-        // Buscar el usuario por email en el repositorio
-        Usuario usuario = repositorio.buscarUsuarioPorEmail(email);
-        
-        // Verificar que el usuario existe y la contraseña coincide
-        if (usuario != null && usuario.getPassword().equals(password)) {
-            return usuario;
-        }
-        
-        return null;
+        // Buscar el usuario por email y verificar la contraseña, si el limitador lo permite
+        String clave = email.trim();
+        return limitarIntentoLocal(clave, () -> {
+            Usuario usuario = repositorio.buscarUsuarioPorEmail(clave);
+            return repositorio.verificarContrasena(usuario, password) ? usuario : null;
+        });
     }
     
     /**
      * Autentica un administrador en el sistema utilizando cédula y contraseña.
      * 
-     * Este método verifica las credenciales del administrador buscando en el repositorio
-     * una persona con la cédula especificada, verificando que sea un Administrador
+     * Este método verifica las credenciales del administrador buscando en el índice
+     * de credenciales del repositorio un administrador con la cédula especificada
      * y comparando la contraseña. Si las credenciales son válidas, devuelve el objeto
      * Administrador; en caso contrario, devuelve null.
      * 
@@ -83,29 +118,23 @@ public class ControladorRolaPET implements IControladorRolaPET {
             return null;
         }
         
-        // Buscar la persona por cédula en el repositorio
-        Persona persona = repositorio.buscarPersonaPorCedula(cedula);
-        
-        // Verificar que la persona existe, es un Administrador y la contraseña coincide
-        if (persona instanceof Administrador) {
-            Administrador admin = (Administrador) persona;
-            if (admin.getPassword().equals(password)) {
-                return admin;
-            }
-        }
-        
-        return null;
+        // Buscar el administrador por cédula y verificar la contraseña, si el limitador lo permite
+        String clave = cedula.trim();
+        return limitarIntentoLocal(clave, () -> {
+            Administrador admin = repositorio.buscarPorCredencial(Administrador.class, clave);
+            return repositorio.verificarContrasena(admin, password) ? admin : null;
+        });
     }
     
     /**
-     * Autentica un proveedor en el sistema utilizando cédula y contraseña.
+     * Autentica un proveedor en el sistema utilizando cédula o email y contraseña.
      * 
-     * Este método verifica las credenciales del proveedor buscando en el repositorio
-     * una persona con la cédula especificada, verificando que sea un Proveedor
-     * y comparando la contraseña. Si las credenciales son válidas, devuelve el objeto
-     * Proveedor; en caso contrario, devuelve null.
+     * Este método verifica las credenciales del proveedor buscando en el índice
+     * de credenciales del repositorio un proveedor con la cédula o el email
+     * especificado y comparando la contraseña. Si las credenciales son válidas,
+     * devuelve el objeto Proveedor; en caso contrario, devuelve null.
      * 
-     * @param cedula   Cédula de identificación del proveedor
+     * @param cedula   Cédula de identificación o email del proveedor
      * @param password Contraseña de acceso del proveedor
      * @return El proveedor autenticado o null si las credenciales son inválidas
      */
@@ -116,18 +145,131 @@ public class ControladorRolaPET implements IControladorRolaPET {
             return null;
         }
         
-        // Buscar la persona por cédula en el repositorio
-        Persona persona = repositorio.buscarPersonaPorCedula(cedula);
-        
-        // Verificar que la persona existe, es un Proveedor y la contraseña coincide
-        if (persona instanceof Proveedor) {
-            Proveedor proveedor = (Proveedor) persona;
-            if (proveedor.getPassword().equals(password)) {
-                return proveedor;
-            }
+        // Buscar el proveedor por cédula o email y verificar la contraseña, si el limitador lo permite
+        String clave = cedula.trim();
+        return limitarIntentoLocal(clave, () -> {
+            Proveedor proveedor = repositorio.buscarPorCredencial(Proveedor.class, clave);
+            return repositorio.verificarContrasena(proveedor, password) ? proveedor : null;
+        });
+    }
+    
+    // === MÉTODOS DE SESIÓN ===
+    
+    /**
+     * Autentica a una persona de cualquier rol e inicia una sesión para ella.
+     * 
+     * @param credencial Email o cédula de la persona
+     * @param password   Contraseña de acceso de la persona
+     * @return La sesión iniciada o null si las credenciales son inválidas
+     *         o si el intento fue rechazado por el limitador de intentos
+     */
+    @Override
+    public Sesion iniciarSesion(String credencial, String password) {
+        Persona persona = autenticar(credencial, password);
+        return persona != null ? sesiones.iniciar(persona) : null;
+    }
+    
+    /**
+     * Autentica a una persona desde un origen dado e inicia una sesión para ella.
+     * 
+     * @param credencial Email o cédula de la persona
+     * @param password   Contraseña de acceso de la persona
+     * @param origen     Origen del intento, por ejemplo la dirección remota
+     * @return La sesión iniciada o null si las credenciales son inválidas
+     * @throws IntentosExcedidosException Si el limitador de intentos rechazó el intento
+     */
+    @Override
+    public Sesion iniciarSesion(String credencial, String password, String origen) {
+        Persona persona = autenticar(credencial, password, origen);
+        return persona != null ? sesiones.iniciar(persona) : null;
+    }
+    
+    /**
+     * Obtiene la sesión abierta que corresponde a un token.
+     * 
+     * @param token El token de la sesión
+     * @return La sesión o null si el token no corresponde a una sesión abierta
+     */
+    @Override
+    public Sesion obtenerSesion(String token) {
+        return sesiones.obtener(token);
+    }
+    
+    /**
+     * Cierra la sesión que corresponde a un token.
+     * 
+     * @param token El token de la sesión
+     * @return true si el token correspondía a una sesión abierta
+     */
+    @Override
+    public boolean cerrarSesion(String token) {
+        return sesiones.cerrar(token);
+    }
+    
+    /**
+     * Agrega un amigo al usuario de una sesión.
+     * 
+     * El usuario se toma de la sesión, sin buscarlo por su cédula; solo
+     * se busca al amigo.
+     * 
+     * @param sesion      La sesión del usuario que agrega al amigo
+     * @param cedulaAmigo Cédula del usuario a agregar como amigo
+     * @return true si se agregó exitosamente, false en caso contrario
+     */
+    @Override
+    public boolean agregarAmigo(Sesion sesion, String cedulaAmigo) {
+        Usuario usuarioActual = usuarioDeSesion(sesion);
+        Persona personaAmigo = cedulaAmigo != null ? repositorio.buscarPersonaPorCedula(cedulaAmigo) : null;
+        if (usuarioActual != null && personaAmigo instanceof Usuario && personaAmigo != usuarioActual) {
+            return repositorio.agregarAmistad(usuarioActual, (Usuario) personaAmigo);
         }
-        
-        return null;
+        return false;
+    }
+    
+    /**
+     * Elimina un amigo del usuario de una sesión.
+     * 
+     * @param sesion      La sesión del usuario que elimina al amigo
+     * @param cedulaAmigo Cédula del usuario a eliminar de amigos
+     * @return true si se eliminó exitosamente, false en caso contrario
+     */
+    @Override
+    public boolean eliminarAmigo(Sesion sesion, String cedulaAmigo) {
+        Usuario usuarioActual = usuarioDeSesion(sesion);
+        Persona personaAmigo = cedulaAmigo != null ? repositorio.buscarPersonaPorCedula(cedulaAmigo) : null;
+        if (usuarioActual != null && personaAmigo instanceof Usuario) {
+            return repositorio.eliminarAmistad(usuarioActual, (Usuario) personaAmigo);
+        }
+        return false;
+    }
+    
+    /**
+     * Obtiene la lista de amigos del usuario de una sesión.
+     * 
+     * @param sesion La sesión del usuario
+     * @return Lista de amigos del usuario, vacía si la sesión no es válida
+     */
+    @Override
+    public List<Usuario> obtenerAmigos(Sesion sesion) {
+        Usuario usuario = usuarioDeSesion(sesion);
+        return usuario != null ? usuario.getAmigos() : List.of();
+    }
+    
+    /**
+     * Recomienda amigos al usuario de una sesión.
+     * 
+     * @param sesion   La sesión del usuario
+     * @param cantidad Cantidad máxima de recomendaciones
+     * @return Lista de recomendaciones, vacía si la sesión no es válida
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @Override
+    public List<RecomendacionAmigo> recomendarAmigos(Sesion sesion, int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad de recomendaciones no puede ser negativa");
+        }
+        Usuario usuario = usuarioDeSesion(sesion);
+        return usuario != null ? repositorio.recomendarAmigos(usuario, cantidad) : List.of();
     }
     
     // === MÉTODOS DE REGISTRO ===
@@ -158,16 +300,41 @@ public class ControladorRolaPET implements IControladorRolaPET {
             return false;
         }
         
-        // Verificar que no exista otro usuario con ese email
+        // Verificar que no exista otro usuario con ese email, antes de derivar el hash
         if (repositorio.buscarUsuarioPorEmail(email) != null) {
             return false;
         }
         
         // Crear el nuevo usuario con los datos proporcionados
-        Usuario nuevoUsuario = new Usuario(cedula, nombre, telefono, password, email);
+        Usuario nuevoUsuario = new Usuario(cedula, nombre, telefono, null, email);
+        
+        // Guardar el hash de la contraseña recibida, nunca el valor tal cual
+        nuevoUsuario.setPassword(password);
         
-        // Guardar el usuario en el repositorio
-        return repositorio.guardarPersona(nuevoUsuario);
+        // Guardar el usuario si otro registro simultáneo no ocupó su cédula o su email
+        return repositorio.guardarPersonaNueva(nuevoUsuario);
+    }
+    
+    /**
+     * Registra un nuevo usuario desde un origen dado, si el limitador de intentos lo permite.
+     * 
+     * @param cedula   Cédula de identificación del usuario
+     * @param nombre   Nombre completo del usuario
+     * @param telefono Número de teléfono del usuario
+     * @param password Contraseña de acceso del usuario
+     * @param email    Dirección de correo electrónico del usuario
+     * @param origen   Origen del registro, por ejemplo la dirección remota
+     * @return true si el registro fue exitoso, false en caso contrario
+     * @throws IntentosExcedidosException Si el limitador de intentos rechazó el registro
+     */
+    @Override
+    public boolean registrarUsuario(String cedula, String nombre, String telefono, String password, String email,
+                                    String origen) {
+        String remitente = origen != null ? origen : LimitadorIntentos.ORIGEN_LOCAL;
+        if (!limitador.permitirRegistro(remitente)) {
+            throw new IntentosExcedidosException(limitador.segundosEspera(null, remitente));
+        }
+        return registrarUsuario(cedula, nombre, telefono, password, email);
     }
     
     /**
@@ -197,7 +364,10 @@ public class ControladorRolaPET implements IControladorRolaPET {
         }
         
         // Crear el nuevo administrador con los datos proporcionados
-        Administrador nuevoAdmin = new Administrador(cedula, nombre, telefono, password, email);
+        Administrador nuevoAdmin = new Administrador(cedula, nombre, telefono, null, email);
+        
+        // Guardar el hash de la contraseña recibida, nunca el valor tal cual
+        nuevoAdmin.setPassword(password);
         
         // Guardar el administrador en el repositorio
         return repositorio.guardarPersona(nuevoAdmin);
@@ -230,13 +400,16 @@ public class ControladorRolaPET implements IControladorRolaPET {
         }
         
         // Crear el nuevo proveedor con los datos proporcionados
-        Proveedor nuevoProveedor = new Proveedor(cedula, nombre, telefono, password, email) {
+        Proveedor nuevoProveedor = new Proveedor(cedula, nombre, telefono, null, email) {
             @Override
             public String getRol() {
                 return "Proveedor";
             }
         };
         
+        // Guardar el hash de la contraseña recibida, nunca el valor tal cual
+        nuevoProveedor.setPassword(password);
+        
         // Guardar el proveedor en el repositorio
         return repositorio.guardarPersona(nuevoProveedor);
     }
@@ -247,7 +420,7 @@ public class ControladorRolaPET implements IControladorRolaPET {
      * Agrega un amigo a la lista de amigos de un usuario.
      * 
      * Este método busca a ambos usuarios en el repositorio, verifica que existan
-     * y que no sean la misma persona, y luego agrega el amigo a la lista del usuario.
+     * y que no sean la misma persona, y luego los hace amigos de forma recíproca.
      * Retorna true si la operación fue exitosa, false en caso contrario.
      * 
      * @param cedulaUsuarioActual Cédula del usuario que agrega al amigo
@@ -270,8 +443,8 @@ public class ControladorRolaPET implements IControladorRolaPET {
             Usuario usuarioActual = (Usuario) personaActual;
             Usuario usuarioAmigo = (Usuario) personaAmigo;
             
-            // Agregar el amigo a la lista del usuario actual
-            return usuarioActual.agregarAmigo(usuarioAmigo);
+            // Agregar a cada usuario a la lista de amigos del otro
+            return repositorio.agregarAmistad(usuarioActual, usuarioAmigo);
         }
         
         return false;
@@ -281,7 +454,7 @@ public class ControladorRolaPET implements IControladorRolaPET {
      * Elimina un amigo de la lista de amigos de un usuario.
      * 
      * Este método busca a ambos usuarios en el repositorio, verifica que existan
-     * y que sean usuarios, y luego elimina el amigo de la lista del usuario.
+     * y que sean usuarios, y luego termina la amistad para ambos.
      * Retorna true si la operación fue exitosa, false en caso contrario.
      * 
      * @param cedulaUsuarioActual Cédula del usuario que elimina al amigo
@@ -304,8 +477,8 @@ public class ControladorRolaPET implements IControladorRolaPET {
             Usuario usuarioActual = (Usuario) personaActual;
             Usuario usuarioAmigo = (Usuario) personaAmigo;
             
-            // Eliminar el amigo de la lista del usuario actual
-            return usuarioActual.eliminarAmigo(usuarioAmigo);
+            // Quitar a cada usuario de la lista de amigos del otro
+            return repositorio.eliminarAmistad(usuarioActual, usuarioAmigo);
         }
         
         return false;
@@ -334,6 +507,179 @@ public class ControladorRolaPET implements IControladorRolaPET {
         return List.of();
     }
     
+    /**
+     * Importa la lista de contactos de un usuario como amigos.
+     * 
+     * Este método resuelve cada cédula con el índice por cédula del
+     * repositorio y aplica todas las amistades en un solo lote recíproco.
+     * 
+     * @param cedulaUsuario    Cédula del usuario que importa sus contactos
+     * @param cedulasContactos Cédulas de los contactos
+     * @return La cantidad de amistades nuevas
+     */
+    @Override
+    public int importarContactos(String cedulaUsuario, List<String> cedulasContactos) {
+        Persona persona = repositorio.buscarPersonaPorCedula(cedulaUsuario);
+        if (!(persona instanceof Usuario) || cedulasContactos == null) {
+            return 0;
+        }
+        Usuario usuario = (Usuario) persona;
+        List<CambioAmistad> cambios = new ArrayList<>(cedulasContactos.size());
+        for (String cedula : cedulasContactos) {
+            Persona contacto = cedula != null ? repositorio.buscarPersonaPorCedula(cedula) : null;
+            if (contacto instanceof Usuario) {
+                cambios.add(CambioAmistad.agregar(usuario, (Usuario) contacto));
+            }
+        }
+        return repositorio.aplicarCambiosDeAmistad(cambios).size();
+    }
+    
+    /**
+     * Registra un oyente que recibe los cambios de amistades aplicados.
+     * 
+     * @param oyente El oyente a registrar
+     * @throws IllegalArgumentException Si el oyente es nulo
+     */
+    @Override
+    public void agregarOyenteAmistades(IOyenteAmistades oyente) {
+        repositorio.agregarOyenteAmistades(oyente);
+    }
+    
+    /**
+     * Obtiene los amigos en común entre dos usuarios.
+     * 
+     * Este método busca a ambos usuarios en el repositorio e interseca sus
+     * amigos en el grafo de amistades.
+     * 
+     * @param cedulaA Cédula del primer usuario
+     * @param cedulaB Cédula del segundo usuario
+     * @return Lista de los usuarios que son amigos de ambos, vacía si alguno no existe
+     */
+    @Override
+    public List<Usuario> obtenerAmigosEnComun(String cedulaA, String cedulaB) {
+        Persona personaA = repositorio.buscarPersonaPorCedula(cedulaA);
+        Persona personaB = repositorio.buscarPersonaPorCedula(cedulaB);
+        if (personaA instanceof Usuario && personaB instanceof Usuario) {
+            return repositorio.obtenerAmigosEnComun((Usuario) personaA, (Usuario) personaB);
+        }
+        return List.of();
+    }
+    
+    /**
+     * Cuenta los amigos en común entre dos usuarios.
+     * 
+     * @param cedulaA Cédula del primer usuario
+     * @param cedulaB Cédula del segundo usuario
+     * @return La cantidad de amigos en común, 0 si alguno no existe
+     */
+    @Override
+    public int contarAmigosEnComun(String cedulaA, String cedulaB) {
+        Persona personaA = repositorio.buscarPersonaPorCedula(cedulaA);
+        Persona personaB = repositorio.buscarPersonaPorCedula(cedulaB);
+        if (personaA instanceof Usuario && personaB instanceof Usuario) {
+            return repositorio.contarAmigosEnComun((Usuario) personaA, (Usuario) personaB);
+        }
+        return 0;
+    }
+    
+    /**
+     * Recomienda a un usuario personas que quizá conozca.
+     * 
+     * Este método busca al usuario en el repositorio y consulta sus
+     * recomendaciones, que se recalculan solo si cambiaron sus amistades
+     * o las de sus amigos.
+     * 
+     * @param cedulaUsuario Cédula del usuario
+     * @param cantidad      Cantidad máxima de recomendaciones
+     * @return Lista de recomendaciones, vacía si el usuario no existe
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @Override
+    public List<RecomendacionAmigo> recomendarAmigos(String cedulaUsuario, int cantidad) {
+        Persona persona = repositorio.buscarPersonaPorCedula(cedulaUsuario);
+        if (persona instanceof Usuario) {
+            return repositorio.recomendarAmigos((Usuario) persona, cantidad);
+        }
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad de recomendaciones no puede ser negativa");
+        }
+        return List.of();
+    }
+    
+    /**
+     * Precalcula en paralelo las recomendaciones de amigos de todos los usuarios.
+     * 
+     * @param cantidad Cantidad de recomendaciones a precalcular por usuario
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @Override
+    public void precalcularRecomendaciones(int cantidad) {
+        repositorio.precalcularRecomendaciones(cantidad);
+    }
+    
+    /**
+     * Calcula los grados de separación entre dos usuarios.
+     * 
+     * Este método busca a ambos usuarios en el repositorio y busca el
+     * camino más corto de amistades entre ellos.
+     * 
+     * @param cedulaOrigen  Cédula del usuario de partida
+     * @param cedulaDestino Cédula del usuario buscado
+     * @param maximoSaltos  Cantidad máxima de saltos a considerar
+     * @return La cantidad de saltos entre ambos, o -1 si alguno no existe o no
+     *         están conectados en como máximo maximoSaltos saltos
+     * @throws IllegalArgumentException Si la cantidad máxima de saltos es negativa
+     */
+    @Override
+    public int calcularGradosDeSeparacion(String cedulaOrigen, String cedulaDestino, int maximoSaltos) {
+        Persona origen = repositorio.buscarPersonaPorCedula(cedulaOrigen);
+        Persona destino = repositorio.buscarPersonaPorCedula(cedulaDestino);
+        if (origen instanceof Usuario && destino instanceof Usuario) {
+            return repositorio.calcularGradosDeSeparacion((Usuario) origen, (Usuario) destino, maximoSaltos);
+        }
+        if (maximoSaltos < 0) {
+            throw new IllegalArgumentException("La cantidad de saltos no puede ser negativa");
+        }
+        return -1;
+    }
+    
+    /**
+     * Obtiene la cadena de amigos que conecta a dos usuarios.
+     * 
+     * @param cedulaOrigen  Cédula del usuario de partida
+     * @param cedulaDestino Cédula del usuario buscado
+     * @param maximoSaltos  Cantidad máxima de saltos a considerar
+     * @return Lista de usuarios desde el origen hasta el destino, vacía si alguno
+     *         no existe o no están conectados en como máximo maximoSaltos saltos
+     * @throws IllegalArgumentException Si la cantidad máxima de saltos es negativa
+     */
+    @Override
+    public List<Usuario> obtenerCaminoDeAmistad(String cedulaOrigen, String cedulaDestino, int maximoSaltos) {
+        Persona origen = repositorio.buscarPersonaPorCedula(cedulaOrigen);
+        Persona destino = repositorio.buscarPersonaPorCedula(cedulaDestino);
+        if (origen instanceof Usuario && destino instanceof Usuario) {
+            return repositorio.obtenerCaminoDeAmistad((Usuario) origen, (Usuario) destino, maximoSaltos);
+        }
+        if (maximoSaltos < 0) {
+            throw new IllegalArgumentException("La cantidad de saltos no puede ser negativa");
+        }
+        return List.of();
+    }
+    
+    /**
+     * Verifica si dos usuarios están conectados en a lo sumo una cantidad de saltos.
+     * 
+     * @param cedulaOrigen  Cédula del usuario de partida
+     * @param cedulaDestino Cédula del usuario buscado
+     * @param saltos        Cantidad máxima de saltos
+     * @return true si ambos existen y están a como máximo esa cantidad de saltos
+     * @throws IllegalArgumentException Si la cantidad de saltos es negativa
+     */
+    @Override
+    public boolean estanAMenosDeSaltos(String cedulaOrigen, String cedulaDestino, int saltos) {
+        return calcularGradosDeSeparacion(cedulaOrigen, cedulaDestino, saltos) >= 0;
+    }
+    
     // === MÉTODOS DE GESTIÓN DE VEHÍCULOS ===
     
     /**
@@ -752,8 +1098,560 @@ public class ControladorRolaPET implements IControladorRolaPET {
         return repositorio.obtenerEstadisticas();
     }
     
+    /**
+     * Obtiene las estadísticas del sistema en forma estructurada.
+     * 
+     * Este método consulta la instantánea que el repositorio construye a
+     * partir de sus contadores vivos, sin recorrer las listas de entidades.
+     * 
+     * @return Instantánea de las estadísticas del sistema
+     */
+    @Override
+    public EstadisticasRepositorio obtenerEstadisticasDetalladas() {
+        return repositorio.obtenerInstantaneaEstadisticas();
+    }
+    
+    // === MÉTODOS DE PAGINACIÓN ===
+    
+    /**
+     * Obtiene una página de las personas (usuarios, administradores y proveedores) del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Persona> obtenerPaginaPersonas(CriterioOrden<? super Persona> criterio, int numero, int tamano) {
+        return repositorio.obtenerPaginaPersonas(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de las personas del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer las personas página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Persona> obtenerPaginaPersonas(CriterioOrden<? super Persona> criterio, String cursor, int tamano) {
+        return repositorio.obtenerPaginaPersonas(criterio, cursor, tamano);
+    }
+    
+    /**
+     * Obtiene una página de los vehículos del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Vehiculo> obtenerPaginaVehiculos(CriterioOrden<? super Vehiculo> criterio, int numero, int tamano) {
+        return repositorio.obtenerPaginaVehiculos(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de los vehículos del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer los vehículos página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Vehiculo> obtenerPaginaVehiculos(CriterioOrden<? super Vehiculo> criterio, String cursor, int tamano) {
+        return repositorio.obtenerPaginaVehiculos(criterio, cursor, tamano);
+    }
+    
+    /**
+     * Obtiene una página de los items (servicios y productos) del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Item> obtenerPaginaItems(CriterioOrden<? super Item> criterio, int numero, int tamano) {
+        return repositorio.obtenerPaginaItems(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de los items del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer los items página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Item> obtenerPaginaItems(CriterioOrden<? super Item> criterio, String cursor, int tamano) {
+        return repositorio.obtenerPaginaItems(criterio, cursor, tamano);
+    }
+    
+    /**
+     * Obtiene una página de las publicaciones (eventos y promociones) del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Publicacion> obtenerPaginaPublicaciones(CriterioOrden<? super Publicacion> criterio, int numero, int tamano) {
+        return repositorio.obtenerPaginaPublicaciones(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de las publicaciones del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer las publicaciones página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    @Override
+    public Pagina<Publicacion> obtenerPaginaPublicaciones(CriterioOrden<? super Publicacion> criterio, String cursor, int tamano) {
+        return repositorio.obtenerPaginaPublicaciones(criterio, cursor, tamano);
+    }
+    
+    // === MÉTODOS DE CONSULTA FILTRADA ===
+    
+    /**
+     * Crea una consulta sobre las personas del sistema (usuarios, administradores y proveedores).
+     * 
+     * Este método permite filtrar las personas con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    @Override
+    public Consulta<Persona> consultarPersonas() {
+        return repositorio.consultarPersonas();
+    }
+    
+    /**
+     * Crea una consulta sobre los usuarios del sistema.
+     * 
+     * Este método permite filtrar los usuarios con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    @Override
+    public Consulta<Usuario> consultarUsuarios() {
+        return repositorio.consultarUsuarios();
+    }
+    
+    /**
+     * Crea una consulta sobre los administradores del sistema.
+     * 
+     * Este método permite filtrar los administradores con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    @Override
+    public Consulta<Administrador> consultarAdministradores() {
+        return repositorio.consultarAdministradores();
+    }
+    
+    /**
+     * Crea una consulta sobre los proveedores del sistema.
+     * 
+     * Este método permite filtrar los proveedores con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    @Override
+    public Consulta<Proveedor> consultarProveedores() {
+        return repositorio.consultarProveedores();
+    }
+    
+    /**
+     * Crea una consulta sobre los vehículos del sistema.
+     * 
+     * Este método permite filtrar los vehículos con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    @Override
+    public Consulta<Vehiculo> consultarVehiculos() {
+        return repositorio.consultarVehiculos();
+    }
+    
+    /**
+     * Crea una consulta sobre los items del sistema (servicios y productos).
+     * 
+     * Este método permite filtrar los items con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    @Override
+    public Consulta<Item> consultarItems() {
+        return repositorio.consultarItems();
+    }
+    
+    /**
+     * Crea una consulta sobre las publicaciones del sistema (eventos y promociones).
+     * 
+     * Este método permite filtrar las publicaciones con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    @Override
+    public Consulta<Publicacion> consultarPublicaciones() {
+        return repositorio.consultarPublicaciones();
+    }
+    
+    // === MÉTODOS DE SUGERENCIAS ===
+    
+    /**
+     * Sugiere las personas del sistema cuyo nombre, cédula o email empiezan por un texto.
+     * 
+     * Este método está pensado para autocompletar mientras el usuario
+     * escribe; no distingue mayúsculas ni tildes y no recorre todas las personas.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista de personas sugeridas
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @Override
+    public List<Persona> sugerirPersonas(String prefijo, int cantidad) {
+        return repositorio.sugerirPersonas(prefijo, cantidad);
+    }
+    
+    /**
+     * Sugiere los usuarios del sistema cuyo nombre, cédula o email empiezan por un texto.
+     * 
+     * Este método es utilizado por el diálogo de agregar amigo para
+     * sugerir usuarios mientras se escribe.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista de usuarios sugeridos
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @Override
+    public List<Usuario> sugerirUsuarios(String prefijo, int cantidad) {
+        return repositorio.sugerirUsuarios(prefijo, cantidad);
+    }
+    
+    /**
+     * Sugiere los proveedores del sistema cuyo nombre, cédula o email empiezan por un texto.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista de proveedores sugeridos
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @Override
+    public List<Proveedor> sugerirProveedores(String prefijo, int cantidad) {
+        return repositorio.sugerirProveedores(prefijo, cantidad);
+    }
+    
+    // === MÉTODOS DE BÚSQUEDA POR AUTONOMÍA ===
+    
+    /**
+     * Busca los vehículos del sistema cuya autonomía está dentro de un rango.
+     * 
+     * Este método permite encontrar vehículos con autonomía suficiente para
+     * un recorrido; el rango se resuelve sobre el índice de autonomía del
+     * repositorio sin recorrer todos los vehículos.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param minimoKm Autonomía mínima en kilómetros, incluida
+     * @param maximoKm Autonomía máxima en kilómetros, incluida
+     * @return Lista de vehículos de menor a mayor autonomía
+     */
+    @Override
+    public List<Vehiculo> buscarVehiculosPorAutonomia(String tipo, int minimoKm, int maximoKm) {
+        return repositorio.buscarVehiculosPorAutonomia(tipo, minimoKm, maximoKm);
+    }
+    
+    /**
+     * Cuenta los vehículos del sistema cuya autonomía está dentro de un rango.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param minimoKm Autonomía mínima en kilómetros, incluida
+     * @param maximoKm Autonomía máxima en kilómetros, incluida
+     * @return La cantidad de vehículos en el rango
+     */
+    @Override
+    public int contarVehiculosPorAutonomia(String tipo, int minimoKm, int maximoKm) {
+        return repositorio.contarVehiculosPorAutonomia(tipo, minimoKm, maximoKm);
+    }
+    
+    /**
+     * Obtiene los vehículos del sistema con mayor autonomía.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param cantidad Cantidad máxima de vehículos a obtener
+     * @return Lista de vehículos de mayor a menor autonomía
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @Override
+    public List<Vehiculo> obtenerVehiculosConMayorAutonomia(String tipo, int cantidad) {
+        return repositorio.obtenerVehiculosConMayorAutonomia(tipo, cantidad);
+    }
+    
+    /**
+     * Obtiene la autonomía de un percentil de los vehículos del sistema.
+     * 
+     * @param tipo      Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param percentil Percentil entre 0 y 100; 50 corresponde a la mediana
+     * @return La autonomía en kilómetros del percentil, o -1 si no hay vehículos
+     * @throws IllegalArgumentException Si el percentil está fuera de rango
+     */
+    @Override
+    public int obtenerPercentilAutonomia(String tipo, double percentil) {
+        return repositorio.obtenerPercentilAutonomia(tipo, percentil);
+    }
+    
+    // === MÉTODOS DE BÚSQUEDA POR TEXTO ===
+    
+    /**
+     * Busca los items del sistema cuyo nombre o descripción contienen todas las palabras de un texto.
+     * 
+     * La búsqueda no distingue mayúsculas ni tildes, acepta el comienzo de
+     * una palabra y ordena los resultados por relevancia, sin recorrer el
+     * catálogo completo.
+     * 
+     * @param texto  Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista de items, del más al menos relevante
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    @Override
+    public List<Item> buscarItemsPorTexto(String texto, int limite) {
+        return repositorio.buscarItemsPorTexto(texto, limite);
+    }
+    
+    /**
+     * Busca las publicaciones del sistema cuyo título o descripción contienen todas las palabras de un texto.
+     * 
+     * La búsqueda no distingue mayúsculas ni tildes, acepta el comienzo de
+     * una palabra y ordena los resultados por relevancia, sin recorrer el
+     * catálogo completo.
+     * 
+     * @param texto  Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista de publicaciones, de la más a la menos relevante
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    @Override
+    public List<Publicacion> buscarPublicacionesPorTexto(String texto, int limite) {
+        return repositorio.buscarPublicacionesPorTexto(texto, limite);
+    }
+    
+    // === MÉTODOS DE IMPORTACIÓN ===
+    
+    /**
+     * Importa de forma masiva las entidades de un archivo CSV o JSON lines.
+     * 
+     * Este método delega en un ImportadorMasivo sobre el repositorio del
+     * controlador, que valida las filas en paralelo y las guarda en lotes.
+     * 
+     * @param archivo   Archivo a importar (.csv, .jsonl o .ndjson)
+     * @param categoria Categoría de las entidades del archivo
+     * @return El resultado de la importación con el detalle de las filas rechazadas
+     * @throws IOException Si no se puede leer el archivo o su encabezado no es válido
+     */
+    @Override
+    public ResultadoImportacion importarDatos(Path archivo, CategoriaEntidad categoria) throws IOException {
+        ImportadorMasivo importador = new ImportadorMasivo(repositorio, Runtime.getRuntime().availableProcessors());
+        return importador.importar(archivo, categoria);
+    }
+    
+    // === MÉTODOS DE EXPORTACIÓN ===
+    
+    /**
+     * Exporta las entidades de una categoría a un archivo CSV o JSON lines.
+     * 
+     * Este método delega en un ExportadorRepositorio sobre el repositorio
+     * del controlador, que recorre las entidades sin copiarlas.
+     * 
+     * @param archivo   Archivo de destino (.csv, .jsonl o .ndjson)
+     * @param categoria Categoría de las entidades a exportar
+     * @param progreso  Seguimiento del avance y de la cancelación
+     * @return Número de entidades exportadas
+     * @throws IOException Si ocurre un error al escribir el archivo
+     */
+    @Override
+    public long exportarDatos(Path archivo, CategoriaEntidad categoria, IProgresoExportacion progreso) throws IOException {
+        return new ExportadorRepositorio(repositorio).exportar(archivo, categoria, progreso);
+    }
+    
+    /**
+     * Exporta todo el repositorio a un directorio, un archivo por categoría.
+     * 
+     * @param directorio Directorio de destino
+     * @param formato    Formato de los archivos
+     * @param progreso   Seguimiento del avance y de la cancelación
+     * @return Número de entidades exportadas
+     * @throws IOException Si ocurre un error al escribir algún archivo
+     */
+    @Override
+    public long exportarRepositorio(Path directorio, FormatoArchivo formato, IProgresoExportacion progreso) throws IOException {
+        return new ExportadorRepositorio(repositorio).exportarTodo(directorio, formato, progreso);
+    }
+    
+    /**
+     * Exporta el reporte de estadísticas del sistema a un archivo.
+     * 
+     * @param archivo Archivo de destino (.txt, .csv, .jsonl o .ndjson)
+     * @throws IOException Si ocurre un error al escribir el archivo
+     */
+    @Override
+    public void exportarEstadisticas(Path archivo) throws IOException {
+        new ExportadorRepositorio(repositorio).exportarEstadisticas(archivo);
+    }
+    
     // === MÉTODOS PRIVADOS DE UTILIDAD ===
     
+    /**
+     * Autentica a una persona de cualquier rol desde un origen dado.
+     * 
+     * @param credencial Email o cédula de la persona
+     * @param password   Contraseña de acceso de la persona
+     * @param origen     Origen del intento
+     * @return La persona autenticada o null si las credenciales son inválidas
+     * @throws IntentosExcedidosException Si el limitador de intentos rechazó el intento
+     */
+    private Persona autenticar(String credencial, String password, String origen) {
+        // Validar que los parámetros no sean nulos o vacíos
+        if (credencial == null || password == null || credencial.trim().isEmpty() || password.trim().isEmpty()) {
+            return null;
+        }
+        
+        String clave = credencial.trim();
+        return limitarIntento(clave, origen != null ? origen : LimitadorIntentos.ORIGEN_LOCAL,
+                () -> repositorio.autenticar(clave, password));
+    }
+    
+    /**
+     * Hace un intento de inicio de sesión si el limitador de intentos lo permite.
+     * 
+     * Si el limitador rechaza el intento, la contraseña no se verifica y
+     * se lanza una excepción con la espera para reintentar. El limitador
+     * reserva un fallo de la cuenta antes de verificar, de modo que los
+     * intentos simultáneos no superan el límite: si el intento falla, el
+     * fallo queda contado; si tiene éxito, la cuenta olvida sus fallos. Si
+     * la verificación se rechaza porque hay demasiadas en espera, el
+     * intento se cancela y la excepción se propaga sin contar como fallo,
+     * pues no dice nada de la contraseña.
+     * 
+     * @param <T>     Tipo de persona autenticada
+     * @param cuenta  Credencial con que se intenta iniciar sesión
+     * @param origen  Origen del intento
+     * @param intento Verificación de las credenciales, que devuelve la persona o null
+     * @return La persona autenticada, o null si el intento falló
+     * @throws IntentosExcedidosException Si el limitador de intentos rechazó el intento
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
+     */
+    private <T extends Persona> T limitarIntento(String cuenta, String origen, Supplier<T> intento) {
+        if (!limitador.permitir(cuenta, origen)) {
+            throw new IntentosExcedidosException(limitador.segundosEspera(cuenta, origen));
+        }
+        T persona;
+        try {
+            persona = intento.get();
+        } catch (RejectedExecutionException e) {
+            limitador.cancelar(cuenta);
+            throw e;
+        }
+        if (persona != null) {
+            limitador.registrarExito(cuenta);
+        }
+        return persona;
+    }
+    
+    /**
+     * Hace un intento de inicio de sesión desde la propia aplicación si el
+     * limitador de intentos lo permite.
+     * 
+     * @param <T>     Tipo de persona autenticada
+     * @param cuenta  Credencial con que se intenta iniciar sesión
+     * @param intento Verificación de las credenciales, que devuelve la persona o null
+     * @return La persona autenticada, o null si el intento falló o fue rechazado
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
+     */
+    private <T extends Persona> T limitarIntentoLocal(String cuenta, Supplier<T> intento) {
+        try {
+            return limitarIntento(cuenta, LimitadorIntentos.ORIGEN_LOCAL, intento);
+        } catch (IntentosExcedidosException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Obtiene el usuario de una sesión abierta y registra su uso.
+     * 
+     * @param sesion La sesión
+     * @return El usuario de la sesión, o null si la sesión no está abierta
+     *         o su persona no es un usuario
+     */
+    private Usuario usuarioDeSesion(Sesion sesion) {
+        if (sesiones.usar(sesion) && sesion.getPersona() instanceof Usuario) {
+            return (Usuario) sesion.getPersona();
+        }
+        return null;
+    }
+    
     /**
      * Valida los datos básicos de una persona.
      * 
@@ -789,4 +1687,4 @@ public class ControladorRolaPET implements IControladorRolaPET {
     private String generarIdUnico() {
         return UUID.randomUUID().toString().substring(0, 8);
     }
-}
+}
\ No newline at end of file
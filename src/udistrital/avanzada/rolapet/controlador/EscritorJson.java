@@ -0,0 +1,126 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Escritor de objetos JSON planos.
+ * 
+ * Esta clase escribe objetos JSON cuyas claves tienen como valor textos,
+ * números, booleanos o null, que es lo que contiene cada línea de los
+ * archivos JSON lines del sistema, y arreglos de esos objetos, que es lo
+ * que responden los servicios de listas del {@link ServidorApi}. Es la
+ * contraparte de {@link LectorJson}.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class EscritorJson {
+    
+    /**
+     * Constructor privado para evitar la instanciación de la clase.
+     */
+    private EscritorJson() {
+    }
+    
+    /**
+     * Escribe un objeto JSON plano en una sola línea, sin salto de línea final.
+     * 
+     * Los valores de tipo Number y Boolean se escriben como literales, null
+     * como el literal null y cualquier otro valor como texto.
+     * 
+     * @param salida  Destino de la escritura
+     * @param claves  Claves del objeto, en orden
+     * @param valores Valor de cada clave
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirObjeto(Appendable salida, List<String> claves, Object[] valores) throws IOException {
+        salida.append('{');
+        for (int i = 0; i < claves.size(); i++) {
+            if (i > 0) {
+                salida.append(',');
+            }
+            escribirCadena(salida, claves.get(i));
+            salida.append(':');
+            Object valor = valores[i];
+            if (valor == null) {
+                salida.append("null");
+            } else if (valor instanceof Number || valor instanceof Boolean) {
+                salida.append(valor.toString());
+            } else {
+                escribirCadena(salida, valor.toString());
+            }
+        }
+        salida.append('}');
+    }
+    
+    /**
+     * Escribe un arreglo JSON de objetos planos, uno por elemento, a medida que se recorren.
+     * 
+     * Cada elemento se convierte en sus valores y se escribe en cuanto se
+     * obtiene, sin armar antes el arreglo completo en memoria, por lo que
+     * el destino puede ser un flujo de red que envía el arreglo por partes.
+     * 
+     * @param <T>       Tipo de los elementos
+     * @param salida    Destino de la escritura
+     * @param claves    Claves de cada objeto, en orden
+     * @param elementos Elementos a escribir, en orden
+     * @param valores   Función que da el valor de cada clave para un elemento
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static <T> void escribirArreglo(Appendable salida, List<String> claves, Iterable<? extends T> elementos,
+                                    Function<? super T, Object[]> valores) throws IOException {
+        salida.append('[');
+        boolean primero = true;
+        for (T elemento : elementos) {
+            if (!primero) {
+                salida.append(',');
+            }
+            escribirObjeto(salida, claves, valores.apply(elemento));
+            primero = false;
+        }
+        salida.append(']');
+    }
+    
+    /**
+     * Escribe un texto como cadena JSON entre comillas.
+     * 
+     * @param salida Destino de la escritura
+     * @param texto  Texto a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirCadena(Appendable salida, String texto) throws IOException {
+        salida.append('"');
+        int inicio = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            String escape;
+            switch (c) {
+                case '"':
+                    escape = "\\\"";
+                    break;
+                case '\\':
+                    escape = "\\\\";
+                    break;
+                case '\n':
+                    escape = "\\n";
+                    break;
+                case '\r':
+                    escape = "\\r";
+                    break;
+                case '\t':
+                    escape = "\\t";
+                    break;
+                default:
+                    escape = c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            }
+            if (escape != null) {
+                salida.append(texto, inicio, i).append(escape);
+                inicio = i + 1;
+            }
+        }
+        salida.append(texto, inicio, texto.length()).append('"');
+    }
+}
\ No newline at end of file
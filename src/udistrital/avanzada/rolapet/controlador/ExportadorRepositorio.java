@@ -0,0 +1,446 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import udistrital.avanzada.rolapet.modelo.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Exportador de las entidades y estadísticas del repositorio a archivos.
+ * 
+ * Esta clase escribe personas, vehículos, items y publicaciones en CSV o
+ * JSON lines con las mismas columnas que acepta el {@link ImportadorMasivo},
+ * de modo que un archivo exportado puede volver a importarse. Las entidades
+ * se recorren directamente sobre la instantánea del repositorio, sin las
+ * copias que hacen los métodos obtenerTodos*, y se escriben a través de un
+ * canal de archivo con búfer, por lo que la memoria usada no depende del
+ * número de entidades.
+ * 
+ * Cada archivo se escribe primero con extensión .tmp y solo reemplaza al
+ * destino al terminar; si la exportación falla o se cancela, el archivo
+ * temporal se elimina y el destino queda como estaba.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class ExportadorRepositorio {
+    
+    /** Cada cuántos registros se informa el avance y se consulta la cancelación */
+    private static final int INTERVALO_PROGRESO = 1024;
+    
+    /** Columnas de la exportación estructurada de estadísticas */
+    private static final List<String> COLUMNAS_ESTADISTICAS = List.of("metrica", "tipo", "cantidad");
+    
+    /** Repositorio cuyos datos se exportan */
+    private final Repositorio repositorio;
+    
+    /**
+     * Escritura del contenido de un archivo exportado.
+     */
+    private interface Contenido {
+        
+        /**
+         * Escribe el contenido.
+         * 
+         * @param salida Destino de la escritura
+         * @return Número de registros escritos
+         * @throws IOException Si ocurre un error de escritura
+         */
+        long escribir(Writer salida) throws IOException;
+    }
+    
+    /**
+     * Contador de registros escritos que informa el avance y atiende la cancelación.
+     */
+    private static final class Avance {
+        
+        /** Seguimiento que recibe el avance */
+        private final IProgresoExportacion progreso;
+        
+        /** Registros escritos antes de este archivo, en una exportación de varios archivos */
+        private final long base;
+        
+        /** Total aproximado de registros de la exportación */
+        private final long total;
+        
+        /** Registros escritos en este archivo */
+        private long escritos;
+        
+        /**
+         * Constructor del avance.
+         * 
+         * @param progreso Seguimiento que recibe el avance
+         * @param base     Registros escritos antes de este archivo
+         * @param total    Total aproximado de registros de la exportación
+         */
+        private Avance(IProgresoExportacion progreso, long base, long total) {
+            this.progreso = progreso;
+            this.base = base;
+            this.total = total;
+        }
+        
+        /**
+         * Cuenta un registro escrito.
+         * 
+         * @throws CancellationException Si se solicitó cancelar la exportación
+         */
+        private void contar() {
+            escritos++;
+            if (escritos % INTERVALO_PROGRESO == 0) {
+                if (progreso.isCancelada()) {
+                    throw new CancellationException("Exportación cancelada");
+                }
+                progreso.actualizar(base + escritos, Math.max(total, base + escritos));
+            }
+        }
+        
+        /**
+         * Informa el avance final de este archivo.
+         * 
+         * @return Registros escritos en este archivo
+         */
+        private long terminar() {
+            progreso.actualizar(base + escritos, Math.max(total, base + escritos));
+            return escritos;
+        }
+    }
+    
+    /**
+     * Constructor del exportador.
+     * 
+     * Este constructor exporta los datos del repositorio Singleton.
+     */
+    public ExportadorRepositorio() {
+        this(Repositorio.getInstancia());
+    }
+    
+    /**
+     * Constructor del exportador.
+     * 
+     * @param repositorio Repositorio cuyos datos se exportan
+     */
+    public ExportadorRepositorio(Repositorio repositorio) {
+        this.repositorio = repositorio;
+    }
+    
+    /**
+     * Exporta las entidades de una categoría a un archivo cuyo formato se determina por su extensión.
+     * 
+     * @param archivo   Archivo .csv, .jsonl o .ndjson de destino
+     * @param categoria Categoría de las entidades a exportar
+     * @param progreso  Seguimiento del avance y de la cancelación
+     * @return Número de entidades exportadas
+     * @throws IOException Si ocurre un error al escribir el archivo
+     * @throws CancellationException Si la exportación se canceló
+     * @throws IllegalArgumentException Si la extensión del archivo no es reconocida
+     */
+    public long exportar(Path archivo, CategoriaEntidad categoria, IProgresoExportacion progreso) throws IOException {
+        long total = totalDe(categoria, repositorio.obtenerInstantaneaEstadisticas());
+        return exportar(archivo, categoria, FormatoArchivo.desdeArchivo(archivo), new Avance(progreso, 0, total));
+    }
+    
+    /**
+     * Exporta el reporte de estadísticas del repositorio.
+     * 
+     * Con extensión .txt se escribe el mismo reporte en texto que muestra
+     * la interfaz; con .csv, .jsonl o .ndjson se escribe un registro por
+     * métrica, con el desglose de vehículos e items por tipo.
+     * 
+     * @param archivo Archivo de destino
+     * @return Número de registros escritos
+     * @throws IOException Si ocurre un error al escribir el archivo
+     * @throws IllegalArgumentException Si la extensión del archivo no es reconocida
+     */
+    public long exportarEstadisticas(Path archivo) throws IOException {
+        EstadisticasRepositorio estadisticas = repositorio.obtenerInstantaneaEstadisticas();
+        if (archivo.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".txt")) {
+            return escribirArchivo(archivo, salida -> {
+                salida.write(estadisticas.toString());
+                salida.write(System.lineSeparator());
+                return 1;
+            });
+        }
+        FormatoArchivo formato = FormatoArchivo.desdeArchivo(archivo);
+        return escribirArchivo(archivo, salida -> escribirEstadisticas(salida, formato, estadisticas));
+    }
+    
+    /**
+     * Exporta todo el repositorio a un directorio, un archivo por categoría.
+     * 
+     * Este método escribe personas, vehículos, items, publicaciones y
+     * estadísticas en archivos con el nombre de la categoría en minúsculas
+     * y la extensión del formato indicado. El avance se informa sobre el
+     * total de entidades de todas las categorías.
+     * 
+     * @param directorio Directorio de destino, que se crea si no existe
+     * @param formato    Formato de los archivos
+     * @param progreso   Seguimiento del avance y de la cancelación
+     * @return Número de entidades exportadas
+     * @throws IOException Si ocurre un error al escribir algún archivo
+     * @throws CancellationException Si la exportación se canceló
+     */
+    public long exportarTodo(Path directorio, FormatoArchivo formato, IProgresoExportacion progreso) throws IOException {
+        Files.createDirectories(directorio);
+        EstadisticasRepositorio estadisticas = repositorio.obtenerInstantaneaEstadisticas();
+        long total = 0;
+        for (CategoriaEntidad categoria : CategoriaEntidad.values()) {
+            total += totalDe(categoria, estadisticas);
+        }
+        String extension = "." + formato.name().toLowerCase(Locale.ROOT);
+        long exportados = 0;
+        for (CategoriaEntidad categoria : CategoriaEntidad.values()) {
+            Path archivo = directorio.resolve(categoria.name().toLowerCase(Locale.ROOT) + extension);
+            exportados += exportar(archivo, categoria, formato, new Avance(progreso, exportados, total));
+        }
+        escribirArchivo(directorio.resolve("estadisticas" + extension),
+                salida -> escribirEstadisticas(salida, formato, estadisticas));
+        return exportados;
+    }
+    
+    /**
+     * Exporta las entidades de una categoría en el formato indicado.
+     * 
+     * @param archivo   Archivo de destino
+     * @param categoria Categoría de las entidades a exportar
+     * @param formato   Formato del archivo
+     * @param avance    Contador de registros escritos
+     * @return Número de entidades exportadas
+     * @throws IOException Si ocurre un error al escribir el archivo
+     */
+    private long exportar(Path archivo, CategoriaEntidad categoria, FormatoArchivo formato,
+                          Avance avance) throws IOException {
+        Map<Object, String> propietarios = categoria == CategoriaEntidad.PERSONAS
+                ? Map.of()
+                : propietariosDe(categoria);
+        return escribirArchivo(archivo, salida -> {
+            List<String> columnas = categoria.getColumnas();
+            if (formato == FormatoArchivo.CSV) {
+                salida.write(String.join(",", columnas));
+                salida.write('\n');
+            }
+            Object[] valores = new Object[columnas.size()];
+            try {
+                switch (categoria) {
+                    case PERSONAS:
+                        repositorio.recorrerPersonas(persona -> {
+                            valores[0] = persona.getCedula();
+                            valores[1] = persona.getNombre();
+                            valores[2] = persona.getTelefono();
+                            valores[3] = persona.getPassword();
+                            valores[4] = persona.getEmail();
+                            valores[5] = persona.getRol();
+                            escribirRegistro(salida, formato, columnas, valores, avance);
+                        });
+                        break;
+                    case VEHICULOS:
+                        repositorio.recorrerVehiculos(vehiculo -> {
+                            valores[0] = vehiculo.getId();
+                            valores[1] = vehiculo.getTipo();
+                            valores[2] = vehiculo.getMarca();
+                            valores[3] = vehiculo.getModelo();
+                            valores[4] = vehiculo.getAutonomiaKm();
+                            valores[5] = propietarios.get(vehiculo);
+                            escribirRegistro(salida, formato, columnas, valores, avance);
+                        });
+                        break;
+                    case ITEMS:
+                        repositorio.recorrerItems(item -> {
+                            valores[0] = item.getId();
+                            valores[1] = item.getTipo();
+                            valores[2] = item.getNombre();
+                            valores[3] = item.getDescripcion();
+                            valores[4] = propietarios.get(item);
+                            escribirRegistro(salida, formato, columnas, valores, avance);
+                        });
+                        break;
+                    default:
+                        repositorio.recorrerPublicaciones(publicacion -> {
+                            valores[0] = publicacion.getId();
+                            valores[1] = publicacion.getTipo();
+                            valores[2] = publicacion.getTitulo();
+                            valores[3] = publicacion.getDescripcion();
+                            valores[4] = publicacion.getFechaCreacion();
+                            valores[5] = propietarios.get(publicacion);
+                            escribirRegistro(salida, formato, columnas, valores, avance);
+                        });
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return avance.terminar();
+        });
+    }
+    
+    /**
+     * Obtiene la cédula del propietario de cada entidad de una categoría que tiene uno.
+     * 
+     * El mapa solo contiene las entidades asociadas a algún usuario o
+     * proveedor, por lo que su tamaño depende de las relaciones y no del
+     * total de entidades. Si una entidad pertenece a varios, se conserva
+     * el primero en orden de registro.
+     * 
+     * @param categoria Categoría de las entidades
+     * @return Mapa por identidad de cada entidad a la cédula de su propietario
+     */
+    private Map<Object, String> propietariosDe(CategoriaEntidad categoria) {
+        Map<Object, String> propietarios = new IdentityHashMap<>();
+        repositorio.recorrerPersonas(persona -> {
+            List<?> propias = List.of();
+            if (categoria == CategoriaEntidad.VEHICULOS && persona instanceof Usuario) {
+                propias = ((Usuario) persona).getVehiculos();
+            } else if (categoria == CategoriaEntidad.ITEMS && persona instanceof Proveedor) {
+                propias = ((Proveedor) persona).getItems();
+            } else if (categoria == CategoriaEntidad.PUBLICACIONES && persona instanceof Proveedor) {
+                propias = ((Proveedor) persona).getPublicaciones();
+            }
+            for (Object entidad : propias) {
+                propietarios.putIfAbsent(entidad, persona.getCedula());
+            }
+        });
+        return propietarios;
+    }
+    
+    /**
+     * Escribe un registro en el formato indicado y lo cuenta en el avance.
+     * 
+     * @param salida   Destino de la escritura
+     * @param formato  Formato del archivo
+     * @param columnas Columnas del registro
+     * @param valores  Valor de cada columna
+     * @param avance   Contador de registros escritos
+     * @throws UncheckedIOException Si ocurre un error de escritura
+     */
+    private static void escribirRegistro(Writer salida, FormatoArchivo formato, List<String> columnas,
+                                         Object[] valores, Avance avance) {
+        try {
+            if (formato == FormatoArchivo.CSV) {
+                for (int i = 0; i < valores.length; i++) {
+                    if (i > 0) {
+                        salida.write(',');
+                    }
+                    salida.write(TextoCsv.escapar(valores[i] != null ? valores[i].toString() : null));
+                }
+            } else {
+                EscritorJson.escribirObjeto(salida, columnas, valores);
+            }
+            salida.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        avance.contar();
+    }
+    
+    /**
+     * Escribe las estadísticas del repositorio, un registro por métrica.
+     * 
+     * @param salida       Destino de la escritura
+     * @param formato      Formato del archivo
+     * @param estadisticas Estadísticas a escribir
+     * @return Número de registros escritos
+     * @throws IOException Si ocurre un error de escritura
+     */
+    private static long escribirEstadisticas(Writer salida, FormatoArchivo formato,
+                                             EstadisticasRepositorio estadisticas) throws IOException {
+        if (formato == FormatoArchivo.CSV) {
+            salida.write(String.join(",", COLUMNAS_ESTADISTICAS));
+            salida.write('\n');
+        }
+        Avance avance = new Avance(IProgresoExportacion.NINGUNO, 0, 0);
+        try {
+            escribirMetrica(salida, formato, "personas", null, estadisticas.getPersonas(), avance);
+            escribirMetrica(salida, formato, "usuarios", null, estadisticas.getUsuarios(), avance);
+            escribirMetrica(salida, formato, "administradores", null, estadisticas.getAdministradores(), avance);
+            escribirMetrica(salida, formato, "proveedores", null, estadisticas.getProveedores(), avance);
+            escribirMetrica(salida, formato, "vehiculos", null, estadisticas.getVehiculos(), avance);
+            for (Map.Entry<String, Long> tipo : estadisticas.getVehiculosPorTipo().entrySet()) {
+                escribirMetrica(salida, formato, "vehiculos", tipo.getKey(), tipo.getValue(), avance);
+            }
+            escribirMetrica(salida, formato, "items", null, estadisticas.getItems(), avance);
+            for (Map.Entry<String, Long> tipo : estadisticas.getItemsPorTipo().entrySet()) {
+                escribirMetrica(salida, formato, "items", tipo.getKey(), tipo.getValue(), avance);
+            }
+            escribirMetrica(salida, formato, "publicaciones", null, estadisticas.getPublicaciones(), avance);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return avance.terminar();
+    }
+    
+    /**
+     * Escribe el registro de una métrica de las estadísticas.
+     * 
+     * @param salida   Destino de la escritura
+     * @param formato  Formato del archivo
+     * @param metrica  Nombre de la métrica
+     * @param tipo     Tipo de entidad del desglose, o null para el total
+     * @param cantidad Valor de la métrica
+     * @param avance   Contador de registros escritos
+     */
+    private static void escribirMetrica(Writer salida, FormatoArchivo formato, String metrica, String tipo,
+                                        long cantidad, Avance avance) {
+        escribirRegistro(salida, formato, COLUMNAS_ESTADISTICAS, new Object[] {metrica, tipo, cantidad}, avance);
+    }
+    
+    /**
+     * Escribe un archivo a través de un canal con búfer, reemplazando el destino solo al terminar.
+     * 
+     * @param archivo   Archivo de destino
+     * @param contenido Escritura del contenido
+     * @return Número de registros escritos
+     * @throws IOException Si ocurre un error al escribir o mover el archivo
+     */
+    private static long escribirArchivo(Path archivo, Contenido contenido) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        boolean completo = false;
+        try {
+            long escritos;
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 Writer salida = new BufferedWriter(
+                         Channels.newWriter(canal, StandardCharsets.UTF_8.newEncoder(), -1), 1 << 16)) {
+                escritos = contenido.escribir(salida);
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            completo = true;
+            return escritos;
+        } finally {
+            if (!completo) {
+                Files.deleteIfExists(temporal);
+            }
+        }
+    }
+    
+    /**
+     * Obtiene el número de entidades de una categoría según las estadísticas.
+     * 
+     * @param categoria    Categoría de las entidades
+     * @param estadisticas Estadísticas del repositorio
+     * @return Número de entidades de la categoría
+     */
+    private static long totalDe(CategoriaEntidad categoria, EstadisticasRepositorio estadisticas) {
+        switch (categoria) {
+            case PERSONAS:
+                return estadisticas.getPersonas();
+            case VEHICULOS:
+                return estadisticas.getVehiculos();
+            case ITEMS:
+                return estadisticas.getItems();
+            default:
+                return estadisticas.getPublicaciones();
+        }
+    }
+}
\ No newline at end of file
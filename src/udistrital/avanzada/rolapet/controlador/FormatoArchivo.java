@@ -0,0 +1,43 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Formatos de archivo de la importación y exportación en bloque.
+ * 
+ * Ambos formatos tienen un registro por línea, lo que permite leerlos y
+ * escribirlos como flujo sin cargar el archivo completo en memoria.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public enum FormatoArchivo {
+    
+    /** Valores separados por comas con una fila de encabezado */
+    CSV,
+    
+    /** Un objeto JSON por línea */
+    JSONL;
+    
+    /**
+     * Determina el formato de un archivo a partir de su extensión.
+     * 
+     * Se reconocen las extensiones .csv, .jsonl y .ndjson.
+     * 
+     * @param archivo El archivo
+     * @return El formato correspondiente
+     * @throws IllegalArgumentException Si la extensión no corresponde a ningún formato
+     */
+    public static FormatoArchivo desdeArchivo(Path archivo) {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".csv")) {
+            return CSV;
+        }
+        if (nombre.endsWith(".jsonl") || nombre.endsWith(".ndjson")) {
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Formato de archivo no soportado: " + archivo.getFileName());
+    }
+}
\ No newline at end of file
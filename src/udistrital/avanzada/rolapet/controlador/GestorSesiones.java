@@ -0,0 +1,273 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import udistrital.avanzada.rolapet.modelo.Persona;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Gestor de las sesiones iniciadas, con vencimiento por inactividad y por duración máxima.
+ * 
+ * Cada sesión se emite con un token aleatorio de 256 bits codificado en
+ * Base64 y se guarda en un mapa concurrente por token, por lo que buscarla
+ * cuesta una consulta al mapa y usarla solo actualiza un campo volátil.
+ * 
+ * Los vencimientos se llevan en una rueda de tiempo de {@link #RANURAS}
+ * ranuras que en una vuelta cubre el tiempo de inactividad. Cada sesión se
+ * programa en la ranura de su vencimiento; al pasar por esa ranura se
+ * recalcula su vencimiento con su último uso y, si todavía no venció, se
+ * vuelve a programar. Así usar una sesión no mueve nada en la rueda, y
+ * una sesión activa solo se revisa alrededor de una vez por cada período
+ * de inactividad. La rueda no tiene un hilo propio: avanza con las
+ * llamadas al gestor, y solo un hilo a la vez barre las ranuras vencidas.
+ * Aunque una sesión vencida siga en el mapa hasta que se barra su ranura,
+ * el gestor la rechaza y la cierra al intentar usarla.
+ * 
+ * Una sesión solo sirve mientras su persona siga registrada: al usarla o
+ * al barrer su ranura se consulta si la persona sigue registrada, y si se
+ * eliminó la sesión se cierra, aunque no haya vencido.
+ * 
+ * Cada sesión ocupa alrededor de 130 bytes entre el token, la sesión, la
+ * entrada del mapa y su nodo en la rueda, por lo que 100000 sesiones
+ * ocupan del orden de 13 MB.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class GestorSesiones {
+    
+    /** Tiempo máximo sin uso por omisión de una sesión, en milisegundos */
+    static final long INACTIVIDAD_POR_OMISION_MS = TimeUnit.MINUTES.toMillis(30);
+    
+    /** Duración máxima por omisión de una sesión, en milisegundos */
+    static final long DURACION_MAXIMA_POR_OMISION_MS = TimeUnit.HOURS.toMillis(12);
+    
+    /** Cantidad de ranuras de la rueda de tiempo */
+    private static final int RANURAS = 1024;
+    
+    /** Longitud del token en bytes */
+    private static final int LONGITUD_TOKEN = 32;
+    
+    /** Sesiones abiertas por token */
+    private final Map<String, Sesion> sesiones;
+    
+    /** Ranuras de la rueda de tiempo, con las sesiones programadas en cada una */
+    private final Queue<Sesion>[] ranuras;
+    
+    /** Duración de cada ranura de la rueda, en milisegundos */
+    private final long tic;
+    
+    /** Número del siguiente tic de la rueda que falta barrer */
+    private final AtomicLong siguienteTic;
+    
+    /** Tiempo máximo sin uso de una sesión, en milisegundos */
+    private final long inactividadMs;
+    
+    /** Duración máxima de una sesión, en milisegundos */
+    private final long duracionMaximaMs;
+    
+    /** Indica si una persona sigue registrada y sus sesiones siguen sirviendo */
+    private final Predicate<Persona> registrada;
+    
+    /** Reloj del gestor, en milisegundos */
+    private final LongSupplier reloj;
+    
+    /** Generador de tokens */
+    private final SecureRandom aleatorio;
+    
+    /**
+     * Constructor del gestor con el reloj del sistema.
+     * 
+     * @param inactividadMs    Tiempo máximo sin uso de una sesión, en milisegundos
+     * @param duracionMaximaMs Duración máxima de una sesión, en milisegundos
+     * @param registrada       Indica si una persona sigue registrada
+     * @throws IllegalArgumentException Si algún tiempo no es positivo
+     */
+    GestorSesiones(long inactividadMs, long duracionMaximaMs, Predicate<Persona> registrada) {
+        this(inactividadMs, duracionMaximaMs, registrada, System::currentTimeMillis);
+    }
+    
+    /**
+     * Constructor del gestor con un reloj dado.
+     * 
+     * @param inactividadMs    Tiempo máximo sin uso de una sesión, en milisegundos
+     * @param duracionMaximaMs Duración máxima de una sesión, en milisegundos
+     * @param registrada       Indica si una persona sigue registrada
+     * @param reloj            Reloj del gestor, en milisegundos
+     * @throws IllegalArgumentException Si algún tiempo no es positivo
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    GestorSesiones(long inactividadMs, long duracionMaximaMs, Predicate<Persona> registrada, LongSupplier reloj) {
+        if (inactividadMs <= 0 || duracionMaximaMs <= 0) {
+            throw new IllegalArgumentException("Los tiempos de vencimiento de las sesiones deben ser positivos");
+        }
+        this.sesiones = new ConcurrentHashMap<>();
+        this.ranuras = new Queue[RANURAS];
+        for (int i = 0; i < RANURAS; i++) {
+            ranuras[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tic = Math.max(1, inactividadMs / RANURAS);
+        this.inactividadMs = inactividadMs;
+        this.duracionMaximaMs = duracionMaximaMs;
+        this.registrada = registrada;
+        this.reloj = reloj;
+        this.aleatorio = new SecureRandom();
+        this.siguienteTic = new AtomicLong(reloj.getAsLong() / tic);
+    }
+    
+    /**
+     * Inicia una sesión para una persona autenticada.
+     * 
+     * @param persona La persona autenticada
+     * @return La sesión iniciada
+     * @throws IllegalArgumentException Si la persona es nula
+     */
+    Sesion iniciar(Persona persona) {
+        if (persona == null) {
+            throw new IllegalArgumentException("La persona de una sesión no puede ser nula");
+        }
+        long ahora = reloj.getAsLong();
+        barrer(ahora);
+        byte[] bytes = new byte[LONGITUD_TOKEN];
+        Sesion sesion;
+        do {
+            aleatorio.nextBytes(bytes);
+            sesion = new Sesion(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), persona, ahora);
+        } while (sesiones.putIfAbsent(sesion.getToken(), sesion) != null);
+        programar(sesion, sesion.vence(inactividadMs, duracionMaximaMs));
+        return sesion;
+    }
+    
+    /**
+     * Obtiene la sesión abierta de un token y registra su uso.
+     * 
+     * @param token El token de la sesión
+     * @return La sesión, o null si el token no corresponde a una sesión abierta
+     */
+    Sesion obtener(String token) {
+        Sesion sesion = token != null ? sesiones.get(token) : null;
+        if (sesion == null) {
+            barrer(reloj.getAsLong());
+            return null;
+        }
+        return usar(sesion) ? sesion : null;
+    }
+    
+    /**
+     * Verifica que una sesión siga abierta y registra su uso.
+     * 
+     * Este método no consulta el mapa de sesiones: basta con la sesión
+     * que se obtuvo al iniciarla o con {@link #obtener(String)}. Si la
+     * sesión venció o su persona ya no está registrada, se cierra.
+     * 
+     * @param sesion La sesión
+     * @return true si la sesión sigue abierta
+     */
+    boolean usar(Sesion sesion) {
+        if (sesion == null || sesion.isCerrada()) {
+            return false;
+        }
+        long ahora = reloj.getAsLong();
+        barrer(ahora);
+        if (sesion.vence(inactividadMs, duracionMaximaMs) <= ahora || !registrada.test(sesion.getPersona())) {
+            descartar(sesion);
+            return false;
+        }
+        sesion.usar(ahora);
+        return true;
+    }
+    
+    /**
+     * Cierra la sesión de un token.
+     * 
+     * @param token El token de la sesión
+     * @return true si el token correspondía a una sesión abierta
+     */
+    boolean cerrar(String token) {
+        Sesion sesion = token != null ? sesiones.remove(token) : null;
+        if (sesion == null || sesion.isCerrada()) {
+            return false;
+        }
+        sesion.cerrar();
+        return true;
+    }
+    
+    /**
+     * Obtiene la cantidad de sesiones guardadas.
+     * 
+     * Incluye las sesiones vencidas cuya ranura aún no se ha barrido.
+     * 
+     * @return La cantidad de sesiones guardadas
+     */
+    int cantidad() {
+        return sesiones.size();
+    }
+    
+    /**
+     * Programa una sesión en la ranura de la rueda que corresponde a un instante.
+     * 
+     * La ranura es la del primer tic posterior al instante, de modo que al
+     * barrerla el instante ya pasó.
+     * 
+     * @param sesion La sesión
+     * @param vence  Instante de vencimiento de la sesión, en milisegundos
+     */
+    private void programar(Sesion sesion, long vence) {
+        ranuras[(int) ((vence / tic + 1) % RANURAS)].add(sesion);
+    }
+    
+    /**
+     * Barre las ranuras de los tics transcurridos hasta un instante.
+     * 
+     * Si otro hilo ya está barriendo esos tics, este método no hace nada.
+     * Tras una pausa larga se barre como máximo una vuelta de la rueda,
+     * que pasa por todas las ranuras.
+     * 
+     * @param ahora Instante actual, en milisegundos
+     */
+    private void barrer(long ahora) {
+        long actual = ahora / tic;
+        long siguiente = siguienteTic.get();
+        if (siguiente > actual || !siguienteTic.compareAndSet(siguiente, actual + 1)) {
+            return;
+        }
+        List<Sesion> pendientes = new ArrayList<>();
+        for (long t = Math.max(siguiente, actual - RANURAS + 1); t <= actual; t++) {
+            Queue<Sesion> ranura = ranuras[(int) (t % RANURAS)];
+            for (Sesion sesion = ranura.poll(); sesion != null; sesion = ranura.poll()) {
+                pendientes.add(sesion);
+            }
+        }
+        for (Sesion sesion : pendientes) {
+            if (sesion.isCerrada()) {
+                continue;
+            }
+            long vence = sesion.vence(inactividadMs, duracionMaximaMs);
+            if (vence <= ahora || !registrada.test(sesion.getPersona())) {
+                descartar(sesion);
+            } else {
+                programar(sesion, vence);
+            }
+        }
+    }
+    
+    /**
+     * Cierra una sesión vencida o de una persona eliminada y la retira del mapa de sesiones.
+     * 
+     * @param sesion La sesión a descartar
+     */
+    private void descartar(Sesion sesion) {
+        sesion.cerrar();
+        sesiones.remove(sesion.getToken(), sesion);
+    }
+}
\ No newline at end of file
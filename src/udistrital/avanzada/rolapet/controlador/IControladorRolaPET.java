@@ -1,7 +1,10 @@
 package udistrital.avanzada.rolapet.controlador;
 
 import udistrital.avanzada.rolapet.modelo.*;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Interfaz que define el contrato de servicio para el controlador del sistema RolaPet.
@@ -19,6 +22,22 @@ public interface IControladorRolaPET {
     
     // === MÉTODOS DE AUTENTICACIÓN ===
     
+    /**
+     * Autentica a una persona de cualquier rol utilizando su credencial y contraseña.
+     * 
+     * Este método resuelve el rol a partir de la credencial: los usuarios
+     * inician sesión con su email, los administradores con su cédula y los
+     * proveedores con su cédula o su email. Es utilizado por la vista para
+     * iniciar sesión sin que la persona indique su rol.
+     * 
+     * @param credencial Email o cédula de la persona
+     * @param password   Contraseña de acceso de la persona
+     * @return La persona autenticada, cuyo rol indica getRol(), o null si
+     *         las credenciales son inválidas
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
+     */
+    Persona autenticar(String credencial, String password);
+    
     /**
      * Autentica un usuario en el sistema utilizando email y contraseña.
      * 
@@ -29,6 +48,7 @@ public interface IControladorRolaPET {
      * @param email    Dirección de correo electrónico del usuario
      * @param password Contraseña de acceso del usuario
      * @return El usuario autenticado o null si las credenciales son inválidas
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
      */
     Usuario autenticarUsuario(String email, String password);
     
@@ -42,22 +62,116 @@ public interface IControladorRolaPET {
      * @param cedula   Cédula de identificación del administrador
      * @param password Contraseña de acceso del administrador
      * @return El administrador autenticado o null si las credenciales son inválidas
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
      */
     Administrador autenticarAdministrador(String cedula, String password);
     
     /**
-     * Autentica un proveedor en el sistema utilizando cédula y contraseña.
+     * Autentica un proveedor en el sistema utilizando cédula o email y contraseña.
      * 
      * Este método verifica las credenciales del proveedor y devuelve
      * el objeto Proveedor si la autenticación es exitosa. Es utilizado
      * por la vista para permitir el acceso de proveedores al sistema.
      * 
-     * @param cedula   Cédula de identificación del proveedor
+     * @param cedula   Cédula de identificación o email del proveedor
      * @param password Contraseña de acceso del proveedor
      * @return El proveedor autenticado o null si las credenciales son inválidas
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
      */
     Proveedor autenticarProveedor(String cedula, String password);
     
+    // === MÉTODOS DE SESIÓN ===
+    
+    /**
+     * Autentica a una persona de cualquier rol e inicia una sesión para ella.
+     * 
+     * La sesión queda ligada a la persona autenticada, por lo que las
+     * operaciones que reciben la sesión no vuelven a buscarla. La sesión
+     * vence tras un tiempo sin uso o al cumplir su duración máxima.
+     * 
+     * @param credencial Email o cédula de la persona
+     * @param password   Contraseña de acceso de la persona
+     * @return La sesión iniciada o null si las credenciales son inválidas
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
+     */
+    Sesion iniciarSesion(String credencial, String password);
+    
+    /**
+     * Autentica a una persona desde un origen dado e inicia una sesión para ella.
+     * 
+     * Los intentos se limitan por cuenta y por origen: un origen que hace
+     * demasiados intentos seguidos, o una cuenta con demasiados fallos
+     * seguidos, se rechaza sin verificar la contraseña hasta que pasa un
+     * tiempo. Un intento rechazado lanza una excepción con la espera para
+     * reintentar, de modo que se distingue de uno inválido. Si el servidor
+     * está saturado de verificaciones de contraseña, el intento se rechaza
+     * con otra excepción y no cuenta como fallo.
+     * 
+     * @param credencial Email o cédula de la persona
+     * @param password   Contraseña de acceso de la persona
+     * @param origen     Origen del intento, por ejemplo la dirección remota
+     * @return La sesión iniciada o null si las credenciales son inválidas
+     * @throws IntentosExcedidosException Si el limitador de intentos rechazó el intento
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones de contraseña en espera
+     */
+    Sesion iniciarSesion(String credencial, String password, String origen);
+    
+    /**
+     * Obtiene la sesión abierta que corresponde a un token.
+     * 
+     * @param token El token de la sesión
+     * @return La sesión o null si el token no corresponde a una sesión abierta
+     */
+    Sesion obtenerSesion(String token);
+    
+    /**
+     * Cierra la sesión que corresponde a un token.
+     * 
+     * @param token El token de la sesión
+     * @return true si el token correspondía a una sesión abierta
+     */
+    boolean cerrarSesion(String token);
+    
+    /**
+     * Agrega un amigo al usuario de una sesión.
+     * 
+     * @param sesion      La sesión del usuario que agrega al amigo
+     * @param cedulaAmigo Cédula del usuario a agregar como amigo
+     * @return true si se agregó exitosamente, false si la sesión no está
+     *         abierta, no es de un usuario o la amistad no se agregó
+     */
+    boolean agregarAmigo(Sesion sesion, String cedulaAmigo);
+    
+    /**
+     * Elimina un amigo del usuario de una sesión.
+     * 
+     * @param sesion      La sesión del usuario que elimina al amigo
+     * @param cedulaAmigo Cédula del usuario a eliminar de amigos
+     * @return true si se eliminó exitosamente, false si la sesión no está
+     *         abierta, no es de un usuario o la amistad no existía
+     */
+    boolean eliminarAmigo(Sesion sesion, String cedulaAmigo);
+    
+    /**
+     * Obtiene la lista de amigos del usuario de una sesión.
+     * 
+     * @param sesion La sesión del usuario
+     * @return Lista de amigos del usuario, vacía si la sesión no está
+     *         abierta o no es de un usuario
+     */
+    List<Usuario> obtenerAmigos(Sesion sesion);
+    
+    /**
+     * Recomienda amigos al usuario de una sesión.
+     * 
+     * @param sesion   La sesión del usuario
+     * @param cantidad Cantidad máxima de recomendaciones
+     * @return Lista de recomendaciones, vacía si la sesión no está abierta
+     *         o no es de un usuario
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<RecomendacionAmigo> recomendarAmigos(Sesion sesion, int cantidad);
+    
     // === MÉTODOS DE REGISTRO ===
     
     /**
@@ -76,6 +190,28 @@ public interface IControladorRolaPET {
      */
     boolean registrarUsuario(String cedula, String nombre, String telefono, String password, String email);
     
+    /**
+     * Registra un nuevo usuario desde un origen dado, limitando los registros por origen.
+     * 
+     * Cada registro consume un intento del origen, de la misma cuenta de
+     * intentos que los inicios de sesión: un origen que hace demasiados
+     * intentos seguidos se rechaza sin registrar nada hasta que pasa un
+     * tiempo. Un registro rechazado lanza una excepción con la espera para
+     * reintentar, de modo que se distingue de uno inválido.
+     * 
+     * @param cedula   Cédula de identificación del usuario
+     * @param nombre   Nombre completo del usuario
+     * @param telefono Número de teléfono del usuario
+     * @param password Contraseña de acceso del usuario
+     * @param email    Dirección de correo electrónico del usuario
+     * @param origen   Origen del registro, por ejemplo la dirección remota
+     * @return true si el registro fue exitoso, false si los datos no son
+     *         válidos o ya existe el usuario
+     * @throws IntentosExcedidosException Si el limitador de intentos rechazó el registro
+     */
+    boolean registrarUsuario(String cedula, String nombre, String telefono, String password, String email,
+                             String origen);
+    
     /**
      * Registra un nuevo administrador en el sistema.
      * 
@@ -115,7 +251,8 @@ public interface IControladorRolaPET {
      * 
      * Este método permite a un usuario agregar otro usuario como amigo,
      * estableciendo una relación social en el sistema. Verifica que
-     * ambos usuarios existan y que no sean la misma persona.
+     * ambos usuarios existan y que no sean la misma persona. La amistad
+     * es recíproca: cada usuario queda en la lista de amigos del otro.
      * 
      * @param cedulaUsuarioActual Cédula del usuario que agrega al amigo
      * @param cedulaAmigo         Cédula del usuario a agregar como amigo
@@ -127,7 +264,8 @@ public interface IControladorRolaPET {
      * Elimina un amigo de la lista de amigos de un usuario.
      * 
      * Este método permite a un usuario remover otro usuario de su
-     * lista de amigos, terminando la relación social.
+     * lista de amigos, terminando la relación social. La amistad se
+     * termina para ambos usuarios.
      * 
      * @param cedulaUsuarioActual Cédula del usuario que elimina al amigo
      * @param cedulaAmigo         Cédula del usuario a eliminar de amigos
@@ -146,6 +284,108 @@ public interface IControladorRolaPET {
      */
     List<Usuario> obtenerAmigos(String cedulaUsuario);
     
+    /**
+     * Importa la lista de contactos de un usuario como amigos.
+     * 
+     * Este método hace amigo del usuario a cada contacto que sea un usuario
+     * registrado, de forma recíproca y en un solo lote, por lo que importar
+     * miles de contactos no recorre ni copia la lista de amigos una vez por
+     * contacto. Se ignoran las cédulas que no corresponden a usuarios.
+     * 
+     * @param cedulaUsuario    Cédula del usuario que importa sus contactos
+     * @param cedulasContactos Cédulas de los contactos
+     * @return La cantidad de amistades nuevas
+     */
+    int importarContactos(String cedulaUsuario, List<String> cedulasContactos);
+    
+    /**
+     * Registra un oyente que recibe los cambios de amistades aplicados.
+     * 
+     * @param oyente El oyente a registrar
+     * @throws IllegalArgumentException Si el oyente es nulo
+     */
+    void agregarOyenteAmistades(IOyenteAmistades oyente);
+    
+    /**
+     * Obtiene los amigos en común entre dos usuarios.
+     * 
+     * @param cedulaA Cédula del primer usuario
+     * @param cedulaB Cédula del segundo usuario
+     * @return Lista de los usuarios que son amigos de ambos, vacía si alguno no existe
+     */
+    List<Usuario> obtenerAmigosEnComun(String cedulaA, String cedulaB);
+    
+    /**
+     * Cuenta los amigos en común entre dos usuarios.
+     * 
+     * @param cedulaA Cédula del primer usuario
+     * @param cedulaB Cédula del segundo usuario
+     * @return La cantidad de amigos en común, 0 si alguno no existe
+     */
+    int contarAmigosEnComun(String cedulaA, String cedulaB);
+    
+    /**
+     * Recomienda a un usuario personas que quizá conozca.
+     * 
+     * Este método sugiere los amigos de los amigos del usuario que aún no
+     * son sus amigos, de los que tienen más amigos en común a los que
+     * tienen menos.
+     * 
+     * @param cedulaUsuario Cédula del usuario
+     * @param cantidad      Cantidad máxima de recomendaciones
+     * @return Lista de recomendaciones, vacía si el usuario no existe
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<RecomendacionAmigo> recomendarAmigos(String cedulaUsuario, int cantidad);
+    
+    /**
+     * Precalcula en paralelo las recomendaciones de amigos de todos los usuarios.
+     * 
+     * @param cantidad Cantidad de recomendaciones a precalcular por usuario
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    void precalcularRecomendaciones(int cantidad);
+    
+    /**
+     * Calcula los grados de separación entre dos usuarios.
+     * 
+     * @param cedulaOrigen  Cédula del usuario de partida
+     * @param cedulaDestino Cédula del usuario buscado
+     * @param maximoSaltos  Cantidad máxima de saltos a considerar
+     * @return La cantidad de saltos entre ambos, o -1 si alguno no existe o no
+     *         están conectados en como máximo maximoSaltos saltos
+     * @throws IllegalArgumentException Si la cantidad máxima de saltos es negativa
+     */
+    int calcularGradosDeSeparacion(String cedulaOrigen, String cedulaDestino, int maximoSaltos);
+    
+    /**
+     * Obtiene la cadena de amigos que conecta a dos usuarios.
+     * 
+     * Este método permite mostrar "cómo están conectados" dos usuarios.
+     * 
+     * @param cedulaOrigen  Cédula del usuario de partida
+     * @param cedulaDestino Cédula del usuario buscado
+     * @param maximoSaltos  Cantidad máxima de saltos a considerar
+     * @return Lista de usuarios desde el origen hasta el destino, vacía si alguno
+     *         no existe o no están conectados en como máximo maximoSaltos saltos
+     * @throws IllegalArgumentException Si la cantidad máxima de saltos es negativa
+     */
+    List<Usuario> obtenerCaminoDeAmistad(String cedulaOrigen, String cedulaDestino, int maximoSaltos);
+    
+    /**
+     * Verifica si dos usuarios están conectados en a lo sumo una cantidad de saltos.
+     * 
+     * Este método permite limitar las solicitudes de amistad a usuarios
+     * cercanos en la red de amigos.
+     * 
+     * @param cedulaOrigen  Cédula del usuario de partida
+     * @param cedulaDestino Cédula del usuario buscado
+     * @param saltos        Cantidad máxima de saltos
+     * @return true si ambos existen y están a como máximo esa cantidad de saltos
+     * @throws IllegalArgumentException Si la cantidad de saltos es negativa
+     */
+    boolean estanAMenosDeSaltos(String cedulaOrigen, String cedulaDestino, int saltos);
+    
     // === MÉTODOS DE GESTIÓN DE VEHÍCULOS ===
     
     /**
@@ -330,4 +570,395 @@ public interface IControladorRolaPET {
      * @return String con las estadísticas detalladas del sistema
      */
     String obtenerEstadisticasSistema();
-}
+    
+    /**
+     * Obtiene las estadísticas del sistema en forma estructurada.
+     * 
+     * Este método devuelve una instantánea con los conteos de cada
+     * categoría de entidades, incluyendo el desglose de vehículos e items
+     * por tipo. Es económica de obtener, por lo que es adecuada para
+     * herramientas de monitoreo que consultan el sistema con frecuencia.
+     * 
+     * @return Instantánea de las estadísticas del sistema
+     */
+    EstadisticasRepositorio obtenerEstadisticasDetalladas();
+    
+    // === MÉTODOS DE PAGINACIÓN ===
+    
+    /**
+     * Obtiene una página de las personas (usuarios, administradores y proveedores) del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    Pagina<Persona> obtenerPaginaPersonas(CriterioOrden<? super Persona> criterio, int numero, int tamano);
+    
+    /**
+     * Obtiene la página de las personas del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer las personas página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    Pagina<Persona> obtenerPaginaPersonas(CriterioOrden<? super Persona> criterio, String cursor, int tamano);
+    
+    /**
+     * Obtiene una página de los vehículos del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    Pagina<Vehiculo> obtenerPaginaVehiculos(CriterioOrden<? super Vehiculo> criterio, int numero, int tamano);
+    
+    /**
+     * Obtiene la página de los vehículos del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer los vehículos página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    Pagina<Vehiculo> obtenerPaginaVehiculos(CriterioOrden<? super Vehiculo> criterio, String cursor, int tamano);
+    
+    /**
+     * Obtiene una página de los items (servicios y productos) del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    Pagina<Item> obtenerPaginaItems(CriterioOrden<? super Item> criterio, int numero, int tamano);
+    
+    /**
+     * Obtiene la página de los items del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer los items página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    Pagina<Item> obtenerPaginaItems(CriterioOrden<? super Item> criterio, String cursor, int tamano);
+    
+    /**
+     * Obtiene una página de las publicaciones (eventos y promociones) del sistema por su número.
+     * 
+     * Este método devuelve solo los elementos de la página solicitada,
+     * en orden de registro o según el criterio indicado, y el total de
+     * elementos para calcular el número de páginas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    Pagina<Publicacion> obtenerPaginaPublicaciones(CriterioOrden<? super Publicacion> criterio, int numero, int tamano);
+    
+    /**
+     * Obtiene la página de las publicaciones del sistema que sigue a un cursor.
+     * 
+     * Este método permite recorrer las publicaciones página por página con el
+     * cursor que devuelve cada página, sin saltos ni repeticiones aunque
+     * entre tanto se registren o eliminen elementos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    Pagina<Publicacion> obtenerPaginaPublicaciones(CriterioOrden<? super Publicacion> criterio, String cursor, int tamano);
+    
+    // === MÉTODOS DE CONSULTA FILTRADA ===
+    
+    /**
+     * Crea una consulta sobre las personas del sistema (usuarios, administradores y proveedores).
+     * 
+     * Este método permite filtrar las personas con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    Consulta<Persona> consultarPersonas();
+    
+    /**
+     * Crea una consulta sobre los usuarios del sistema.
+     * 
+     * Este método permite filtrar los usuarios con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    Consulta<Usuario> consultarUsuarios();
+    
+    /**
+     * Crea una consulta sobre los administradores del sistema.
+     * 
+     * Este método permite filtrar los administradores con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    Consulta<Administrador> consultarAdministradores();
+    
+    /**
+     * Crea una consulta sobre los proveedores del sistema.
+     * 
+     * Este método permite filtrar los proveedores con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    Consulta<Proveedor> consultarProveedores();
+    
+    /**
+     * Crea una consulta sobre los vehículos del sistema.
+     * 
+     * Este método permite filtrar los vehículos con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    Consulta<Vehiculo> consultarVehiculos();
+    
+    /**
+     * Crea una consulta sobre los items del sistema (servicios y productos).
+     * 
+     * Este método permite filtrar los items con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    Consulta<Item> consultarItems();
+    
+    /**
+     * Crea una consulta sobre las publicaciones del sistema (eventos y promociones).
+     * 
+     * Este método permite filtrar las publicaciones con condiciones sobre sus
+     * campos sin recorrer la lista completa en la vista; el repositorio
+     * elige el índice más adecuado para resolver la consulta.
+     * 
+     * @return Consulta sin condiciones, a la que se agregan con donde()
+     */
+    Consulta<Publicacion> consultarPublicaciones();
+    
+    // === MÉTODOS DE SUGERENCIAS ===
+    
+    /**
+     * Sugiere las personas del sistema cuyo nombre, cédula o email empiezan por un texto.
+     * 
+     * Este método está pensado para autocompletar mientras el usuario
+     * escribe; no distingue mayúsculas ni tildes y no recorre todas las personas.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista de personas sugeridas
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<Persona> sugerirPersonas(String prefijo, int cantidad);
+    
+    /**
+     * Sugiere los usuarios del sistema cuyo nombre, cédula o email empiezan por un texto.
+     * 
+     * Este método es utilizado por el diálogo de agregar amigo para
+     * sugerir usuarios mientras se escribe.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista de usuarios sugeridos
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<Usuario> sugerirUsuarios(String prefijo, int cantidad);
+    
+    /**
+     * Sugiere los proveedores del sistema cuyo nombre, cédula o email empiezan por un texto.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista de proveedores sugeridos
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<Proveedor> sugerirProveedores(String prefijo, int cantidad);
+    
+    // === MÉTODOS DE BÚSQUEDA POR AUTONOMÍA ===
+    
+    /**
+     * Busca los vehículos del sistema cuya autonomía está dentro de un rango.
+     * 
+     * Este método permite encontrar vehículos con autonomía suficiente para
+     * un recorrido; el rango se resuelve sobre el índice de autonomía del
+     * repositorio sin recorrer todos los vehículos.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param minimoKm Autonomía mínima en kilómetros, incluida
+     * @param maximoKm Autonomía máxima en kilómetros, incluida
+     * @return Lista de vehículos de menor a mayor autonomía
+     */
+    List<Vehiculo> buscarVehiculosPorAutonomia(String tipo, int minimoKm, int maximoKm);
+    
+    /**
+     * Cuenta los vehículos del sistema cuya autonomía está dentro de un rango.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param minimoKm Autonomía mínima en kilómetros, incluida
+     * @param maximoKm Autonomía máxima en kilómetros, incluida
+     * @return La cantidad de vehículos en el rango
+     */
+    int contarVehiculosPorAutonomia(String tipo, int minimoKm, int maximoKm);
+    
+    /**
+     * Obtiene los vehículos del sistema con mayor autonomía.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param cantidad Cantidad máxima de vehículos a obtener
+     * @return Lista de vehículos de mayor a menor autonomía
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<Vehiculo> obtenerVehiculosConMayorAutonomia(String tipo, int cantidad);
+    
+    /**
+     * Obtiene la autonomía de un percentil de los vehículos del sistema.
+     * 
+     * @param tipo      Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param percentil Percentil entre 0 y 100; 50 corresponde a la mediana
+     * @return La autonomía en kilómetros del percentil, o -1 si no hay vehículos
+     * @throws IllegalArgumentException Si el percentil está fuera de rango
+     */
+    int obtenerPercentilAutonomia(String tipo, double percentil);
+    
+    // === MÉTODOS DE BÚSQUEDA POR TEXTO ===
+    
+    /**
+     * Busca los items del sistema cuyo nombre o descripción contienen todas las palabras de un texto.
+     * 
+     * La búsqueda no distingue mayúsculas ni tildes, acepta el comienzo de
+     * una palabra y ordena los resultados por relevancia, sin recorrer el
+     * catálogo completo.
+     * 
+     * @param texto  Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista de items, del más al menos relevante
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    List<Item> buscarItemsPorTexto(String texto, int limite);
+    
+    /**
+     * Busca las publicaciones del sistema cuyo título o descripción contienen todas las palabras de un texto.
+     * 
+     * La búsqueda no distingue mayúsculas ni tildes, acepta el comienzo de
+     * una palabra y ordena los resultados por relevancia, sin recorrer el
+     * catálogo completo.
+     * 
+     * @param texto  Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista de publicaciones, de la más a la menos relevante
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    List<Publicacion> buscarPublicacionesPorTexto(String texto, int limite);
+    
+    // === MÉTODOS DE IMPORTACIÓN ===
+    
+    /**
+     * Importa de forma masiva las entidades de un archivo CSV o JSON lines.
+     * 
+     * Este método valida cada fila con las mismas reglas del registro
+     * individual y guarda las filas válidas en lotes. Las filas inválidas
+     * se rechazan sin detener la importación. Puede tardar varios segundos
+     * con archivos grandes, por lo que no debe invocarse desde el hilo de
+     * eventos de la interfaz.
+     * 
+     * @param archivo   Archivo a importar (.csv, .jsonl o .ndjson)
+     * @param categoria Categoría de las entidades del archivo
+     * @return El resultado de la importación con el detalle de las filas rechazadas
+     * @throws IOException Si no se puede leer el archivo o su encabezado no es válido
+     */
+    ResultadoImportacion importarDatos(Path archivo, CategoriaEntidad categoria) throws IOException;
+    
+    // === MÉTODOS DE EXPORTACIÓN ===
+    
+    /**
+     * Exporta las entidades de una categoría a un archivo CSV o JSON lines.
+     * 
+     * Este método escribe el archivo como flujo, sin copiar las listas de
+     * entidades, y con las mismas columnas que acepta la importación. Puede
+     * tardar con repositorios grandes, por lo que debe invocarse desde un
+     * hilo de fondo; el seguimiento recibe el avance y permite cancelarla.
+     * 
+     * @param archivo   Archivo de destino (.csv, .jsonl o .ndjson)
+     * @param categoria Categoría de las entidades a exportar
+     * @param progreso  Seguimiento del avance y de la cancelación
+     * @return Número de entidades exportadas
+     * @throws IOException Si ocurre un error al escribir el archivo
+     * @throws java.util.concurrent.CancellationException Si la exportación se canceló
+     */
+    long exportarDatos(Path archivo, CategoriaEntidad categoria, IProgresoExportacion progreso) throws IOException;
+    
+    /**
+     * Exporta todo el repositorio a un directorio, un archivo por categoría.
+     * 
+     * Este método escribe personas, vehículos, items, publicaciones y el
+     * reporte de estadísticas en el formato indicado. Debe invocarse desde
+     * un hilo de fondo; el seguimiento recibe el avance y permite cancelarla.
+     * 
+     * @param directorio Directorio de destino
+     * @param formato    Formato de los archivos
+     * @param progreso   Seguimiento del avance y de la cancelación
+     * @return Número de entidades exportadas
+     * @throws IOException Si ocurre un error al escribir algún archivo
+     * @throws java.util.concurrent.CancellationException Si la exportación se canceló
+     */
+    long exportarRepositorio(Path directorio, FormatoArchivo formato, IProgresoExportacion progreso) throws IOException;
+    
+    /**
+     * Exporta el reporte de estadísticas del sistema a un archivo.
+     * 
+     * Este método escribe el reporte en texto si el archivo tiene extensión
+     * .txt, o un registro por métrica si es .csv, .jsonl o .ndjson.
+     * 
+     * @param archivo Archivo de destino
+     * @throws IOException Si ocurre un error al escribir el archivo
+     */
+    void exportarEstadisticas(Path archivo) throws IOException;
+}
\ No newline at end of file
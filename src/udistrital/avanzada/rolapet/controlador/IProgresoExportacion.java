@@ -0,0 +1,45 @@
+package udistrital.avanzada.rolapet.controlador;
+
+/**
+ * Seguimiento del avance de una exportación de datos.
+ * 
+ * La exportación informa su avance a través de esta interfaz y la consulta
+ * periódicamente para saber si debe detenerse, lo que permite mostrar una
+ * barra de progreso y ofrecer un botón de cancelar en la vista.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public interface IProgresoExportacion {
+    
+    /** Seguimiento que ignora el avance y nunca cancela */
+    IProgresoExportacion NINGUNO = new IProgresoExportacion() {
+        @Override
+        public void actualizar(long exportados, long total) {
+        }
+        
+        @Override
+        public boolean isCancelada() {
+            return false;
+        }
+    };
+    
+    /**
+     * Informa el avance de la exportación.
+     * 
+     * Este método se invoca desde el hilo que exporta, no desde el hilo de
+     * eventos de la interfaz.
+     * 
+     * @param exportados Número de registros escritos hasta ahora
+     * @param total      Número aproximado de registros a escribir
+     */
+    void actualizar(long exportados, long total);
+    
+    /**
+     * Verifica si se solicitó cancelar la exportación.
+     * 
+     * @return true si la exportación debe detenerse
+     */
+    boolean isCancelada();
+}
\ No newline at end of file
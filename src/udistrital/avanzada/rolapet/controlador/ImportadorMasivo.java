@@ -0,0 +1,671 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import udistrital.avanzada.rolapet.modelo.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importador masivo de personas, vehículos, items y publicaciones.
+ * 
+ * Esta clase lee archivos CSV o JSON lines como flujo y los procesa en
+ * bloques de {@link #TAMANO_LOTE} filas: un grupo de hilos de fondo
+ * interpreta y valida los bloques en paralelo, y el hilo que importa los
+ * confirma en el repositorio en el orden del archivo, un lote por bloque.
+ * Solo se mantiene en memoria un número acotado de bloques a la vez, por
+ * lo que el tamaño del archivo no está limitado por el heap.
+ * 
+ * En CSV, un campo entre comillas puede contener saltos de línea, como
+ * los que escribe la exportación en las descripciones: el registro
+ * continúa en las líneas siguientes hasta cerrar las comillas, sin pasar
+ * de {@link #MAXIMO_REGISTRO_CSV} caracteres. Los saltos de línea de un
+ * campo se importan como '\n'.
+ * 
+ * Cada fila se valida con las mismas reglas que aplica el controlador al
+ * registrar entidades una por una. Las filas inválidas o que repiten una
+ * clave ya registrada se rechazan sin detener la importación, y su número
+ * de línea y motivo quedan en el {@link ResultadoImportacion}. Las filas
+ * sin ID reciben uno generado. Si la fila indica un propietario, la
+ * entidad se agrega además a la colección de ese usuario o al catálogo de
+ * ese proveedor.
+ * 
+ * Las contraseñas de las personas que ya son un hash, como las que
+ * escribe el {@link ExportadorRepositorio}, se guardan tal cual. Las que
+ * vienen en texto plano se guardan como hash, igual que al registrar una
+ * persona, y derivarlo cuesta del orden de decenas de milisegundos de CPU
+ * por fila: aunque se deriva en los hilos de fondo y solo para las filas
+ * aceptadas, un archivo de personas en texto plano se importa a unas
+ * decenas de filas por segundo por núcleo, no a la velocidad de las demás
+ * categorías. Para importar millones de personas deben venir con la
+ * contraseña ya derivada.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class ImportadorMasivo {
+    
+    /** Número de filas de cada bloque que se valida y confirma a la vez */
+    public static final int TAMANO_LOTE = 4096;
+    
+    /** Número máximo de filas rechazadas cuyo detalle se conserva */
+    public static final int MAXIMO_RECHAZOS_DETALLADOS = 1000;
+    
+    /**
+     * Longitud máxima de un registro CSV de varias líneas; al alcanzarla se
+     * deja de unir líneas, de modo que unas comillas sin cerrar no lleven
+     * el resto del archivo a un solo registro
+     */
+    public static final int MAXIMO_REGISTRO_CSV = 1 << 20;
+    
+    /** Contador para numerar los hilos de importación */
+    private static final AtomicInteger HILOS_CREADOS = new AtomicInteger();
+    
+    /** Repositorio donde se importan las entidades */
+    private final Repositorio repositorio;
+    
+    /** Número de hilos que validan bloques en paralelo */
+    private final int hilos;
+    
+    /**
+     * Bloque de filas del archivo pendiente de validar.
+     */
+    private static final class Bloque {
+        
+        /** Texto de cada fila */
+        private final List<String> filas = new ArrayList<>(TAMANO_LOTE);
+        
+        /** Número de línea de cada fila */
+        private final long[] lineas = new long[TAMANO_LOTE];
+    }
+    
+    /**
+     * Bloque ya validado, listo para confirmarse en el repositorio.
+     */
+    private static final class LoteValidado {
+        
+        /** Entidades válidas del bloque */
+        private final List<Object> entidades = new ArrayList<>();
+        
+        /** Número de línea de cada entidad válida */
+        private final List<Long> lineas = new ArrayList<>();
+        
+        /** Cédula del propietario de cada entidad válida, o null si no tiene */
+        private final List<String> propietarios = new ArrayList<>();
+        
+        /** Filas del bloque rechazadas durante la validación */
+        private final List<ResultadoImportacion.FilaRechazada> rechazos = new ArrayList<>();
+        
+        /** Número de filas del bloque */
+        private int filas;
+    }
+    
+    /**
+     * Conteos acumulados durante una importación.
+     */
+    private static final class Acumulado {
+        
+        /** Filas leídas hasta ahora */
+        private long leidas;
+        
+        /** Filas importadas hasta ahora */
+        private long importadas;
+        
+        /** Filas rechazadas hasta ahora */
+        private long rechazadas;
+        
+        /** Detalle de las primeras filas rechazadas */
+        private final List<ResultadoImportacion.FilaRechazada> rechazos = new ArrayList<>();
+        
+        /**
+         * Registra las filas rechazadas de un lote.
+         * 
+         * @param filas Las filas rechazadas, en cualquier orden
+         */
+        private void rechazar(List<ResultadoImportacion.FilaRechazada> filas) {
+            rechazadas += filas.size();
+            if (rechazos.size() < MAXIMO_RECHAZOS_DETALLADOS && !filas.isEmpty()) {
+                filas.sort(Comparator.comparingLong(ResultadoImportacion.FilaRechazada::getLinea));
+                rechazos.addAll(filas.subList(0, Math.min(filas.size(), MAXIMO_RECHAZOS_DETALLADOS - rechazos.size())));
+            }
+        }
+    }
+    
+    /**
+     * Constructor del importador.
+     * 
+     * Este constructor importa en el repositorio Singleton y valida con
+     * tantos hilos como procesadores tenga el equipo.
+     */
+    public ImportadorMasivo() {
+        this(Repositorio.getInstancia(), Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Constructor del importador.
+     * 
+     * @param repositorio Repositorio donde se importan las entidades
+     * @param hilos       Número de hilos que validan bloques en paralelo
+     * @throws IllegalArgumentException Si el número de hilos no es positivo
+     */
+    public ImportadorMasivo(Repositorio repositorio, int hilos) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo");
+        }
+        this.repositorio = repositorio;
+        this.hilos = hilos;
+    }
+    
+    /**
+     * Importa un archivo cuyo formato se determina por su extensión.
+     * 
+     * @param archivo   Archivo .csv, .jsonl o .ndjson codificado en UTF-8
+     * @param categoria Categoría de las entidades del archivo
+     * @return El resultado de la importación
+     * @throws IOException Si no se puede leer el archivo o su encabezado no es válido
+     * @throws IllegalArgumentException Si la extensión del archivo no es reconocida
+     */
+    public ResultadoImportacion importar(Path archivo, CategoriaEntidad categoria) throws IOException {
+        FormatoArchivo formato = FormatoArchivo.desdeArchivo(archivo);
+        try (Reader lector = new InputStreamReader(Files.newInputStream(archivo), StandardCharsets.UTF_8)) {
+            return importar(lector, formato, categoria);
+        }
+    }
+    
+    /**
+     * Importa las entidades leídas de un flujo de texto.
+     * 
+     * Este método bloquea hasta terminar la importación; para no congelar
+     * la interfaz debe invocarse desde un hilo de fondo. El flujo no se cierra.
+     * 
+     * @param lector    Flujo con el contenido a importar
+     * @param formato   Formato del contenido
+     * @param categoria Categoría de las entidades del contenido
+     * @return El resultado de la importación
+     * @throws IOException Si no se puede leer el flujo o el encabezado CSV no es válido
+     */
+    public ResultadoImportacion importar(Reader lector, FormatoArchivo formato,
+                                         CategoriaEntidad categoria) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader lineas = new BufferedReader(lector, 1 << 16);
+        Acumulado acumulado = new Acumulado();
+        long numeroLinea = 0;
+        int[] columnas = null;
+        if (formato == FormatoArchivo.CSV) {
+            String encabezado;
+            do {
+                encabezado = lineas.readLine();
+                numeroLinea++;
+            } while (encabezado != null && encabezado.trim().isEmpty());
+            if (encabezado == null) {
+                return new ResultadoImportacion(0, 0, 0, acumulado.rechazos, 0);
+            }
+            columnas = interpretarEncabezado(quitarMarcaOrden(encabezado), categoria);
+        }
+        
+        String fecha = LocalDate.now().toString();
+        ExecutorService grupo = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "RolaPet-importacion-" + HILOS_CREADOS.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        Deque<Future<LoteValidado>> enCurso = new ArrayDeque<>();
+        try {
+            Bloque bloque = new Bloque();
+            String linea;
+            while ((linea = lineas.readLine()) != null) {
+                numeroLinea++;
+                long primeraLinea = numeroLinea;
+                if (numeroLinea == 1) {
+                    linea = quitarMarcaOrden(linea);
+                }
+                if (linea.trim().isEmpty()) {
+                    continue;
+                }
+                if (formato == FormatoArchivo.CSV && TextoCsv.comillasAbiertas(linea)) {
+                    StringBuilder registro = new StringBuilder(linea);
+                    boolean abiertas = true;
+                    String siguiente;
+                    while (abiertas && registro.length() < MAXIMO_REGISTRO_CSV
+                            && (siguiente = lineas.readLine()) != null) {
+                        numeroLinea++;
+                        registro.append('\n').append(siguiente);
+                        abiertas = TextoCsv.comillasAbiertas(siguiente) != abiertas;
+                    }
+                    linea = registro.toString();
+                }
+                bloque.lineas[bloque.filas.size()] = primeraLinea;
+                bloque.filas.add(linea);
+                if (bloque.filas.size() == TAMANO_LOTE) {
+                    enCurso.add(enviar(grupo, bloque, formato, categoria, columnas, fecha));
+                    bloque = new Bloque();
+                    if (enCurso.size() >= 2 * hilos) {
+                        confirmar(enCurso.poll().get(), categoria, acumulado, grupo);
+                    }
+                }
+            }
+            if (!bloque.filas.isEmpty()) {
+                enCurso.add(enviar(grupo, bloque, formato, categoria, columnas, fecha));
+            }
+            while (!enCurso.isEmpty()) {
+                confirmar(enCurso.poll().get(), categoria, acumulado, grupo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importación interrumpida");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IllegalStateException("Error al validar un bloque de la importación", causa);
+        } finally {
+            grupo.shutdownNow();
+        }
+        return new ResultadoImportacion(acumulado.leidas, acumulado.importadas, acumulado.rechazadas,
+                acumulado.rechazos, (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Envía un bloque a validar en el grupo de hilos.
+     * 
+     * @param grupo     Grupo de hilos de validación
+     * @param bloque    Bloque de filas a validar
+     * @param formato   Formato de las filas
+     * @param categoria Categoría de las entidades
+     * @param columnas  Columna de la categoría de cada campo CSV, o null en JSON lines
+     * @param fecha     Fecha de creación de las publicaciones que no la indican
+     * @return El resultado futuro de la validación
+     */
+    private static Future<LoteValidado> enviar(ExecutorService grupo, Bloque bloque, FormatoArchivo formato,
+                                               CategoriaEntidad categoria, int[] columnas, String fecha) {
+        return grupo.submit(() -> validar(bloque, formato, categoria, columnas, fecha));
+    }
+    
+    /**
+     * Interpreta y valida las filas de un bloque.
+     * 
+     * Este método se ejecuta en los hilos de fondo y no consulta el
+     * repositorio; las verificaciones que dependen de los datos ya
+     * registrados se hacen al confirmar el lote.
+     * 
+     * @param bloque    Bloque de filas a validar
+     * @param formato   Formato de las filas
+     * @param categoria Categoría de las entidades
+     * @param columnas  Columna de la categoría de cada campo CSV, o null en JSON lines
+     * @param fecha     Fecha de creación de las publicaciones que no la indican
+     * @return El lote con las entidades válidas y las filas rechazadas
+     */
+    private static LoteValidado validar(Bloque bloque, FormatoArchivo formato, CategoriaEntidad categoria,
+                                        int[] columnas, String fecha) {
+        LoteValidado lote = new LoteValidado();
+        lote.filas = bloque.filas.size();
+        int propietario = categoria == CategoriaEntidad.PERSONAS ? -1 : categoria.getColumnas().size() - 1;
+        for (int i = 0; i < bloque.filas.size(); i++) {
+            long linea = bloque.lineas[i];
+            try {
+                String[] valores = formato == FormatoArchivo.CSV
+                        ? valoresCsv(bloque.filas.get(i), columnas, categoria)
+                        : valoresJson(bloque.filas.get(i), categoria);
+                Object entidad = crearEntidad(categoria, valores, fecha);
+                lote.entidades.add(entidad);
+                lote.lineas.add(linea);
+                lote.propietarios.add(propietario >= 0 && !vacio(valores[propietario]) ? valores[propietario] : null);
+            } catch (IllegalArgumentException e) {
+                lote.rechazos.add(new ResultadoImportacion.FilaRechazada(linea, e.getMessage()));
+            }
+        }
+        return lote;
+    }
+    
+    /**
+     * Confirma un lote validado en el repositorio.
+     * 
+     * Este método se ejecuta en el hilo que importa, en el orden del
+     * archivo. Verifica las cédulas y los emails de usuario repetidos y los
+     * propietarios indicados, protege las contraseñas de las personas
+     * aceptadas, guarda las entidades con una sola operación de lote y
+     * finalmente las asocia a sus propietarios.
+     * 
+     * @param lote      Lote validado
+     * @param categoria Categoría de las entidades
+     * @param acumulado Conteos acumulados de la importación
+     * @param grupo     Grupo de hilos en que se derivan los hashes de las contraseñas
+     * @throws InterruptedException Si se interrumpe la espera de los hashes
+     * @throws ExecutionException   Si falla la derivación de algún hash
+     */
+    private void confirmar(LoteValidado lote, CategoriaEntidad categoria, Acumulado acumulado,
+                           ExecutorService grupo) throws InterruptedException, ExecutionException {
+        List<Object> aceptadas = new ArrayList<>(lote.entidades.size());
+        List<Long> lineas = new ArrayList<>(lote.entidades.size());
+        List<Persona> propietarios = new ArrayList<>(lote.entidades.size());
+        Set<String> cedulas = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < lote.entidades.size(); i++) {
+            Object entidad = lote.entidades.get(i);
+            String motivo = null;
+            Persona propietario = null;
+            if (entidad instanceof Persona) {
+                String cedulaPersona = ((Persona) entidad).getCedula();
+                if (repositorio.buscarPersonaPorCedula(cedulaPersona) != null || !cedulas.add(cedulaPersona)) {
+                    motivo = "Ya existe una persona con la misma cédula";
+                }
+            }
+            if (motivo == null && entidad instanceof Usuario) {
+                String email = ((Usuario) entidad).getEmail();
+                if (repositorio.buscarUsuarioPorEmail(email) != null || !emails.add(email)) {
+                    motivo = "Ya existe un usuario con el email " + email;
+                }
+            }
+            String cedula = lote.propietarios.get(i);
+            if (cedula != null) {
+                propietario = repositorio.buscarPersonaPorCedula(cedula);
+                boolean valido = categoria == CategoriaEntidad.VEHICULOS
+                        ? propietario instanceof Usuario
+                        : propietario instanceof Proveedor;
+                if (!valido) {
+                    motivo = "No existe " + (categoria == CategoriaEntidad.VEHICULOS ? "el usuario" : "el proveedor")
+                            + " propietario con cédula " + cedula;
+                }
+            }
+            if (motivo != null) {
+                lote.rechazos.add(new ResultadoImportacion.FilaRechazada(lote.lineas.get(i), motivo));
+            } else {
+                aceptadas.add(entidad);
+                lineas.add(lote.lineas.get(i));
+                propietarios.add(propietario);
+            }
+        }
+        
+        if (categoria == CategoriaEntidad.PERSONAS) {
+            protegerContrasenas(aceptadas, grupo);
+        }
+        boolean[] guardadas = guardar(categoria, aceptadas);
+        long importadas = 0;
+        for (int i = 0; i < guardadas.length; i++) {
+            if (!guardadas[i]) {
+                lote.rechazos.add(new ResultadoImportacion.FilaRechazada(lineas.get(i),
+                        categoria == CategoriaEntidad.PERSONAS
+                                ? "Ya existe una persona con la misma cédula"
+                                : "Ya existe una entidad con el mismo ID"));
+                continue;
+            }
+            importadas++;
+            asociar(propietarios.get(i), aceptadas.get(i));
+        }
+        acumulado.leidas += lote.filas;
+        acumulado.importadas += importadas;
+        acumulado.rechazar(lote.rechazos);
+    }
+    
+    /**
+     * Protege la contraseña de cada persona aceptada, repartiendo el trabajo en el grupo de hilos.
+     * 
+     * Las contraseñas que ya son un hash verificable, como las de un
+     * archivo exportado, se conservan tal cual; las demás se reemplazan
+     * por su hash. Derivar un hash cuesta del orden de decenas de
+     * milisegundos, por lo que solo se hace para las personas que ya
+     * pasaron las verificaciones del lote, y en paralelo, antes de
+     * guardarlas.
+     * 
+     * @param personas Personas aceptadas, con la contraseña tal como se leyó
+     * @param grupo    Grupo de hilos en que se derivan los hashes
+     * @throws InterruptedException Si se interrumpe la espera de los hashes
+     * @throws ExecutionException   Si falla la derivación de algún hash
+     */
+    private void protegerContrasenas(List<Object> personas, ExecutorService grupo)
+            throws InterruptedException, ExecutionException {
+        List<Future<?>> partes = new ArrayList<>(hilos);
+        int porParte = (personas.size() + hilos - 1) / hilos;
+        for (int desde = 0; desde < personas.size(); desde += porParte) {
+            List<Object> parte = personas.subList(desde, Math.min(desde + porParte, personas.size()));
+            partes.add(grupo.submit(() -> {
+                for (Object entidad : parte) {
+                    ((Persona) entidad).protegerPasswordImportada();
+                }
+            }));
+        }
+        for (Future<?> parte : partes) {
+            parte.get();
+        }
+    }
+    
+    /**
+     * Guarda un lote de entidades de una categoría en el repositorio.
+     * 
+     * @param categoria Categoría de las entidades
+     * @param entidades Entidades a guardar, todas de la categoría indicada
+     * @return Arreglo que indica, para cada entidad, si se guardó
+     */
+    @SuppressWarnings("unchecked")
+    private boolean[] guardar(CategoriaEntidad categoria, List<Object> entidades) {
+        List<?> lote = entidades;
+        switch (categoria) {
+            case PERSONAS:
+                return repositorio.guardarPersonasEnLote((List<Persona>) lote);
+            case VEHICULOS:
+                return repositorio.guardarVehiculosEnLote((List<Vehiculo>) lote);
+            case ITEMS:
+                return repositorio.guardarItemsEnLote((List<Item>) lote);
+            default:
+                return repositorio.guardarPublicacionesEnLote((List<Publicacion>) lote);
+        }
+    }
+    
+    /**
+     * Asocia una entidad importada a su propietario.
+     * 
+     * @param propietario Usuario o proveedor propietario, o null si no tiene
+     * @param entidad     Entidad importada
+     */
+    private static void asociar(Persona propietario, Object entidad) {
+        if (propietario instanceof Usuario && entidad instanceof Vehiculo) {
+            ((Usuario) propietario).agregarVehiculo((Vehiculo) entidad);
+        } else if (propietario instanceof Proveedor && entidad instanceof Item) {
+            ((Proveedor) propietario).agregarItem((Item) entidad);
+        } else if (propietario instanceof Proveedor && entidad instanceof Publicacion) {
+            ((Proveedor) propietario).agregarPublicacion((Publicacion) entidad);
+        }
+    }
+    
+    /**
+     * Crea la entidad de una fila a partir de sus valores.
+     * 
+     * @param categoria Categoría de la entidad
+     * @param valores   Valor de cada columna de la categoría, o null si falta
+     * @param fecha     Fecha de creación de las publicaciones que no la indican
+     * @return La entidad creada
+     * @throws IllegalArgumentException Si algún valor no es válido
+     */
+    private static Object crearEntidad(CategoriaEntidad categoria, String[] valores, String fecha) {
+        switch (categoria) {
+            case PERSONAS: {
+                for (int i = 0; i < 5; i++) {
+                    requerir(valores, i, categoria);
+                }
+                if (!valores[4].contains("@")) {
+                    throw new IllegalArgumentException("El email no es válido: " + valores[4]);
+                }
+                String rol = vacio(valores[5]) ? "Usuario" : valores[5];
+                Persona persona = FabricaEntidades.crearPersona(rol, valores[0], valores[1], valores[2],
+                        valores[3], valores[4]);
+                if (persona == null) {
+                    throw new IllegalArgumentException("Rol no válido: " + rol);
+                }
+                return persona;
+            }
+            case VEHICULOS: {
+                for (int i = 1; i < 5; i++) {
+                    requerir(valores, i, categoria);
+                }
+                int autonomia;
+                try {
+                    autonomia = Integer.parseInt(valores[4].trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("La autonomía no es un número entero: " + valores[4]);
+                }
+                if (autonomia <= 0) {
+                    throw new IllegalArgumentException("La autonomía debe ser positiva");
+                }
+                Vehiculo vehiculo = FabricaEntidades.crearVehiculo(valores[1], identificador(valores[0]),
+                        valores[2], valores[3], autonomia);
+                if (vehiculo == null) {
+                    throw new IllegalArgumentException("Tipo de vehículo no válido: " + valores[1]);
+                }
+                return vehiculo;
+            }
+            case ITEMS: {
+                for (int i = 1; i < 4; i++) {
+                    requerir(valores, i, categoria);
+                }
+                Item item = FabricaEntidades.crearItem(valores[1], identificador(valores[0]), valores[2], valores[3]);
+                if (item == null) {
+                    throw new IllegalArgumentException("Tipo de item no válido: " + valores[1]);
+                }
+                return item;
+            }
+            default: {
+                for (int i = 1; i < 4; i++) {
+                    requerir(valores, i, categoria);
+                }
+                return FabricaEntidades.crearPublicacion(valores[1], identificador(valores[0]), valores[2],
+                        valores[3], vacio(valores[4]) ? fecha : valores[4]);
+            }
+        }
+    }
+    
+    /**
+     * Obtiene los valores de una fila CSV ordenados según las columnas de la categoría.
+     * 
+     * @param fila      Texto de la fila
+     * @param columnas  Columna de la categoría de cada campo, o -1 si se ignora
+     * @param categoria Categoría de la entidad
+     * @return Valor de cada columna de la categoría, o null si falta
+     */
+    private static String[] valoresCsv(String fila, int[] columnas, CategoriaEntidad categoria) {
+        List<String> campos = TextoCsv.dividir(fila);
+        if (campos.size() > columnas.length) {
+            throw new IllegalArgumentException("La fila tiene " + campos.size() + " columnas y el encabezado "
+                    + columnas.length);
+        }
+        String[] valores = new String[categoria.getColumnas().size()];
+        for (int i = 0; i < campos.size(); i++) {
+            if (columnas[i] >= 0) {
+                valores[columnas[i]] = campos.get(i);
+            }
+        }
+        return valores;
+    }
+    
+    /**
+     * Obtiene los valores de una fila JSON ordenados según las columnas de la categoría.
+     * 
+     * @param fila      Texto de la fila
+     * @param categoria Categoría de la entidad
+     * @return Valor de cada columna de la categoría, o null si falta
+     */
+    private static String[] valoresJson(String fila, CategoriaEntidad categoria) {
+        Map<String, String> objeto = LectorJson.leerObjeto(fila);
+        List<String> nombres = categoria.getColumnas();
+        String[] valores = new String[nombres.size()];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = objeto.get(nombres.get(i));
+        }
+        return valores;
+    }
+    
+    /**
+     * Relaciona cada campo del encabezado CSV con una columna de la categoría.
+     * 
+     * @param encabezado Texto de la fila de encabezado
+     * @param categoria  Categoría de las entidades
+     * @return Columna de la categoría de cada campo, o -1 si el campo se ignora
+     * @throws IOException Si el encabezado no contiene ninguna columna de la categoría
+     */
+    private static int[] interpretarEncabezado(String encabezado, CategoriaEntidad categoria) throws IOException {
+        List<String> campos;
+        try {
+            campos = TextoCsv.dividir(encabezado);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Encabezado CSV inválido: " + e.getMessage());
+        }
+        int[] columnas = new int[campos.size()];
+        boolean reconocido = false;
+        for (int i = 0; i < columnas.length; i++) {
+            columnas[i] = categoria.posicionDe(campos.get(i));
+            reconocido |= columnas[i] >= 0;
+        }
+        if (!reconocido) {
+            throw new IOException("El encabezado CSV no contiene columnas de " + categoria
+                    + "; se esperaban: " + String.join(",", categoria.getColumnas()));
+        }
+        return columnas;
+    }
+    
+    /**
+     * Verifica que una columna obligatoria tenga valor.
+     * 
+     * @param valores   Valores de la fila
+     * @param columna   Posición de la columna
+     * @param categoria Categoría de la entidad
+     * @throws IllegalArgumentException Si la columna está vacía
+     */
+    private static void requerir(String[] valores, int columna, CategoriaEntidad categoria) {
+        if (vacio(valores[columna])) {
+            throw new IllegalArgumentException("Falta el valor de " + categoria.getColumnas().get(columna));
+        }
+    }
+    
+    /**
+     * Verifica si un valor está vacío.
+     * 
+     * @param valor El valor a verificar
+     * @return true si el valor es nulo o solo contiene espacios
+     */
+    private static boolean vacio(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
+    
+    /**
+     * Obtiene el ID de una fila, generando uno si no lo indica.
+     * 
+     * A diferencia de los IDs cortos que genera el controlador, aquí se usa
+     * el UUID completo para que no haya colisiones en importaciones grandes.
+     * 
+     * @param id El ID de la fila
+     * @return El mismo ID, o uno nuevo si está vacío
+     */
+    private static String identificador(String id) {
+        return vacio(id) ? UUID.randomUUID().toString() : id;
+    }
+    
+    /**
+     * Quita la marca de orden de bytes que algunos editores agregan al inicio de un archivo UTF-8.
+     * 
+     * @param linea La primera línea del archivo
+     * @return La línea sin la marca
+     */
+    private static String quitarMarcaOrden(String linea) {
+        return !linea.isEmpty() && linea.charAt(0) == '\uFEFF' ? linea.substring(1) : linea;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package udistrital.avanzada.rolapet.controlador;
+
+/**
+ * Excepción que indica que el limitador de intentos rechazó un inicio de
+ * sesión o un registro hecho desde un origen remoto.
+ * 
+ * Distingue el rechazo por exceso de intentos de unas credenciales
+ * inválidas o de un usuario ya registrado, e indica cuánto debe esperar
+ * el cliente antes de reintentar.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class IntentosExcedidosException extends RuntimeException {
+    
+    /** Versión de la forma serializada de la excepción */
+    private static final long serialVersionUID = 1L;
+    
+    /** Segundos que el cliente debe esperar antes de reintentar */
+    private final long segundosEspera;
+    
+    /**
+     * Constructor de la excepción.
+     * 
+     * @param segundosEspera Segundos que el cliente debe esperar antes de reintentar
+     */
+    public IntentosExcedidosException(long segundosEspera) {
+        super("Demasiados intentos; reintente en " + segundosEspera + " s");
+        this.segundosEspera = segundosEspera;
+    }
+    
+    /**
+     * Obtiene los segundos que el cliente debe esperar antes de reintentar.
+     * 
+     * @return Los segundos de espera, al menos uno
+     */
+    public long getSegundosEspera() {
+        return segundosEspera;
+    }
+}
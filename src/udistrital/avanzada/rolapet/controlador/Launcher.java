@@ -1,9 +1,15 @@
 package udistrital.avanzada.rolapet.controlador;
 
 import udistrital.avanzada.rolapet.controlador.ControladorRolaPET;
+import udistrital.avanzada.rolapet.modelo.Repositorio;
 import udistrital.avanzada.rolapet.vista.VentanaPrincipal;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * Clase principal (Launcher) del sistema RolaPet.
@@ -11,11 +17,21 @@ import javax.swing.UIManager;
  * Esta clase actúa como el punto de entrada de la aplicación, siguiendo
  * los principios SOLID al separar la responsabilidad de inicialización
  * de la lógica de presentación. El Launcher se encarga de:
+ * - Recuperar los datos persistidos del repositorio
  * - Instanciar el controlador principal
  * - Configurar el look and feel del sistema
  * - Inicializar la ventana principal
  * - Coordinar el inicio de la aplicación
  * 
+ * Con el argumento "--servidor" la aplicación se ejecuta sin interfaz
+ * gráfica y expone el controlador como servicios JSON con un
+ * {@link ServidorApi}.
+ * 
+ * Por omisión los datos se recuperan del diario del directorio de datos.
+ * Si se indica la propiedad del sistema "rolapet.almacen" con la ruta de
+ * un almacén mapeado, en cualquiera de los dos modos se monta ese
+ * catálogo en lugar de habilitar el diario.
+ * 
  * @author Equipo RolaPet
  * @version 1.0
  * @since 2025
@@ -31,12 +47,24 @@ public class Launcher {
      * - Open/Closed: Extensible para futuras configuraciones
      * - Dependency Inversion: Depende de abstracciones (interfaces)
      * 
-     * @param args Argumentos de la línea de comandos (no utilizados)
+     * @param args Argumentos de la línea de comandos; "--servidor" inicia el
+     *             servidor de servicios JSON en lugar de la ventana principal.
+     *             La propiedad "rolapet.almacen" monta un almacén mapeado en
+     *             lugar del diario
      */
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--servidor")) {
+            prepararRepositorio();
+            iniciarServidor();
+            return;
+        }
+        
         // Configurar el look and feel del sistema operativo
         configurarLookAndFeel();
         
+        // Recuperar los datos guardados en ejecuciones anteriores o montar el almacén mapeado
+        prepararRepositorio();
+        
         // Ejecutar la aplicación en el hilo de eventos de Swing
         SwingUtilities.invokeLater(() -> {
             try {
@@ -58,6 +86,96 @@ public class Launcher {
         });
     }
     
+    /**
+     * Prepara los datos del repositorio antes de iniciar la aplicación.
+     * 
+     * El almacén mapeado y el diario no pueden combinarse: si la propiedad
+     * del sistema "rolapet.almacen" indica un archivo, se monta como
+     * catálogo de solo lectura y no se habilita el diario, por lo que las
+     * personas y los cambios del catálogo de esa ejecución solo se
+     * conservan en memoria; en caso contrario se habilita el diario.
+     */
+    private static void prepararRepositorio() {
+        String almacen = System.getProperty("rolapet.almacen");
+        if (almacen != null) {
+            montarAlmacenMapeado(Paths.get(almacen));
+        } else {
+            habilitarPersistencia();
+        }
+    }
+    
+    /**
+     * Monta un almacén mapeado como catálogo del repositorio.
+     * 
+     * Si no se puede montar, la aplicación termina, pues continuar con el
+     * catálogo vacío ocultaría el error.
+     * 
+     * @param archivo Archivo del almacén mapeado
+     */
+    private static void montarAlmacenMapeado(Path archivo) {
+        try {
+            Repositorio.getInstancia().montarAlmacenMapeado(archivo);
+        } catch (IOException e) {
+            System.err.println("No se pudo montar el almacén mapeado " + archivo + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Habilita la persistencia en disco del repositorio.
+     * 
+     * Este método recupera los datos guardados en el directorio indicado
+     * por la propiedad del sistema "rolapet.datos" (por defecto "datos")
+     * y registra un gancho de cierre que lleva a disco las modificaciones
+     * pendientes al terminar la aplicación. Si no se puede habilitar, la
+     * aplicación continúa funcionando solo en memoria.
+     */
+    private static void habilitarPersistencia() {
+        Repositorio repositorio = Repositorio.getInstancia();
+        try {
+            repositorio.habilitarPersistencia(Paths.get(System.getProperty("rolapet.datos", "datos")));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    repositorio.cerrarPersistencia();
+                } catch (IOException e) {
+                    System.err.println("Error al cerrar la persistencia del repositorio: " + e.getMessage());
+                }
+            }, "RolaPet-cierre"));
+        } catch (IOException e) {
+            System.err.println("No se pudo habilitar la persistencia del repositorio: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Inicia el servidor de servicios JSON, sin interfaz gráfica.
+     * 
+     * El servidor escucha en la dirección de la propiedad del sistema
+     * "rolapet.direccion" (por defecto "127.0.0.1") y el puerto de la
+     * propiedad "rolapet.puerto" (por defecto 8080), y se detiene al
+     * terminar la aplicación.
+     * 
+     * El servidor HTTP del JDK escribe las cabeceras y el cuerpo por
+     * separado y por omisión deja activo el algoritmo de Nagle, que retiene
+     * la segunda escritura hasta que el cliente confirma la primera; con la
+     * confirmación retardada del cliente cada respuesta tarda unos 40 ms.
+     * Por eso se activa la propiedad "sun.net.httpserver.nodelay" antes de
+     * crear el servidor, salvo que ya se haya indicado otro valor.
+     */
+    private static void iniciarServidor() {
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        try {
+            String direccion = System.getProperty("rolapet.direccion", "127.0.0.1");
+            int puerto = Integer.getInteger("rolapet.puerto", ServidorApi.PUERTO_POR_OMISION);
+            ServidorApi servidor = new ServidorApi(new ControladorRolaPET(), new InetSocketAddress(direccion, puerto));
+            servidor.iniciar();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> servidor.detener(1), "RolaPet-servidor-cierre"));
+            System.out.println("Servidor RolaPet escuchando en " + direccion + ":" + servidor.getPuerto());
+        } catch (IOException e) {
+            System.err.println("No se pudo iniciar el servidor: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
     /**
      * Configura el look and feel del sistema operativo.
      * 
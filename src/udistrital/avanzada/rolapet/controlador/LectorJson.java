@@ -0,0 +1,238 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Lector de objetos JSON planos.
+ * 
+ * Esta clase interpreta un objeto JSON cuyas claves tienen como valor
+ * textos, números, booleanos o null, que es lo que contiene cada línea de
+ * los archivos JSON lines del sistema. Los números y booleanos se
+ * devuelven con su texto original; los objetos y arreglos anidados no se
+ * admiten.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class LectorJson {
+    
+    /** Forma de un número JSON */
+    private static final Pattern NUMERO = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+    
+    /** Texto que se está leyendo */
+    private final String texto;
+    
+    /** Posición actual de lectura */
+    private int posicion;
+    
+    /**
+     * Constructor del lector.
+     * 
+     * @param texto Texto que se va a leer
+     */
+    private LectorJson(String texto) {
+        this.texto = texto;
+    }
+    
+    /**
+     * Lee un objeto JSON plano.
+     * 
+     * @param texto El texto del objeto
+     * @return Mapa de cada clave a su valor en texto, o null si el valor es null
+     * @throws IllegalArgumentException Si el texto no es un objeto JSON plano válido
+     */
+    static Map<String, String> leerObjeto(String texto) {
+        LectorJson lector = new LectorJson(texto);
+        Map<String, String> objeto = lector.objeto();
+        lector.saltarEspacios();
+        if (lector.posicion < texto.length()) {
+            throw lector.error("Texto después del objeto");
+        }
+        return objeto;
+    }
+    
+    /**
+     * Lee un objeto a partir de la posición actual.
+     * 
+     * @return Mapa de cada clave a su valor
+     */
+    private Map<String, String> objeto() {
+        Map<String, String> objeto = new LinkedHashMap<>();
+        esperar('{');
+        saltarEspacios();
+        if (siguienteEs('}')) {
+            posicion++;
+            return objeto;
+        }
+        while (true) {
+            saltarEspacios();
+            String clave = cadena();
+            saltarEspacios();
+            esperar(':');
+            saltarEspacios();
+            objeto.put(clave, valor());
+            saltarEspacios();
+            if (siguienteEs(',')) {
+                posicion++;
+            } else {
+                esperar('}');
+                return objeto;
+            }
+        }
+    }
+    
+    /**
+     * Lee un valor a partir de la posición actual.
+     * 
+     * @return El valor en texto, o null si es el literal null
+     */
+    private String valor() {
+        if (posicion >= texto.length()) {
+            throw error("Falta un valor");
+        }
+        char c = texto.charAt(posicion);
+        if (c == '"') {
+            return cadena();
+        }
+        if (c == '{' || c == '[') {
+            throw error("No se admiten objetos ni arreglos anidados");
+        }
+        int inicio = posicion;
+        while (posicion < texto.length() && ",}] \t\r\n".indexOf(texto.charAt(posicion)) < 0) {
+            posicion++;
+        }
+        String literal = texto.substring(inicio, posicion);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || esNumero(literal)) {
+            return literal;
+        }
+        throw error("Valor no válido: " + literal);
+    }
+    
+    /**
+     * Lee una cadena entre comillas a partir de la posición actual.
+     * 
+     * @return El contenido de la cadena, con las secuencias de escape resueltas
+     */
+    private String cadena() {
+        esperar('"');
+        int inicio = posicion;
+        while (posicion < texto.length()) {
+            char c = texto.charAt(posicion);
+            if (c == '"') {
+                return texto.substring(inicio, posicion++);
+            }
+            if (c == '\\') {
+                break;
+            }
+            posicion++;
+        }
+        StringBuilder contenido = new StringBuilder(texto.substring(inicio, posicion));
+        while (posicion < texto.length()) {
+            char c = texto.charAt(posicion++);
+            if (c == '"') {
+                return contenido.toString();
+            }
+            if (c != '\\') {
+                contenido.append(c);
+                continue;
+            }
+            if (posicion >= texto.length()) {
+                break;
+            }
+            char escape = texto.charAt(posicion++);
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    contenido.append(escape);
+                    break;
+                case 'b':
+                    contenido.append('\b');
+                    break;
+                case 'f':
+                    contenido.append('\f');
+                    break;
+                case 'n':
+                    contenido.append('\n');
+                    break;
+                case 'r':
+                    contenido.append('\r');
+                    break;
+                case 't':
+                    contenido.append('\t');
+                    break;
+                case 'u':
+                    if (posicion + 4 > texto.length()) {
+                        throw error("Secuencia \\u incompleta");
+                    }
+                    try {
+                        contenido.append((char) Integer.parseInt(texto.substring(posicion, posicion + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Secuencia \\u no válida");
+                    }
+                    posicion += 4;
+                    break;
+                default:
+                    throw error("Secuencia de escape no válida: \\" + escape);
+            }
+        }
+        throw error("Cadena sin cerrar");
+    }
+    
+    /**
+     * Verifica si un literal es un número JSON.
+     * 
+     * @param literal El literal a verificar
+     * @return true si el literal tiene la forma de un número
+     */
+    private static boolean esNumero(String literal) {
+        return NUMERO.matcher(literal).matches();
+    }
+    
+    /**
+     * Avanza la posición sobre los espacios en blanco.
+     */
+    private void saltarEspacios() {
+        while (posicion < texto.length() && Character.isWhitespace(texto.charAt(posicion))) {
+            posicion++;
+        }
+    }
+    
+    /**
+     * Verifica si el siguiente carácter es el indicado.
+     * 
+     * @param c El carácter esperado
+     * @return true si la posición actual contiene ese carácter
+     */
+    private boolean siguienteEs(char c) {
+        return posicion < texto.length() && texto.charAt(posicion) == c;
+    }
+    
+    /**
+     * Consume el carácter indicado o falla si no está en la posición actual.
+     * 
+     * @param c El carácter esperado
+     */
+    private void esperar(char c) {
+        if (!siguienteEs(c)) {
+            throw error("Se esperaba '" + c + "'");
+        }
+        posicion++;
+    }
+    
+    /**
+     * Crea la excepción de un error de sintaxis en la posición actual.
+     * 
+     * @param mensaje Descripción del error
+     * @return La excepción con el mensaje y la posición
+     */
+    private IllegalArgumentException error(String mensaje) {
+        return new IllegalArgumentException(mensaje + " (posición " + (posicion + 1) + ")");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,355 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador de intentos de inicio de sesión por cuenta y por origen.
+ * 
+ * Cada origen (por ejemplo, una dirección remota) tiene una cubeta de
+ * tokens de la que cada intento consume uno, lo que acota la CPU que un
+ * solo origen puede dedicar a verificar contraseñas. Cada cuenta tiene
+ * otra cubeta que cuenta sus fallos: cada intento reserva un token antes
+ * de verificar la contraseña y solo lo recupera si tiene éxito, de modo
+ * que los intentos simultáneos contra una misma cuenta no pueden pasar
+ * del límite mientras se verifican. Cuando la cubeta se vacía, la cuenta
+ * queda bloqueada y sus intentos se rechazan sin verificar la contraseña
+ * hasta que la cubeta se recarga. Un inicio de sesión exitoso vacía el
+ * registro de fallos de su cuenta. Los registros de cuentas nuevas, que
+ * también derivan un hash de contraseña, consumen de la misma cubeta de
+ * su origen.
+ * 
+ * Las cubetas no usan candados: cada una es un único contador atómico
+ * con el instante teórico en que volvería a estar llena, que se avanza
+ * con una comparación e intercambio por cada token consumido. Una cubeta
+ * llena equivale a una cubeta que no existe, por lo que una vez por
+ * ventana de tiempo se descartan las que ya se recargaron; si aun así se
+ * alcanza el máximo de cubetas, los orígenes nuevos comparten una cubeta
+ * de desborde, de modo que la memoria queda acotada aunque los intentos
+ * lleguen de muchos orígenes distintos. Las cuentas nuevas, en cambio, no
+ * se limitan mientras el máximo siga alcanzado: una cubeta compartida
+ * permitiría que los fallos contra cuentas inventadas bloquearan a todas
+ * las cuentas sin cubeta propia. Un intento legítimo cuesta una
+ * consulta a un mapa concurrente y una comparación e intercambio por
+ * cubeta.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class LimitadorIntentos {
+    
+    /** Origen de los intentos hechos desde la propia aplicación */
+    static final String ORIGEN_LOCAL = "local";
+    
+    /** Intentos seguidos permitidos por omisión a un mismo origen */
+    static final int INTENTOS_POR_ORIGEN = 30;
+    
+    /** Tiempo por omisión en que un origen recupera un intento */
+    static final long RECARGA_POR_ORIGEN_MS = TimeUnit.SECONDS.toMillis(2);
+    
+    /** Fallos seguidos permitidos por omisión a una misma cuenta antes de bloquearla */
+    static final int FALLOS_POR_CUENTA = 5;
+    
+    /** Tiempo por omisión en que una cuenta recupera un fallo */
+    static final long RECARGA_POR_CUENTA_MS = TimeUnit.MINUTES.toMillis(1);
+    
+    /** Cantidad máxima por omisión de cubetas de cada tipo */
+    static final int MAXIMO_CUBETAS = 100_000;
+    
+    /** Cubetas de intentos por origen */
+    private final Cubetas porOrigen;
+    
+    /** Cubetas de fallos por cuenta */
+    private final Cubetas porCuenta;
+    
+    /**
+     * Cubetas de tokens por clave, con su limpieza por ventanas de tiempo.
+     */
+    private static final class Cubetas {
+        
+        /** Instante teórico de recarga completa de cada cubeta, en nanosegundos, por clave */
+        private final Map<String, AtomicLong> cubetas;
+        
+        /** Cubeta compartida por las claves nuevas cuando se alcanza el máximo, o null si no se comparte */
+        private final AtomicLong desborde;
+        
+        /** Tiempo en que se recupera un token, en nanosegundos */
+        private final long recarga;
+        
+        /** Tiempo en que se recarga la cubeta completa, en nanosegundos */
+        private final long recargaCompleta;
+        
+        /** Cantidad máxima de cubetas */
+        private final int maximo;
+        
+        /** Reloj en nanosegundos */
+        private final LongSupplier reloj;
+        
+        /** Instante de la próxima limpieza, en nanosegundos */
+        private final AtomicLong proximaLimpieza;
+        
+        /**
+         * Constructor de las cubetas.
+         * 
+         * @param capacidad Tokens de una cubeta llena
+         * @param recargaMs Tiempo en que se recupera un token, en milisegundos
+         * @param maximo    Cantidad máxima de cubetas
+         * @param desborde  true para que las claves nuevas compartan una cubeta
+         *                  cuando se alcanza el máximo; false para no limitarlas
+         * @param reloj     Reloj en nanosegundos
+         */
+        private Cubetas(int capacidad, long recargaMs, int maximo, boolean desborde, LongSupplier reloj) {
+            this.cubetas = new ConcurrentHashMap<>();
+            this.recarga = TimeUnit.MILLISECONDS.toNanos(recargaMs);
+            this.recargaCompleta = recarga * capacidad;
+            this.maximo = maximo;
+            this.reloj = reloj;
+            long ahora = reloj.getAsLong();
+            this.desborde = desborde ? new AtomicLong(ahora) : null;
+            this.proximaLimpieza = new AtomicLong(ahora + recargaCompleta);
+        }
+        
+        /**
+         * Consume un token de la cubeta de una clave.
+         * 
+         * @param clave La clave
+         * @return true si había un token o la clave no se limita; false si
+         *         la cubeta está vacía
+         */
+        private boolean consumir(String clave) {
+            long ahora = reloj.getAsLong();
+            limpiar(ahora);
+            AtomicLong cubeta = cubeta(clave);
+            if (cubeta == null) {
+                return true;
+            }
+            while (true) {
+                long llena = cubeta.get();
+                long nueva = Math.max(llena - ahora, 0) + ahora + recarga;
+                if (nueva - ahora > recargaCompleta) {
+                    return false;
+                }
+                if (cubeta.compareAndSet(llena, nueva)) {
+                    return true;
+                }
+            }
+        }
+        
+        /**
+         * Devuelve a la cubeta de una clave un token consumido.
+         * 
+         * Si la cubeta ya no existe, o ya se recargó, no hay nada que devolver.
+         * 
+         * @param clave La clave
+         */
+        private void devolver(String clave) {
+            AtomicLong cubeta = cubetas.get(clave);
+            if (cubeta == null) {
+                return;
+            }
+            long ahora = reloj.getAsLong();
+            cubeta.getAndUpdate(llena -> llena - ahora > 0 ? Math.max(llena - recarga, ahora) : llena);
+        }
+        
+        /**
+         * Calcula el tiempo que falta para que la cubeta de una clave tenga un token.
+         * 
+         * @param clave La clave
+         * @return Los nanosegundos de espera, o 0 si ya tiene un token
+         */
+        private long espera(String clave) {
+            AtomicLong cubeta = cubetas.get(clave);
+            if (cubeta == null && cubetas.size() >= maximo) {
+                cubeta = desborde;
+            }
+            if (cubeta == null) {
+                return 0;
+            }
+            return Math.max(cubeta.get() - reloj.getAsLong() - (recargaCompleta - recarga), 0);
+        }
+        
+        /**
+         * Descarta la cubeta de una clave, que vuelve a estar llena.
+         * 
+         * @param clave La clave
+         */
+        private void reiniciar(String clave) {
+            cubetas.remove(clave);
+        }
+        
+        /**
+         * Obtiene la cubeta de una clave, creándola si no existe.
+         * 
+         * Si se alcanzó el máximo de cubetas se devuelve la cubeta de
+         * desborde, o null si no se comparte, sin recorrer las cubetas: las
+         * recargadas se descartan solo en la limpieza de cada ventana, de
+         * modo que una ráfaga de claves nuevas no provoque un recorrido por
+         * intento.
+         * 
+         * @param clave La clave
+         * @return La cubeta de la clave, la de desborde o null si la clave no se limita
+         */
+        private AtomicLong cubeta(String clave) {
+            AtomicLong cubeta = cubetas.get(clave);
+            if (cubeta != null) {
+                return cubeta;
+            }
+            if (cubetas.size() >= maximo) {
+                return desborde;
+            }
+            return cubetas.computeIfAbsent(clave, k -> new AtomicLong(reloj.getAsLong()));
+        }
+        
+        /**
+         * Descarta las cubetas recargadas si terminó la ventana de limpieza actual.
+         * 
+         * La ventana dura lo que tarda en recargarse una cubeta vacía, y solo
+         * un hilo limpia en cada ventana.
+         * 
+         * @param ahora Instante actual, en nanosegundos
+         */
+        private void limpiar(long ahora) {
+            long proxima = proximaLimpieza.get();
+            if (ahora - proxima >= 0 && proximaLimpieza.compareAndSet(proxima, ahora + recargaCompleta)) {
+                descartarRecargadas(ahora);
+            }
+        }
+        
+        /**
+         * Descarta las cubetas que ya se recargaron por completo.
+         * 
+         * Un intento que obtuvo una cubeta justo antes de descartarla puede
+         * perder su consumo, lo que a lo sumo concede un intento de más.
+         * 
+         * @param ahora Instante actual, en nanosegundos
+         */
+        private void descartarRecargadas(long ahora) {
+            cubetas.values().removeIf(cubeta -> cubeta.get() - ahora <= 0);
+        }
+        
+        /**
+         * Obtiene la cantidad de cubetas guardadas.
+         * 
+         * @return La cantidad de cubetas, sin contar la de desborde
+         */
+        private int cantidad() {
+            return cubetas.size();
+        }
+    }
+    
+    /**
+     * Constructor del limitador con los valores por omisión y el reloj del sistema.
+     */
+    LimitadorIntentos() {
+        this(INTENTOS_POR_ORIGEN, RECARGA_POR_ORIGEN_MS, FALLOS_POR_CUENTA, RECARGA_POR_CUENTA_MS,
+                MAXIMO_CUBETAS, System::nanoTime);
+    }
+    
+    /**
+     * Constructor del limitador.
+     * 
+     * @param intentosPorOrigen Intentos seguidos permitidos a un mismo origen
+     * @param recargaOrigenMs   Tiempo en que un origen recupera un intento, en milisegundos
+     * @param fallosPorCuenta   Fallos seguidos permitidos a una misma cuenta antes de bloquearla
+     * @param recargaCuentaMs   Tiempo en que una cuenta recupera un fallo, en milisegundos
+     * @param maximoCubetas     Cantidad máxima de cubetas de cada tipo
+     * @param reloj             Reloj en nanosegundos
+     * @throws IllegalArgumentException Si algún valor no es positivo
+     */
+    LimitadorIntentos(int intentosPorOrigen, long recargaOrigenMs, int fallosPorCuenta, long recargaCuentaMs,
+                      int maximoCubetas, LongSupplier reloj) {
+        if (intentosPorOrigen <= 0 || recargaOrigenMs <= 0 || fallosPorCuenta <= 0 || recargaCuentaMs <= 0
+                || maximoCubetas <= 0) {
+            throw new IllegalArgumentException("Los parámetros del limitador de intentos deben ser positivos");
+        }
+        this.porOrigen = new Cubetas(intentosPorOrigen, recargaOrigenMs, maximoCubetas, true, reloj);
+        this.porCuenta = new Cubetas(fallosPorCuenta, recargaCuentaMs, maximoCubetas, false, reloj);
+    }
+    
+    /**
+     * Decide si se permite un intento de inicio de sesión.
+     * 
+     * El intento se rechaza si la cuenta está bloqueada por fallos o si el
+     * origen agotó sus intentos. Un intento permitido consume un intento
+     * del origen y reserva un fallo de la cuenta, que cuenta como fallo
+     * salvo que luego se registre el éxito o se cancele el intento.
+     * 
+     * @param cuenta Credencial con que se intenta iniciar sesión
+     * @param origen Origen del intento
+     * @return true si el intento puede verificarse
+     */
+    boolean permitir(String cuenta, String origen) {
+        if (!porCuenta.consumir(cuenta)) {
+            return false;
+        }
+        if (!porOrigen.consumir(origen)) {
+            porCuenta.devolver(cuenta);
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Decide si se permite un registro de una cuenta nueva desde un origen.
+     * 
+     * Un registro permitido consume un intento del origen, igual que un
+     * inicio de sesión.
+     * 
+     * @param origen Origen del registro
+     * @return true si el registro puede hacerse
+     */
+    boolean permitirRegistro(String origen) {
+        return porOrigen.consumir(origen);
+    }
+    
+    /**
+     * Calcula cuánto debe esperarse para que se permita un intento rechazado.
+     * 
+     * @param cuenta Credencial con que se intentó iniciar sesión, o null si
+     *               el intento fue un registro
+     * @param origen Origen del intento
+     * @return Los segundos de espera, redondeados hacia arriba y al menos uno
+     */
+    long segundosEspera(String cuenta, String origen) {
+        long espera = porOrigen.espera(origen);
+        if (cuenta != null) {
+            espera = Math.max(espera, porCuenta.espera(cuenta));
+        }
+        return Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+    
+    /**
+     * Cancela un intento permitido que no llegó a verificar la contraseña.
+     * 
+     * La cuenta recupera el fallo reservado, pues el intento no dice nada
+     * de la contraseña; el origen no recupera su intento.
+     * 
+     * @param cuenta Credencial con que se intentó iniciar sesión
+     */
+    void cancelar(String cuenta) {
+        porCuenta.devolver(cuenta);
+    }
+    
+    /**
+     * Registra un inicio de sesión exitoso de una cuenta, que olvida sus
+     * fallos, incluido el reservado por el intento.
+     * 
+     * @param cuenta Credencial con que se inició sesión
+     */
+    void registrarExito(String cuenta) {
+        porCuenta.reiniciar(cuenta);
+    }
+    
+    /**
+     * Obtiene la cantidad de cubetas guardadas de cuentas y de orígenes.
+     * 
+     * @return La cantidad total de cubetas
+     */
+    int cantidadCubetas() {
+        return porOrigen.cantidad() + porCuenta.cantidad();
+    }
+}
\ No newline at end of file
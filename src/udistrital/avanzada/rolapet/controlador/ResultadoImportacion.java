@@ -0,0 +1,169 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado inmutable de una importación masiva.
+ * 
+ * Esta clase resume cuántas filas se leyeron, importaron y rechazaron, y
+ * conserva el motivo de rechazo de las primeras filas rechazadas. Para que
+ * un archivo con millones de filas inválidas no agote la memoria, el
+ * detalle se limita a {@link ImportadorMasivo#MAXIMO_RECHAZOS_DETALLADOS}
+ * filas; el conteo de rechazos siempre es exacto.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class ResultadoImportacion {
+    
+    /** Número de filas de datos leídas del archivo */
+    private final long filasLeidas;
+    
+    /** Número de filas importadas al repositorio */
+    private final long filasImportadas;
+    
+    /** Número de filas rechazadas */
+    private final long filasRechazadas;
+    
+    /** Detalle de las primeras filas rechazadas */
+    private final List<FilaRechazada> rechazos;
+    
+    /** Duración de la importación en milisegundos */
+    private final long duracionMs;
+    
+    /**
+     * Fila rechazada durante una importación y el motivo del rechazo.
+     */
+    public static class FilaRechazada {
+        
+        /** Número de línea de la fila en el archivo, empezando en 1 */
+        private final long linea;
+        
+        /** Motivo del rechazo */
+        private final String motivo;
+        
+        /**
+         * Constructor de la fila rechazada.
+         * 
+         * @param linea  Número de línea de la fila en el archivo
+         * @param motivo Motivo del rechazo
+         */
+        FilaRechazada(long linea, String motivo) {
+            this.linea = linea;
+            this.motivo = motivo;
+        }
+        
+        /**
+         * Obtiene el número de línea de la fila en el archivo.
+         * 
+         * @return El número de línea, empezando en 1
+         */
+        public long getLinea() {
+            return linea;
+        }
+        
+        /**
+         * Obtiene el motivo del rechazo.
+         * 
+         * @return Descripción del motivo del rechazo
+         */
+        public String getMotivo() {
+            return motivo;
+        }
+        
+        /**
+         * Representación en texto de la fila rechazada.
+         * 
+         * @return Línea y motivo del rechazo
+         */
+        @Override
+        public String toString() {
+            return "Línea " + linea + ": " + motivo;
+        }
+    }
+    
+    /**
+     * Constructor del resultado de importación.
+     * 
+     * @param filasLeidas     Número de filas de datos leídas
+     * @param filasImportadas Número de filas importadas
+     * @param filasRechazadas Número de filas rechazadas
+     * @param rechazos        Detalle de las primeras filas rechazadas
+     * @param duracionMs      Duración de la importación en milisegundos
+     */
+    ResultadoImportacion(long filasLeidas, long filasImportadas, long filasRechazadas,
+                         List<FilaRechazada> rechazos, long duracionMs) {
+        this.filasLeidas = filasLeidas;
+        this.filasImportadas = filasImportadas;
+        this.filasRechazadas = filasRechazadas;
+        this.rechazos = Collections.unmodifiableList(rechazos);
+        this.duracionMs = duracionMs;
+    }
+    
+    /**
+     * Obtiene el número de filas de datos leídas del archivo.
+     * 
+     * @return Número de filas leídas, sin contar el encabezado ni las líneas vacías
+     */
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+    
+    /**
+     * Obtiene el número de filas importadas al repositorio.
+     * 
+     * @return Número de filas importadas
+     */
+    public long getFilasImportadas() {
+        return filasImportadas;
+    }
+    
+    /**
+     * Obtiene el número de filas rechazadas.
+     * 
+     * @return Número de filas rechazadas
+     */
+    public long getFilasRechazadas() {
+        return filasRechazadas;
+    }
+    
+    /**
+     * Obtiene el detalle de las primeras filas rechazadas.
+     * 
+     * @return Lista inmutable de filas rechazadas en orden de línea
+     */
+    public List<FilaRechazada> getRechazos() {
+        return rechazos;
+    }
+    
+    /**
+     * Obtiene la duración de la importación.
+     * 
+     * @return Duración en milisegundos
+     */
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+    
+    /**
+     * Representación en texto del resultado de la importación.
+     * 
+     * @return Resumen de la importación
+     */
+    @Override
+    public String toString() {
+        return String.format(
+            "Resultado de la Importación:\n" +
+            "Filas leídas: %d\n" +
+            "Filas importadas: %d\n" +
+            "Filas rechazadas: %d\n" +
+            "Duración: %d ms",
+            filasLeidas,
+            filasImportadas,
+            filasRechazadas,
+            duracionMs
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,766 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import udistrital.avanzada.rolapet.modelo.Item;
+import udistrital.avanzada.rolapet.modelo.Persona;
+import udistrital.avanzada.rolapet.modelo.Publicacion;
+import udistrital.avanzada.rolapet.modelo.RecomendacionAmigo;
+import udistrital.avanzada.rolapet.modelo.Vehiculo;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Servidor HTTP que expone las operaciones del controlador como servicios JSON.
+ * 
+ * Permite usar el sistema sin interfaz gráfica: los clientes inician
+ * sesión con POST /api/sesiones y envían el token recibido en la cabecera
+ * "Authorization: Bearer" de las demás solicitudes. Los servicios son:
+ * - POST /api/sesiones: inicia sesión con {credencial, password}
+ * - DELETE /api/sesiones: cierra la sesión del token
+ * - POST /api/usuarios: registra un usuario con {cedula, nombre, telefono, password, email}
+ * - GET /api/usuarios?limite=: lista los usuarios registrados
+ * - GET /api/sugerencias?prefijo=&cantidad=: sugiere personas por prefijo
+ * - GET, POST {cedula} y DELETE ?cedula= /api/amigos: amigos de la sesión
+ * - GET /api/recomendaciones?cantidad=: recomienda amigos a la sesión
+ * - GET /api/vehiculos?limite=: lista los vehículos registrados
+ * - GET /api/items?texto=&limite=: lista o busca los ítems
+ * - GET /api/publicaciones?texto=&limite=: lista o busca las publicaciones
+ * - GET /api/estadisticas: estadísticas del sistema
+ * 
+ * El servidor cubre el uso de una cuenta de usuario: sesiones, registro,
+ * amigos, recomendaciones y consulta del catálogo. Crear vehículos, ítems
+ * y publicaciones, paginar las listas más allá de su límite y las
+ * operaciones de administradores y proveedores quedan fuera a propósito
+ * y solo se ofrecen desde la interfaz gráfica.
+ * 
+ * Los inicios de sesión y los registros de usuarios no requieren token y
+ * derivan un hash de contraseña, por lo que ambos se limitan por la
+ * dirección remota del cliente con el limitador de intentos del
+ * controlador. Un intento rechazado por el limitador se responde con 429
+ * y la cabecera "Retry-After", distinto de las credenciales inválidas
+ * (401) o del usuario ya registrado (409). Si hay demasiadas
+ * verificaciones de contraseña en espera, el inicio de sesión se responde
+ * con 503 y "Retry-After", pues no se pudo saber si las credenciales eran
+ * válidas.
+ * 
+ * Cada solicitud se atiende en un hilo virtual cuando la máquina virtual
+ * los ofrece (Java 21 o posterior), de modo que una solicitud que espera
+ * la verificación de una contraseña o un cliente lento no ocupa un hilo
+ * de plataforma; en versiones anteriores se usa un grupo fijo de hilos.
+ * Las listas se escriben por partes a medida que se recorren: los primeros
+ * {@link #TAMANO_BUFER} bytes se acumulan y, si la lista cabe en ellos, se
+ * envía con su longitud, sin el costo de los bloques; si no, se continúa
+ * con la codificación por bloques de HTTP/1.1, por lo que una respuesta
+ * grande no se arma completa en memoria antes de enviarse.
+ * 
+ * El servidor HTTP del JDK deja activo por omisión el algoritmo de Nagle,
+ * que retrasa cada respuesta unos 40 ms; quien lo inicia debe activar la
+ * propiedad "sun.net.httpserver.nodelay" antes de crearlo, como hace
+ * {@link Launcher}.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class ServidorApi {
+    
+    /** Puerto por omisión del servidor */
+    public static final int PUERTO_POR_OMISION = 8080;
+    
+    /** Cantidad máxima por omisión de elementos de una lista */
+    static final int LIMITE_POR_OMISION = 100;
+    
+    /** Cantidad máxima de elementos de una lista que puede pedirse */
+    static final int LIMITE_MAXIMO = 10_000;
+    
+    /** Bytes de una lista que se acumulan antes de enviarla por bloques */
+    static final int TAMANO_BUFER = 8 * 1024;
+    
+    /** Tamaño máximo del cuerpo de una solicitud, en bytes */
+    private static final int MAXIMO_CUERPO = 16 * 1024;
+    
+    /** Conexiones pendientes de aceptar que admite el servidor */
+    private static final int CONEXIONES_PENDIENTES = 1024;
+    
+    /** Hilos por núcleo del grupo fijo que reemplaza a los hilos virtuales */
+    private static final int HILOS_POR_NUCLEO = 16;
+    
+    /** Segundos que se pide esperar antes de reintentar una solicitud rechazada por saturación */
+    private static final String SEGUNDOS_REINTENTO = "1";
+    
+    /** Prefijo de la cabecera de autorización con token */
+    private static final String PREFIJO_BEARER = "Bearer ";
+    
+    /** Tipo de contenido de las respuestas */
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+    
+    /** Claves de una sesión iniciada */
+    private static final List<String> CLAVES_SESION = List.of("token", "rol", "cedula", "nombre");
+    
+    /** Claves de una persona */
+    private static final List<String> CLAVES_PERSONA = List.of("cedula", "nombre", "email", "rol");
+    
+    /** Claves de una recomendación de amigo */
+    private static final List<String> CLAVES_RECOMENDACION = List.of("cedula", "nombre", "email", "amigosEnComun");
+    
+    /** Claves de un vehículo */
+    private static final List<String> CLAVES_VEHICULO = List.of("id", "marca", "modelo", "autonomiaKm", "tipo");
+    
+    /** Claves de un ítem */
+    private static final List<String> CLAVES_ITEM = List.of("id", "nombre", "descripcion", "tipo");
+    
+    /** Claves de una publicación */
+    private static final List<String> CLAVES_PUBLICACION = List.of("id", "titulo", "descripcion", "fechaCreacion", "tipo");
+    
+    /** Clave de los mensajes y errores */
+    private static final List<String> CLAVES_MENSAJE = List.of("mensaje");
+    
+    /** Controlador cuyas operaciones se exponen */
+    private final IControladorRolaPET controlador;
+    
+    /** Servidor HTTP */
+    private final HttpServer servidor;
+    
+    /** Ejecutor de las solicitudes */
+    private final ExecutorService ejecutor;
+    
+    /** Indica si el ejecutor usa hilos virtuales */
+    private final boolean hilosVirtuales;
+    
+    /**
+     * Atención de las solicitudes de una ruta.
+     */
+    @FunctionalInterface
+    private interface Ruta {
+        
+        /**
+         * Atiende una solicitud y envía su respuesta.
+         * 
+         * @param intercambio La solicitud y su respuesta
+         * @throws IOException Si ocurre un error de comunicación
+         */
+        void atender(HttpExchange intercambio) throws IOException;
+    }
+    
+    /**
+     * Error de una solicitud que se responde con un código de estado HTTP.
+     */
+    private static final class ErrorSolicitud extends RuntimeException {
+        
+        /** Versión de la forma serializada del error */
+        private static final long serialVersionUID = 1L;
+        
+        /** Código de estado HTTP de la respuesta */
+        private final int estado;
+        
+        /**
+         * Constructor del error.
+         * 
+         * @param estado  Código de estado HTTP de la respuesta
+         * @param mensaje Mensaje para el cliente
+         */
+        private ErrorSolicitud(int estado, String mensaje) {
+            super(mensaje);
+            this.estado = estado;
+        }
+    }
+    
+    /**
+     * Cuerpo de una respuesta que se acumula hasta un tamaño y luego se envía por bloques.
+     * 
+     * Las cabeceras se envían al llenarse el búfer, sin longitud, o al
+     * cerrar el cuerpo, con la longitud de lo acumulado.
+     */
+    private static final class CuerpoDiferido extends OutputStream {
+        
+        /** Solicitud cuya respuesta se escribe */
+        private final HttpExchange intercambio;
+        
+        /** Bytes acumulados, o null si ya se enviaron las cabeceras */
+        private ByteArrayOutputStream acumulado;
+        
+        /** Cuerpo de la respuesta, una vez enviadas las cabeceras */
+        private OutputStream cuerpo;
+        
+        /**
+         * Constructor del cuerpo diferido.
+         * 
+         * @param intercambio Solicitud cuya respuesta se escribe
+         */
+        private CuerpoDiferido(HttpExchange intercambio) {
+            this.intercambio = intercambio;
+            this.acumulado = new ByteArrayOutputStream(TAMANO_BUFER);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] bytes, int desde, int cantidad) throws IOException {
+            if (acumulado != null && acumulado.size() + cantidad > TAMANO_BUFER) {
+                intercambio.sendResponseHeaders(200, 0);
+                cuerpo = intercambio.getResponseBody();
+                acumulado.writeTo(cuerpo);
+                acumulado = null;
+            }
+            if (acumulado != null) {
+                acumulado.write(bytes, desde, cantidad);
+            } else {
+                cuerpo.write(bytes, desde, cantidad);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (acumulado != null) {
+                intercambio.sendResponseHeaders(200, acumulado.size());
+                cuerpo = intercambio.getResponseBody();
+                acumulado.writeTo(cuerpo);
+                acumulado = null;
+            }
+            cuerpo.close();
+        }
+    }
+    
+    /**
+     * Constructor del servidor, que queda creado pero sin atender solicitudes.
+     * 
+     * @param controlador Controlador cuyas operaciones se exponen
+     * @param direccion   Dirección y puerto en que escucha el servidor; el
+     *                    puerto 0 elige uno libre
+     * @throws IOException Si no se puede abrir el puerto
+     * @throws IllegalArgumentException Si el controlador o la dirección son nulos
+     */
+    public ServidorApi(IControladorRolaPET controlador, InetSocketAddress direccion) throws IOException {
+        if (controlador == null || direccion == null) {
+            throw new IllegalArgumentException("El controlador y la dirección del servidor no pueden ser nulos");
+        }
+        this.controlador = controlador;
+        this.servidor = HttpServer.create(direccion, CONEXIONES_PENDIENTES);
+        ExecutorService virtual = crearEjecutorVirtual();
+        this.hilosVirtuales = virtual != null;
+        this.ejecutor = virtual != null ? virtual : crearEjecutorFijo();
+        servidor.setExecutor(ejecutor);
+        registrar("/api/sesiones", this::atenderSesiones);
+        registrar("/api/usuarios", this::atenderUsuarios);
+        registrar("/api/sugerencias", this::atenderSugerencias);
+        registrar("/api/amigos", this::atenderAmigos);
+        registrar("/api/recomendaciones", this::atenderRecomendaciones);
+        registrar("/api/vehiculos", this::atenderVehiculos);
+        registrar("/api/items", this::atenderItems);
+        registrar("/api/publicaciones", this::atenderPublicaciones);
+        registrar("/api/estadisticas", this::atenderEstadisticas);
+    }
+    
+    /**
+     * Comienza a atender solicitudes.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+    
+    /**
+     * Deja de atender solicitudes y libera el puerto.
+     * 
+     * @param esperaSegundos Tiempo máximo que se espera a que terminen las
+     *                       solicitudes en curso, en segundos
+     */
+    public void detener(int esperaSegundos) {
+        servidor.stop(esperaSegundos);
+        ejecutor.shutdown();
+    }
+    
+    /**
+     * Obtiene el puerto en que escucha el servidor.
+     * 
+     * @return El puerto, útil cuando se creó con el puerto 0
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+    
+    /**
+     * Verifica si las solicitudes se atienden en hilos virtuales.
+     * 
+     * @return true si se usan hilos virtuales; false si se usa un grupo fijo de hilos
+     */
+    public boolean isHilosVirtuales() {
+        return hilosVirtuales;
+    }
+    
+    // === MÉTODOS DE LAS RUTAS ===
+    
+    /**
+     * Inicia o cierra una sesión.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderSesiones(HttpExchange intercambio) throws IOException {
+        String metodo = intercambio.getRequestMethod();
+        if ("POST".equals(metodo)) {
+            Map<String, String> cuerpo = leerCuerpo(intercambio);
+            Sesion sesion = controlador.iniciarSesion(cuerpo.get("credencial"), cuerpo.get("password"),
+                    origen(intercambio));
+            if (sesion == null) {
+                throw new ErrorSolicitud(401, "Credenciales inválidas");
+            }
+            Persona persona = sesion.getPersona();
+            responderObjeto(intercambio, 201, CLAVES_SESION,
+                    new Object[]{sesion.getToken(), persona.getRol(), persona.getCedula(), persona.getNombre()});
+        } else if ("DELETE".equals(metodo)) {
+            if (!controlador.cerrarSesion(token(intercambio))) {
+                throw new ErrorSolicitud(401, "Sesión no válida o vencida");
+            }
+            responderVacio(intercambio);
+        } else {
+            throw metodoNoPermitido();
+        }
+    }
+    
+    /**
+     * Registra un usuario o lista los usuarios registrados.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderUsuarios(HttpExchange intercambio) throws IOException {
+        String metodo = intercambio.getRequestMethod();
+        if ("POST".equals(metodo)) {
+            Map<String, String> cuerpo = leerCuerpo(intercambio);
+            if (!controlador.registrarUsuario(cuerpo.get("cedula"), cuerpo.get("nombre"), cuerpo.get("telefono"),
+                    cuerpo.get("password"), cuerpo.get("email"), origen(intercambio))) {
+                throw new ErrorSolicitud(409, "No se pudo registrar el usuario");
+            }
+            responderObjeto(intercambio, 201, CLAVES_MENSAJE, new Object[]{"Usuario registrado"});
+        } else if ("GET".equals(metodo)) {
+            sesion(intercambio);
+            int limite = entero(parametros(intercambio), "limite", LIMITE_POR_OMISION, LIMITE_MAXIMO);
+            responderLista(intercambio, CLAVES_PERSONA, controlador.consultarUsuarios().limitar(limite),
+                    ServidorApi::valoresPersona);
+        } else {
+            throw metodoNoPermitido();
+        }
+    }
+    
+    /**
+     * Sugiere personas cuyo nombre comienza por un prefijo.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderSugerencias(HttpExchange intercambio) throws IOException {
+        exigirGet(intercambio);
+        sesion(intercambio);
+        Map<String, String> parametros = parametros(intercambio);
+        int cantidad = entero(parametros, "cantidad", 10, LIMITE_MAXIMO);
+        responderLista(intercambio, CLAVES_PERSONA,
+                controlador.sugerirPersonas(parametros.getOrDefault("prefijo", ""), cantidad),
+                ServidorApi::valoresPersona);
+    }
+    
+    /**
+     * Lista, agrega o elimina amigos del usuario de la sesión.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderAmigos(HttpExchange intercambio) throws IOException {
+        Sesion sesion = sesion(intercambio);
+        String metodo = intercambio.getRequestMethod();
+        if ("GET".equals(metodo)) {
+            responderLista(intercambio, CLAVES_PERSONA, controlador.obtenerAmigos(sesion),
+                    ServidorApi::valoresPersona);
+        } else if ("POST".equals(metodo)) {
+            if (!controlador.agregarAmigo(sesion, leerCuerpo(intercambio).get("cedula"))) {
+                throw new ErrorSolicitud(409, "No se pudo agregar el amigo");
+            }
+            responderObjeto(intercambio, 201, CLAVES_MENSAJE, new Object[]{"Amigo agregado"});
+        } else if ("DELETE".equals(metodo)) {
+            if (!controlador.eliminarAmigo(sesion, parametros(intercambio).get("cedula"))) {
+                throw new ErrorSolicitud(404, "La persona no es amiga del usuario");
+            }
+            responderVacio(intercambio);
+        } else {
+            throw metodoNoPermitido();
+        }
+    }
+    
+    /**
+     * Recomienda amigos al usuario de la sesión.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderRecomendaciones(HttpExchange intercambio) throws IOException {
+        exigirGet(intercambio);
+        Sesion sesion = sesion(intercambio);
+        int cantidad = entero(parametros(intercambio), "cantidad", 10, LIMITE_MAXIMO);
+        responderLista(intercambio, CLAVES_RECOMENDACION, controlador.recomendarAmigos(sesion, cantidad),
+                (RecomendacionAmigo r) -> new Object[]{r.getUsuario().getCedula(), r.getUsuario().getNombre(),
+                        r.getUsuario().getEmail(), r.getAmigosEnComun()});
+    }
+    
+    /**
+     * Lista los vehículos registrados.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderVehiculos(HttpExchange intercambio) throws IOException {
+        exigirGet(intercambio);
+        sesion(intercambio);
+        int limite = entero(parametros(intercambio), "limite", LIMITE_POR_OMISION, LIMITE_MAXIMO);
+        responderLista(intercambio, CLAVES_VEHICULO, controlador.consultarVehiculos().limitar(limite),
+                (Vehiculo v) -> new Object[]{v.getId(), v.getMarca(), v.getModelo(), v.getAutonomiaKm(),
+                        v.getTipo()});
+    }
+    
+    /**
+     * Lista los ítems registrados o busca los que contienen un texto.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderItems(HttpExchange intercambio) throws IOException {
+        exigirGet(intercambio);
+        sesion(intercambio);
+        Map<String, String> parametros = parametros(intercambio);
+        int limite = entero(parametros, "limite", LIMITE_POR_OMISION, LIMITE_MAXIMO);
+        String texto = parametros.get("texto");
+        Iterable<Item> items = texto != null ? controlador.buscarItemsPorTexto(texto, limite)
+                : controlador.consultarItems().limitar(limite);
+        responderLista(intercambio, CLAVES_ITEM, items,
+                (Item i) -> new Object[]{i.getId(), i.getNombre(), i.getDescripcion(), i.getTipo()});
+    }
+    
+    /**
+     * Lista las publicaciones registradas o busca las que contienen un texto.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderPublicaciones(HttpExchange intercambio) throws IOException {
+        exigirGet(intercambio);
+        sesion(intercambio);
+        Map<String, String> parametros = parametros(intercambio);
+        int limite = entero(parametros, "limite", LIMITE_POR_OMISION, LIMITE_MAXIMO);
+        String texto = parametros.get("texto");
+        Iterable<Publicacion> publicaciones = texto != null ? controlador.buscarPublicacionesPorTexto(texto, limite)
+                : controlador.consultarPublicaciones().limitar(limite);
+        responderLista(intercambio, CLAVES_PUBLICACION, publicaciones,
+                (Publicacion p) -> new Object[]{p.getId(), p.getTitulo(), p.getDescripcion(),
+                        String.valueOf(p.getFechaCreacion()), p.getTipo()});
+    }
+    
+    /**
+     * Obtiene las estadísticas del sistema.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private void atenderEstadisticas(HttpExchange intercambio) throws IOException {
+        exigirGet(intercambio);
+        sesion(intercambio);
+        responderObjeto(intercambio, 200, CLAVES_MENSAJE, new Object[]{controlador.obtenerEstadisticasSistema()});
+    }
+    
+    // === MÉTODOS DE SOLICITUDES ===
+    
+    /**
+     * Registra una ruta, que responde a su camino exacto y rechaza los demás.
+     * 
+     * Los errores de la solicitud se responden con su código de estado y un
+     * mensaje; los datos inválidos con 400, los intentos rechazados por el
+     * limitador con 429, las tareas rechazadas por un ejecutor saturado con
+     * 503 y cualquier otro error con 500. Los 429 y 503 indican en la
+     * cabecera "Retry-After" cuántos segundos esperar antes de reintentar.
+     * 
+     * @param camino Camino de la ruta
+     * @param ruta   Atención de las solicitudes de la ruta
+     */
+    private void registrar(String camino, Ruta ruta) {
+        servidor.createContext(camino, intercambio -> {
+            try {
+                if (!camino.equals(intercambio.getRequestURI().getPath())) {
+                    throw new ErrorSolicitud(404, "Ruta no encontrada");
+                }
+                ruta.atender(intercambio);
+            } catch (ErrorSolicitud e) {
+                responderError(intercambio, e.estado, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                responderError(intercambio, 400, e.getMessage());
+            } catch (IntentosExcedidosException e) {
+                intercambio.getResponseHeaders().set("Retry-After", String.valueOf(e.getSegundosEspera()));
+                responderError(intercambio, 429, e.getMessage());
+            } catch (RejectedExecutionException e) {
+                intercambio.getResponseHeaders().set("Retry-After", SEGUNDOS_REINTENTO);
+                responderError(intercambio, 503, e.getMessage());
+            } catch (IOException e) {
+                // El cliente cerró la conexión; no hay a quién responder
+            } catch (RuntimeException e) {
+                System.err.println("Error al atender " + camino + ": " + e);
+                responderError(intercambio, 500, "Error interno del servidor");
+            } finally {
+                intercambio.close();
+            }
+        });
+    }
+    
+    /**
+     * Obtiene la sesión abierta del token de una solicitud.
+     * 
+     * @param intercambio La solicitud
+     * @return La sesión de la solicitud
+     * @throws ErrorSolicitud Con estado 401 si no hay token o no corresponde a una sesión abierta
+     */
+    private Sesion sesion(HttpExchange intercambio) {
+        Sesion sesion = controlador.obtenerSesion(token(intercambio));
+        if (sesion == null) {
+            throw new ErrorSolicitud(401, "Sesión no válida o vencida");
+        }
+        return sesion;
+    }
+    
+    /**
+     * Obtiene el token de la cabecera de autorización de una solicitud.
+     * 
+     * @param intercambio La solicitud
+     * @return El token, o null si la solicitud no trae uno
+     */
+    private static String token(HttpExchange intercambio) {
+        String autorizacion = intercambio.getRequestHeaders().getFirst("Authorization");
+        if (autorizacion == null || !autorizacion.regionMatches(true, 0, PREFIJO_BEARER, 0, PREFIJO_BEARER.length())) {
+            return null;
+        }
+        return autorizacion.substring(PREFIJO_BEARER.length()).trim();
+    }
+    
+    /**
+     * Obtiene el origen de una solicitud, con que se limitan los intentos.
+     * 
+     * @param intercambio La solicitud
+     * @return La dirección remota de la solicitud
+     */
+    private static String origen(HttpExchange intercambio) {
+        return intercambio.getRemoteAddress().getAddress().getHostAddress();
+    }
+    
+    /**
+     * Rechaza una solicitud que no usa el método GET.
+     * 
+     * @param intercambio La solicitud
+     * @throws ErrorSolicitud Con estado 405 si el método no es GET
+     */
+    private static void exigirGet(HttpExchange intercambio) {
+        if (!"GET".equals(intercambio.getRequestMethod())) {
+            throw metodoNoPermitido();
+        }
+    }
+    
+    /**
+     * Crea el error de un método no permitido en una ruta.
+     * 
+     * @return El error con estado 405
+     */
+    private static ErrorSolicitud metodoNoPermitido() {
+        return new ErrorSolicitud(405, "Método no permitido");
+    }
+    
+    /**
+     * Lee el cuerpo de una solicitud como objeto JSON plano.
+     * 
+     * @param intercambio La solicitud
+     * @return Las claves del objeto con su valor
+     * @throws IOException Si ocurre un error de lectura
+     * @throws ErrorSolicitud Con estado 413 si el cuerpo supera el tamaño máximo
+     * @throws IllegalArgumentException Si el cuerpo no es un objeto JSON plano
+     */
+    private static Map<String, String> leerCuerpo(HttpExchange intercambio) throws IOException {
+        byte[] bytes = intercambio.getRequestBody().readNBytes(MAXIMO_CUERPO + 1);
+        if (bytes.length > MAXIMO_CUERPO) {
+            throw new ErrorSolicitud(413, "El cuerpo de la solicitud es demasiado grande");
+        }
+        return LectorJson.leerObjeto(new String(bytes, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Obtiene los parámetros de la consulta de una solicitud.
+     * 
+     * @param intercambio La solicitud
+     * @return Los parámetros decodificados; si uno se repite, se conserva el primero
+     */
+    private static Map<String, String> parametros(HttpExchange intercambio) {
+        Map<String, String> parametros = new HashMap<>();
+        String consulta = intercambio.getRequestURI().getRawQuery();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            String nombre = igual >= 0 ? par.substring(0, igual) : par;
+            String valor = igual >= 0 ? par.substring(igual + 1) : "";
+            parametros.putIfAbsent(URLDecoder.decode(nombre, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+    
+    /**
+     * Obtiene un parámetro entero entre 0 y un máximo.
+     * 
+     * @param parametros Parámetros de la solicitud
+     * @param nombre     Nombre del parámetro
+     * @param omision    Valor si el parámetro no está
+     * @param maximo     Valor máximo del parámetro
+     * @return El valor del parámetro
+     * @throws IllegalArgumentException Si el parámetro no es un entero entre 0 y el máximo
+     */
+    private static int entero(Map<String, String> parametros, String nombre, int omision, int maximo) {
+        String texto = parametros.get(nombre);
+        if (texto == null) {
+            return omision;
+        }
+        int valor = Integer.parseInt(texto);
+        if (valor < 0 || valor > maximo) {
+            throw new IllegalArgumentException("El parámetro " + nombre + " debe estar entre 0 y " + maximo);
+        }
+        return valor;
+    }
+    
+    // === MÉTODOS DE RESPUESTAS ===
+    
+    /**
+     * Responde con un objeto JSON plano.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @param estado      Código de estado HTTP
+     * @param claves      Claves del objeto, en orden
+     * @param valores     Valor de cada clave
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private static void responderObjeto(HttpExchange intercambio, int estado, List<String> claves, Object[] valores)
+            throws IOException {
+        StringBuilder texto = new StringBuilder();
+        EscritorJson.escribirObjeto(texto, claves, valores);
+        byte[] bytes = texto.toString().getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", TIPO_JSON);
+        intercambio.sendResponseHeaders(estado, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+    
+    /**
+     * Responde con un arreglo JSON que se escribe por partes a medida que se recorren los elementos.
+     * 
+     * Un error al recorrer los elementos antes de llenar el primer búfer
+     * todavía puede responderse como error; después, la respuesta queda
+     * incompleta.
+     * 
+     * @param <T>         Tipo de los elementos
+     * @param intercambio La solicitud y su respuesta
+     * @param claves      Claves de cada objeto, en orden
+     * @param elementos   Elementos de la respuesta
+     * @param valores     Función que da el valor de cada clave para un elemento
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private static <T> void responderLista(HttpExchange intercambio, List<String> claves,
+                                           Iterable<? extends T> elementos, Function<? super T, Object[]> valores)
+            throws IOException {
+        intercambio.getResponseHeaders().set("Content-Type", TIPO_JSON);
+        Writer salida = new BufferedWriter(new OutputStreamWriter(new CuerpoDiferido(intercambio),
+                StandardCharsets.UTF_8));
+        EscritorJson.escribirArreglo(salida, claves, elementos, valores);
+        salida.close();
+    }
+    
+    /**
+     * Obtiene los valores de una persona en el orden de sus claves.
+     * 
+     * @param persona La persona
+     * @return Cédula, nombre, email y rol de la persona
+     */
+    private static Object[] valoresPersona(Persona persona) {
+        return new Object[]{persona.getCedula(), persona.getNombre(), persona.getEmail(), persona.getRol()};
+    }
+    
+    /**
+     * Responde sin cuerpo, con el código de estado 204.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @throws IOException Si ocurre un error de comunicación
+     */
+    private static void responderVacio(HttpExchange intercambio) throws IOException {
+        intercambio.sendResponseHeaders(204, -1);
+    }
+    
+    /**
+     * Responde con un mensaje de error, si aún no se envió la respuesta.
+     * 
+     * @param intercambio La solicitud y su respuesta
+     * @param estado      Código de estado HTTP
+     * @param mensaje     Mensaje del error
+     */
+    private static void responderError(HttpExchange intercambio, int estado, String mensaje) {
+        if (intercambio.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            responderObjeto(intercambio, estado, CLAVES_MENSAJE, new Object[]{mensaje});
+        } catch (IOException e) {
+            // El cliente cerró la conexión; no hay a quién responder
+        }
+    }
+    
+    // === MÉTODOS DE EJECUTORES ===
+    
+    /**
+     * Crea un ejecutor con un hilo virtual por solicitud, si la máquina virtual los ofrece.
+     * 
+     * Se obtiene por reflexión para que el sistema siga compilando y
+     * ejecutándose en versiones de Java sin hilos virtuales.
+     * 
+     * @return El ejecutor, o null si no hay hilos virtuales
+     */
+    private static ExecutorService crearEjecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Crea un grupo fijo de hilos de plataforma para las solicitudes.
+     * 
+     * Tiene varios hilos por núcleo porque las solicitudes pasan buena
+     * parte del tiempo esperando la red o la verificación de contraseñas.
+     * 
+     * @return El ejecutor
+     */
+    private static ExecutorService crearEjecutorFijo() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * HILOS_POR_NUCLEO, tarea -> {
+            Thread hilo = new Thread(tarea, "rolapet-servidor-api");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+}
\ No newline at end of file
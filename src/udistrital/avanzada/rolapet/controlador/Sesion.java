@@ -0,0 +1,142 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import udistrital.avanzada.rolapet.modelo.Persona;
+
+/**
+ * Sesión iniciada por una persona autenticada.
+ * 
+ * Una sesión se identifica con un token opaco y aleatorio y queda ligada
+ * a la persona que se autenticó, de modo que las operaciones hechas con
+ * la sesión usan esa persona directamente, sin volver a buscarla por su
+ * cédula. La sesión vence tras un tiempo sin uso o al cumplir su duración
+ * máxima, lo que ocurra primero; las reglas de vencimiento las aplica el
+ * {@link GestorSesiones} que la emitió.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class Sesion {
+    
+    /** Token opaco que identifica la sesión */
+    private final String token;
+    
+    /** Persona autenticada dueña de la sesión */
+    private final Persona persona;
+    
+    /** Instante de inicio de la sesión, en milisegundos */
+    private final long inicio;
+    
+    /** Instante del último uso de la sesión, en milisegundos */
+    private volatile long ultimoUso;
+    
+    /** Indica si la sesión se cerró o venció */
+    private volatile boolean cerrada;
+    
+    /**
+     * Constructor de la sesión.
+     * 
+     * @param token   Token opaco que identifica la sesión
+     * @param persona Persona autenticada dueña de la sesión
+     * @param inicio  Instante de inicio de la sesión, en milisegundos
+     */
+    Sesion(String token, Persona persona, long inicio) {
+        this.token = token;
+        this.persona = persona;
+        this.inicio = inicio;
+        this.ultimoUso = inicio;
+    }
+    
+    /**
+     * Obtiene el token opaco que identifica la sesión.
+     * 
+     * @return El token de la sesión
+     */
+    public String getToken() {
+        return token;
+    }
+    
+    /**
+     * Obtiene la persona autenticada dueña de la sesión.
+     * 
+     * @return La persona de la sesión
+     */
+    public Persona getPersona() {
+        return persona;
+    }
+    
+    /**
+     * Obtiene el instante de inicio de la sesión.
+     * 
+     * @return El instante de inicio, en milisegundos
+     */
+    public long getInicio() {
+        return inicio;
+    }
+    
+    /**
+     * Obtiene el instante del último uso de la sesión.
+     * 
+     * @return El instante del último uso, en milisegundos
+     */
+    public long getUltimoUso() {
+        return ultimoUso;
+    }
+    
+    /**
+     * Verifica si la sesión se cerró o venció.
+     * 
+     * Una sesión que aún no figura como cerrada puede haber vencido desde
+     * su último uso; el gestor la cierra la próxima vez que se use.
+     * 
+     * @return true si la sesión ya se cerró
+     */
+    public boolean isCerrada() {
+        return cerrada;
+    }
+    
+    /**
+     * Registra un uso de la sesión.
+     * 
+     * @param ahora Instante actual, en milisegundos
+     */
+    void usar(long ahora) {
+        if (ahora > ultimoUso) {
+            ultimoUso = ahora;
+        }
+    }
+    
+    /**
+     * Calcula el instante en que vence la sesión si no vuelve a usarse.
+     * 
+     * @param inactividadMs    Tiempo máximo sin uso, en milisegundos
+     * @param duracionMaximaMs Duración máxima de la sesión, en milisegundos
+     * @return El instante de vencimiento, en milisegundos
+     */
+    long vence(long inactividadMs, long duracionMaximaMs) {
+        return Math.min(ultimoUso + inactividadMs, inicio + duracionMaximaMs);
+    }
+    
+    /**
+     * Marca la sesión como cerrada.
+     */
+    void cerrar() {
+        cerrada = true;
+    }
+    
+    /**
+     * Genera una representación en texto de la sesión.
+     * 
+     * El token no se incluye, para que no quede en registros ni mensajes.
+     * 
+     * @return Una cadena con la cédula de la persona y el estado de la sesión
+     */
+    @Override
+    public String toString() {
+        return "Sesion{" +
+                "persona='" + persona.getCedula() + '\'' +
+                ", inicio=" + inicio +
+                ", cerrada=" + cerrada +
+                '}';
+    }
+}
\ No newline at end of file
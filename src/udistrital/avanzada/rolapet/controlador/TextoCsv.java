@@ -0,0 +1,116 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilidades para leer y escribir líneas en formato CSV.
+ * 
+ * Sigue las reglas habituales del formato: los campos se separan con
+ * comas y los que contienen comas, comillas o saltos de línea van entre
+ * comillas dobles, duplicando las comillas internas. Un campo entre
+ * comillas puede contener saltos de línea, por lo que un registro puede
+ * abarcar varias líneas del archivo; {@link #comillasAbiertas(CharSequence)}
+ * permite saber si una línea deja un campo abierto y el registro continúa
+ * en la siguiente.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class TextoCsv {
+    
+    /**
+     * Constructor privado para evitar la instanciación de la clase.
+     */
+    private TextoCsv() {
+    }
+    
+    /**
+     * Divide una línea CSV en sus campos.
+     * 
+     * @param linea La línea a dividir
+     * @return Lista con el valor de cada campo, sin comillas
+     * @throws IllegalArgumentException Si la línea tiene comillas sin cerrar o mal ubicadas
+     */
+    static List<String> dividir(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        int i = 0;
+        int longitud = linea.length();
+        while (true) {
+            if (i < longitud && linea.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= longitud) {
+                        throw new IllegalArgumentException("Comillas sin cerrar");
+                    }
+                    char c = linea.charAt(i++);
+                    if (c == '"') {
+                        if (i < longitud && linea.charAt(i) == '"') {
+                            campo.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        campo.append(c);
+                    }
+                }
+                if (i < longitud && linea.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Texto después de comillas en la columna " + (campos.size() + 1));
+                }
+            } else {
+                int coma = linea.indexOf(',', i);
+                int fin = coma >= 0 ? coma : longitud;
+                campo.append(linea, i, fin);
+                i = fin;
+            }
+            campos.add(campo.toString());
+            campo.setLength(0);
+            if (i >= longitud) {
+                return campos;
+            }
+            i++;
+        }
+    }
+    
+    /**
+     * Verifica si un texto deja abierto un campo entre comillas.
+     * 
+     * Como las comillas internas de un campo van duplicadas, un texto deja
+     * un campo abierto exactamente cuando tiene una cantidad impar de
+     * comillas. Por eso un registro de varias líneas deja un campo abierto
+     * si y solo si una cantidad impar de sus líneas lo hace.
+     * 
+     * @param texto El texto a revisar
+     * @return true si el texto tiene una cantidad impar de comillas
+     */
+    static boolean comillasAbiertas(CharSequence texto) {
+        boolean abiertas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') {
+                abiertas = !abiertas;
+            }
+        }
+        return abiertas;
+    }
+    
+    /**
+     * Escapa un valor para escribirlo como campo CSV.
+     * 
+     * @param valor El valor a escapar, o null para un campo vacío
+     * @return El valor listo para escribirse, entre comillas solo si es necesario
+     */
+    static String escapar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        boolean requiereComillas = false;
+        for (int i = 0; i < valor.length() && !requiereComillas; i++) {
+            char c = valor.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return requiereComillas ? '"' + valor.replace("\"", "\"\"") + '"' : valor;
+    }
+}
\ No newline at end of file
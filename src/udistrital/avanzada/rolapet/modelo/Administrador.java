@@ -57,6 +57,7 @@ public class Administrador extends Persona {
      */
     public void setEmail(String email) {
         this.email = email;
+        Repositorio.notificarCambioEmail(this);
     }
     
     /**
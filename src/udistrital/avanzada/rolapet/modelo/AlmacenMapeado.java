@@ -0,0 +1,451 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Almacén de solo lectura del catálogo de vehículos, items y publicaciones
+ * en un archivo binario compacto mapeado en memoria.
+ * 
+ * Cada tabla del archivo contiene un resumen de la cantidad de registros
+ * por tipo, la posición de cada registro en orden de registro, los números
+ * de registro ordenados por ID y finalmente los registros, codificados con
+ * {@link CodificadorEntidades}. Las posiciones fijas permiten leer el
+ * registro i-ésimo o buscar un ID por búsqueda binaria directamente sobre
+ * la memoria mapeada, sin deserializar el resto de la tabla ni ocupar
+ * memoria del heap por los registros que no se consultan.
+ * 
+ * Los IDs se ordenan comparando sus bytes UTF-8 sin signo, lo que permite
+ * compararlos durante la búsqueda sin decodificarlos.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class AlmacenMapeado {
+    
+    /** Número mágico que identifica los archivos del almacén ("RPC1") */
+    private static final int MAGICO = 0x52504331;
+    
+    /** Versión del formato del almacén */
+    private static final int VERSION = 1;
+    
+    /** Número de tablas del archivo: vehículos, items y publicaciones */
+    private static final int TABLAS = 3;
+    
+    /** Tamaño de la cabecera: mágico, versión y por tabla posición y longitud */
+    private static final int CABECERA = 4 + 4 + TABLAS * 16;
+    
+    /**
+     * Lectura de una entidad desde su representación binaria.
+     * 
+     * @param <T> Tipo de entidad leída
+     */
+    private interface LectorEntidad<T> {
+        
+        /**
+         * Lee una entidad.
+         * 
+         * @param entrada Origen de la lectura
+         * @return La entidad leída
+         * @throws IOException Si el registro es inválido
+         */
+        T leer(DataInput entrada) throws IOException;
+    }
+    
+    /**
+     * Escritura de una entidad en su representación binaria.
+     * 
+     * @param <T> Tipo de entidad escrita
+     */
+    private interface EscritorEntidad<T> {
+        
+        /**
+         * Escribe una entidad.
+         * 
+         * @param salida  Destino de la escritura
+         * @param entidad La entidad a escribir
+         * @throws IOException Si ocurre un error de escritura
+         */
+        void escribir(DataOutputStream salida, T entidad) throws IOException;
+    }
+    
+    /** Archivo mapeado, como ruta absoluta */
+    private final Path archivo;
+    
+    /** Tabla de vehículos */
+    private final Tabla<Vehiculo> vehiculos;
+    
+    /** Tabla de items */
+    private final Tabla<Item> items;
+    
+    /** Tabla de publicaciones */
+    private final Tabla<Publicacion> publicaciones;
+    
+    /**
+     * Constructor del almacén.
+     * 
+     * @param archivo       Archivo mapeado, como ruta absoluta
+     * @param vehiculos     Tabla de vehículos
+     * @param items         Tabla de items
+     * @param publicaciones Tabla de publicaciones
+     */
+    private AlmacenMapeado(Path archivo, Tabla<Vehiculo> vehiculos, Tabla<Item> items,
+                           Tabla<Publicacion> publicaciones) {
+        this.archivo = archivo;
+        this.vehiculos = vehiculos;
+        this.items = items;
+        this.publicaciones = publicaciones;
+    }
+    
+    /**
+     * Obtiene el archivo mapeado.
+     * 
+     * @return La ruta absoluta del archivo
+     */
+    Path getArchivo() {
+        return archivo;
+    }
+    
+    /**
+     * Obtiene la tabla de vehículos.
+     * 
+     * @return La tabla de vehículos del almacén
+     */
+    Tabla<Vehiculo> getVehiculos() {
+        return vehiculos;
+    }
+    
+    /**
+     * Obtiene la tabla de items.
+     * 
+     * @return La tabla de items del almacén
+     */
+    Tabla<Item> getItems() {
+        return items;
+    }
+    
+    /**
+     * Obtiene la tabla de publicaciones.
+     * 
+     * @return La tabla de publicaciones del almacén
+     */
+    Tabla<Publicacion> getPublicaciones() {
+        return publicaciones;
+    }
+    
+    /**
+     * Escribe un archivo de almacén con las entidades indicadas.
+     * 
+     * Este método escribe primero un archivo temporal y luego lo mueve de
+     * forma atómica al nombre definitivo.
+     * 
+     * @param archivo       Archivo de destino
+     * @param vehiculos     Vehículos a guardar, en orden de registro
+     * @param items         Items a guardar, en orden de registro
+     * @param publicaciones Publicaciones a guardar, en orden de registro
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribir(Path archivo, List<Vehiculo> vehiculos, List<Item> items,
+                         List<Publicacion> publicaciones) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        long[] tablas = new long[TABLAS * 2];
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            canal.position(CABECERA);
+            escribirTabla(canal, tablas, 0, vehiculos, Vehiculo::getId, Vehiculo::getTipo,
+                    CodificadorEntidades::escribirVehiculo);
+            escribirTabla(canal, tablas, 1, items, Item::getId, Item::getTipo,
+                    CodificadorEntidades::escribirItem);
+            escribirTabla(canal, tablas, 2, publicaciones, Publicacion::getId, Publicacion::getTipo,
+                    CodificadorEntidades::escribirPublicacion);
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            cabecera.putInt(MAGICO).putInt(VERSION);
+            for (long valor : tablas) {
+                cabecera.putLong(valor);
+            }
+            cabecera.flip();
+            long posicion = 0;
+            while (cabecera.hasRemaining()) {
+                posicion += canal.write(cabecera, posicion);
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Abre un archivo de almacén mapeándolo en memoria.
+     * 
+     * @param archivo Archivo del almacén
+     * @return El almacén abierto
+     * @throws IOException Si el archivo no es un almacén válido o no se puede leer
+     */
+    static AlmacenMapeado abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            while (cabecera.hasRemaining()) {
+                if (canal.read(cabecera, cabecera.position()) < 0) {
+                    throw new IOException("Almacén incompleto: " + archivo);
+                }
+            }
+            cabecera.flip();
+            if (cabecera.getInt() != MAGICO || cabecera.getInt() != VERSION) {
+                throw new IOException("Formato de almacén no reconocido: " + archivo);
+            }
+            ByteBuffer[] regiones = new ByteBuffer[TABLAS];
+            for (int i = 0; i < TABLAS; i++) {
+                long posicion = cabecera.getLong();
+                long longitud = cabecera.getLong();
+                if (posicion < CABECERA || longitud < 4 || longitud > Integer.MAX_VALUE
+                        || posicion + longitud > canal.size()) {
+                    throw new IOException("Tabla inválida en el almacén: " + archivo);
+                }
+                regiones[i] = canal.map(FileChannel.MapMode.READ_ONLY, posicion, longitud);
+            }
+            return new AlmacenMapeado(archivo.toAbsolutePath(),
+                    new Tabla<>(regiones[0], CodificadorEntidades::leerVehiculo),
+                    new Tabla<>(regiones[1], CodificadorEntidades::leerItem),
+                    new Tabla<>(regiones[2], CodificadorEntidades::leerPublicacion));
+        }
+    }
+    
+    /**
+     * Escribe una tabla del archivo y anota su posición y longitud.
+     * 
+     * @param <T>       Tipo de entidad de la tabla
+     * @param canal     Canal del archivo, posicionado donde empieza la tabla
+     * @param tablas    Arreglo donde se anotan los datos de cada tabla
+     * @param tabla     Índice de la tabla
+     * @param entidades Entidades a escribir, en orden de registro
+     * @param clave     Función que obtiene el ID de una entidad
+     * @param tipo      Función que obtiene el tipo de una entidad
+     * @param escritor  Escritura de cada entidad
+     * @throws IOException Si ocurre un error de escritura
+     */
+    private static <T> void escribirTabla(FileChannel canal, long[] tablas, int tabla, List<T> entidades,
+                                          Function<T, String> clave, Function<T, String> tipo,
+                                          EscritorEntidad<T> escritor) throws IOException {
+        long inicio = canal.position();
+        int cantidad = entidades.size();
+        Map<String, Integer> resumen = new LinkedHashMap<>();
+        byte[][] ids = new byte[cantidad][];
+        for (int i = 0; i < cantidad; i++) {
+            T entidad = entidades.get(i);
+            resumen.merge(tipo.apply(entidad), 1, Integer::sum);
+            ids[i] = clave.apply(entidad).getBytes(StandardCharsets.UTF_8);
+        }
+        Integer[] porId = new Integer[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            porId[i] = i;
+        }
+        Arrays.sort(porId, (a, b) -> Arrays.compareUnsigned(ids[a], ids[b]));
+        
+        DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(canal), 1 << 16));
+        salida.writeInt(cantidad);
+        salida.writeInt(resumen.size());
+        for (Map.Entry<String, Integer> entrada : resumen.entrySet()) {
+            CodificadorEntidades.escribirTexto(salida, entrada.getKey());
+            salida.writeInt(entrada.getValue());
+        }
+        salida.flush();
+        long inicioPosiciones = canal.position();
+        canal.position(inicioPosiciones + 8L * cantidad);
+        
+        int[] posiciones = new int[cantidad];
+        DataOutputStream datos = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(canal), 1 << 16));
+        for (int i = 0; i < cantidad; i++) {
+            posiciones[i] = datos.size();
+            escritor.escribir(datos, entidades.get(i));
+        }
+        datos.flush();
+        if (datos.size() == Integer.MAX_VALUE) {
+            throw new IOException("La tabla excede el tamaño máximo del almacén");
+        }
+        long fin = canal.position();
+        
+        ByteBuffer indices = ByteBuffer.allocate(8 * cantidad);
+        for (int posicion : posiciones) {
+            indices.putInt(posicion);
+        }
+        for (Integer registro : porId) {
+            indices.putInt(registro);
+        }
+        indices.flip();
+        long posicion = inicioPosiciones;
+        while (indices.hasRemaining()) {
+            posicion += canal.write(indices, posicion);
+        }
+        canal.position(fin);
+        tablas[tabla * 2] = inicio;
+        tablas[tabla * 2 + 1] = fin - inicio;
+    }
+    
+    /**
+     * Tabla de entidades de un mismo tipo dentro del almacén mapeado.
+     * 
+     * Las lecturas usan posiciones absolutas sobre el búfer mapeado, por lo
+     * que una tabla puede consultarse desde varios hilos a la vez.
+     * 
+     * @param <T> Tipo de entidad de la tabla
+     */
+    static final class Tabla<T> {
+        
+        /** Región mapeada de la tabla */
+        private final ByteBuffer region;
+        
+        /** Lectura de cada registro */
+        private final LectorEntidad<T> lector;
+        
+        /** Número de registros de la tabla */
+        private final int cantidad;
+        
+        /** Cantidad de registros por tipo de entidad */
+        private final Map<String, Integer> cantidadPorTipo;
+        
+        /** Posición donde empiezan las posiciones de los registros */
+        private final int inicioPosiciones;
+        
+        /** Posición donde empiezan los números de registro ordenados por ID */
+        private final int inicioOrden;
+        
+        /** Posición donde empiezan los registros */
+        private final int inicioDatos;
+        
+        /**
+         * Constructor de la tabla.
+         * 
+         * @param region Región mapeada de la tabla
+         * @param lector Lectura de cada registro
+         * @throws IOException Si la tabla es inválida
+         */
+        private Tabla(ByteBuffer region, LectorEntidad<T> lector) throws IOException {
+            this.region = region;
+            this.lector = lector;
+            DataInput entrada = CodificadorEntidades.entrada(region);
+            this.cantidad = entrada.readInt();
+            Map<String, Integer> resumen = new LinkedHashMap<>();
+            int tipos = entrada.readInt();
+            int posicion = 8;
+            for (int i = 0; i < tipos; i++) {
+                String tipo = CodificadorEntidades.leerTexto(entrada);
+                resumen.put(tipo, entrada.readInt());
+                posicion += 8 + (tipo != null ? tipo.getBytes(StandardCharsets.UTF_8).length : 0);
+            }
+            this.cantidadPorTipo = Collections.unmodifiableMap(resumen);
+            this.inicioPosiciones = posicion;
+            this.inicioOrden = posicion + 4 * cantidad;
+            this.inicioDatos = inicioOrden + 4 * cantidad;
+            if (cantidad < 0 || inicioDatos > region.capacity()) {
+                throw new IOException("Tabla del almacén inválida");
+            }
+        }
+        
+        /**
+         * Obtiene el número de registros de la tabla.
+         * 
+         * @return La cantidad de registros
+         */
+        int tamano() {
+            return cantidad;
+        }
+        
+        /**
+         * Obtiene la cantidad de registros por tipo de entidad.
+         * 
+         * @return Mapa inmutable de tipo a cantidad
+         */
+        Map<String, Integer> getCantidadPorTipo() {
+            return cantidadPorTipo;
+        }
+        
+        /**
+         * Materializa un registro de la tabla como un objeto del modelo.
+         * 
+         * Cada invocación crea un objeto nuevo; la colección que usa la
+         * tabla es la responsable de conservar los ya materializados.
+         * 
+         * @param registro Número del registro, en orden de registro
+         * @return La entidad del registro
+         * @throws UncheckedIOException Si el registro es inválido
+         */
+        T leer(int registro) {
+            ByteBuffer copia = region.duplicate();
+            copia.position(inicioDatos + region.getInt(inicioPosiciones + 4 * registro));
+            try {
+                return lector.leer(CodificadorEntidades.entrada(copia));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Registro inválido en el almacén mapeado", e);
+            }
+        }
+        
+        /**
+         * Busca el número de registro de un ID mediante búsqueda binaria.
+         * 
+         * Este método compara los bytes del ID directamente sobre la memoria
+         * mapeada, sin materializar ningún registro.
+         * 
+         * @param id El ID a buscar
+         * @return El número del registro, o -1 si el ID no está en la tabla
+         */
+        int buscar(String id) {
+            byte[] objetivo = id.getBytes(StandardCharsets.UTF_8);
+            int bajo = 0;
+            int alto = cantidad - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                int registro = region.getInt(inicioOrden + 4 * medio);
+                int comparacion = compararId(registro, objetivo);
+                if (comparacion < 0) {
+                    bajo = medio + 1;
+                } else if (comparacion > 0) {
+                    alto = medio - 1;
+                } else {
+                    return registro;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Compara el ID de un registro con un ID en bytes UTF-8.
+         * 
+         * @param registro Número del registro
+         * @param objetivo ID a comparar en bytes UTF-8
+         * @return Negativo, cero o positivo si el ID del registro es menor, igual o mayor
+         */
+        private int compararId(int registro, byte[] objetivo) {
+            int posicion = inicioDatos + region.getInt(inicioPosiciones + 4 * registro);
+            posicion += 4 + Math.max(region.getInt(posicion), 0);
+            int longitud = region.getInt(posicion);
+            posicion += 4;
+            int comun = Math.min(longitud, objetivo.length);
+            for (int i = 0; i < comun; i++) {
+                int diferencia = (region.get(posicion + i) & 0xFF) - (objetivo[i] & 0xFF);
+                if (diferencia != 0) {
+                    return diferencia;
+                }
+            }
+            return longitud - objetivo.length;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package udistrital.avanzada.rolapet.modelo;
+
+/**
+ * Cambio inmutable de una amistad entre dos usuarios.
+ * 
+ * Un cambio indica que dos usuarios se hicieron amigos o dejaron de serlo.
+ * Se usa tanto para pedir cambios en lote al repositorio como para
+ * informar a los oyentes de amistades los cambios que se aplicaron. Las
+ * amistades son recíprocas, por lo que el orden de los usuarios no altera
+ * el significado del cambio.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class CambioAmistad {
+    
+    /**
+     * Tipos de cambio de una amistad.
+     */
+    public enum Tipo {
+        
+        /** Los usuarios se hicieron amigos */
+        AGREGADA,
+        
+        /** Los usuarios dejaron de ser amigos */
+        ELIMINADA
+    }
+    
+    /** Tipo de cambio */
+    private final Tipo tipo;
+    
+    /** Primer usuario de la amistad */
+    private final Usuario usuario;
+    
+    /** Segundo usuario de la amistad */
+    private final Usuario amigo;
+    
+    /**
+     * Constructor del cambio.
+     * 
+     * @param tipo    Tipo de cambio
+     * @param usuario Primer usuario de la amistad
+     * @param amigo   Segundo usuario de la amistad
+     */
+    private CambioAmistad(Tipo tipo, Usuario usuario, Usuario amigo) {
+        this.tipo = tipo;
+        this.usuario = usuario;
+        this.amigo = amigo;
+    }
+    
+    /**
+     * Crea el cambio que hace amigos a dos usuarios.
+     * 
+     * @param usuario Primer usuario
+     * @param amigo   Segundo usuario
+     * @return El cambio de tipo AGREGADA
+     * @throws IllegalArgumentException Si algún usuario es nulo
+     */
+    public static CambioAmistad agregar(Usuario usuario, Usuario amigo) {
+        return crear(Tipo.AGREGADA, usuario, amigo);
+    }
+    
+    /**
+     * Crea el cambio que termina la amistad entre dos usuarios.
+     * 
+     * @param usuario Primer usuario
+     * @param amigo   Segundo usuario
+     * @return El cambio de tipo ELIMINADA
+     * @throws IllegalArgumentException Si algún usuario es nulo
+     */
+    public static CambioAmistad eliminar(Usuario usuario, Usuario amigo) {
+        return crear(Tipo.ELIMINADA, usuario, amigo);
+    }
+    
+    /**
+     * Crea un cambio validando sus usuarios.
+     * 
+     * @param tipo    Tipo de cambio
+     * @param usuario Primer usuario
+     * @param amigo   Segundo usuario
+     * @return El cambio
+     * @throws IllegalArgumentException Si algún usuario es nulo
+     */
+    private static CambioAmistad crear(Tipo tipo, Usuario usuario, Usuario amigo) {
+        if (usuario == null || amigo == null) {
+            throw new IllegalArgumentException("Los usuarios de una amistad no pueden ser nulos");
+        }
+        return new CambioAmistad(tipo, usuario, amigo);
+    }
+    
+    /**
+     * Obtiene el tipo de cambio.
+     * 
+     * @return AGREGADA o ELIMINADA
+     */
+    public Tipo getTipo() {
+        return tipo;
+    }
+    
+    /**
+     * Obtiene el primer usuario de la amistad.
+     * 
+     * @return El primer usuario
+     */
+    public Usuario getUsuario() {
+        return usuario;
+    }
+    
+    /**
+     * Obtiene el segundo usuario de la amistad.
+     * 
+     * @return El segundo usuario
+     */
+    public Usuario getAmigo() {
+        return amigo;
+    }
+    
+    /**
+     * Genera una representación en texto del cambio.
+     * 
+     * @return Una cadena con el tipo de cambio y las cédulas de ambos usuarios
+     */
+    @Override
+    public String toString() {
+        return "CambioAmistad{" +
+                "tipo=" + tipo +
+                ", usuario='" + usuario.getCedula() + '\'' +
+                ", amigo='" + amigo.getCedula() + '\'' +
+                '}';
+    }
+}
\ No newline at end of file
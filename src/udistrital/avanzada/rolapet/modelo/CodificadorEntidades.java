@@ -0,0 +1,225 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codificador binario de las entidades del sistema RolaPet.
+ * 
+ * Esta clase define el formato compacto con el que las entidades se
+ * escriben en disco: los textos se guardan como UTF-8 precedido de su
+ * longitud en bytes (o -1 para null) y los números como enteros de
+ * cuatro bytes. Es utilizada por el diario de escritura, las instantáneas
+ * y el almacén mapeado del repositorio para que todos los archivos
+ * compartan la misma representación.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class CodificadorEntidades {
+    
+    /**
+     * Constructor privado para evitar la instanciación del codificador.
+     */
+    private CodificadorEntidades() {
+    }
+    
+    /**
+     * Escribe un texto como UTF-8 precedido de su longitud en bytes.
+     * 
+     * @param salida Destino de la escritura
+     * @param texto  El texto a escribir, puede ser null
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirTexto(DataOutput salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+    
+    /**
+     * Lee un texto escrito con {@link #escribirTexto(DataOutput, String)}.
+     * 
+     * @param entrada Origen de la lectura
+     * @return El texto leído, o null si se escribió null
+     * @throws IOException Si ocurre un error de lectura o el dato es inválido
+     */
+    static String leerTexto(DataInput entrada) throws IOException {
+        int longitud = entrada.readInt();
+        if (longitud == -1) {
+            return null;
+        }
+        if (longitud < 0) {
+            throw new IOException("Longitud de texto inválida: " + longitud);
+        }
+        byte[] bytes = new byte[longitud];
+        entrada.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Escribe una persona con su rol y todos sus datos básicos.
+     * 
+     * @param salida  Destino de la escritura
+     * @param persona La persona a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirPersona(DataOutput salida, Persona persona) throws IOException {
+        escribirTexto(salida, persona.getRol());
+        escribirTexto(salida, persona.getCedula());
+        escribirTexto(salida, persona.getNombre());
+        escribirTexto(salida, persona.getTelefono());
+        escribirTexto(salida, persona.getPassword());
+        escribirTexto(salida, persona.getEmail());
+    }
+    
+    /**
+     * Lee una persona escrita con {@link #escribirPersona(DataOutput, Persona)}.
+     * 
+     * @param entrada Origen de la lectura
+     * @return La persona reconstruida
+     * @throws IOException Si ocurre un error de lectura o el rol es desconocido
+     */
+    static Persona leerPersona(DataInput entrada) throws IOException {
+        String rol = leerTexto(entrada);
+        Persona persona = FabricaEntidades.crearPersona(rol, leerTexto(entrada), leerTexto(entrada),
+                leerTexto(entrada), leerTexto(entrada), leerTexto(entrada));
+        if (persona == null) {
+            throw new IOException("Rol de persona desconocido: " + rol);
+        }
+        return persona;
+    }
+    
+    /**
+     * Escribe un vehículo con su tipo y todos sus datos.
+     * 
+     * @param salida   Destino de la escritura
+     * @param vehiculo El vehículo a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirVehiculo(DataOutput salida, Vehiculo vehiculo) throws IOException {
+        escribirTexto(salida, vehiculo.getTipo());
+        escribirTexto(salida, vehiculo.getId());
+        escribirTexto(salida, vehiculo.getMarca());
+        escribirTexto(salida, vehiculo.getModelo());
+        salida.writeInt(vehiculo.getAutonomiaKm());
+    }
+    
+    /**
+     * Lee un vehículo escrito con {@link #escribirVehiculo(DataOutput, Vehiculo)}.
+     * 
+     * @param entrada Origen de la lectura
+     * @return El vehículo reconstruido
+     * @throws IOException Si ocurre un error de lectura o el tipo es desconocido
+     */
+    static Vehiculo leerVehiculo(DataInput entrada) throws IOException {
+        String tipo = leerTexto(entrada);
+        Vehiculo vehiculo = FabricaEntidades.crearVehiculo(tipo, leerTexto(entrada), leerTexto(entrada),
+                leerTexto(entrada), entrada.readInt());
+        if (vehiculo == null) {
+            throw new IOException("Tipo de vehículo desconocido: " + tipo);
+        }
+        return vehiculo;
+    }
+    
+    /**
+     * Escribe un item con su tipo y todos sus datos.
+     * 
+     * @param salida Destino de la escritura
+     * @param item   El item a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirItem(DataOutput salida, Item item) throws IOException {
+        escribirTexto(salida, item.getTipo());
+        escribirTexto(salida, item.getId());
+        escribirTexto(salida, item.getNombre());
+        escribirTexto(salida, item.getDescripcion());
+    }
+    
+    /**
+     * Lee un item escrito con {@link #escribirItem(DataOutput, Item)}.
+     * 
+     * @param entrada Origen de la lectura
+     * @return El item reconstruido
+     * @throws IOException Si ocurre un error de lectura o el tipo es desconocido
+     */
+    static Item leerItem(DataInput entrada) throws IOException {
+        String tipo = leerTexto(entrada);
+        Item item = FabricaEntidades.crearItem(tipo, leerTexto(entrada), leerTexto(entrada), leerTexto(entrada));
+        if (item == null) {
+            throw new IOException("Tipo de item desconocido: " + tipo);
+        }
+        return item;
+    }
+    
+    /**
+     * Escribe una publicación con su tipo y todos sus datos.
+     * 
+     * @param salida      Destino de la escritura
+     * @param publicacion La publicación a escribir
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribirPublicacion(DataOutput salida, Publicacion publicacion) throws IOException {
+        escribirTexto(salida, publicacion.getTipo());
+        escribirTexto(salida, publicacion.getId());
+        escribirTexto(salida, publicacion.getTitulo());
+        escribirTexto(salida, publicacion.getDescripcion());
+        escribirTexto(salida, publicacion.getFechaCreacion());
+    }
+    
+    /**
+     * Lee una publicación escrita con {@link #escribirPublicacion(DataOutput, Publicacion)}.
+     * 
+     * @param entrada Origen de la lectura
+     * @return La publicación reconstruida
+     * @throws IOException Si ocurre un error de lectura o el tipo está vacío
+     */
+    static Publicacion leerPublicacion(DataInput entrada) throws IOException {
+        String tipo = leerTexto(entrada);
+        Publicacion publicacion = FabricaEntidades.crearPublicacion(tipo, leerTexto(entrada), leerTexto(entrada),
+                leerTexto(entrada), leerTexto(entrada));
+        if (publicacion == null) {
+            throw new IOException("Tipo de publicación vacío");
+        }
+        return publicacion;
+    }
+    
+    /**
+     * Crea una entrada de datos que lee desde un búfer, por ejemplo uno mapeado en memoria.
+     * 
+     * @param bufer El búfer a leer
+     * @return Entrada de datos sobre una copia independiente del búfer
+     */
+    static DataInput entrada(ByteBuffer bufer) {
+        ByteBuffer copia = bufer.duplicate();
+        return new DataInputStream(new InputStream() {
+            @Override
+            public int read() {
+                return copia.hasRemaining() ? copia.get() & 0xFF : -1;
+            }
+            
+            @Override
+            public int read(byte[] destino, int desde, int longitud) {
+                if (longitud == 0) {
+                    return 0;
+                }
+                if (!copia.hasRemaining()) {
+                    return -1;
+                }
+                int leidos = Math.min(longitud, copia.remaining());
+                copia.get(destino, desde, leidos);
+                return leidos;
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,1149 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Colección concurrente de entidades indexada por su clave primaria.
+ * 
+ * Esta clase es utilizada por el Repositorio para almacenar cada tipo de
+ * entidad del sistema. Cada entidad recibe un número de secuencia al ser
+ * registrada; el índice por clave es un mapa concurrente y el orden de
+ * registro se conserva en un arreglo ordenado por secuencia, de modo que la
+ * inserción, la detección de duplicados y la búsqueda se realizan en tiempo
+ * constante y la eliminación en tiempo sublineal, sin perder el orden de
+ * registro.
+ * 
+ * Modelo de consistencia: las escrituras se serializan con el candado
+ * recibido en el constructor, que puede ser compartido con otros índices
+ * del mismo tipo de entidad para actualizarlos de forma atómica. Las
+ * búsquedas por clave no toman el candado y observan la última escritura
+ * completada. Los listados se sirven desde una instantánea inmutable que
+ * se toma bajo el candado solo después de una escritura, por lo que
+ * siempre corresponden a un estado que existió en un instante dado.
+ * 
+ * Las entidades en memoria se copian además, en orden de registro, a un
+ * arreglo al que solo se agregan elementos al final. Una instantánea es
+ * ese arreglo junto con su tamaño en el momento de tomarla: como las
+ * escrituras posteriores solo escriben más allá de ese tamaño, tomar una
+ * instantánea tras agregar entidades no copia la colección. Una
+ * eliminación tampoco modifica el arreglo: anota la posición retirada en
+ * una lista ordenada aparte, que se reemplaza por una copia en cada
+ * eliminación y que cada instantánea conserva junto con el arreglo para
+ * saltar esas posiciones. Cuando las posiciones retiradas superan la raíz
+ * cuadrada del tamaño del arreglo, se compacta en uno nuevo sin ellas, de
+ * modo que tanto anotar una eliminación como compactar cuestan en promedio
+ * un tiempo proporcional a esa raíz, en lugar de reconstruir la colección
+ * completa en la siguiente lectura.
+ * 
+ * Una colección vacía puede montarse sobre una tabla de un
+ * {@link AlmacenMapeado}. En ese caso las entidades de la tabla no ocupan
+ * memoria del heap hasta que se consultan: la primera búsqueda o lectura de
+ * un registro lo materializa y lo incorpora al índice, de modo que las
+ * consultas siguientes devuelven siempre el mismo objeto. Los registros de
+ * la tabla conservan su orden de registro antes de las entidades agregadas
+ * después del montaje.
+ * 
+ * Las consultas paginadas se sirven desde la misma instantánea: en orden de
+ * registro, la página se ubica con una búsqueda binaria sobre las
+ * secuencias; con un {@link CriterioOrden}, sobre un ordenamiento de la
+ * instantánea que se construye una vez y se reutiliza hasta que la colección
+ * cambie. En ambos casos obtener una página cuesta un tiempo logarítmico más
+ * el tamaño de la página, sin copiar la colección completa.
+ * 
+ * @param <T> Tipo de entidad almacenada en la colección
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+class ColeccionIndexada<T> {
+    
+    /** Función que obtiene la clave primaria de cada entidad */
+    private final Function<T, String> clave;
+    
+    /** Candado que serializa las escrituras sobre la colección */
+    private final ReentrantLock candado;
+    
+    /** Índice concurrente de entradas por clave primaria */
+    private final ConcurrentMap<String, Entrada<T>> indice;
+    
+    /** Siguiente número de secuencia a asignar, protegido por el candado */
+    private long siguienteSecuencia;
+    
+    /** Instantánea inmutable de las entidades o null si debe reconstruirse */
+    private volatile Vista instantanea;
+    
+    /**
+     * Entidades en memoria en orden de registro, solo con agregados al final;
+     * compartido con las instantáneas y protegido por el candado
+     */
+    private Object[] entidadesMemoria;
+    
+    /** Número de secuencia de cada entidad de {@link #entidadesMemoria} */
+    private long[] secuenciasMemoria;
+    
+    /** Cantidad de posiciones ocupadas de {@link #entidadesMemoria} */
+    private int tamanoMemoria;
+    
+    /**
+     * Posiciones de {@link #entidadesMemoria} cuyas entidades se eliminaron,
+     * en orden creciente; compartido con las instantáneas, por lo que cada
+     * eliminación lo reemplaza por una copia
+     */
+    private int[] retiradasMemoria;
+    
+    /** Último ordenamiento construido para cada criterio, por nombre del criterio */
+    private final ConcurrentMap<String, Ordenamiento> ordenamientos;
+    
+    /** Cantidad de veces que se descartó el ordenamiento de cada campo, por nombre del campo */
+    private final ConcurrentMap<String, Long> descartes;
+    
+    /** Última instantánea sobre la que se consultó un rango de cada criterio, por nombre */
+    private final ConcurrentMap<String, Vista> rangosConsultados;
+    
+    /** Posiciones retiradas que se toleran sin compactar aunque el arreglo en memoria sea pequeño */
+    private static final int MINIMO_RETIRADAS = 32;
+    
+    /** Arreglo vacío de posiciones retiradas */
+    private static final int[] SIN_RETIRADAS = new int[0];
+    
+    /** Marca de un registro de la tabla de respaldo que fue eliminado */
+    private static final Object RETIRADA = new Object();
+    
+    /** Tabla mapeada que respalda la colección, o null si no está montada */
+    private volatile AlmacenMapeado.Tabla<T> respaldo;
+    
+    /**
+     * Estado de cada registro de la tabla de respaldo: null si aún no se ha
+     * materializado, la entidad materializada o {@link #RETIRADA}
+     */
+    private AtomicReferenceArray<Object> materializadas;
+    
+    /** Registros de la tabla de respaldo que aún no se han materializado */
+    private volatile int pendientesRespaldo;
+    
+    /** Registros de la tabla de respaldo eliminados, protegido por el candado */
+    private int retiradosRespaldo;
+    
+    /**
+     * Entrada del índice que asocia una entidad con su número de secuencia.
+     * 
+     * @param <T> Tipo de entidad de la entrada
+     */
+    private static final class Entrada<T> {
+        
+        /** Número de secuencia con el que se registró la entidad */
+        private final long secuencia;
+        
+        /** Entidad registrada */
+        private final T valor;
+        
+        /**
+         * Constructor de la entrada.
+         * 
+         * @param secuencia Número de secuencia de registro
+         * @param valor     Entidad registrada
+         */
+        private Entrada(long secuencia, T valor) {
+            this.secuencia = secuencia;
+            this.valor = valor;
+        }
+    }
+    
+    /**
+     * Constructor de la colección indexada.
+     * 
+     * Este constructor crea una colección vacía que utilizará la función
+     * indicada para obtener la clave primaria de cada entidad y el candado
+     * indicado para serializar las escrituras.
+     * 
+     * @param clave   Función que obtiene la clave primaria de una entidad
+     * @param candado Candado que protege las escrituras de la colección
+     */
+    ColeccionIndexada(Function<T, String> clave, ReentrantLock candado) {
+        this.clave = clave;
+        this.candado = candado;
+        this.indice = new ConcurrentHashMap<>();
+        this.ordenamientos = new ConcurrentHashMap<>();
+        this.descartes = new ConcurrentHashMap<>();
+        this.rangosConsultados = new ConcurrentHashMap<>();
+        this.entidadesMemoria = new Object[0];
+        this.secuenciasMemoria = new long[0];
+        this.retiradasMemoria = SIN_RETIRADAS;
+        this.instantanea = new VistaMemoria(entidadesMemoria, secuenciasMemoria, 0, SIN_RETIRADAS);
+    }
+    
+    /**
+     * Agrega una entidad a la colección.
+     * 
+     * Este método verifica que no exista otra entidad con la misma clave
+     * antes de registrarla al final del orden de registro.
+     * 
+     * @param entidad La entidad a agregar
+     * @return true si la entidad se agregó, false si es nula, su clave es nula o ya existe
+     */
+    boolean agregar(T entidad) {
+        if (entidad == null || clave.apply(entidad) == null) {
+            return false;
+        }
+        candado.lock();
+        try {
+            if (!registrar(entidad)) {
+                return false;
+            }
+            instantanea = null;
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Agrega un lote de entidades a la colección.
+     * 
+     * Este método toma el candado una sola vez para todo el lote e
+     * invalida la instantánea una sola vez al final, por lo que es el
+     * indicado para cargas masivas. Cada entidad se valida igual que en
+     * {@link #agregar(Object)}; las rechazadas no impiden agregar las demás.
+     * 
+     * @param entidades Las entidades a agregar, en orden de registro
+     * @return Arreglo que indica, para cada entidad del lote, si se agregó
+     */
+    boolean[] agregarLote(List<? extends T> entidades) {
+        boolean[] agregadas = new boolean[entidades.size()];
+        candado.lock();
+        try {
+            boolean cambio = false;
+            for (int i = 0; i < agregadas.length; i++) {
+                T entidad = entidades.get(i);
+                agregadas[i] = entidad != null && clave.apply(entidad) != null && registrar(entidad);
+                cambio |= agregadas[i];
+            }
+            if (cambio) {
+                instantanea = null;
+            }
+            return agregadas;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Registra una entidad al final del orden de registro si su clave está libre.
+     * 
+     * Este método debe invocarse con el candado tomado y no invalida la instantánea.
+     * 
+     * @param entidad La entidad a registrar, con clave no nula
+     * @return true si la entidad se registró, false si su clave ya existe
+     */
+    private boolean registrar(T entidad) {
+        String valorClave = clave.apply(entidad);
+        if (indice.containsKey(valorClave) || registroPendiente(valorClave) >= 0) {
+            return false;
+        }
+        long secuencia = siguienteSecuencia++;
+        indice.put(valorClave, new Entrada<>(secuencia, entidad));
+        agregarEnMemoria(entidad, secuencia);
+        return true;
+    }
+    
+    /**
+     * Agrega una entidad al final del arreglo de entidades en memoria.
+     * 
+     * Si el arreglo está lleno se reemplaza por uno más grande; las
+     * instantáneas anteriores conservan el arreglo viejo. Si no, se escribe
+     * más allá del tamaño de cualquier instantánea ya tomada, por lo que
+     * ninguna de ellas observa el cambio.
+     * 
+     * Este método debe invocarse con el candado tomado.
+     * 
+     * @param entidad   La entidad registrada
+     * @param secuencia Su número de secuencia, mayor que los del arreglo
+     */
+    private void agregarEnMemoria(T entidad, long secuencia) {
+        if (tamanoMemoria == entidadesMemoria.length) {
+            int capacidad = Math.max(16, tamanoMemoria + (tamanoMemoria >> 1));
+            entidadesMemoria = Arrays.copyOf(entidadesMemoria, capacidad);
+            secuenciasMemoria = Arrays.copyOf(secuenciasMemoria, capacidad);
+        }
+        entidadesMemoria[tamanoMemoria] = entidad;
+        secuenciasMemoria[tamanoMemoria] = secuencia;
+        tamanoMemoria++;
+    }
+    
+    /**
+     * Anota como retirada la entidad en memoria con un número de secuencia.
+     * 
+     * La posición se ubica con una búsqueda binaria sobre las secuencias y
+     * se inserta en una copia de las posiciones retiradas, sin modificar el
+     * arreglo que comparten las instantáneas. Si las retiradas superan la
+     * raíz cuadrada del tamaño del arreglo, este se compacta.
+     * 
+     * Este método debe invocarse con el candado tomado.
+     * 
+     * @param secuencia Número de secuencia de la entidad eliminada
+     */
+    private void retirarDeMemoria(long secuencia) {
+        int posicion = Arrays.binarySearch(secuenciasMemoria, 0, tamanoMemoria, secuencia);
+        if (posicion < 0) {
+            return;
+        }
+        int[] anteriores = retiradasMemoria;
+        int insercion = -Arrays.binarySearch(anteriores, posicion) - 1;
+        int[] retiradas = new int[anteriores.length + 1];
+        System.arraycopy(anteriores, 0, retiradas, 0, insercion);
+        retiradas[insercion] = posicion;
+        System.arraycopy(anteriores, insercion, retiradas, insercion + 1, anteriores.length - insercion);
+        retiradasMemoria = retiradas;
+        if (retiradas.length > Math.max(MINIMO_RETIRADAS, (int) Math.sqrt(tamanoMemoria))) {
+            compactarMemoria();
+        }
+    }
+    
+    /**
+     * Copia a un arreglo nuevo las entidades en memoria que no fueron retiradas.
+     * 
+     * El arreglo nuevo no se comparte con ninguna instantánea anterior.
+     * Este método debe invocarse con el candado tomado.
+     */
+    private void compactarMemoria() {
+        int[] retiradas = retiradasMemoria;
+        int cantidad = tamanoMemoria - retiradas.length;
+        int capacidad = Math.max(16, cantidad + (cantidad >> 1));
+        Object[] entidades = new Object[capacidad];
+        long[] secuencias = new long[capacidad];
+        int destino = 0;
+        int desde = 0;
+        for (int retirada : retiradas) {
+            int tramo = retirada - desde;
+            System.arraycopy(entidadesMemoria, desde, entidades, destino, tramo);
+            System.arraycopy(secuenciasMemoria, desde, secuencias, destino, tramo);
+            destino += tramo;
+            desde = retirada + 1;
+        }
+        System.arraycopy(entidadesMemoria, desde, entidades, destino, tamanoMemoria - desde);
+        System.arraycopy(secuenciasMemoria, desde, secuencias, destino, tamanoMemoria - desde);
+        entidadesMemoria = entidades;
+        secuenciasMemoria = secuencias;
+        tamanoMemoria = cantidad;
+        retiradasMemoria = SIN_RETIRADAS;
+    }
+    
+    /**
+     * Elimina una entidad de la colección.
+     * 
+     * Este método retira la entidad registrada bajo la clave actual de la
+     * entidad indicada, siempre que sea esa misma instancia: otra entidad
+     * igual pero distinta no se elimina, de modo que nunca se retira una
+     * entidad que no es la indicada.
+     * 
+     * @param entidad La entidad a eliminar
+     * @return true si la entidad se eliminó, false si no estaba registrada
+     */
+    boolean eliminar(T entidad) {
+        if (entidad == null || clave.apply(entidad) == null) {
+            return false;
+        }
+        candado.lock();
+        try {
+            String valorClave = clave.apply(entidad);
+            Entrada<T> entrada = indice.get(valorClave);
+            if (entrada == null && buscar(valorClave) != null) {
+                entrada = indice.get(valorClave);
+            }
+            if (entrada == null || entrada.valor != entidad) {
+                return false;
+            }
+            indice.remove(valorClave);
+            if (entrada.secuencia < 0) {
+                materializadas.set(registroDeSecuencia(entrada.secuencia), RETIRADA);
+                retiradosRespaldo++;
+            } else {
+                retirarDeMemoria(entrada.secuencia);
+            }
+            instantanea = null;
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Busca una entidad por su clave primaria.
+     * 
+     * Este método no toma el candado de la colección, salvo cuando la
+     * entidad está en la tabla de respaldo y debe materializarse.
+     * 
+     * @param valorClave La clave de la entidad a buscar
+     * @return La entidad encontrada o null si no existe
+     */
+    T buscar(String valorClave) {
+        if (valorClave == null) {
+            return null;
+        }
+        Entrada<T> entrada = indice.get(valorClave);
+        if (entrada != null) {
+            return entrada.valor;
+        }
+        int registro = registroPendiente(valorClave);
+        return registro >= 0 ? materializar(registro) : null;
+    }
+    
+    /**
+     * Obtiene el número de entidades registradas.
+     * 
+     * @return La cantidad de entidades en la colección
+     */
+    int tamano() {
+        return indice.size() + pendientesRespaldo;
+    }
+    
+    /**
+     * Obtiene una instantánea inmutable de las entidades en orden de registro.
+     * 
+     * Mientras la colección no cambie, todas las lecturas comparten la misma
+     * instantánea. Tras una escritura, la primera lectura la toma bajo el
+     * candado para que refleje un estado coherente de la colección; ni
+     * tras agregar entidades ni tras eliminarlas eso copia la colección.
+     * 
+     * @return Lista inmutable con las entidades de la colección
+     */
+    List<T> instantanea() {
+        return vista();
+    }
+    
+    /**
+     * Obtiene la instantánea vigente, reconstruyéndola si la colección cambió.
+     * 
+     * @return La instantánea de las entidades en orden de registro
+     */
+    private Vista vista() {
+        Vista actual = instantanea;
+        if (actual != null) {
+            return actual;
+        }
+        candado.lock();
+        try {
+            if (instantanea == null) {
+                VistaMemoria memoria = new VistaMemoria(entidadesMemoria, secuenciasMemoria, tamanoMemoria,
+                        retiradasMemoria);
+                instantanea = respaldo != null ? new VistaRespaldada(registrosVisibles(), memoria) : memoria;
+            }
+            return instantanea;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Obtiene una página de entidades por su número.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de entidades de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    Pagina<T> pagina(CriterioOrden<? super T> criterio, int numero, int tamano) {
+        validarTamano(tamano);
+        if (numero < 0) {
+            throw new IllegalArgumentException("El número de página no puede ser negativo");
+        }
+        Vista vista = criterio != null ? ordenamiento(criterio, vista()) : vista();
+        return vista.pagina((int) Math.min((long) numero * tamano, vista.size()), tamano);
+    }
+    
+    /**
+     * Obtiene la página de entidades que sigue a un cursor.
+     * 
+     * El cursor debe provenir de una página obtenida con el mismo criterio.
+     * Si la entidad que identifica el cursor fue eliminada, la página
+     * empieza en la primera entidad que la seguía en el orden.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior, o null para la primera página
+     * @param tamano   Cantidad máxima de entidades de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    Pagina<T> pagina(CriterioOrden<? super T> criterio, String cursor, int tamano) {
+        validarTamano(tamano);
+        Vista vista = criterio != null ? ordenamiento(criterio, vista()) : vista();
+        return vista.pagina(cursor != null ? vista.posicionTras(decodificarCursor(cursor)) : 0, tamano);
+    }
+    
+    /**
+     * Obtiene el ordenamiento de una instantánea según un criterio.
+     * 
+     * Este método reutiliza el último ordenamiento del criterio si se
+     * construyó sobre la misma instantánea. En una colección montada sobre
+     * una tabla mapeada, construirlo materializa todos los registros.
+     * 
+     * @param criterio Criterio de ordenamiento
+     * @param vista    Instantánea a ordenar
+     * @return El ordenamiento de la instantánea
+     */
+    private Ordenamiento ordenamiento(CriterioOrden<? super T> criterio, Vista vista) {
+        Ordenamiento actual = ordenamientos.get(criterio.getNombre());
+        if (!vigente(actual, criterio, vista)) {
+            actual = new Ordenamiento(criterio, vista, descartes.getOrDefault(criterio.getNombre(), 0L));
+            ordenamientos.put(criterio.getNombre(), actual);
+        }
+        return actual;
+    }
+    
+    /**
+     * Indica si un ordenamiento construido sigue reflejando una instantánea.
+     * 
+     * Un ordenamiento deja de ser vigente si se construyó sobre otra
+     * instantánea o si su campo se descartó después de que empezara a
+     * leer los valores, aunque un lector lo haya guardado más tarde.
+     * 
+     * @param actual   Ordenamiento guardado, o null si no hay
+     * @param criterio Criterio del ordenamiento
+     * @param vista    Instantánea actual
+     * @return true si el ordenamiento puede usarse sobre la instantánea
+     */
+    private boolean vigente(Ordenamiento actual, CriterioOrden<? super T> criterio, Vista vista) {
+        return actual != null && actual.base == vista && actual.criterio == criterio
+                && actual.descarte == descartes.getOrDefault(criterio.getNombre(), 0L);
+    }
+    
+    /**
+     * Obtiene las entidades de la instantánea que cumplen una condición de rango usando un ordenamiento.
+     * 
+     * Este método usa el ordenamiento del criterio de la condición si ya
+     * está construido para la instantánea actual. Si no lo está y se
+     * permite construirlo, solo lo construye cuando es la segunda vez que
+     * se consulta un rango de ese criterio sobre la misma instantánea, de
+     * modo que una consulta aislada no paga el costo de ordenar la
+     * colección y una repetida lo amortiza.
+     * 
+     * @param condicion Condición de rango
+     * @param construir Si se permite construir el ordenamiento
+     * @return Las entidades del rango en el orden del criterio, o null si no hay ordenamiento disponible
+     */
+    List<T> rangoIndexado(Condicion<? super T> condicion, boolean construir) {
+        CriterioOrden<? super T> criterio = condicion.getCriterio();
+        Vista vista = vista();
+        Ordenamiento actual = ordenamientos.get(criterio.getNombre());
+        if (!vigente(actual, criterio, vista)) {
+            if (!construir || rangosConsultados.put(criterio.getNombre(), vista) != vista) {
+                return null;
+            }
+            actual = ordenamiento(criterio, vista);
+        }
+        int inicio = actual.primeraPosicion(valor -> !condicion.bajoElRango(valor));
+        int fin = actual.primeraPosicion(condicion::sobreElRango);
+        return actual.subList(inicio, Math.max(inicio, fin));
+    }
+    
+    /**
+     * Descarta el ordenamiento construido sobre un campo de las entidades.
+     * 
+     * Este método se invoca con el candado de la colección tomado cuando
+     * cambia un campo de una entidad registrada, incluida su clave, ya que
+     * el valor del criterio con el nombre de ese campo pudo cambiar sin que
+     * cambiara la instantánea. Los ordenamientos de los demás campos se
+     * conservan, y el descartado se reconstruye en la siguiente consulta
+     * que lo use.
+     * 
+     * @param campo Nombre del campo modificado
+     */
+    void descartarOrdenamiento(String campo) {
+        descartes.merge(campo, 1L, Long::sum);
+        ordenamientos.remove(campo);
+    }
+    
+    /**
+     * Verifica que un tamaño de página sea válido.
+     * 
+     * @param tamano Tamaño de página solicitado
+     * @throws IllegalArgumentException Si el tamaño no es positivo
+     */
+    private static void validarTamano(int tamano) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo");
+        }
+    }
+    
+    /**
+     * Codifica la posición de un cursor como texto opaco apto para URLs.
+     * 
+     * @param posicion Descripción interna de la posición
+     * @return El cursor codificado
+     */
+    private static String codificarCursor(String posicion) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicion.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica un cursor generado con {@link #codificarCursor(String)}.
+     * 
+     * @param cursor El cursor codificado
+     * @return Descripción interna de la posición
+     * @throws IllegalArgumentException Si el cursor no es válido
+     */
+    private static String decodificarCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido: " + cursor, e);
+        }
+    }
+    
+    /**
+     * Verifica que una entidad pueda cambiar su clave primaria a un valor dado.
+     * 
+     * Este método debe invocarse con el candado tomado y antes de modificar
+     * la clave de la entidad, de modo que un cambio inválido se rechace sin
+     * dejar la entidad registrada bajo una clave que ya no es la suya.
+     * 
+     * @param entidad La entidad cuya clave va a cambiar
+     * @param nueva   La clave que tendrá la entidad
+     * @return true si la entidad está registrada y debe recodificarse tras el cambio
+     * @throws IllegalArgumentException Si la entidad está registrada y la nueva
+     *                                  clave es nula o pertenece a otra entidad
+     */
+    boolean validarCambioClave(T entidad, String nueva) {
+        String actual = clave.apply(entidad);
+        Entrada<T> entrada = actual != null ? indice.get(actual) : null;
+        if (entrada == null || entrada.valor != entidad || actual.equals(nueva)) {
+            return false;
+        }
+        if (nueva == null) {
+            throw new IllegalArgumentException("La clave de una entidad registrada no puede ser nula");
+        }
+        if (indice.containsKey(nueva) || registroPendiente(nueva) >= 0) {
+            throw new IllegalArgumentException("Ya existe otra entidad registrada con la clave " + nueva);
+        }
+        return true;
+    }
+    
+    /**
+     * Actualiza la clave de una entidad cuya clave primaria cambió.
+     * 
+     * Este método solo actúa si la clave anterior apuntaba exactamente a la
+     * entidad indicada y la nueva clave está libre. La entidad conserva su
+     * número de secuencia y por tanto su posición en el orden de registro.
+     * 
+     * @param entidad  La entidad cuya clave cambió
+     * @param anterior La clave que tenía la entidad antes del cambio
+     * @return true si la entidad quedó registrada bajo su nueva clave
+     */
+    boolean recodificar(T entidad, String anterior) {
+        if (anterior == null) {
+            return false;
+        }
+        candado.lock();
+        try {
+            String nueva = clave.apply(entidad);
+            Entrada<T> entrada = indice.get(anterior);
+            if (entrada == null || entrada.valor != entidad || nueva == null || indice.containsKey(nueva)
+                    || registroPendiente(nueva) >= 0) {
+                return false;
+            }
+            indice.remove(anterior);
+            indice.put(nueva, entrada);
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Monta la colección sobre una tabla de un almacén mapeado.
+     * 
+     * Los registros de la tabla pasan a formar parte de la colección sin
+     * leerse; cada uno se materializa la primera vez que se consulta.
+     * 
+     * @param tabla La tabla que respaldará la colección
+     * @throws IllegalStateException Si la colección no está vacía o ya está montada
+     */
+    void montar(AlmacenMapeado.Tabla<T> tabla) {
+        candado.lock();
+        try {
+            if (respaldo != null || !indice.isEmpty()) {
+                throw new IllegalStateException("Solo se puede montar un almacén sobre una colección vacía");
+            }
+            materializadas = new AtomicReferenceArray<>(tabla.tamano());
+            pendientesRespaldo = tabla.tamano();
+            retiradosRespaldo = 0;
+            respaldo = tabla;
+            instantanea = null;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Busca el registro de la tabla de respaldo cuya clave sigue vigente.
+     * 
+     * La clave de un registro está vigente mientras el registro no se haya
+     * materializado; a partir de ese momento la entidad vive en el índice,
+     * donde su clave puede cambiar o eliminarse.
+     * 
+     * @param valorClave La clave a buscar
+     * @return El número del registro, o -1 si la clave no está vigente en la tabla
+     */
+    private int registroPendiente(String valorClave) {
+        AlmacenMapeado.Tabla<T> tabla = respaldo;
+        if (tabla == null) {
+            return -1;
+        }
+        int registro = tabla.buscar(valorClave);
+        return registro >= 0 && materializadas.get(registro) == null ? registro : -1;
+    }
+    
+    /**
+     * Materializa un registro de la tabla de respaldo y lo incorpora al índice.
+     * 
+     * Si otro hilo ya lo materializó, este método devuelve la misma entidad
+     * que obtuvo ese hilo.
+     * 
+     * @param registro Número del registro en la tabla
+     * @return La entidad del registro, o null si el registro fue eliminado
+     */
+    @SuppressWarnings("unchecked")
+    private T materializar(int registro) {
+        Object actual = materializadas.get(registro);
+        if (actual == null) {
+            candado.lock();
+            try {
+                actual = materializadas.get(registro);
+                if (actual == null) {
+                    T entidad = respaldo.leer(registro);
+                    long secuencia = registro - (long) materializadas.length();
+                    indice.put(clave.apply(entidad), new Entrada<>(secuencia, entidad));
+                    materializadas.set(registro, entidad);
+                    pendientesRespaldo--;
+                    actual = entidad;
+                }
+            } finally {
+                candado.unlock();
+            }
+        }
+        return actual != RETIRADA ? (T) actual : null;
+    }
+    
+    /**
+     * Obtiene el número de registro de la tabla de respaldo de una secuencia.
+     * 
+     * Los registros de la tabla reciben secuencias negativas, de modo que
+     * quedan antes de las entidades agregadas después del montaje.
+     * 
+     * @param secuencia Secuencia negativa de una entidad de la tabla
+     * @return El número de registro correspondiente
+     */
+    private int registroDeSecuencia(long secuencia) {
+        return (int) (secuencia + materializadas.length());
+    }
+    
+    /**
+     * Obtiene los registros de la tabla de respaldo que no se han eliminado.
+     * 
+     * Este método debe invocarse con el candado tomado.
+     * 
+     * @return Los números de registro vigentes en orden, o null si lo están todos
+     */
+    private int[] registrosVisibles() {
+        if (retiradosRespaldo == 0) {
+            return null;
+        }
+        int[] visibles = new int[materializadas.length() - retiradosRespaldo];
+        int posicion = 0;
+        for (int i = 0; i < materializadas.length(); i++) {
+            if (materializadas.get(i) != RETIRADA) {
+                visibles[posicion++] = i;
+            }
+        }
+        return visibles;
+    }
+    
+    /**
+     * Instantánea inmutable de la colección, con acceso por posición.
+     * 
+     * Además de la lista de entidades, cada vista sabe describir la posición
+     * de una de ellas para un cursor y ubicar la posición que sigue a un
+     * cursor, lo que permite paginarla.
+     */
+    private abstract class Vista extends AbstractList<T> implements RandomAccess {
+        
+        /**
+         * Describe la posición de una entidad de la vista para un cursor.
+         * 
+         * @param posicion Posición de la entidad
+         * @return Descripción interna de la posición
+         */
+        abstract String cursor(int posicion);
+        
+        /**
+         * Ubica la primera posición que sigue a la descrita por un cursor.
+         * 
+         * @param cursor Descripción interna de la posición
+         * @return La primera posición posterior, o el tamaño de la vista si no hay
+         * @throws IllegalArgumentException Si el cursor no corresponde a esta vista
+         */
+        abstract int posicionTras(String cursor);
+        
+        /**
+         * Obtiene una página de la vista.
+         * 
+         * @param desde  Posición del primer elemento de la página
+         * @param tamano Cantidad máxima de elementos de la página
+         * @return La página, con el cursor de su último elemento si quedan más
+         */
+        Pagina<T> pagina(int desde, int tamano) {
+            int total = size();
+            int inicio = Math.min(desde, total);
+            int fin = (int) Math.min((long) inicio + tamano, total);
+            String siguiente = fin < total ? codificarCursor(cursor(fin - 1)) : null;
+            return new Pagina<>(subList(inicio, fin), total, siguiente);
+        }
+    }
+    
+    /**
+     * Vista en orden de registro, paginada por número de secuencia.
+     */
+    private abstract class VistaRegistro extends Vista {
+        
+        /**
+         * Obtiene el número de secuencia de la entidad en una posición.
+         * 
+         * Las secuencias crecen con la posición, lo que permite ubicar
+         * un cursor con una búsqueda binaria.
+         * 
+         * @param posicion Posición de la entidad
+         * @return Su número de secuencia
+         */
+        abstract long secuencia(int posicion);
+        
+        @Override
+        String cursor(int posicion) {
+            return "R" + secuencia(posicion);
+        }
+        
+        @Override
+        int posicionTras(String cursor) {
+            long secuencia;
+            try {
+                if (!cursor.startsWith("R")) {
+                    throw new NumberFormatException(cursor);
+                }
+                secuencia = Long.parseLong(cursor.substring(1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("El cursor no corresponde al orden de registro", e);
+            }
+            int bajo = 0;
+            int alto = size();
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (secuencia(medio) <= secuencia) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+    
+    /**
+     * Instantánea de entidades en memoria: un prefijo del arreglo de entidades
+     * en memoria sin sus posiciones retiradas.
+     * 
+     * La vista comparte el arreglo con la colección, que después solo
+     * escribe en posiciones posteriores a su prefijo, y las posiciones
+     * retiradas, que la colección reemplaza en lugar de modificar.
+     */
+    private final class VistaMemoria extends VistaRegistro {
+        
+        /** Entidades en orden de registro; solo las primeras {@link #prefijo} forman parte de la vista */
+        private final Object[] entidades;
+        
+        /** Número de secuencia de cada entidad */
+        private final long[] secuencias;
+        
+        /** Cantidad de posiciones del arreglo que abarca la vista */
+        private final int prefijo;
+        
+        /** Posiciones del prefijo que se saltan, en orden creciente */
+        private final int[] retiradas;
+        
+        /**
+         * Constructor de la vista.
+         * 
+         * Este constructor debe invocarse con el candado tomado.
+         * 
+         * @param entidades  Entidades en orden de registro
+         * @param secuencias Número de secuencia de cada entidad
+         * @param prefijo    Cantidad de posiciones del arreglo que abarca la vista
+         * @param retiradas  Posiciones del prefijo que se saltan, en orden creciente
+         */
+        private VistaMemoria(Object[] entidades, long[] secuencias, int prefijo, int[] retiradas) {
+            this.entidades = entidades;
+            this.secuencias = secuencias;
+            this.prefijo = prefijo;
+            this.retiradas = retiradas;
+        }
+        
+        /**
+         * Obtiene la posición en el arreglo de la entidad en una posición de la vista.
+         * 
+         * Las posiciones retiradas en orden, menos su índice, forman una
+         * sucesión no decreciente, por lo que las que preceden a la entidad
+         * se cuentan con una búsqueda binaria.
+         * 
+         * @param posicion Posición en la vista
+         * @return Posición en el arreglo
+         */
+        private int fisica(int posicion) {
+            int bajo = 0;
+            int alto = retiradas.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (retiradas[medio] - medio <= posicion) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return posicion + bajo;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int posicion) {
+            return (T) entidades[fisica(Objects.checkIndex(posicion, size()))];
+        }
+        
+        @Override
+        public int size() {
+            return prefijo - retiradas.length;
+        }
+        
+        @Override
+        long secuencia(int posicion) {
+            return secuencias[fisica(posicion)];
+        }
+    }
+    
+    /**
+     * Instantánea de la colección ordenada según un criterio.
+     * 
+     * El ordenamiento guarda, para cada entidad, el valor del criterio y la
+     * clave primaria que tenía al ordenarse, de modo que un cursor formado
+     * por ese par se ubica con una búsqueda binaria aunque la entidad se
+     * haya eliminado o modificado después.
+     */
+    private final class Ordenamiento extends Vista {
+        
+        /** Instantánea en orden de registro a partir de la cual se ordenó */
+        private final Vista base;
+        
+        /** Criterio del ordenamiento */
+        private final CriterioOrden<? super T> criterio;
+        
+        /** Descartes del campo del criterio que había cuando se leyeron sus valores */
+        private final long descarte;
+        
+        /** Entidades ordenadas */
+        private final Object[] entidades;
+        
+        /** Valor del criterio de cada entidad */
+        private final Object[] valores;
+        
+        /** Clave primaria de cada entidad */
+        private final String[] claves;
+        
+        /**
+         * Constructor del ordenamiento.
+         * 
+         * @param criterio Criterio del ordenamiento
+         * @param base     Instantánea a ordenar
+         * @param descarte Descartes del campo del criterio antes de leer sus valores
+         */
+        private Ordenamiento(CriterioOrden<? super T> criterio, Vista base, long descarte) {
+            this.base = base;
+            this.criterio = criterio;
+            this.descarte = descarte;
+            int cantidad = base.size();
+            Object[] sinOrdenar = new Object[cantidad];
+            Object[] valoresSinOrdenar = new Object[cantidad];
+            String[] clavesSinOrdenar = new String[cantidad];
+            Integer[] posiciones = new Integer[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                T entidad = base.get(i);
+                sinOrdenar[i] = entidad;
+                valoresSinOrdenar[i] = criterio.valorDe(entidad);
+                clavesSinOrdenar[i] = clave.apply(entidad);
+                posiciones[i] = i;
+            }
+            Arrays.sort(posiciones, (a, b) -> comparar(valoresSinOrdenar[a], clavesSinOrdenar[a],
+                    valoresSinOrdenar[b], clavesSinOrdenar[b]));
+            entidades = new Object[cantidad];
+            valores = new Object[cantidad];
+            claves = new String[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                entidades[i] = sinOrdenar[posiciones[i]];
+                valores[i] = valoresSinOrdenar[posiciones[i]];
+                claves[i] = clavesSinOrdenar[posiciones[i]];
+            }
+        }
+        
+        /**
+         * Compara dos entidades por el valor del criterio y, a igual valor, por su clave.
+         * 
+         * @param valorA Valor del criterio de la primera entidad
+         * @param claveA Clave de la primera entidad
+         * @param valorB Valor del criterio de la segunda entidad
+         * @param claveB Clave de la segunda entidad
+         * @return Negativo, cero o positivo según la primera vaya antes, sea igual o vaya después
+         */
+        private int comparar(Object valorA, String claveA, Object valorB, String claveB) {
+            int resultado = criterio.comparar(valorA, valorB);
+            return resultado != 0 ? resultado : claveA.compareTo(claveB);
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int posicion) {
+            return (T) entidades[posicion];
+        }
+        
+        @Override
+        public int size() {
+            return entidades.length;
+        }
+        
+        /**
+         * Ubica la primera posición cuyo valor del criterio cumple una propiedad.
+         * 
+         * La propiedad debe ser falsa para un prefijo del ordenamiento y
+         * verdadera para el resto, lo que permite una búsqueda binaria.
+         * 
+         * @param propiedad Propiedad sobre el valor del criterio
+         * @return La primera posición que la cumple, o el tamaño si ninguna la cumple
+         */
+        private int primeraPosicion(Predicate<Object> propiedad) {
+            int bajo = 0;
+            int alto = valores.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (propiedad.test(valores[medio])) {
+                    alto = medio;
+                } else {
+                    bajo = medio + 1;
+                }
+            }
+            return bajo;
+        }
+        
+        @Override
+        String cursor(int posicion) {
+            return "C" + criterio.getNombre() + '\0' + criterio.codificar(valores[posicion]) + '\0' + claves[posicion];
+        }
+        
+        @Override
+        int posicionTras(String cursor) {
+            int finNombre = cursor.indexOf('\0');
+            int finValor = cursor.lastIndexOf('\0');
+            if (!cursor.startsWith("C") || finNombre < 0 || finValor == finNombre
+                    || !cursor.substring(1, finNombre).equals(criterio.getNombre())) {
+                throw new IllegalArgumentException("El cursor no corresponde al criterio " + criterio.getNombre());
+            }
+            Object valor;
+            try {
+                valor = criterio.decodificar(cursor.substring(finNombre + 1, finValor));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("El cursor no corresponde al criterio " + criterio.getNombre(), e);
+            }
+            String claveCursor = cursor.substring(finValor + 1);
+            int bajo = 0;
+            int alto = entidades.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (comparar(valores[medio], claves[medio], valor, claveCursor) <= 0) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+    
+    /**
+     * Instantánea inmutable de una colección montada sobre una tabla mapeada.
+     * 
+     * La vista fija qué registros de la tabla y qué entidades agregadas
+     * después del montaje forman parte de la colección, pero solo
+     * materializa cada registro cuando se lee. Si un registro se eliminó
+     * después de tomar la instantánea, se devuelve una copia leída de la
+     * tabla que ya no está registrada en la colección.
+     */
+    private final class VistaRespaldada extends VistaRegistro {
+        
+        /** Tabla de respaldo al tomar la instantánea */
+        private final AlmacenMapeado.Tabla<T> tabla;
+        
+        /** Registros vigentes de la tabla, o null si lo están todos */
+        private final int[] registros;
+        
+        /** Cantidad de registros de la tabla incluidos en la vista */
+        private final int cantidadRespaldo;
+        
+        /** Entidades agregadas después del montaje */
+        private final VistaMemoria agregadas;
+        
+        /**
+         * Constructor de la vista.
+         * 
+         * @param registros Registros vigentes de la tabla, o null si lo están todos
+         * @param agregadas Entidades agregadas después del montaje
+         */
+        private VistaRespaldada(int[] registros, VistaMemoria agregadas) {
+            this.tabla = respaldo;
+            this.registros = registros;
+            this.cantidadRespaldo = registros != null ? registros.length : tabla.tamano();
+            this.agregadas = agregadas;
+        }
+        
+        @Override
+        public T get(int posicion) {
+            if (posicion < 0 || posicion >= size()) {
+                throw new IndexOutOfBoundsException("Posición: " + posicion + ", tamaño: " + size());
+            }
+            if (posicion >= cantidadRespaldo) {
+                return agregadas.get(posicion - cantidadRespaldo);
+            }
+            int registro = registros != null ? registros[posicion] : posicion;
+            T entidad = materializar(registro);
+            return entidad != null ? entidad : tabla.leer(registro);
+        }
+        
+        @Override
+        public int size() {
+            return cantidadRespaldo + agregadas.size();
+        }
+        
+        @Override
+        long secuencia(int posicion) {
+            if (posicion >= cantidadRespaldo) {
+                return agregadas.secuencia(posicion - cantidadRespaldo);
+            }
+            return (registros != null ? registros[posicion] : posicion) - (long) tabla.tamano();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,453 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Condición inmutable sobre los campos de una entidad, para las consultas del repositorio.
+ * 
+ * Las condiciones de rango (igual, entre, mayor que, menor que, desde y
+ * hasta) se expresan sobre un {@link CriterioOrden}, usan la misma
+ * comparación que su ordenamiento y nunca aceptan valores nulos salvo
+ * {@code igual(criterio, null)}. Gracias a ello el planificador de una
+ * {@link Consulta} puede resolverlas con una búsqueda binaria sobre el
+ * ordenamiento del campo. Las condiciones de texto parcial, los predicados
+ * libres y las combinaciones con y, o y no se evalúan entidad por entidad.
+ * 
+ * @param <T> Tipo de entidad sobre el que se evalúa la condición
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class Condicion<T> implements Predicate<T> {
+    
+    /**
+     * Forma de la condición.
+     */
+    private enum Forma {
+        /** Rango de valores de un criterio */
+        RANGO,
+        /** Todas las condiciones de una lista */
+        Y,
+        /** Alguna de las condiciones de una lista */
+        O,
+        /** Negación de una condición */
+        NO,
+        /** Predicado arbitrario */
+        PREDICADO
+    }
+    
+    /** Forma de la condición */
+    private final Forma forma;
+    
+    /** Criterio del rango, o null si la condición no es un rango */
+    private final CriterioOrden<? super T> criterio;
+    
+    /** Límite inferior del rango, o null si no tiene */
+    private final Object inferior;
+    
+    /** Indica si el límite inferior forma parte del rango */
+    private final boolean incluyeInferior;
+    
+    /** Límite superior del rango, o null si no tiene */
+    private final Object superior;
+    
+    /** Indica si el límite superior forma parte del rango */
+    private final boolean incluyeSuperior;
+    
+    /** Indica si el rango solo acepta valores nulos */
+    private final boolean soloNulos;
+    
+    /** Condiciones combinadas por y, o y no */
+    private final List<Condicion<? super T>> partes;
+    
+    /** Predicado de la condición libre */
+    private final Predicate<? super T> predicado;
+    
+    /** Descripción legible de la condición */
+    private final String descripcion;
+    
+    /**
+     * Constructor privado; las condiciones se crean con los métodos de fábrica.
+     * 
+     * @param forma           Forma de la condición
+     * @param criterio        Criterio del rango, o null
+     * @param inferior        Límite inferior del rango, o null
+     * @param incluyeInferior Si el límite inferior forma parte del rango
+     * @param superior        Límite superior del rango, o null
+     * @param incluyeSuperior Si el límite superior forma parte del rango
+     * @param soloNulos       Si el rango solo acepta valores nulos
+     * @param partes          Condiciones combinadas, o null
+     * @param predicado       Predicado libre, o null
+     * @param descripcion     Descripción legible de la condición
+     */
+    private Condicion(Forma forma, CriterioOrden<? super T> criterio, Object inferior, boolean incluyeInferior,
+                      Object superior, boolean incluyeSuperior, boolean soloNulos,
+                      List<Condicion<? super T>> partes, Predicate<? super T> predicado, String descripcion) {
+        this.forma = forma;
+        this.criterio = criterio;
+        this.inferior = inferior;
+        this.incluyeInferior = incluyeInferior;
+        this.superior = superior;
+        this.incluyeSuperior = incluyeSuperior;
+        this.soloNulos = soloNulos;
+        this.partes = partes;
+        this.predicado = predicado;
+        this.descripcion = descripcion;
+    }
+    
+    /**
+     * Crea una condición de rango.
+     * 
+     * @param <T>             Tipo de entidad
+     * @param criterio        Criterio del rango
+     * @param inferior        Límite inferior, o null si no tiene
+     * @param incluyeInferior Si el límite inferior forma parte del rango
+     * @param superior        Límite superior, o null si no tiene
+     * @param incluyeSuperior Si el límite superior forma parte del rango
+     * @param descripcion     Descripción legible de la condición
+     * @return La condición de rango
+     */
+    private static <T> Condicion<T> rango(CriterioOrden<? super T> criterio, Object inferior, boolean incluyeInferior,
+                                          Object superior, boolean incluyeSuperior, String descripcion) {
+        return new Condicion<>(Forma.RANGO, criterio,
+                inferior != null ? criterio.normalizar(inferior) : null, incluyeInferior,
+                superior != null ? criterio.normalizar(superior) : null, incluyeSuperior,
+                false, null, null, descripcion);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades cuyo campo es igual a un valor.
+     * 
+     * @param <T>      Tipo de entidad
+     * @param criterio Campo a comparar
+     * @param valor    Valor buscado; null acepta las entidades sin valor en el campo
+     * @return La condición
+     * @throws IllegalArgumentException Si el valor no es del tipo del campo
+     */
+    public static <T> Condicion<T> igual(CriterioOrden<? super T> criterio, Object valor) {
+        if (valor == null) {
+            return new Condicion<>(Forma.RANGO, criterio, null, true, null, true, true, null, null,
+                    criterio.getNombre() + " es nulo");
+        }
+        return rango(criterio, valor, true, valor, true, criterio.getNombre() + " = " + valor);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades cuyo campo está entre dos valores, ambos incluidos.
+     * 
+     * @param <T>      Tipo de entidad
+     * @param criterio Campo a comparar
+     * @param minimo   Valor mínimo
+     * @param maximo   Valor máximo
+     * @return La condición
+     * @throws IllegalArgumentException Si algún valor es nulo o no es del tipo del campo
+     */
+    public static <T> Condicion<T> entre(CriterioOrden<? super T> criterio, Object minimo, Object maximo) {
+        requerirValor(criterio, minimo);
+        requerirValor(criterio, maximo);
+        return rango(criterio, minimo, true, maximo, true,
+                criterio.getNombre() + " entre " + minimo + " y " + maximo);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades cuyo campo es mayor que un valor.
+     * 
+     * @param <T>      Tipo de entidad
+     * @param criterio Campo a comparar
+     * @param valor    Valor de referencia, excluido
+     * @return La condición
+     * @throws IllegalArgumentException Si el valor es nulo o no es del tipo del campo
+     */
+    public static <T> Condicion<T> mayorQue(CriterioOrden<? super T> criterio, Object valor) {
+        requerirValor(criterio, valor);
+        return rango(criterio, valor, false, null, false, criterio.getNombre() + " > " + valor);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades cuyo campo es mayor o igual que un valor.
+     * 
+     * @param <T>      Tipo de entidad
+     * @param criterio Campo a comparar
+     * @param valor    Valor de referencia, incluido
+     * @return La condición
+     * @throws IllegalArgumentException Si el valor es nulo o no es del tipo del campo
+     */
+    public static <T> Condicion<T> desde(CriterioOrden<? super T> criterio, Object valor) {
+        requerirValor(criterio, valor);
+        return rango(criterio, valor, true, null, false, criterio.getNombre() + " >= " + valor);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades cuyo campo es menor que un valor.
+     * 
+     * @param <T>      Tipo de entidad
+     * @param criterio Campo a comparar
+     * @param valor    Valor de referencia, excluido
+     * @return La condición
+     * @throws IllegalArgumentException Si el valor es nulo o no es del tipo del campo
+     */
+    public static <T> Condicion<T> menorQue(CriterioOrden<? super T> criterio, Object valor) {
+        requerirValor(criterio, valor);
+        return rango(criterio, null, false, valor, false, criterio.getNombre() + " < " + valor);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades cuyo campo es menor o igual que un valor.
+     * 
+     * @param <T>      Tipo de entidad
+     * @param criterio Campo a comparar
+     * @param valor    Valor de referencia, incluido
+     * @return La condición
+     * @throws IllegalArgumentException Si el valor es nulo o no es del tipo del campo
+     */
+    public static <T> Condicion<T> hasta(CriterioOrden<? super T> criterio, Object valor) {
+        requerirValor(criterio, valor);
+        return rango(criterio, null, false, valor, true, criterio.getNombre() + " <= " + valor);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades cuyo campo de texto contiene un fragmento.
+     * 
+     * La comparación no distingue mayúsculas. Esta condición no puede
+     * resolverse sobre un ordenamiento, por lo que se evalúa entidad por entidad.
+     * 
+     * @param <T>       Tipo de entidad
+     * @param criterio  Campo de texto a examinar
+     * @param fragmento Texto que debe contener el campo
+     * @return La condición
+     * @throws IllegalArgumentException Si el campo no es de texto o el fragmento es nulo
+     */
+    public static <T> Condicion<T> contiene(CriterioOrden<? super T> criterio, String fragmento) {
+        if (!criterio.esTexto() || fragmento == null) {
+            throw new IllegalArgumentException("La condición contiene requiere un campo de texto y un fragmento");
+        }
+        String buscado = fragmento.toLowerCase(Locale.ROOT);
+        return cumple(criterio.getNombre() + " contiene " + fragmento, entidad -> {
+            Object valor = criterio.valorDe(entidad);
+            return valor != null && ((String) valor).toLowerCase(Locale.ROOT).contains(buscado);
+        });
+    }
+    
+    /**
+     * Crea una condición a partir de un predicado arbitrario.
+     * 
+     * @param <T>         Tipo de entidad
+     * @param descripcion Descripción legible de la condición
+     * @param predicado   Predicado que deben cumplir las entidades
+     * @return La condición
+     */
+    public static <T> Condicion<T> cumple(String descripcion, Predicate<? super T> predicado) {
+        return new Condicion<>(Forma.PREDICADO, null, null, false, null, false, false, null, predicado, descripcion);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades que cumplen todas las condiciones indicadas.
+     * 
+     * @param <T>         Tipo de entidad
+     * @param condiciones Condiciones a cumplir
+     * @return La condición
+     */
+    @SafeVarargs
+    public static <T> Condicion<T> y(Condicion<? super T>... condiciones) {
+        List<Condicion<? super T>> partes = new ArrayList<>(condiciones.length);
+        for (Condicion<? super T> condicion : condiciones) {
+            partes.add(Objects.requireNonNull(condicion, "La condición no puede ser nula"));
+        }
+        return combinar(Forma.Y, " y ", partes);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades que cumplen alguna de las condiciones indicadas.
+     * 
+     * @param <T>         Tipo de entidad
+     * @param condiciones Condiciones alternativas
+     * @return La condición
+     */
+    @SafeVarargs
+    public static <T> Condicion<T> o(Condicion<? super T>... condiciones) {
+        List<Condicion<? super T>> partes = new ArrayList<>(condiciones.length);
+        for (Condicion<? super T> condicion : condiciones) {
+            partes.add(Objects.requireNonNull(condicion, "La condición no puede ser nula"));
+        }
+        return combinar(Forma.O, " o ", partes);
+    }
+    
+    /**
+     * Crea una condición que acepta las entidades que no cumplen la condición indicada.
+     * 
+     * @param <T>       Tipo de entidad
+     * @param condicion Condición a negar
+     * @return La condición
+     */
+    public static <T> Condicion<T> no(Condicion<? super T> condicion) {
+        return new Condicion<>(Forma.NO, null, null, false, null, false, false, List.of(condicion), null,
+                "no (" + condicion + ")");
+    }
+    
+    /**
+     * Combina varias condiciones con y u o.
+     * 
+     * Los métodos con argumentos variables copian sus condiciones a una
+     * lista elemento por elemento antes de invocarlo, sin que el arreglo
+     * de argumentos salga de ellos, lo que hace seguro su
+     * {@code @SafeVarargs} aunque el tipo de las condiciones no sea
+     * reificable.
+     * 
+     * @param <T>         Tipo de entidad
+     * @param forma       Forma de la combinación
+     * @param separador   Conector de la descripción
+     * @param partes      Condiciones a combinar
+     * @return La condición combinada
+     */
+    private static <T> Condicion<T> combinar(Forma forma, String separador, List<Condicion<? super T>> partes) {
+        List<Condicion<? super T>> inmutables = Collections.unmodifiableList(partes);
+        StringBuilder texto = new StringBuilder("(");
+        for (int i = 0; i < inmutables.size(); i++) {
+            texto.append(i > 0 ? separador : "").append(inmutables.get(i));
+        }
+        return new Condicion<>(forma, null, null, false, null, false, false, inmutables, null, texto.append(')').toString());
+    }
+    
+    /**
+     * Verifica que el valor de una condición de rango no sea nulo.
+     * 
+     * @param criterio Campo de la condición
+     * @param valor    Valor a verificar
+     * @throws IllegalArgumentException Si el valor es nulo
+     */
+    private static void requerirValor(CriterioOrden<?> criterio, Object valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("La condición sobre " + criterio.getNombre() + " requiere un valor");
+        }
+    }
+    
+    /**
+     * Evalúa la condición sobre una entidad.
+     * 
+     * @param entidad La entidad a evaluar
+     * @return true si la entidad cumple la condición
+     */
+    @Override
+    public boolean test(T entidad) {
+        switch (forma) {
+            case RANGO:
+                Object valor = criterio.valorDe(entidad);
+                return !bajoElRango(valor) && !sobreElRango(valor);
+            case Y:
+                for (Condicion<? super T> parte : partes) {
+                    if (!parte.test(entidad)) {
+                        return false;
+                    }
+                }
+                return true;
+            case O:
+                for (Condicion<? super T> parte : partes) {
+                    if (parte.test(entidad)) {
+                        return true;
+                    }
+                }
+                return false;
+            case NO:
+                return !partes.get(0).test(entidad);
+            default:
+                return predicado.test(entidad);
+        }
+    }
+    
+    /**
+     * Verifica si la condición es un rango que puede resolverse sobre un ordenamiento.
+     * 
+     * @return true si la condición es un rango sobre un criterio
+     */
+    boolean esRango() {
+        return forma == Forma.RANGO;
+    }
+    
+    /**
+     * Obtiene las condiciones de una conjunción.
+     * 
+     * @return Las condiciones combinadas con y, o null si la condición no es una conjunción
+     */
+    List<Condicion<? super T>> getPartesConjuncion() {
+        return forma == Forma.Y ? partes : null;
+    }
+    
+    /**
+     * Obtiene el criterio de una condición de rango.
+     * 
+     * @return El criterio, o null si la condición no es un rango
+     */
+    CriterioOrden<? super T> getCriterio() {
+        return criterio;
+    }
+    
+    /**
+     * Obtiene el valor buscado si la condición es una igualdad con un valor no nulo.
+     * 
+     * @return El valor buscado, o null si la condición no es una igualdad de ese tipo
+     */
+    Object valorIgual() {
+        return forma == Forma.RANGO && inferior != null && incluyeInferior && incluyeSuperior
+                && superior != null && criterio.comparar(inferior, superior) == 0 ? inferior : null;
+    }
+    
+    /**
+     * Verifica si un valor del criterio queda antes del rango en el orden del criterio.
+     * 
+     * En el ordenamiento del criterio, las posiciones cuyo valor queda
+     * antes del rango forman un prefijo, lo que permite ubicar el inicio
+     * del rango con una búsqueda binaria.
+     * 
+     * @param valor Valor del criterio
+     * @return true si el valor es menor que cualquier valor del rango
+     */
+    boolean bajoElRango(Object valor) {
+        if (soloNulos) {
+            return false;
+        }
+        if (valor == null) {
+            return true;
+        }
+        if (inferior == null) {
+            return false;
+        }
+        int comparacion = criterio.comparar(valor, inferior);
+        return comparacion < 0 || (comparacion == 0 && !incluyeInferior);
+    }
+    
+    /**
+     * Verifica si un valor del criterio queda después del rango en el orden del criterio.
+     * 
+     * En el ordenamiento del criterio, las posiciones cuyo valor queda
+     * después del rango forman un sufijo, lo que permite ubicar el fin
+     * del rango con una búsqueda binaria.
+     * 
+     * @param valor Valor del criterio
+     * @return true si el valor es mayor que cualquier valor del rango
+     */
+    boolean sobreElRango(Object valor) {
+        if (soloNulos) {
+            return valor != null;
+        }
+        if (valor == null || superior == null) {
+            return false;
+        }
+        int comparacion = criterio.comparar(valor, superior);
+        return comparacion > 0 || (comparacion == 0 && !incluyeSuperior);
+    }
+    
+    /**
+     * Representación en texto de la condición.
+     * 
+     * @return Descripción legible de la condición
+     */
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+}
\ No newline at end of file
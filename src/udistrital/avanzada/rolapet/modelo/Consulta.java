@@ -0,0 +1,321 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Consulta inmutable y componible sobre una colección del repositorio.
+ * 
+ * Una consulta se construye agregando condiciones con
+ * {@link #donde(Condicion)}, que deben cumplirse todas, y opcionalmente un
+ * límite de resultados. Al recorrerla, un planificador elige cómo obtener
+ * los candidatos antes de filtrarlos. Si alguna condición es una igualdad
+ * sobre la clave primaria, busca esa única entidad en el índice por clave.
+ * Si no, entre las condiciones de rango elige la que deja menos candidatos
+ * sobre el ordenamiento de su campo, siempre que ese ordenamiento ya esté
+ * construido para la instantánea actual o sea la segunda vez que se
+ * consulta el campo sobre la misma instantánea; así una consulta aislada
+ * no paga el costo de ordenar y una repetida lo amortiza. Si ninguna
+ * condición puede resolverse así, recorre la instantánea completa.
+ * 
+ * Los resultados se producen de forma perezosa: cada candidato se evalúa
+ * al pedir el siguiente resultado, por lo que detenerse al alcanzar el
+ * límite o al encontrar el primero no evalúa el resto de la colección.
+ * Los resultados salen en orden de registro, salvo cuando el plan usa el
+ * ordenamiento de un campo, en cuyo caso salen en el orden de ese campo.
+ * 
+ * @param <T> Tipo de entidad consultada
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class Consulta<T> implements Iterable<T> {
+    
+    /** Colección consultada */
+    private final ColeccionIndexada<T> coleccion;
+    
+    /** Criterio que corresponde a la clave primaria de la colección */
+    private final CriterioOrden<? super T> criterioClave;
+    
+    /** Condiciones que deben cumplir todos los resultados */
+    private final List<Condicion<? super T>> condiciones;
+    
+    /** Cantidad máxima de resultados, o -1 si no hay límite */
+    private final int limite;
+    
+    /**
+     * Plan de ejecución de una consulta: los candidatos a filtrar y cómo se obtuvieron.
+     * 
+     * @param <T> Tipo de entidad consultada
+     */
+    private static final class Plan<T> {
+        
+        /** Candidatos a filtrar con las condiciones */
+        private final List<T> candidatos;
+        
+        /** Descripción del acceso elegido */
+        private final String acceso;
+        
+        /**
+         * Constructor del plan.
+         * 
+         * @param candidatos Candidatos a filtrar
+         * @param acceso     Descripción del acceso elegido
+         */
+        private Plan(List<T> candidatos, String acceso) {
+            this.candidatos = candidatos;
+            this.acceso = acceso;
+        }
+    }
+    
+    /**
+     * Constructor de una consulta sin condiciones sobre una colección.
+     * 
+     * @param coleccion     Colección consultada
+     * @param criterioClave Criterio que corresponde a la clave primaria de la colección
+     */
+    Consulta(ColeccionIndexada<T> coleccion, CriterioOrden<? super T> criterioClave) {
+        this(coleccion, criterioClave, List.of(), -1);
+    }
+    
+    /**
+     * Constructor de una consulta.
+     * 
+     * @param coleccion     Colección consultada
+     * @param criterioClave Criterio que corresponde a la clave primaria de la colección
+     * @param condiciones   Condiciones que deben cumplir los resultados
+     * @param limite        Cantidad máxima de resultados, o -1 si no hay límite
+     */
+    private Consulta(ColeccionIndexada<T> coleccion, CriterioOrden<? super T> criterioClave,
+                     List<Condicion<? super T>> condiciones, int limite) {
+        this.coleccion = coleccion;
+        this.criterioClave = criterioClave;
+        this.condiciones = condiciones;
+        this.limite = limite;
+    }
+    
+    /**
+     * Obtiene una consulta que además exige una condición.
+     * 
+     * @param condicion Condición que deben cumplir los resultados
+     * @return Una consulta nueva con la condición agregada
+     * @throws IllegalArgumentException Si la condición es nula
+     */
+    public Consulta<T> donde(Condicion<? super T> condicion) {
+        if (condicion == null) {
+            throw new IllegalArgumentException("La condición no puede ser nula");
+        }
+        List<Condicion<? super T>> nuevas = new ArrayList<>(condiciones);
+        agregarConjuncion(nuevas, condicion);
+        return new Consulta<>(coleccion, criterioClave, List.copyOf(nuevas), limite);
+    }
+    
+    /**
+     * Agrega una condición a una lista de condiciones que deben cumplirse todas.
+     * 
+     * Una conjunción se agrega parte por parte, para que el planificador
+     * pueda usar cada una de sus condiciones de rango.
+     * 
+     * @param <T>       Tipo de entidad consultada
+     * @param destino   Lista de condiciones
+     * @param condicion Condición a agregar
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void agregarConjuncion(List<Condicion<? super T>> destino, Condicion<? super T> condicion) {
+        List<? extends Condicion<?>> partes = condicion.getPartesConjuncion();
+        if (partes == null) {
+            destino.add(condicion);
+            return;
+        }
+        for (Condicion<?> parte : partes) {
+            agregarConjuncion(destino, (Condicion<? super T>) parte);
+        }
+    }
+    
+    /**
+     * Obtiene una consulta que produce como máximo una cantidad de resultados.
+     * 
+     * @param maximo Cantidad máxima de resultados
+     * @return Una consulta nueva con el límite indicado
+     * @throws IllegalArgumentException Si el máximo es negativo
+     */
+    public Consulta<T> limitar(int maximo) {
+        if (maximo < 0) {
+            throw new IllegalArgumentException("El límite de resultados no puede ser negativo");
+        }
+        return new Consulta<>(coleccion, criterioClave, condiciones, maximo);
+    }
+    
+    /**
+     * Recorre los resultados de la consulta de forma perezosa.
+     * 
+     * Los candidatos se obtienen de la instantánea vigente al crear el
+     * iterador, por lo que el recorrido no se ve afectado por escrituras
+     * posteriores sobre la colección.
+     * 
+     * @return Iterador sobre los resultados
+     */
+    @Override
+    public Iterator<T> iterator() {
+        List<T> candidatos = planificar().candidatos;
+        return new Iterator<T>() {
+            
+            /** Posición del siguiente candidato a evaluar */
+            private int posicion;
+            
+            /** Resultados entregados hasta ahora */
+            private int entregados;
+            
+            /** Siguiente resultado ya evaluado, o null si falta buscarlo */
+            private T siguiente;
+            
+            @Override
+            public boolean hasNext() {
+                if (siguiente != null) {
+                    return true;
+                }
+                if (limite >= 0 && entregados >= limite) {
+                    return false;
+                }
+                while (posicion < candidatos.size()) {
+                    T candidato = candidatos.get(posicion++);
+                    if (cumpleCondiciones(candidato)) {
+                        siguiente = candidato;
+                        return true;
+                    }
+                }
+                return false;
+            }
+            
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T resultado = siguiente;
+                siguiente = null;
+                entregados++;
+                return resultado;
+            }
+        };
+    }
+    
+    /**
+     * Obtiene los resultados de la consulta como flujo perezoso.
+     * 
+     * @return Flujo secuencial de resultados
+     */
+    public Stream<T> flujo() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), false);
+    }
+    
+    /**
+     * Obtiene todos los resultados de la consulta.
+     * 
+     * @return Lista inmutable de resultados
+     */
+    public List<T> lista() {
+        List<T> resultados = new ArrayList<>();
+        for (T entidad : this) {
+            resultados.add(entidad);
+        }
+        return List.copyOf(resultados);
+    }
+    
+    /**
+     * Cuenta los resultados de la consulta sin guardarlos.
+     * 
+     * @return La cantidad de resultados
+     */
+    public long contar() {
+        long cantidad = 0;
+        for (Iterator<T> resultados = iterator(); resultados.hasNext(); resultados.next()) {
+            cantidad++;
+        }
+        return cantidad;
+    }
+    
+    /**
+     * Obtiene el primer resultado de la consulta.
+     * 
+     * Este método deja de evaluar candidatos en cuanto encuentra uno.
+     * 
+     * @return El primer resultado o null si no hay ninguno
+     */
+    public T primero() {
+        Iterator<T> resultados = iterator();
+        return resultados.hasNext() ? resultados.next() : null;
+    }
+    
+    /**
+     * Describe el plan que se usaría para ejecutar la consulta ahora.
+     * 
+     * @return Acceso elegido, cantidad de candidatos y condiciones a filtrar
+     */
+    public String explicar() {
+        Plan<T> plan = planificar();
+        return plan.acceso + " (" + plan.candidatos.size() + " candidatos)"
+                + (condiciones.isEmpty() ? "" : ", filtro: " + condiciones)
+                + (limite >= 0 ? ", límite: " + limite : "");
+    }
+    
+    /**
+     * Verifica si una entidad cumple todas las condiciones de la consulta.
+     * 
+     * @param entidad La entidad a evaluar
+     * @return true si cumple todas las condiciones
+     */
+    private boolean cumpleCondiciones(T entidad) {
+        for (Condicion<? super T> condicion : condiciones) {
+            if (!condicion.test(entidad)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Elige cómo obtener los candidatos de la consulta.
+     * 
+     * @return El plan de ejecución
+     */
+    private Plan<T> planificar() {
+        for (Condicion<? super T> condicion : condiciones) {
+            Object valor = condicion.valorIgual();
+            if (valor != null && condicion.getCriterio() == criterioClave) {
+                T entidad = coleccion.buscar((String) valor);
+                return new Plan<>(entidad != null ? List.of(entidad) : List.of(),
+                        "búsqueda por clave " + criterioClave.getNombre());
+            }
+        }
+        // Primero se prefieren los ordenamientos ya construidos; solo si no
+        // hay ninguno se permite construir uno, y como máximo uno por consulta
+        List<T> mejor = null;
+        Condicion<? super T> elegida = null;
+        for (Condicion<? super T> condicion : condiciones) {
+            if (condicion.esRango()) {
+                List<T> rango = coleccion.rangoIndexado(condicion, false);
+                if (rango != null && (mejor == null || rango.size() < mejor.size())) {
+                    mejor = rango;
+                    elegida = condicion;
+                }
+            }
+        }
+        for (int i = 0; mejor == null && i < condiciones.size(); i++) {
+            if (condiciones.get(i).esRango()) {
+                mejor = coleccion.rangoIndexado(condiciones.get(i), true);
+                elegida = condiciones.get(i);
+            }
+        }
+        if (mejor != null) {
+            return new Plan<>(mejor, "rango del ordenamiento por " + elegida.getCriterio().getNombre());
+        }
+        return new Plan<>(coleccion.instantanea(), "recorrido completo");
+    }
+}
\ No newline at end of file
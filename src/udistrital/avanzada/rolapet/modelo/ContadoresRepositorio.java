@@ -0,0 +1,234 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores vivos de las entidades registradas en el repositorio.
+ * 
+ * Esta clase es utilizada por el Repositorio para llevar la cuenta de las
+ * entidades de cada categoría a medida que se registran y eliminan. Los
+ * contadores son atómicos, de modo que pueden leerse con mucha frecuencia
+ * desde cualquier hilo sin tomar candados ni recorrer las listas de
+ * entidades. Cada contador es exacto por sí mismo; una instantánea tomada
+ * mientras ocurren escrituras puede combinar conteos de instantes cercanos.
+ * Mientras no haya escrituras, las consultas reutilizan la última instantánea.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+class ContadoresRepositorio {
+    
+    /** Contador de usuarios registrados */
+    private final LongAdder usuarios = new LongAdder();
+    
+    /** Contador de administradores registrados */
+    private final LongAdder administradores = new LongAdder();
+    
+    /** Contador de proveedores registrados */
+    private final LongAdder proveedores = new LongAdder();
+    
+    /** Contador de personas de otros roles registradas */
+    private final LongAdder otrasPersonas = new LongAdder();
+    
+    /** Contador de publicaciones registradas */
+    private final LongAdder publicaciones = new LongAdder();
+    
+    /** Contadores de vehículos por tipo */
+    private final ConcurrentMap<String, LongAdder> vehiculosPorTipo = new ConcurrentHashMap<>();
+    
+    /** Contadores de items por tipo */
+    private final ConcurrentMap<String, LongAdder> itemsPorTipo = new ConcurrentHashMap<>();
+    
+    /** Versión de los contadores, incrementada en cada alta o baja */
+    private final AtomicLong version = new AtomicLong();
+    
+    /** Última instantánea construida junto con la versión que refleja */
+    private volatile InstantaneaVersionada ultima;
+    
+    /**
+     * Instantánea de estadísticas asociada a la versión de los contadores que refleja.
+     */
+    private static final class InstantaneaVersionada {
+        
+        /** Versión de los contadores al construir la instantánea */
+        private final long version;
+        
+        /** Instantánea construida */
+        private final EstadisticasRepositorio estadisticas;
+        
+        /**
+         * Constructor de la instantánea versionada.
+         * 
+         * @param version      Versión de los contadores
+         * @param estadisticas Instantánea construida
+         */
+        private InstantaneaVersionada(long version, EstadisticasRepositorio estadisticas) {
+            this.version = version;
+            this.estadisticas = estadisticas;
+        }
+    }
+    
+    /**
+     * Registra el alta o la baja de una persona.
+     * 
+     * @param persona La persona registrada o eliminada
+     * @param delta   1 para un alta, -1 para una baja
+     */
+    void persona(Persona persona, int delta) {
+        if (persona instanceof Usuario) {
+            usuarios.add(delta);
+        } else if (persona instanceof Administrador) {
+            administradores.add(delta);
+        } else if (persona instanceof Proveedor) {
+            proveedores.add(delta);
+        } else {
+            otrasPersonas.add(delta);
+        }
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Registra el alta o la baja de un vehículo.
+     * 
+     * @param vehiculo El vehículo registrado o eliminado
+     * @param delta    1 para un alta, -1 para una baja
+     */
+    void vehiculo(Vehiculo vehiculo, int delta) {
+        vehiculosPorTipo.computeIfAbsent(vehiculo.getTipo(), tipo -> new LongAdder()).add(delta);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Registra el alta o la baja de un item.
+     * 
+     * @param item  El item registrado o eliminado
+     * @param delta 1 para un alta, -1 para una baja
+     */
+    void item(Item item, int delta) {
+        itemsPorTipo.computeIfAbsent(item.getTipo(), tipo -> new LongAdder()).add(delta);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Registra el alta o la baja de una publicación.
+     * 
+     * @param delta 1 para un alta, -1 para una baja
+     */
+    void publicacion(int delta) {
+        publicaciones.add(delta);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Registra el alta de varios vehículos de un mismo tipo a la vez.
+     * 
+     * @param tipo     Tipo de los vehículos registrados
+     * @param cantidad Cantidad de vehículos registrados
+     */
+    void vehiculos(String tipo, long cantidad) {
+        vehiculosPorTipo.computeIfAbsent(tipo, clave -> new LongAdder()).add(cantidad);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Registra el alta de varios items de un mismo tipo a la vez.
+     * 
+     * @param tipo     Tipo de los items registrados
+     * @param cantidad Cantidad de items registrados
+     */
+    void items(String tipo, long cantidad) {
+        itemsPorTipo.computeIfAbsent(tipo, clave -> new LongAdder()).add(cantidad);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Registra el alta de varias publicaciones a la vez.
+     * 
+     * @param cantidad Cantidad de publicaciones registradas
+     */
+    void publicaciones(long cantidad) {
+        publicaciones.add(cantidad);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Obtiene una instantánea inmutable a partir de los contadores actuales.
+     * 
+     * Si no ha habido altas ni bajas desde la última instantánea, este
+     * método la reutiliza, incluido su reporte en texto ya generado.
+     * 
+     * @return Las estadísticas del repositorio en este momento
+     */
+    EstadisticasRepositorio instantanea() {
+        long versionActual = version.get();
+        InstantaneaVersionada cache = ultima;
+        if (cache != null && cache.version == versionActual) {
+            return cache.estadisticas;
+        }
+        EstadisticasRepositorio estadisticas = construir();
+        ultima = new InstantaneaVersionada(versionActual, estadisticas);
+        return estadisticas;
+    }
+    
+    /**
+     * Construye una instantánea nueva sumando los contadores actuales.
+     * 
+     * @return Las estadísticas del repositorio en este momento
+     */
+    private EstadisticasRepositorio construir() {
+        long totalUsuarios = usuarios.sum();
+        long totalAdministradores = administradores.sum();
+        long totalProveedores = proveedores.sum();
+        long totalPersonas = totalUsuarios + totalAdministradores + totalProveedores + otrasPersonas.sum();
+        Map<String, Long> vehiculos = sumar(vehiculosPorTipo);
+        Map<String, Long> items = sumar(itemsPorTipo);
+        return new EstadisticasRepositorio(
+            totalPersonas,
+            totalUsuarios,
+            totalAdministradores,
+            totalProveedores,
+            total(vehiculos),
+            total(items),
+            publicaciones.sum(),
+            vehiculos,
+            items
+        );
+    }
+    
+    /**
+     * Obtiene el valor actual de cada contador por tipo, omitiendo los que están en cero.
+     * 
+     * @param contadores Contadores por tipo
+     * @return Mapa de tipo a cantidad
+     */
+    private static Map<String, Long> sumar(ConcurrentMap<String, LongAdder> contadores) {
+        Map<String, Long> valores = new HashMap<>();
+        contadores.forEach((tipo, contador) -> {
+            long valor = contador.sum();
+            if (valor != 0) {
+                valores.put(tipo, valor);
+            }
+        });
+        return valores;
+    }
+    
+    /**
+     * Suma las cantidades de un desglose por tipo.
+     * 
+     * @param valores Mapa de tipo a cantidad
+     * @return La suma de todas las cantidades
+     */
+    private static long total(Map<String, Long> valores) {
+        long total = 0;
+        for (long valor : valores.values()) {
+            total += valor;
+        }
+        return total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,254 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Criterio de ordenamiento para las consultas paginadas del repositorio.
+ * 
+ * Los criterios también son los campos sobre los que se expresan las
+ * condiciones de una {@link Consulta}, lo que permite al planificador
+ * resolver un rango de valores sobre el ordenamiento del campo.
+ * 
+ * Un criterio ordena las entidades por el valor de uno de sus campos, que
+ * puede ser un texto (comparado sin distinguir mayúsculas y con los valores
+ * nulos al inicio) o un número. Las entidades con el mismo valor se ordenan
+ * por su clave primaria, de modo que el orden es total y estable entre
+ * consultas. Esto permite que el cursor de una página guarde solo el valor
+ * y la clave de su último elemento.
+ * 
+ * El repositorio guarda el ordenamiento de cada criterio bajo su nombre
+ * mientras la colección no cambie, por lo que dos criterios distintos
+ * sobre el mismo tipo de entidad deben tener nombres distintos. El nombre
+ * de un criterio es además el del campo que ordena: cuando cambia un
+ * campo de una entidad registrada, el repositorio descarta solo el
+ * ordenamiento con ese nombre y conserva los demás.
+ * 
+ * @param <T> Tipo de entidad que ordena el criterio
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class CriterioOrden<T> {
+    
+    /** Personas ordenadas por cédula, su clave primaria */
+    public static final CriterioOrden<Persona> PERSONAS_POR_CEDULA = porTexto("cedula", Persona::getCedula);
+    
+    /** Personas ordenadas por nombre */
+    public static final CriterioOrden<Persona> PERSONAS_POR_NOMBRE = porTexto("nombre", Persona::getNombre);
+    
+    /** Personas ordenadas por rol */
+    public static final CriterioOrden<Persona> PERSONAS_POR_ROL = porTexto("rol", Persona::getRol);
+    
+    /** Usuarios ordenados por cantidad de vehículos */
+    public static final CriterioOrden<Usuario> USUARIOS_POR_VEHICULOS =
+            porNumero("vehiculos", usuario -> usuario.getVehiculos().size());
+    
+    /** Usuarios ordenados por cantidad de amigos */
+    public static final CriterioOrden<Usuario> USUARIOS_POR_AMIGOS =
+            porNumero("amigos", usuario -> usuario.getAmigos().size());
+    
+    /** Proveedores ordenados por cantidad de items */
+    public static final CriterioOrden<Proveedor> PROVEEDORES_POR_ITEMS =
+            porNumero("items", proveedor -> proveedor.getItems().size());
+    
+    /** Proveedores ordenados por cantidad de publicaciones */
+    public static final CriterioOrden<Proveedor> PROVEEDORES_POR_PUBLICACIONES =
+            porNumero("publicaciones", proveedor -> proveedor.getPublicaciones().size());
+    
+    /** Vehículos ordenados por ID, su clave primaria */
+    public static final CriterioOrden<Vehiculo> VEHICULOS_POR_ID = porTexto("id", Vehiculo::getId);
+    
+    /** Vehículos ordenados por marca */
+    public static final CriterioOrden<Vehiculo> VEHICULOS_POR_MARCA = porTexto("marca", Vehiculo::getMarca);
+    
+    /** Vehículos ordenados por modelo */
+    public static final CriterioOrden<Vehiculo> VEHICULOS_POR_MODELO = porTexto("modelo", Vehiculo::getModelo);
+    
+    /** Vehículos ordenados por tipo */
+    public static final CriterioOrden<Vehiculo> VEHICULOS_POR_TIPO = porTexto("tipo", Vehiculo::getTipo);
+    
+    /** Vehículos ordenados por autonomía en kilómetros */
+    public static final CriterioOrden<Vehiculo> VEHICULOS_POR_AUTONOMIA =
+            porNumero("autonomiaKm", Vehiculo::getAutonomiaKm);
+    
+    /** Items ordenados por ID, su clave primaria */
+    public static final CriterioOrden<Item> ITEMS_POR_ID = porTexto("id", Item::getId);
+    
+    /** Items ordenados por nombre */
+    public static final CriterioOrden<Item> ITEMS_POR_NOMBRE = porTexto("nombre", Item::getNombre);
+    
+    /** Items ordenados por tipo */
+    public static final CriterioOrden<Item> ITEMS_POR_TIPO = porTexto("tipo", Item::getTipo);
+    
+    /** Publicaciones ordenadas por ID, su clave primaria */
+    public static final CriterioOrden<Publicacion> PUBLICACIONES_POR_ID = porTexto("id", Publicacion::getId);
+    
+    /** Publicaciones ordenadas por título */
+    public static final CriterioOrden<Publicacion> PUBLICACIONES_POR_TITULO =
+            porTexto("titulo", Publicacion::getTitulo);
+    
+    /** Publicaciones ordenadas por fecha de creación en formato ISO */
+    public static final CriterioOrden<Publicacion> PUBLICACIONES_POR_FECHA =
+            porTexto("fechaCreacion", Publicacion::getFechaCreacion);
+    
+    /** Publicaciones ordenadas por tipo */
+    public static final CriterioOrden<Publicacion> PUBLICACIONES_POR_TIPO = porTexto("tipo", Publicacion::getTipo);
+    
+    /** Nombre del criterio */
+    private final String nombre;
+    
+    /** Función que obtiene el valor de texto, o null si el criterio es numérico */
+    private final Function<? super T, String> texto;
+    
+    /** Función que obtiene el valor numérico, o null si el criterio es de texto */
+    private final ToLongFunction<? super T> numero;
+    
+    /**
+     * Constructor privado; los criterios se crean con los métodos de fábrica.
+     * 
+     * @param nombre Nombre del criterio
+     * @param texto  Función que obtiene el valor de texto, o null
+     * @param numero Función que obtiene el valor numérico, o null
+     */
+    private CriterioOrden(String nombre, Function<? super T, String> texto, ToLongFunction<? super T> numero) {
+        if (nombre == null || nombre.isEmpty()) {
+            throw new IllegalArgumentException("El criterio de orden debe tener nombre");
+        }
+        this.nombre = nombre;
+        this.texto = texto;
+        this.numero = numero;
+    }
+    
+    /**
+     * Crea un criterio que ordena por un campo de texto.
+     * 
+     * @param <T>    Tipo de entidad que ordena el criterio
+     * @param nombre Nombre del criterio
+     * @param campo  Función que obtiene el texto de cada entidad
+     * @return El criterio de ordenamiento
+     */
+    public static <T> CriterioOrden<T> porTexto(String nombre, Function<? super T, String> campo) {
+        return new CriterioOrden<>(nombre, campo, null);
+    }
+    
+    /**
+     * Crea un criterio que ordena por un campo numérico.
+     * 
+     * @param <T>    Tipo de entidad que ordena el criterio
+     * @param nombre Nombre del criterio
+     * @param campo  Función que obtiene el número de cada entidad
+     * @return El criterio de ordenamiento
+     */
+    public static <T> CriterioOrden<T> porNumero(String nombre, ToLongFunction<? super T> campo) {
+        return new CriterioOrden<>(nombre, null, campo);
+    }
+    
+    /**
+     * Obtiene el nombre del criterio.
+     * 
+     * @return El nombre del criterio
+     */
+    public String getNombre() {
+        return nombre;
+    }
+    
+    /**
+     * Obtiene el valor por el que se ordena una entidad.
+     * 
+     * @param entidad La entidad
+     * @return Texto, posiblemente nulo, o número de la entidad
+     */
+    Object valorDe(T entidad) {
+        return texto != null ? texto.apply(entidad) : (Object) numero.applyAsLong(entidad);
+    }
+    
+    /**
+     * Verifica si el criterio ordena por un campo de texto.
+     * 
+     * @return true si el criterio es de texto, false si es numérico
+     */
+    boolean esTexto() {
+        return texto != null;
+    }
+    
+    /**
+     * Convierte un valor recibido en una condición al tipo de los valores del criterio.
+     * 
+     * @param valor Texto para un criterio de texto o número entero para uno numérico
+     * @return El valor en el tipo del criterio
+     * @throws IllegalArgumentException Si el valor no es del tipo del criterio
+     */
+    Object normalizar(Object valor) {
+        if (texto != null && valor instanceof String) {
+            return valor;
+        }
+        if (numero != null && (valor instanceof Long || valor instanceof Integer
+                || valor instanceof Short || valor instanceof Byte)) {
+            return ((Number) valor).longValue();
+        }
+        throw new IllegalArgumentException("El criterio " + nombre + " requiere "
+                + (texto != null ? "un texto" : "un número entero") + ": " + valor);
+    }
+    
+    /**
+     * Compara dos valores obtenidos con {@link #valorDe(Object)}.
+     * 
+     * @param a Primer valor
+     * @param b Segundo valor
+     * @return Negativo, cero o positivo según a sea menor, igual o mayor que b
+     */
+    int comparar(Object a, Object b) {
+        if (texto == null) {
+            return Long.compare((Long) a, (Long) b);
+        }
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        int resultado = String.CASE_INSENSITIVE_ORDER.compare((String) a, (String) b);
+        return resultado != 0 ? resultado : ((String) a).compareTo((String) b);
+    }
+    
+    /**
+     * Codifica un valor del criterio como texto para guardarlo en un cursor.
+     * 
+     * @param valor Valor obtenido con {@link #valorDe(Object)}
+     * @return El valor codificado
+     */
+    String codificar(Object valor) {
+        if (valor == null) {
+            return "-";
+        }
+        return (texto != null ? "T" : "N") + valor;
+    }
+    
+    /**
+     * Decodifica un valor guardado con {@link #codificar(Object)}.
+     * 
+     * @param codificado El valor codificado
+     * @return El valor del criterio
+     * @throws IllegalArgumentException Si el texto no es un valor de este criterio
+     */
+    Object decodificar(String codificado) {
+        if (codificado.equals("-") && texto != null) {
+            return null;
+        }
+        if (codificado.startsWith("T") && texto != null) {
+            return codificado.substring(1);
+        }
+        if (codificado.startsWith("N") && numero != null) {
+            return Long.valueOf(codificado.substring(1));
+        }
+        throw new IllegalArgumentException("Valor no válido para el criterio " + nombre + ": " + codificado);
+    }
+    
+    /**
+     * Representación en texto del criterio.
+     * 
+     * @return El nombre del criterio
+     */
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,444 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de escritura anticipada del repositorio.
+ * 
+ * Esta clase agrega registros binarios al final de un archivo mediante un
+ * {@link FileChannel}. Cada registro se guarda como su longitud, su suma de
+ * verificación CRC32 y su contenido, lo que permite detectar al reproducir
+ * el diario un registro incompleto por una caída.
+ * 
+ * Para que la escritura no bloquee a quien modifica el repositorio, los
+ * registros se copian en un búfer en memoria y un hilo escritor los lleva
+ * a disco por lotes, sincronizando el archivo una sola vez por lote
+ * (confirmación en grupo). Un registro queda en disco a más tardar un
+ * intervalo de agrupación después de haber sido agregado; quien necesite
+ * esperar a que todo lo agregado sea durable puede invocar {@link #sincronizar()}.
+ * 
+ * El diario puede rotarse a un archivo nuevo con {@link #rotar(Path)}, lo
+ * que permite dividirlo en segmentos y descartar los que ya quedaron
+ * cubiertos por una instantánea del repositorio.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class DiarioRepositorio implements Closeable {
+    
+    /** Tamaño de la cabecera de cada registro: longitud y CRC32 */
+    private static final int CABECERA = 8;
+    
+    /** Tamaño máximo aceptado para el contenido de un registro */
+    private static final int MAXIMO_REGISTRO = 64 * 1024 * 1024;
+    
+    /** Tamaño inicial de cada búfer de escritura */
+    private static final int TAMANO_BUFER = 1024 * 1024;
+    
+    /** Bytes pendientes a partir de los cuales se escribe sin esperar el intervalo */
+    private static final int UMBRAL_ESCRITURA = TAMANO_BUFER / 2;
+    
+    /** Tiempo máximo que espera el escritor para agrupar registros */
+    private static final long INTERVALO_AGRUPACION_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    
+    /**
+     * Consumidor de los registros leídos al reproducir un diario.
+     */
+    interface LectorRegistros {
+        
+        /**
+         * Procesa el contenido de un registro.
+         * 
+         * @param registro Contenido del registro, sin la cabecera
+         * @throws IOException Si el contenido del registro es inválido
+         */
+        void procesar(DataInput registro) throws IOException;
+    }
+    
+    /** Archivo actual del diario, protegido por el candado */
+    private Path archivo;
+    
+    /** Canal de escritura del archivo actual, protegido por el candado */
+    private FileChannel canal;
+    
+    /** Candado que protege el búfer pendiente y el estado del diario */
+    private final ReentrantLock candado = new ReentrantLock();
+    
+    /** Señala al escritor que hay registros pendientes */
+    private final Condition hayPendientes = candado.newCondition();
+    
+    /** Señala a quienes agregan registros que se liberó espacio en el búfer */
+    private final Condition hayEspacio = candado.newCondition();
+    
+    /** Señala que un lote de registros quedó durable en disco */
+    private final Condition loteDurable = candado.newCondition();
+    
+    /** Búfer donde se acumulan los registros aún no escritos */
+    private ByteBuffer pendiente;
+    
+    /** Búfer que el hilo escritor está llevando a disco */
+    private ByteBuffer enEscritura;
+    
+    /** Número de registros agregados al diario */
+    private long registrosAgregados;
+    
+    /** Número de registros que ya son durables en disco */
+    private long registrosDurables;
+    
+    /** Indica si el hilo escritor está llevando un lote a disco */
+    private boolean escribiendo;
+    
+    /** Indica si el diario fue cerrado */
+    private boolean cerrado;
+    
+    /** Error de escritura que detuvo al hilo escritor, si lo hubo */
+    private IOException error;
+    
+    /** Hilo que escribe y sincroniza los lotes de registros */
+    private final Thread escritor;
+    
+    /**
+     * Constructor del diario.
+     * 
+     * @param archivo Archivo del diario
+     * @param canal   Canal ya posicionado al final de los registros válidos
+     */
+    private DiarioRepositorio(Path archivo, FileChannel canal) {
+        this.archivo = archivo;
+        this.canal = canal;
+        this.pendiente = ByteBuffer.allocateDirect(TAMANO_BUFER);
+        this.enEscritura = ByteBuffer.allocateDirect(TAMANO_BUFER);
+        this.escritor = new Thread(this::escribirLotes, "RolaPet-diario");
+        this.escritor.setDaemon(true);
+    }
+    
+    /**
+     * Abre un diario para agregar registros al final.
+     * 
+     * Este método descarta lo que haya en el archivo después de la posición
+     * indicada, que debe ser el final de los registros válidos devuelto por
+     * {@link #reproducir(Path, LectorRegistros)}.
+     * 
+     * @param archivo          Archivo del diario, se crea si no existe
+     * @param finRegistrosValidos Posición donde termina el último registro válido
+     * @return El diario abierto
+     * @throws IOException Si no se puede abrir el archivo
+     */
+    static DiarioRepositorio abrir(Path archivo, long finRegistrosValidos) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.READ);
+        if (canal.size() > finRegistrosValidos) {
+            canal.truncate(finRegistrosValidos);
+            canal.force(true);
+        }
+        canal.position(finRegistrosValidos);
+        DiarioRepositorio diario = new DiarioRepositorio(archivo, canal);
+        diario.escritor.start();
+        return diario;
+    }
+    
+    /**
+     * Reproduce los registros de un diario en orden.
+     * 
+     * Este método entrega cada registro válido al lector y se detiene en el
+     * primer registro incompleto o con suma de verificación incorrecta, que
+     * corresponde a una escritura interrumpida por una caída.
+     * 
+     * @param archivo Archivo del diario a reproducir
+     * @param lector  Consumidor de los registros
+     * @return La posición donde termina el último registro válido
+     * @throws IOException Si ocurre un error de lectura o un registro válido no se puede procesar
+     */
+    static long reproducir(Path archivo, LectorRegistros lector) throws IOException {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+        long posicion = 0;
+        CRC32 crc = new CRC32();
+        try (InputStream flujo = new BufferedInputStream(Files.newInputStream(archivo), 1 << 16);
+             DataInputStream entrada = new DataInputStream(flujo)) {
+            while (true) {
+                int longitud;
+                int suma;
+                byte[] contenido;
+                try {
+                    longitud = entrada.readInt();
+                    suma = entrada.readInt();
+                    if (longitud < 0 || longitud > MAXIMO_REGISTRO) {
+                        break;
+                    }
+                    contenido = new byte[longitud];
+                    entrada.readFully(contenido);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(contenido);
+                if ((int) crc.getValue() != suma) {
+                    break;
+                }
+                lector.procesar(new DataInputStream(new ByteArrayInputStream(contenido)));
+                posicion += CABECERA + longitud;
+            }
+        }
+        return posicion;
+    }
+    
+    /**
+     * Agrega un registro al diario.
+     * 
+     * Este método solo copia el registro en el búfer de memoria; el hilo
+     * escritor lo llevará a disco en el siguiente lote. Si el búfer está
+     * lleno, espera a que el escritor libere espacio.
+     * 
+     * @param contenido Contenido del registro
+     * @throws UncheckedIOException Si el diario dejó de poder escribir en disco
+     * @throws IllegalStateException Si el diario ya fue cerrado
+     */
+    void agregar(byte[] contenido) {
+        CRC32 crc = new CRC32();
+        crc.update(contenido);
+        int necesario = CABECERA + contenido.length;
+        candado.lock();
+        try {
+            verificarEstado();
+            while (pendiente.position() > 0 && pendiente.remaining() < necesario) {
+                hayPendientes.signal();
+                hayEspacio.awaitUninterruptibly();
+                verificarEstado();
+            }
+            if (pendiente.remaining() < necesario) {
+                pendiente = ByteBuffer.allocateDirect(necesario);
+            }
+            pendiente.putInt(contenido.length);
+            pendiente.putInt((int) crc.getValue());
+            pendiente.put(contenido);
+            registrosAgregados++;
+            if (pendiente.position() >= UMBRAL_ESCRITURA || registrosAgregados == registrosDurables + 1) {
+                hayPendientes.signal();
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Espera a que todos los registros agregados hasta ahora sean durables.
+     * 
+     * @throws IOException Si el diario no pudo escribir en disco
+     */
+    void sincronizar() throws IOException {
+        candado.lock();
+        try {
+            long objetivo = registrosAgregados;
+            hayPendientes.signal();
+            while (registrosDurables < objetivo && error == null) {
+                loteDurable.awaitUninterruptibly();
+            }
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Continúa el diario en un archivo nuevo.
+     * 
+     * Este método espera a que todos los registros agregados hasta ahora
+     * queden durables en el archivo actual y, sin dejar que se agreguen
+     * registros mientras tanto, cambia el destino de las escrituras al
+     * archivo indicado. Así, cada registro queda completo en un solo
+     * archivo y todo lo agregado antes de la rotación está en los
+     * archivos anteriores.
+     * 
+     * @param nuevoArchivo El archivo donde continúa el diario
+     * @throws IOException Si no se puede abrir el archivo nuevo o el diario no pudo escribir en disco
+     */
+    void rotar(Path nuevoArchivo) throws IOException {
+        FileChannel nuevoCanal = FileChannel.open(nuevoArchivo, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.READ);
+        nuevoCanal.position(nuevoCanal.size());
+        FileChannel anterior;
+        candado.lock();
+        try {
+            while ((pendiente.position() > 0 || escribiendo) && error == null && !cerrado) {
+                hayPendientes.signal();
+                loteDurable.awaitUninterruptibly();
+            }
+            if (error != null || cerrado) {
+                nuevoCanal.close();
+                verificarEstado();
+            }
+            anterior = canal;
+            canal = nuevoCanal;
+            archivo = nuevoArchivo;
+        } finally {
+            candado.unlock();
+        }
+        anterior.close();
+    }
+    
+    /**
+     * Obtiene el tamaño actual del archivo del diario.
+     * 
+     * @return El tamaño en bytes de lo que ya se escribió en disco
+     * @throws IOException Si no se puede consultar el archivo
+     */
+    long tamano() throws IOException {
+        FileChannel actual;
+        candado.lock();
+        try {
+            actual = canal;
+        } finally {
+            candado.unlock();
+        }
+        return actual.size();
+    }
+    
+    /**
+     * Obtiene el archivo actual del diario.
+     * 
+     * @return La ruta del archivo donde se están agregando los registros
+     */
+    Path getArchivo() {
+        candado.lock();
+        try {
+            return archivo;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Cierra el diario después de llevar a disco todos los registros pendientes.
+     * 
+     * @throws IOException Si ocurre un error al escribir o cerrar el archivo
+     */
+    @Override
+    public void close() throws IOException {
+        candado.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            hayPendientes.signal();
+            hayEspacio.signalAll();
+        } finally {
+            candado.unlock();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        candado.lock();
+        try {
+            canal.close();
+        } finally {
+            candado.unlock();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+    
+    /**
+     * Verifica que el diario pueda seguir recibiendo registros.
+     */
+    private void verificarEstado() {
+        if (error != null) {
+            throw new UncheckedIOException("El diario del repositorio no pudo escribir en disco", error);
+        }
+        if (cerrado) {
+            throw new IllegalStateException("El diario del repositorio está cerrado");
+        }
+    }
+    
+    /**
+     * Ciclo del hilo escritor.
+     * 
+     * Espera a que haya registros pendientes, deja pasar el intervalo de
+     * agrupación para reunir más registros, intercambia los búferes y
+     * escribe y sincroniza el lote sin retener el candado, de modo que
+     * se puedan seguir agregando registros mientras tanto.
+     */
+    private void escribirLotes() {
+        while (true) {
+            long hasta;
+            FileChannel destino;
+            candado.lock();
+            try {
+                while (pendiente.position() == 0 && !cerrado) {
+                    hayPendientes.awaitUninterruptibly();
+                }
+                if (pendiente.position() == 0) {
+                    return;
+                }
+                if (!cerrado && pendiente.position() < UMBRAL_ESCRITURA) {
+                    try {
+                        hayPendientes.awaitNanos(INTERVALO_AGRUPACION_NANOS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                ByteBuffer lote = pendiente;
+                pendiente = enEscritura.capacity() >= TAMANO_BUFER ? enEscritura : ByteBuffer.allocateDirect(TAMANO_BUFER);
+                enEscritura = lote;
+                hasta = registrosAgregados;
+                destino = canal;
+                escribiendo = true;
+                hayEspacio.signalAll();
+            } finally {
+                candado.unlock();
+            }
+            try {
+                enEscritura.flip();
+                while (enEscritura.hasRemaining()) {
+                    destino.write(enEscritura);
+                }
+                destino.force(false);
+                enEscritura.clear();
+            } catch (IOException e) {
+                candado.lock();
+                try {
+                    error = e;
+                    escribiendo = false;
+                    loteDurable.signalAll();
+                    hayEspacio.signalAll();
+                } finally {
+                    candado.unlock();
+                }
+                return;
+            }
+            candado.lock();
+            try {
+                registrosDurables = hasta;
+                escribiendo = false;
+                loteDurable.signalAll();
+            } finally {
+                candado.unlock();
+            }
+        }
+    }
+}
\ No newline at end of file
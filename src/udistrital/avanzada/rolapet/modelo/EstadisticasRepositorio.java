@@ -0,0 +1,194 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Instantánea inmutable de las estadísticas del repositorio.
+ * 
+ * Esta clase agrupa los conteos de entidades registradas en el sistema en
+ * un momento dado, incluyendo el desglose de vehículos e items por tipo.
+ * Se construye a partir de los contadores que el Repositorio actualiza en
+ * cada escritura, por lo que obtenerla no recorre las listas de entidades.
+ * El texto del reporte solo se genera la primera vez que se solicita.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class EstadisticasRepositorio {
+    
+    /** Número total de personas registradas */
+    private final long personas;
+    
+    /** Número de usuarios registrados */
+    private final long usuarios;
+    
+    /** Número de administradores registrados */
+    private final long administradores;
+    
+    /** Número de proveedores registrados */
+    private final long proveedores;
+    
+    /** Número total de vehículos registrados */
+    private final long vehiculos;
+    
+    /** Número total de items registrados */
+    private final long items;
+    
+    /** Número total de publicaciones registradas */
+    private final long publicaciones;
+    
+    /** Número de vehículos registrados por tipo */
+    private final Map<String, Long> vehiculosPorTipo;
+    
+    /** Número de items registrados por tipo */
+    private final Map<String, Long> itemsPorTipo;
+    
+    /** Reporte en texto, generado de forma perezosa */
+    private String reporte;
+    
+    /**
+     * Constructor de la instantánea de estadísticas.
+     * 
+     * @param personas         Número total de personas
+     * @param usuarios         Número de usuarios
+     * @param administradores  Número de administradores
+     * @param proveedores      Número de proveedores
+     * @param vehiculos        Número total de vehículos
+     * @param items            Número total de items
+     * @param publicaciones    Número total de publicaciones
+     * @param vehiculosPorTipo Número de vehículos por tipo
+     * @param itemsPorTipo     Número de items por tipo
+     */
+    EstadisticasRepositorio(long personas, long usuarios, long administradores, long proveedores,
+                            long vehiculos, long items, long publicaciones,
+                            Map<String, Long> vehiculosPorTipo, Map<String, Long> itemsPorTipo) {
+        this.personas = personas;
+        this.usuarios = usuarios;
+        this.administradores = administradores;
+        this.proveedores = proveedores;
+        this.vehiculos = vehiculos;
+        this.items = items;
+        this.publicaciones = publicaciones;
+        this.vehiculosPorTipo = Collections.unmodifiableMap(new TreeMap<>(vehiculosPorTipo));
+        this.itemsPorTipo = Collections.unmodifiableMap(new TreeMap<>(itemsPorTipo));
+    }
+    
+    /**
+     * Obtiene el número total de personas registradas.
+     * 
+     * @return La cantidad de personas
+     */
+    public long getPersonas() {
+        return personas;
+    }
+    
+    /**
+     * Obtiene el número de usuarios registrados.
+     * 
+     * @return La cantidad de usuarios
+     */
+    public long getUsuarios() {
+        return usuarios;
+    }
+    
+    /**
+     * Obtiene el número de administradores registrados.
+     * 
+     * @return La cantidad de administradores
+     */
+    public long getAdministradores() {
+        return administradores;
+    }
+    
+    /**
+     * Obtiene el número de proveedores registrados.
+     * 
+     * @return La cantidad de proveedores
+     */
+    public long getProveedores() {
+        return proveedores;
+    }
+    
+    /**
+     * Obtiene el número total de vehículos registrados.
+     * 
+     * @return La cantidad de vehículos
+     */
+    public long getVehiculos() {
+        return vehiculos;
+    }
+    
+    /**
+     * Obtiene el número total de items registrados.
+     * 
+     * @return La cantidad de items
+     */
+    public long getItems() {
+        return items;
+    }
+    
+    /**
+     * Obtiene el número total de publicaciones registradas.
+     * 
+     * @return La cantidad de publicaciones
+     */
+    public long getPublicaciones() {
+        return publicaciones;
+    }
+    
+    /**
+     * Obtiene el número de vehículos registrados por tipo.
+     * 
+     * @return Mapa inmutable de tipo de vehículo a cantidad, ordenado por tipo
+     */
+    public Map<String, Long> getVehiculosPorTipo() {
+        return vehiculosPorTipo;
+    }
+    
+    /**
+     * Obtiene el número de items registrados por tipo.
+     * 
+     * @return Mapa inmutable de tipo de item a cantidad, ordenado por tipo
+     */
+    public Map<String, Long> getItemsPorTipo() {
+        return itemsPorTipo;
+    }
+    
+    /**
+     * Genera el reporte en texto de las estadísticas.
+     * 
+     * Este método produce el mismo formato que ha utilizado siempre el
+     * repositorio. El texto se genera la primera vez que se solicita y
+     * se reutiliza en las llamadas siguientes.
+     * 
+     * @return String con las estadísticas detalladas del repositorio
+     */
+    @Override
+    public String toString() {
+        String texto = reporte;
+        if (texto == null) {
+            texto = String.format(
+                "Estadísticas del Repositorio:\n" +
+                "Personas: %d\n" +
+                "Usuarios: %d\n" +
+                "Administradores: %d\n" +
+                "Proveedores: %d\n" +
+                "Vehículos: %d\n" +
+                "Items: %d\n" +
+                "Publicaciones: %d",
+                personas,
+                usuarios,
+                administradores,
+                proveedores,
+                vehiculos,
+                items,
+                publicaciones
+            );
+            reporte = texto;
+        }
+        return texto;
+    }
+}
\ No newline at end of file
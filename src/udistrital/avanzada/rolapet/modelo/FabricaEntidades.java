@@ -0,0 +1,159 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.text.Normalizer;
+
+/**
+ * Fábrica de entidades del sistema RolaPet a partir de su tipo en texto.
+ * 
+ * Esta clase centraliza la creación de personas, vehículos, items y
+ * publicaciones cuando el tipo concreto solo se conoce como texto, por
+ * ejemplo al reconstruir el repositorio desde disco o al importar datos.
+ * Reconoce tanto los valores que devuelven los métodos getRol y getTipo
+ * de las entidades como los alias utilizados por la interfaz.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class FabricaEntidades {
+    
+    /**
+     * Constructor privado para evitar la instanciación de la fábrica.
+     */
+    private FabricaEntidades() {
+    }
+    
+    /**
+     * Crea una persona del rol indicado.
+     * 
+     * @param rol      Rol de la persona (Usuario, Administrador o Proveedor)
+     * @param cedula   Cédula de identificación de la persona
+     * @param nombre   Nombre completo de la persona
+     * @param telefono Número de teléfono de la persona
+     * @param password Contraseña de acceso de la persona
+     * @param email    Dirección de correo electrónico de la persona
+     * @return La persona creada o null si el rol no es válido
+     */
+    public static Persona crearPersona(String rol, String cedula, String nombre, String telefono,
+                                       String password, String email) {
+        switch (normalizar(rol)) {
+            case "usuario":
+                return new Usuario(cedula, nombre, telefono, password, email);
+            case "administrador":
+                return new Administrador(cedula, nombre, telefono, password, email);
+            case "proveedor":
+                return new Proveedor(cedula, nombre, telefono, password, email) {
+                    @Override
+                    public String getRol() {
+                        return "Proveedor";
+                    }
+                };
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Crea un vehículo del tipo indicado.
+     * 
+     * @param tipo        Tipo de vehículo (Scooter o Moto Eléctrica)
+     * @param id          Identificador único del vehículo
+     * @param marca       Marca comercial del vehículo
+     * @param modelo      Modelo específico del vehículo
+     * @param autonomiaKm Autonomía en kilómetros del vehículo
+     * @return El vehículo creado o null si el tipo no es válido
+     */
+    public static Vehiculo crearVehiculo(String tipo, String id, String marca, String modelo, int autonomiaKm) {
+        switch (normalizar(tipo)) {
+            case "scooter":
+                return new Scooter(id, marca, modelo, autonomiaKm);
+            case "moto":
+            case "moto electrica":
+                return new MotoElectrica(id, marca, modelo, autonomiaKm);
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Crea un item del tipo indicado.
+     * 
+     * @param tipo        Tipo de item (Servicio o Producto)
+     * @param id          Identificador único del item
+     * @param nombre      Nombre comercial del item
+     * @param descripcion Descripción detallada del item
+     * @return El item creado o null si el tipo no es válido
+     */
+    public static Item crearItem(String tipo, String id, String nombre, String descripcion) {
+        switch (normalizar(tipo)) {
+            case "servicio":
+                return new Servicio(id, nombre, descripcion);
+            case "producto":
+                return new Producto(id, nombre, descripcion);
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Crea una publicación del tipo indicado.
+     * 
+     * Las publicaciones conservan el tipo tal como se recibe, igual que
+     * las que crea el controlador.
+     * 
+     * @param tipo          Tipo de publicación (por ejemplo Evento o Promoción)
+     * @param id            Identificador único de la publicación
+     * @param titulo        Título de la publicación
+     * @param descripcion   Descripción de la publicación
+     * @param fechaCreacion Fecha de creación de la publicación
+     * @return La publicación creada o null si el tipo está vacío
+     */
+    public static Publicacion crearPublicacion(String tipo, String id, String titulo, String descripcion,
+                                               String fechaCreacion) {
+        if (tipo == null || tipo.trim().isEmpty()) {
+            return null;
+        }
+        return new Publicacion(id, titulo, descripcion, fechaCreacion) {
+            @Override
+            public String getTipo() {
+                return tipo;
+            }
+        };
+    }
+    
+    /**
+     * Normaliza un tipo en texto para compararlo sin distinguir mayúsculas ni tildes.
+     * 
+     * @param tipo El tipo a normalizar
+     * @return El tipo en minúsculas, sin tildes ni espacios sobrantes
+     */
+    private static String normalizar(String tipo) {
+        if (tipo == null) {
+            return "";
+        }
+        if (esAscii(tipo)) {
+            return tipo.trim().toLowerCase();
+        }
+        String sinTildes = Normalizer.normalize(tipo.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase();
+    }
+    
+    /**
+     * Verifica si un texto solo contiene caracteres ASCII.
+     * 
+     * Los tipos que escribe el propio sistema casi nunca llevan tildes, por
+     * lo que este atajo evita la normalización Unicode en el caso común.
+     * 
+     * @param texto El texto a verificar
+     * @return true si todos los caracteres son ASCII
+     */
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
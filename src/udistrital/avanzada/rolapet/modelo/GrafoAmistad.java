@@ -0,0 +1,266 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Grafo de amistades entre usuarios con identificadores enteros densos.
+ * 
+ * Cada usuario recibe un identificador entero la primera vez que participa
+ * en una amistad, y el grafo guarda la tabla que traduce cada
+ * identificador a su usuario. Las consultas no asignan identificadores:
+ * un usuario que nunca tuvo amigos no tiene uno y se trata como un usuario
+ * sin amigos. Los amigos de un usuario se guardan en
+ * el propio usuario como un arreglo ordenado de identificadores, de modo
+ * que cada amistad ocupa un entero en lugar de una referencia dentro de
+ * una lista, y verificar si dos usuarios son amigos es una búsqueda
+ * binaria sobre ese arreglo en lugar de un recorrido que compara cédulas.
+ * 
+ * Los arreglos de amigos son inmutables: cada modificación publica uno
+ * nuevo, igual que las demás listas de relaciones del modelo. La lista de
+ * amigos que ve el resto del sistema es una vista de solo lectura sobre el
+ * arreglo vigente, que traduce cada identificador a su usuario sin copiar.
+ * 
+ * Los identificadores se asignan por identidad del objeto. Como el
+ * repositorio garantiza un único usuario registrado por cédula, esto
+ * equivale a identificar a los amigos por su cédula.
+ * 
+ * Al eliminar a un usuario del repositorio, una vez terminadas sus
+ * amistades, su identificador se libera: la tabla deja de referenciarlo y
+ * el identificador se reutiliza para el siguiente usuario que lo necesite,
+ * de modo que ni la tabla ni el espacio de identificadores crecen con las
+ * bajas. Una vista de amigos obtenida antes de la baja puede traducir ese
+ * identificador a null o al usuario que lo reutilice.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class GrafoAmistad {
+    
+    /** Capacidad inicial de la tabla de usuarios */
+    private static final int CAPACIDAD_INICIAL = 1024;
+    
+    /** Arreglo compartido de los usuarios sin amigos */
+    static final int[] SIN_AMIGOS = new int[0];
+    
+    /** Instancia única del grafo */
+    private static final GrafoAmistad INSTANCIA = new GrafoAmistad();
+    
+    /** Usuarios por identificador, con null en los identificadores libres */
+    private volatile Usuario[] usuarios = new Usuario[CAPACIDAD_INICIAL];
+    
+    /** Cantidad de identificadores asignados alguna vez; todos son menores que ella */
+    private volatile int cantidad;
+    
+    /** Identificadores liberados que pueden reutilizarse, como pila */
+    private int[] libres = new int[CAPACIDAD_INICIAL];
+    
+    /** Cantidad de identificadores liberados */
+    private int cantidadLibres;
+    
+    /**
+     * Constructor privado del grafo.
+     */
+    private GrafoAmistad() {
+    }
+    
+    /**
+     * Obtiene la instancia única del grafo.
+     * 
+     * @return El grafo de amistades
+     */
+    static GrafoAmistad getInstancia() {
+        return INSTANCIA;
+    }
+    
+    /**
+     * Obtiene el identificador de un usuario, asignándole uno si aún no lo tiene.
+     * 
+     * @param usuario El usuario
+     * @return Su identificador en el grafo
+     */
+    int idDe(Usuario usuario) {
+        int id = usuario.idGrafo;
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            id = usuario.idGrafo;
+            if (id < 0) {
+                Usuario[] actuales = usuarios;
+                if (cantidadLibres > 0) {
+                    id = libres[--cantidadLibres];
+                } else {
+                    id = cantidad;
+                    if (id == actuales.length) {
+                        actuales = Arrays.copyOf(actuales, actuales.length * 2);
+                    }
+                    cantidad = id + 1;
+                }
+                actuales[id] = usuario;
+                usuarios = actuales;
+                usuario.idGrafo = id;
+            }
+            return id;
+        }
+    }
+    
+    /**
+     * Obtiene el identificador de un usuario sin asignarle uno.
+     * 
+     * @param usuario El usuario
+     * @return Su identificador en el grafo, o -1 si no tiene, en cuyo caso
+     *         no tiene amigos
+     */
+    int idAsignado(Usuario usuario) {
+        return usuario.idGrafo;
+    }
+    
+    /**
+     * Libera el identificador de un usuario dado de baja para que otro lo reutilice.
+     * 
+     * Solo debe llamarse cuando ningún arreglo de amigos contiene el
+     * identificador, es decir, después de terminar todas las amistades del
+     * usuario y sin que otra modificación de amistades pueda intercalarse.
+     * 
+     * @param usuario El usuario dado de baja
+     */
+    synchronized void liberar(Usuario usuario) {
+        int id = usuario.idGrafo;
+        if (id < 0 || usuarios[id] != usuario) {
+            return;
+        }
+        usuarios[id] = null;
+        usuario.idGrafo = -1;
+        if (cantidadLibres == libres.length) {
+            libres = Arrays.copyOf(libres, libres.length * 2);
+        }
+        libres[cantidadLibres++] = id;
+    }
+    
+    /**
+     * Obtiene el usuario con un identificador asignado.
+     * 
+     * @param id Identificador del usuario
+     * @return El usuario con ese identificador, o null si el identificador está libre
+     */
+    Usuario usuario(int id) {
+        return usuarios[id];
+    }
+    
+    /**
+     * Obtiene los identificadores de los amigos del usuario con un identificador.
+     * 
+     * @param id Identificador del usuario
+     * @return Arreglo ordenado de los identificadores de sus amigos, vacío si
+     *         el identificador se liberó mientras se consultaba
+     */
+    int[] amigosDe(int id) {
+        Usuario usuario = usuarios[id];
+        return usuario != null ? usuario.getIdsAmigos() : SIN_AMIGOS;
+    }
+    
+    /**
+     * Obtiene la cantidad de identificadores asignados.
+     * 
+     * Todos los identificadores son menores que esta cantidad.
+     * 
+     * @return La cantidad de identificadores asignados alguna vez, incluidos los libres
+     */
+    int cantidad() {
+        return cantidad;
+    }
+    
+    /**
+     * Verifica si un arreglo ordenado de identificadores contiene uno.
+     * 
+     * @param ids Arreglo ordenado de identificadores
+     * @param id  Identificador buscado
+     * @return true si el arreglo lo contiene
+     */
+    static boolean contiene(int[] ids, int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+    
+    /**
+     * Obtiene un arreglo ordenado nuevo con un identificador agregado.
+     * 
+     * @param ids Arreglo ordenado de identificadores
+     * @param id  Identificador a agregar
+     * @return Arreglo nuevo con el identificador, o el mismo arreglo si ya lo contenía
+     */
+    static int[] agregar(int[] ids, int id) {
+        int posicion = Arrays.binarySearch(ids, id);
+        if (posicion >= 0) {
+            return ids;
+        }
+        posicion = -posicion - 1;
+        int[] nuevos = new int[ids.length + 1];
+        System.arraycopy(ids, 0, nuevos, 0, posicion);
+        nuevos[posicion] = id;
+        System.arraycopy(ids, posicion, nuevos, posicion + 1, ids.length - posicion);
+        return nuevos;
+    }
+    
+    /**
+     * Obtiene un arreglo ordenado nuevo sin un identificador.
+     * 
+     * @param ids Arreglo ordenado de identificadores
+     * @param id  Identificador a quitar
+     * @return Arreglo nuevo sin el identificador, o el mismo arreglo si no lo contenía
+     */
+    static int[] quitar(int[] ids, int id) {
+        int posicion = Arrays.binarySearch(ids, id);
+        if (posicion < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return SIN_AMIGOS;
+        }
+        int[] nuevos = new int[ids.length - 1];
+        System.arraycopy(ids, 0, nuevos, 0, posicion);
+        System.arraycopy(ids, posicion + 1, nuevos, posicion, nuevos.length - posicion);
+        return nuevos;
+    }
+    
+    /**
+     * Obtiene la lista de usuarios de un arreglo de identificadores.
+     * 
+     * @param ids Arreglo inmutable de identificadores
+     * @return Vista de solo lectura sobre el arreglo
+     */
+    List<Usuario> vista(int[] ids) {
+        return ids.length == 0 ? List.of() : new Vista(ids);
+    }
+    
+    /**
+     * Vista de solo lectura de un arreglo de identificadores como lista de usuarios.
+     */
+    private final class Vista extends AbstractList<Usuario> implements RandomAccess {
+        
+        /** Identificadores de los usuarios de la lista */
+        private final int[] ids;
+        
+        /**
+         * Constructor de la vista.
+         * 
+         * @param ids Arreglo inmutable de identificadores
+         */
+        private Vista(int[] ids) {
+            this.ids = ids;
+        }
+        
+        @Override
+        public Usuario get(int indice) {
+            return usuario(ids[indice]);
+        }
+        
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+}
\ No newline at end of file
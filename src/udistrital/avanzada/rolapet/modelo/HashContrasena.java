@@ -0,0 +1,167 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Utilidades para derivar y verificar hashes de contraseñas con PBKDF2.
+ * 
+ * Las contraseñas se guardan como un hash PBKDF2 con HMAC-SHA256, una sal
+ * aleatoria de 16 bytes y un número de iteraciones que fija el costo de
+ * cada verificación. El hash se codifica como texto con el formato
+ * {@code pbkdf2-sha256$iteraciones$sal$hash}, con la sal y el hash en
+ * Base64, de modo que cada contraseña guardada conserva el costo con que
+ * se derivó y el costo puede subirse sin invalidar las anteriores.
+ * 
+ * Como las iteraciones vienen en el propio valor guardado, la verificación
+ * rechaza los hashes con más de {@link #MAXIMO_ITERACIONES}: un valor con
+ * un costo arbitrario no puede ocupar un hilo verificador por minutos.
+ * 
+ * El número de iteraciones de los hashes nuevos se toma de la propiedad
+ * del sistema {@code rolapet.pbkdf2.iteraciones}; por omisión es 120000.
+ * Cada verificación cuesta del orden de decenas de milisegundos de CPU,
+ * por lo que las verificaciones deben hacerse a través del
+ * {@link VerificadorContrasenas}, que las acota y las guarda en caché.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class HashContrasena {
+    
+    /** Prefijo de las contraseñas guardadas como hash */
+    private static final String PREFIJO = "pbkdf2-sha256$";
+    
+    /** Algoritmo de derivación */
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    
+    /** Número de iteraciones por omisión de los hashes nuevos */
+    private static final int ITERACIONES_POR_OMISION = 120_000;
+    
+    /** Número de iteraciones de los hashes nuevos */
+    static final int ITERACIONES = Integer.getInteger("rolapet.pbkdf2.iteraciones", ITERACIONES_POR_OMISION);
+    
+    /** Número máximo de iteraciones que se acepta al verificar un hash guardado */
+    static final int MAXIMO_ITERACIONES = (int) Math.min(Integer.MAX_VALUE, 4L * ITERACIONES);
+    
+    /** Longitud de la sal en bytes */
+    private static final int LONGITUD_SAL = 16;
+    
+    /** Longitud del hash en bits */
+    private static final int LONGITUD_HASH = 256;
+    
+    /** Generador de sales */
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    
+    /**
+     * Constructor privado para evitar la instanciación de la clase.
+     */
+    private HashContrasena() {
+    }
+    
+    /**
+     * Deriva el hash de una contraseña con una sal nueva.
+     * 
+     * @param contrasena Contraseña en texto plano
+     * @return El hash codificado como texto
+     */
+    static String generar(String contrasena) {
+        byte[] sal = new byte[LONGITUD_SAL];
+        ALEATORIO.nextBytes(sal);
+        Base64.Encoder codificador = Base64.getEncoder().withoutPadding();
+        return PREFIJO + ITERACIONES + '$' + codificador.encodeToString(sal) + '$'
+                + codificador.encodeToString(derivar(contrasena, sal, ITERACIONES));
+    }
+    
+    /**
+     * Verifica una contraseña contra un valor guardado.
+     * 
+     * Si el valor guardado no es un hash, se trata de una contraseña en
+     * texto plano de datos anteriores y se compara directamente. Ambas
+     * comparaciones toman un tiempo que no depende de dónde difieren. Un
+     * hash con más de {@link #MAXIMO_ITERACIONES} no se deriva y la
+     * contraseña se considera incorrecta.
+     * 
+     * @param contrasena Contraseña en texto plano a verificar
+     * @param guardada   Valor guardado: un hash o una contraseña en texto plano
+     * @return true si la contraseña corresponde al valor guardado
+     */
+    static boolean verificar(String contrasena, String guardada) {
+        if (contrasena == null || guardada == null) {
+            return false;
+        }
+        if (!esHash(guardada)) {
+            return MessageDigest.isEqual(contrasena.getBytes(StandardCharsets.UTF_8),
+                    guardada.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] partes = guardada.split("\\$");
+        int iteraciones = Integer.parseInt(partes[1]);
+        if (iteraciones > MAXIMO_ITERACIONES) {
+            return false;
+        }
+        Base64.Decoder decodificador = Base64.getDecoder();
+        byte[] sal = decodificador.decode(partes[2]);
+        byte[] esperado = decodificador.decode(partes[3]);
+        return MessageDigest.isEqual(derivar(contrasena, sal, iteraciones), esperado);
+    }
+    
+    /**
+     * Verifica si un valor guardado es un hash con el formato de esta clase.
+     * 
+     * @param valor Valor guardado
+     * @return true si tiene el prefijo, las iteraciones, la sal y el hash
+     */
+    static boolean esHash(String valor) {
+        if (valor == null || !valor.startsWith(PREFIJO)) {
+            return false;
+        }
+        String[] partes = valor.split("\\$");
+        if (partes.length != 4 || partes[2].isEmpty() || partes[3].isEmpty()) {
+            return false;
+        }
+        try {
+            Base64.getDecoder().decode(partes[2]);
+            Base64.getDecoder().decode(partes[3]);
+            return Integer.parseInt(partes[1]) > 0;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Verifica si un valor guardado es un hash cuyo costo acepta la verificación.
+     * 
+     * @param valor Valor guardado
+     * @return true si es un hash con a lo sumo {@link #MAXIMO_ITERACIONES}
+     */
+    static boolean esHashVerificable(String valor) {
+        return esHash(valor) && Integer.parseInt(valor.split("\\$")[1]) <= MAXIMO_ITERACIONES;
+    }
+    
+    /**
+     * Deriva el hash de una contraseña con una sal y un número de iteraciones.
+     * 
+     * @param contrasena  Contraseña en texto plano
+     * @param sal         Sal
+     * @param iteraciones Número de iteraciones
+     * @return El hash derivado
+     */
+    private static byte[] derivar(String contrasena, byte[] sal, int iteraciones) {
+        char[] caracteres = contrasena.toCharArray();
+        PBEKeySpec especificacion = new PBEKeySpec(caracteres, sal, iteraciones, LONGITUD_HASH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacion).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("El algoritmo " + ALGORITMO + " no está disponible", e);
+        } finally {
+            especificacion.clearPassword();
+            Arrays.fill(caracteres, '\0');
+        }
+    }
+}
\ No newline at end of file
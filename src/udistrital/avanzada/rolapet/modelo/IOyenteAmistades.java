@@ -0,0 +1,28 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.List;
+
+/**
+ * Oyente de los cambios de amistades aplicados por el repositorio.
+ * 
+ * Cada operación de amistades que cambia algo informa a sus oyentes una
+ * sola vez, con todos los cambios que aplicó, de modo que un lote de miles
+ * de amistades produce un solo aviso.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public interface IOyenteAmistades {
+    
+    /**
+     * Informa los cambios de amistades aplicados por una operación.
+     * 
+     * Este método se invoca desde el hilo que hizo la operación, después
+     * de aplicarla y sin candados tomados, no desde el hilo de eventos de
+     * la interfaz.
+     * 
+     * @param cambios Lista inmutable de los cambios aplicados, nunca vacía
+     */
+    void amistadesCambiadas(List<CambioAmistad> cambios);
+}
\ No newline at end of file
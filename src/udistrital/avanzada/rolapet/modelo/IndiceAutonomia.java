@@ -0,0 +1,555 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice de los vehículos registrados por su autonomía en kilómetros.
+ * 
+ * Para cada tipo de vehículo el índice guarda dos arreglos paralelos: las
+ * autonomías, como enteros primitivos ordenados de menor a mayor, y los
+ * vehículos en ese mismo orden; los vehículos con la misma autonomía
+ * conservan su orden de registro. Así un rango de autonomías se ubica con
+ * dos búsquedas binarias y se devuelve como una vista del arreglo sin
+ * copiarlo, los vehículos de mayor autonomía son el final del arreglo y un
+ * percentil es una posición del arreglo.
+ * 
+ * Los arreglos de un tipo nunca se modifican: cada escritura crea arreglos
+ * nuevos y los publica junto con los de los demás tipos en un único mapa
+ * inmutable, de modo que las consultas no toman candados y ven el índice
+ * completo tal como quedó tras la última escritura completada. Las
+ * escrituras se hacen con el candado de vehículos del repositorio tomado;
+ * las altas de un lote se ordenan y se mezclan con el arreglo de una sola vez.
+ * 
+ * El índice se construye en la primera consulta a partir de la
+ * instantánea de vehículos y desde entonces se mantiene al día con cada
+ * alta, baja y cambio de autonomía, por lo que el repositorio no paga su
+ * mantenimiento si nunca se consulta por autonomía.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class IndiceAutonomia {
+    
+    /** Tipos normalizados de los tipos que devuelven los vehículos, para no normalizarlos en cada escritura */
+    private static final Map<String, String> TIPOS_NORMALIZADOS = new ConcurrentHashMap<>();
+    
+    /** Colección de vehículos indexada */
+    private final ColeccionIndexada<Vehiculo> vehiculos;
+    
+    /** Candado de escritura de los vehículos */
+    private final ReentrantLock candado;
+    
+    /** Tablas de cada tipo de vehículo por su tipo normalizado, o null si el índice no está construido */
+    private volatile Map<String, Tabla> tablas;
+    
+    /**
+     * Vehículos de un tipo ordenados por autonomía, en dos arreglos paralelos inmutables.
+     */
+    private static final class Tabla {
+        
+        /** Tabla de un tipo sin vehículos */
+        private static final Tabla VACIA = new Tabla(new int[0], new Vehiculo[0]);
+        
+        /** Autonomías de los vehículos, de menor a mayor */
+        private final int[] autonomias;
+        
+        /** Vehículos en el orden de sus autonomías */
+        private final Vehiculo[] vehiculos;
+        
+        /**
+         * Constructor de la tabla.
+         * 
+         * @param autonomias Autonomías de los vehículos, de menor a mayor
+         * @param vehiculos  Vehículos en el orden de sus autonomías
+         */
+        private Tabla(int[] autonomias, Vehiculo[] vehiculos) {
+            this.autonomias = autonomias;
+            this.vehiculos = vehiculos;
+        }
+        
+        /**
+         * Obtiene la primera posición cuya autonomía es mayor o igual que un valor.
+         * 
+         * @param km Autonomía buscada
+         * @return La posición, o la cantidad de vehículos si no hay ninguna
+         */
+        private int desde(long km) {
+            int bajo = 0;
+            int alto = autonomias.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (autonomias[medio] < km) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+        
+        /**
+         * Cuenta los vehículos de la tabla con autonomía menor o igual que un valor.
+         * 
+         * @param km Autonomía máxima
+         * @return La cantidad de vehículos
+         */
+        private int hasta(long km) {
+            return desde(km + 1);
+        }
+        
+        /**
+         * Ubica un vehículo en la tabla por identidad.
+         * 
+         * Se busca primero entre los vehículos con la autonomía indicada y,
+         * si no está allí porque su autonomía cambió entre tanto, en toda la tabla.
+         * 
+         * @param vehiculo Vehículo buscado
+         * @param km       Autonomía con la que se espera encontrarlo
+         * @return La posición del vehículo, o -1 si no está en la tabla
+         */
+        private int posicionDe(Vehiculo vehiculo, int km) {
+            for (int i = desde(km); i < autonomias.length && autonomias[i] == km; i++) {
+                if (vehiculos[i] == vehiculo) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < vehiculos.length; i++) {
+                if (vehiculos[i] == vehiculo) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Obtiene una tabla nueva con un vehículo insertado después de los de su misma autonomía.
+         * 
+         * @param vehiculo Vehículo a insertar
+         * @param km       Autonomía del vehículo
+         * @return La tabla nueva
+         */
+        private Tabla insertar(Vehiculo vehiculo, int km) {
+            int posicion = hasta(km);
+            int cantidad = autonomias.length;
+            int[] nuevasAutonomias = new int[cantidad + 1];
+            Vehiculo[] nuevosVehiculos = new Vehiculo[cantidad + 1];
+            System.arraycopy(autonomias, 0, nuevasAutonomias, 0, posicion);
+            System.arraycopy(vehiculos, 0, nuevosVehiculos, 0, posicion);
+            nuevasAutonomias[posicion] = km;
+            nuevosVehiculos[posicion] = vehiculo;
+            System.arraycopy(autonomias, posicion, nuevasAutonomias, posicion + 1, cantidad - posicion);
+            System.arraycopy(vehiculos, posicion, nuevosVehiculos, posicion + 1, cantidad - posicion);
+            return new Tabla(nuevasAutonomias, nuevosVehiculos);
+        }
+        
+        /**
+         * Obtiene una tabla nueva sin el vehículo de una posición.
+         * 
+         * @param posicion Posición del vehículo a quitar
+         * @return La tabla nueva
+         */
+        private Tabla quitar(int posicion) {
+            int restantes = autonomias.length - posicion - 1;
+            int[] nuevasAutonomias = new int[autonomias.length - 1];
+            Vehiculo[] nuevosVehiculos = new Vehiculo[vehiculos.length - 1];
+            System.arraycopy(autonomias, 0, nuevasAutonomias, 0, posicion);
+            System.arraycopy(vehiculos, 0, nuevosVehiculos, 0, posicion);
+            System.arraycopy(autonomias, posicion + 1, nuevasAutonomias, posicion, restantes);
+            System.arraycopy(vehiculos, posicion + 1, nuevosVehiculos, posicion, restantes);
+            return new Tabla(nuevasAutonomias, nuevosVehiculos);
+        }
+        
+        /**
+         * Obtiene una tabla nueva con los vehículos de otra tabla mezclados en orden.
+         * 
+         * Los vehículos de la otra tabla quedan después de los de esta que
+         * tienen su misma autonomía.
+         * 
+         * @param lote Tabla con los vehículos a mezclar
+         * @return La tabla nueva
+         */
+        private Tabla mezclar(Tabla lote) {
+            int cantidad = autonomias.length + lote.autonomias.length;
+            int[] nuevasAutonomias = new int[cantidad];
+            Vehiculo[] nuevosVehiculos = new Vehiculo[cantidad];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < cantidad; k++) {
+                if (j >= lote.autonomias.length
+                        || (i < autonomias.length && autonomias[i] <= lote.autonomias[j])) {
+                    nuevasAutonomias[k] = autonomias[i];
+                    nuevosVehiculos[k] = vehiculos[i++];
+                } else {
+                    nuevasAutonomias[k] = lote.autonomias[j];
+                    nuevosVehiculos[k] = lote.vehiculos[j++];
+                }
+            }
+            return new Tabla(nuevasAutonomias, nuevosVehiculos);
+        }
+        
+        /**
+         * Crea una tabla a partir de una lista de vehículos.
+         * 
+         * Cada autonomía se combina con la posición del vehículo en un
+         * entero largo, de modo que un único ordenamiento de primitivos
+         * ordena por autonomía y conserva el orden de la lista entre iguales.
+         * 
+         * @param lista Vehículos a ordenar, en orden de registro
+         * @return La tabla ordenada
+         */
+        private static Tabla ordenar(List<Vehiculo> lista) {
+            long[] claves = new long[lista.size()];
+            for (int i = 0; i < claves.length; i++) {
+                claves[i] = ((long) lista.get(i).getAutonomiaKm() << 32) | i;
+            }
+            Arrays.sort(claves);
+            int[] autonomias = new int[claves.length];
+            Vehiculo[] vehiculos = new Vehiculo[claves.length];
+            for (int i = 0; i < claves.length; i++) {
+                autonomias[i] = (int) (claves[i] >> 32);
+                vehiculos[i] = lista.get((int) claves[i]);
+            }
+            return new Tabla(autonomias, vehiculos);
+        }
+        
+        /**
+         * Obtiene los vehículos de un tramo de la tabla sin copiarlos.
+         * 
+         * @param desde Primera posición, incluida
+         * @param hasta Última posición, excluida
+         * @return Lista inmutable respaldada por el arreglo de la tabla
+         */
+        private List<Vehiculo> tramo(int desde, int hasta) {
+            return Collections.unmodifiableList(Arrays.asList(vehiculos).subList(desde, hasta));
+        }
+    }
+    
+    /**
+     * Constructor del índice, inicialmente sin construir.
+     * 
+     * @param vehiculos Colección de vehículos indexada
+     * @param candado   Candado de escritura de los vehículos
+     */
+    IndiceAutonomia(ColeccionIndexada<Vehiculo> vehiculos, ReentrantLock candado) {
+        this.vehiculos = vehiculos;
+        this.candado = candado;
+    }
+    
+    // === MÉTODOS DE CONSULTA ===
+    
+    /**
+     * Obtiene los vehículos cuya autonomía está dentro de un rango.
+     * 
+     * @param tipo   Tipo de vehículo, o null para todos los tipos
+     * @param minimo Autonomía mínima en kilómetros, incluida
+     * @param maximo Autonomía máxima en kilómetros, incluida
+     * @return Lista inmutable de vehículos de menor a mayor autonomía
+     */
+    List<Vehiculo> rango(String tipo, int minimo, int maximo) {
+        List<Tabla> seleccion = seleccionar(tipo);
+        if (seleccion.size() == 1) {
+            Tabla tabla = seleccion.get(0);
+            int desde = tabla.desde(minimo);
+            return tabla.tramo(desde, Math.max(desde, tabla.hasta(maximo)));
+        }
+        Tabla resultado = Tabla.VACIA;
+        for (Tabla tabla : seleccion) {
+            int desde = tabla.desde(minimo);
+            int hasta = tabla.hasta(maximo);
+            if (desde < hasta) {
+                resultado = resultado.mezclar(new Tabla(Arrays.copyOfRange(tabla.autonomias, desde, hasta),
+                        Arrays.copyOfRange(tabla.vehiculos, desde, hasta)));
+            }
+        }
+        return resultado.tramo(0, resultado.vehiculos.length);
+    }
+    
+    /**
+     * Cuenta los vehículos cuya autonomía está dentro de un rango, sin recorrerlos.
+     * 
+     * @param tipo   Tipo de vehículo, o null para todos los tipos
+     * @param minimo Autonomía mínima en kilómetros, incluida
+     * @param maximo Autonomía máxima en kilómetros, incluida
+     * @return La cantidad de vehículos
+     */
+    int contar(String tipo, int minimo, int maximo) {
+        int cantidad = 0;
+        for (Tabla tabla : seleccionar(tipo)) {
+            cantidad += Math.max(0, tabla.hasta(maximo) - tabla.desde(minimo));
+        }
+        return cantidad;
+    }
+    
+    /**
+     * Obtiene los vehículos de mayor autonomía.
+     * 
+     * @param tipo     Tipo de vehículo, o null para todos los tipos
+     * @param cantidad Cantidad máxima de vehículos
+     * @return Lista inmutable de vehículos de mayor a menor autonomía
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<Vehiculo> mayores(String tipo, int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad de vehículos no puede ser negativa");
+        }
+        List<Tabla> seleccion = seleccionar(tipo);
+        int[] posiciones = new int[seleccion.size()];
+        for (int t = 0; t < posiciones.length; t++) {
+            posiciones[t] = seleccion.get(t).autonomias.length - 1;
+        }
+        List<Vehiculo> resultado = new ArrayList<>();
+        while (resultado.size() < cantidad) {
+            int elegida = -1;
+            for (int t = 0; t < posiciones.length; t++) {
+                if (posiciones[t] >= 0 && (elegida < 0 || seleccion.get(t).autonomias[posiciones[t]]
+                        > seleccion.get(elegida).autonomias[posiciones[elegida]])) {
+                    elegida = t;
+                }
+            }
+            if (elegida < 0) {
+                break;
+            }
+            resultado.add(seleccion.get(elegida).vehiculos[posiciones[elegida]--]);
+        }
+        return Collections.unmodifiableList(resultado);
+    }
+    
+    /**
+     * Obtiene la autonomía de un percentil, por el método del rango más cercano.
+     * 
+     * El percentil p es la menor autonomía tal que al menos el p por ciento
+     * de los vehículos tiene esa autonomía o una menor; el percentil 0 es la
+     * autonomía mínima y el 100, la máxima. Para varios tipos se busca esa
+     * autonomía por bisección sobre los valores, contando en cada tabla.
+     * 
+     * @param tipo      Tipo de vehículo, o null para todos los tipos
+     * @param percentil Percentil entre 0 y 100
+     * @return La autonomía en kilómetros, o -1 si no hay vehículos
+     * @throws IllegalArgumentException Si el percentil está fuera de rango
+     */
+    int percentil(String tipo, double percentil) {
+        if (!(percentil >= 0 && percentil <= 100)) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100: " + percentil);
+        }
+        List<Tabla> seleccion = seleccionar(tipo);
+        long total = 0;
+        long bajo = Long.MAX_VALUE;
+        long alto = Long.MIN_VALUE;
+        for (Tabla tabla : seleccion) {
+            int cantidad = tabla.autonomias.length;
+            if (cantidad > 0) {
+                total += cantidad;
+                bajo = Math.min(bajo, tabla.autonomias[0]);
+                alto = Math.max(alto, tabla.autonomias[cantidad - 1]);
+            }
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long rango = Math.max(1, (long) Math.ceil(percentil / 100 * total));
+        if (seleccion.size() == 1) {
+            return seleccion.get(0).autonomias[(int) rango - 1];
+        }
+        while (bajo < alto) {
+            long medio = bajo + (alto - bajo) / 2;
+            long hastaMedio = 0;
+            for (Tabla tabla : seleccion) {
+                hastaMedio += tabla.hasta(medio);
+            }
+            if (hastaMedio >= rango) {
+                alto = medio;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return (int) bajo;
+    }
+    
+    /**
+     * Obtiene las tablas de un tipo de vehículo o de todos los tipos.
+     * 
+     * El tipo se compara sin distinguir mayúsculas, tildes ni espacios, de
+     * modo que "Moto Eléctrica" y "MotoElectrica" designan el mismo tipo.
+     * 
+     * @param tipo Tipo de vehículo, o null para todos los tipos
+     * @return Las tablas seleccionadas; una tabla vacía si el tipo no tiene vehículos
+     */
+    private List<Tabla> seleccionar(String tipo) {
+        Map<String, Tabla> actuales = tablas;
+        if (actuales == null) {
+            actuales = construir();
+        }
+        if (tipo == null) {
+            return new ArrayList<>(actuales.values());
+        }
+        return List.of(actuales.getOrDefault(normalizarTipo(tipo), Tabla.VACIA));
+    }
+    
+    /**
+     * Construye el índice a partir de la instantánea de vehículos, si aún no está construido.
+     * 
+     * @return Las tablas del índice construido
+     */
+    private Map<String, Tabla> construir() {
+        candado.lock();
+        try {
+            Map<String, Tabla> actuales = tablas;
+            if (actuales == null) {
+                Map<String, List<Vehiculo>> porTipo = new HashMap<>();
+                for (Vehiculo vehiculo : vehiculos.instantanea()) {
+                    porTipo.computeIfAbsent(tipoDe(vehiculo), t -> new ArrayList<>()).add(vehiculo);
+                }
+                Map<String, Tabla> construidas = new HashMap<>();
+                porTipo.forEach((tipo, lista) -> construidas.put(tipo, Tabla.ordenar(lista)));
+                actuales = Map.copyOf(construidas);
+                tablas = actuales;
+            }
+            return actuales;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    // === MÉTODOS DE MANTENIMIENTO ===
+    
+    /**
+     * Agrega un vehículo recién registrado al índice.
+     * 
+     * Este método debe invocarse con el candado de vehículos tomado.
+     * 
+     * @param vehiculo El vehículo registrado
+     */
+    void agregar(Vehiculo vehiculo) {
+        Map<String, Tabla> actuales = tablas;
+        if (actuales != null) {
+            String tipo = tipoDe(vehiculo);
+            publicar(actuales, tipo, actuales.getOrDefault(tipo, Tabla.VACIA)
+                    .insertar(vehiculo, vehiculo.getAutonomiaKm()));
+        }
+    }
+    
+    /**
+     * Agrega al índice los vehículos registrados de un lote.
+     * 
+     * Este método debe invocarse con el candado de vehículos tomado.
+     * 
+     * @param lote      Vehículos del lote, en orden de registro
+     * @param guardados Indica, para cada vehículo del lote, si se registró
+     */
+    void agregarLote(List<? extends Vehiculo> lote, boolean[] guardados) {
+        Map<String, Tabla> actuales = tablas;
+        if (actuales == null) {
+            return;
+        }
+        Map<String, List<Vehiculo>> porTipo = new HashMap<>();
+        for (int i = 0; i < guardados.length; i++) {
+            if (guardados[i]) {
+                Vehiculo vehiculo = lote.get(i);
+                porTipo.computeIfAbsent(tipoDe(vehiculo), t -> new ArrayList<>()).add(vehiculo);
+            }
+        }
+        Map<String, Tabla> nuevas = new HashMap<>(actuales);
+        porTipo.forEach((tipo, agregados) -> nuevas.put(tipo, nuevas.getOrDefault(tipo, Tabla.VACIA)
+                .mezclar(Tabla.ordenar(agregados))));
+        tablas = Map.copyOf(nuevas);
+    }
+    
+    /**
+     * Retira del índice un vehículo eliminado.
+     * 
+     * Este método debe invocarse con el candado de vehículos tomado.
+     * 
+     * @param vehiculo El vehículo eliminado
+     */
+    void eliminar(Vehiculo vehiculo) {
+        Map<String, Tabla> actuales = tablas;
+        if (actuales != null) {
+            String tipo = tipoDe(vehiculo);
+            Tabla tabla = actuales.getOrDefault(tipo, Tabla.VACIA);
+            int posicion = tabla.posicionDe(vehiculo, vehiculo.getAutonomiaKm());
+            if (posicion >= 0) {
+                publicar(actuales, tipo, tabla.quitar(posicion));
+            }
+        }
+    }
+    
+    /**
+     * Reubica en el índice un vehículo registrado cuya autonomía cambió.
+     * 
+     * El vehículo se ubica con su autonomía anterior y se inserta de nuevo
+     * con la que tiene al momento de reubicarlo, por lo que el índice
+     * queda correcto aunque dos cambios sobre el mismo vehículo se
+     * notifiquen en otro orden.
+     * 
+     * Este método debe invocarse con el candado de vehículos tomado.
+     * 
+     * @param vehiculo El vehículo modificado
+     * @param anterior La autonomía que tenía antes del cambio
+     */
+    void reubicar(Vehiculo vehiculo, int anterior) {
+        Map<String, Tabla> actuales = tablas;
+        if (actuales != null) {
+            String tipo = tipoDe(vehiculo);
+            Tabla tabla = actuales.getOrDefault(tipo, Tabla.VACIA);
+            int posicion = tabla.posicionDe(vehiculo, anterior);
+            if (posicion >= 0) {
+                tabla = tabla.quitar(posicion);
+            }
+            publicar(actuales, tipo, tabla.insertar(vehiculo, vehiculo.getAutonomiaKm()));
+        }
+    }
+    
+    /**
+     * Descarta el índice, que se construirá de nuevo en la siguiente consulta.
+     * 
+     * Es utilizado cuando la colección de vehículos se reemplaza por completo,
+     * como al montar un almacén mapeado.
+     */
+    void descartar() {
+        tablas = null;
+    }
+    
+    /**
+     * Publica el índice con la tabla de un tipo reemplazada.
+     * 
+     * @param actuales Tablas vigentes
+     * @param tipo     Tipo normalizado de la tabla reemplazada
+     * @param tabla    Tabla nueva del tipo
+     */
+    private void publicar(Map<String, Tabla> actuales, String tipo, Tabla tabla) {
+        Map<String, Tabla> nuevas = new HashMap<>(actuales);
+        nuevas.put(tipo, tabla);
+        tablas = Map.copyOf(nuevas);
+    }
+    
+    /**
+     * Obtiene el tipo normalizado de un vehículo.
+     * 
+     * @param vehiculo El vehículo
+     * @return El tipo del vehículo normalizado como clave del índice
+     */
+    private static String tipoDe(Vehiculo vehiculo) {
+        return TIPOS_NORMALIZADOS.computeIfAbsent(vehiculo.getTipo(), IndiceAutonomia::normalizarTipo);
+    }
+    
+    /**
+     * Normaliza un tipo de vehículo para usarlo como clave del índice.
+     * 
+     * @param tipo Tipo de vehículo
+     * @return El tipo en minúsculas, sin tildes ni espacios
+     */
+    private static String normalizarTipo(String tipo) {
+        String sinTildes = Normalizer.normalize(tipo, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,268 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de las credenciales de inicio de sesión de las personas registradas.
+ * 
+ * Cada persona se indexa bajo las claves con que puede iniciar sesión
+ * según su rol: los usuarios con su email, los administradores con su
+ * cédula y los proveedores con su cédula o su email. Cada clave apunta a
+ * un arreglo con una posición por rol, de modo que una sola consulta al
+ * mapa resuelve a la vez la persona y su rol, y una misma clave puede
+ * pertenecer a personas de roles distintos (por ejemplo, un usuario y un
+ * proveedor con el mismo email) sin que una oculte a la otra.
+ * 
+ * Si dos personas del mismo rol comparten una clave, se conserva la
+ * primera registrada y las demás quedan en espera, en el orden en que se
+ * indexaron: si la primera se elimina o cambia de clave, la sustituye la
+ * siguiente en espera. Los arreglos publicados no se modifican: cada
+ * cambio publica uno nuevo, por lo que las consultas no toman candados.
+ * Las escrituras se hacen con el candado de personas tomado y recuerdan
+ * las claves con que se indexó cada persona, lo que permite reindexarla
+ * tras un cambio de cédula o de email sin conocer los valores anteriores.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class IndiceCredenciales {
+    
+    /** Posición de los usuarios en los arreglos del índice */
+    static final int USUARIO = 0;
+    
+    /** Posición de los administradores en los arreglos del índice */
+    static final int ADMINISTRADOR = 1;
+    
+    /** Posición de los proveedores en los arreglos del índice */
+    static final int PROVEEDOR = 2;
+    
+    /** Cantidad de roles, que es la longitud de los arreglos del índice */
+    private static final int ROLES = 3;
+    
+    /** Personas de cada rol por clave de inicio de sesión */
+    private final Map<String, Persona[]> porClave;
+    
+    /** Claves con que se indexó cada persona, por identidad; solo lo usan las escrituras */
+    private final Map<Persona, String[]> clavesPorPersona;
+    
+    /** Para cada rol, personas en espera por clave ya ocupada en ese rol; solo lo usan las escrituras */
+    private final List<Map<String, List<Persona>>> enEspera;
+    
+    /**
+     * Constructor del índice vacío.
+     */
+    IndiceCredenciales() {
+        this.porClave = new ConcurrentHashMap<>();
+        this.clavesPorPersona = new IdentityHashMap<>();
+        this.enEspera = new ArrayList<>(ROLES);
+        for (int rol = 0; rol < ROLES; rol++) {
+            enEspera.add(new HashMap<>());
+        }
+    }
+    
+    /**
+     * Busca la persona de un rol que inicia sesión con una clave.
+     * 
+     * @param rol   Posición del rol: USUARIO, ADMINISTRADOR o PROVEEDOR
+     * @param clave Email o cédula con que inicia sesión
+     * @return La persona encontrada o null si no existe
+     */
+    Persona buscar(int rol, String clave) {
+        Persona[] personas = clave != null ? porClave.get(clave) : null;
+        return personas != null ? personas[rol] : null;
+    }
+    
+    /**
+     * Obtiene las personas de todos los roles que inician sesión con una clave.
+     * 
+     * @param clave Email o cédula con que inicia sesión
+     * @return Arreglo con una posición por rol, cada una con la persona de
+     *         ese rol o null; o null si ninguna persona usa la clave. El
+     *         arreglo no debe modificarse.
+     */
+    Persona[] candidatos(String clave) {
+        return clave != null ? porClave.get(clave) : null;
+    }
+    
+    /**
+     * Verifica si ninguna persona del mismo rol ocupa las claves de una persona.
+     * 
+     * Este método debe invocarse con el candado de personas tomado para
+     * que el resultado siga siendo cierto al agregar la persona.
+     * 
+     * @param persona La persona
+     * @return true si todas sus claves están libres en su rol
+     */
+    boolean libres(Persona persona) {
+        int rol = rolDe(persona);
+        if (rol < 0) {
+            return true;
+        }
+        for (String clave : clavesDe(persona)) {
+            Persona[] actuales = porClave.get(clave);
+            if (actuales != null && actuales[rol] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Agrega una persona recién registrada al índice.
+     * 
+     * Si otra persona del mismo rol ya ocupa una de sus claves, la persona
+     * queda en espera de esa clave.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona registrada
+     */
+    void agregar(Persona persona) {
+        int rol = rolDe(persona);
+        if (rol < 0) {
+            return;
+        }
+        String[] claves = clavesDe(persona);
+        clavesPorPersona.put(persona, claves);
+        for (String clave : claves) {
+            Persona[] actuales = porClave.get(clave);
+            if (actuales != null && actuales[rol] != null) {
+                enEspera.get(rol).computeIfAbsent(clave, k -> new ArrayList<>(1)).add(persona);
+            } else {
+                publicar(clave, actuales, rol, persona);
+            }
+        }
+    }
+    
+    /**
+     * Retira del índice una persona eliminada.
+     * 
+     * Si la persona ocupaba una clave, la ocupa en su lugar la primera
+     * persona del mismo rol en espera de esa clave; si estaba en espera,
+     * solo sale de la espera. Así no se pierden las entradas de otra
+     * persona con la misma clave.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona eliminada
+     */
+    void eliminar(Persona persona) {
+        String[] claves = clavesPorPersona.remove(persona);
+        if (claves == null) {
+            return;
+        }
+        int rol = rolDe(persona);
+        Map<String, List<Persona>> esperaDelRol = enEspera.get(rol);
+        for (String clave : claves) {
+            Persona[] actuales = porClave.get(clave);
+            List<Persona> espera = esperaDelRol.get(clave);
+            if (actuales != null && actuales[rol] == persona) {
+                publicar(clave, actuales, rol, espera != null ? espera.remove(0) : null);
+            } else if (espera != null) {
+                espera.removeIf(otra -> otra == persona);
+            }
+            if (espera != null && espera.isEmpty()) {
+                esperaDelRol.remove(clave);
+            }
+        }
+    }
+    
+    /**
+     * Publica para una clave un nuevo arreglo con la persona de un rol reemplazada.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param clave    La clave
+     * @param actuales Arreglo publicado de la clave, o null si no tiene
+     * @param rol      Posición del rol que cambia
+     * @param persona  Nueva persona del rol, o null para dejarlo libre
+     */
+    private void publicar(String clave, Persona[] actuales, int rol, Persona persona) {
+        Persona[] nuevas = actuales != null ? actuales.clone() : new Persona[ROLES];
+        nuevas[rol] = persona;
+        for (Persona alguna : nuevas) {
+            if (alguna != null) {
+                porClave.put(clave, nuevas);
+                return;
+            }
+        }
+        porClave.remove(clave);
+    }
+    
+    /**
+     * Reindexa una persona registrada cuya cédula o email pudo cambiar.
+     * 
+     * Si la persona no está indexada o sus claves no cambiaron, el índice
+     * no se modifica.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona modificada
+     */
+    void reindexar(Persona persona) {
+        String[] anteriores = clavesPorPersona.get(persona);
+        if (anteriores == null || Arrays.equals(anteriores, clavesDe(persona))) {
+            return;
+        }
+        eliminar(persona);
+        agregar(persona);
+    }
+    
+    /**
+     * Obtiene la posición en el índice del rol de una persona.
+     * 
+     * @param persona La persona
+     * @return USUARIO, ADMINISTRADOR o PROVEEDOR, o -1 si no tiene ninguno de esos roles
+     */
+    static int rolDe(Persona persona) {
+        if (persona instanceof Usuario) {
+            return USUARIO;
+        } else if (persona instanceof Administrador) {
+            return ADMINISTRADOR;
+        } else if (persona instanceof Proveedor) {
+            return PROVEEDOR;
+        }
+        return -1;
+    }
+    
+    /**
+     * Obtiene la posición en el índice de un rol dado por su clase.
+     * 
+     * @param rol Clase del rol: Usuario, Administrador o Proveedor
+     * @return USUARIO, ADMINISTRADOR o PROVEEDOR
+     * @throws IllegalArgumentException Si la clase no es la de ninguno de esos roles
+     */
+    static int rolDe(Class<? extends Persona> rol) {
+        if (rol == Usuario.class) {
+            return USUARIO;
+        } else if (rol == Administrador.class) {
+            return ADMINISTRADOR;
+        } else if (rol == Proveedor.class) {
+            return PROVEEDOR;
+        }
+        throw new IllegalArgumentException("Rol no válido: " + rol);
+    }
+    
+    /**
+     * Obtiene las claves con que una persona inicia sesión según su rol.
+     * 
+     * @param persona La persona
+     * @return Las claves no nulas y sin repetir de la persona
+     */
+    private static String[] clavesDe(Persona persona) {
+        String cedula = persona instanceof Usuario ? null : persona.getCedula();
+        String email = persona instanceof Administrador ? null : persona.getEmail();
+        if (cedula == null || email == null || cedula.equals(email)) {
+            String clave = cedula != null ? cedula : email;
+            return clave != null ? new String[]{clave} : new String[0];
+        }
+        return new String[]{cedula, email};
+    }
+}
\ No newline at end of file
@@ -0,0 +1,284 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Índice de prefijos de las personas registradas, para sugerir personas mientras se escribe.
+ * 
+ * Cada persona se indexa bajo varias claves normalizadas sin mayúsculas ni
+ * tildes: su cédula, su email y su nombre a partir de cada una de sus
+ * palabras, de modo que "Juan Carlos Pérez" se encuentra escribiendo
+ * "juan", "carlos pe" o "perez". Las claves se guardan en un mapa ordenado
+ * concurrente, por lo que las claves que empiezan por un prefijo son un
+ * tramo contiguo del mapa que se ubica en tiempo logarítmico; una
+ * sugerencia recorre solo el comienzo de ese tramo hasta reunir las
+ * personas pedidas, sin recorrer la colección.
+ * 
+ * Dos personas pueden compartir una clave (por ejemplo, el mismo nombre),
+ * por lo que cada entrada del mapa termina con un separador y un número
+ * de entrada único. Las escrituras se hacen con el candado de personas
+ * tomado y recuerdan las claves con que se indexó cada persona, lo que
+ * permite reindexarla tras cualquier cambio de datos sin conocer los
+ * valores anteriores. Las sugerencias no toman candados.
+ * 
+ * El índice se construye en la primera sugerencia a partir de la
+ * instantánea de personas y desde entonces se mantiene al día.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class IndicePrefijos {
+    
+    /** Separador entre la clave y el número de entrada; menor que cualquier carácter de una clave */
+    private static final char SEPARADOR = '\u0000';
+    
+    /** Colección de personas indexada */
+    private final ColeccionIndexada<Persona> personas;
+    
+    /** Candado de escritura de las personas */
+    private final ReentrantLock candado;
+    
+    /** Entradas del índice, o null si el índice no está construido */
+    private volatile ConcurrentSkipListMap<String, Persona> entradas;
+    
+    /** Entradas con que se indexó cada persona, por identidad; solo lo usan las escrituras */
+    private Map<Persona, String[]> entradasPorPersona;
+    
+    /** Número de la siguiente entrada; solo lo usan las escrituras */
+    private long siguienteEntrada;
+    
+    /**
+     * Constructor del índice, inicialmente sin construir.
+     * 
+     * @param personas Colección de personas indexada
+     * @param candado  Candado de escritura de las personas
+     */
+    IndicePrefijos(ColeccionIndexada<Persona> personas, ReentrantLock candado) {
+        this.personas = personas;
+        this.candado = candado;
+    }
+    
+    /**
+     * Sugiere las personas con alguna clave que empieza por un prefijo.
+     * 
+     * Las personas se devuelven en el orden de la clave por la que
+     * coinciden y sin repetir, aunque coincidan por varias claves.
+     * 
+     * @param prefijo  Comienzo del nombre, la cédula o el email
+     * @param cantidad Cantidad máxima de sugerencias
+     * @param filtro   Condición que deben cumplir las personas sugeridas
+     * @return Lista inmutable de personas sugeridas
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<Persona> sugerir(String prefijo, int cantidad, Predicate<? super Persona> filtro) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad de sugerencias no puede ser negativa");
+        }
+        String normalizado = prefijo != null ? normalizarClave(prefijo) : "";
+        if (normalizado.isEmpty() || cantidad == 0) {
+            return List.of();
+        }
+        ConcurrentSkipListMap<String, Persona> actuales = entradas;
+        if (actuales == null) {
+            actuales = construir();
+        }
+        List<Persona> sugeridas = new ArrayList<>(cantidad);
+        Map<Persona, Boolean> vistas = new IdentityHashMap<>();
+        for (Persona persona : actuales.subMap(normalizado, normalizado + Character.MAX_VALUE).values()) {
+            if (vistas.put(persona, Boolean.TRUE) == null && filtro.test(persona)) {
+                sugeridas.add(persona);
+                if (sugeridas.size() == cantidad) {
+                    break;
+                }
+            }
+        }
+        return Collections.unmodifiableList(sugeridas);
+    }
+    
+    /**
+     * Verifica si el índice está construido y debe mantenerse al día.
+     * 
+     * @return true si el índice ya se construyó
+     */
+    boolean isConstruido() {
+        return entradas != null;
+    }
+    
+    /**
+     * Agrega una persona recién registrada al índice.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona registrada
+     */
+    void agregar(Persona persona) {
+        ConcurrentSkipListMap<String, Persona> actuales = entradas;
+        if (actuales != null) {
+            indexar(actuales, persona);
+        }
+    }
+    
+    /**
+     * Retira del índice una persona eliminada.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona eliminada
+     */
+    void eliminar(Persona persona) {
+        ConcurrentSkipListMap<String, Persona> actuales = entradas;
+        if (actuales != null) {
+            desindexar(actuales, persona);
+        }
+    }
+    
+    /**
+     * Reindexa una persona registrada cuyos datos pudieron cambiar.
+     * 
+     * Si las claves de la persona no cambiaron, el índice no se modifica.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona modificada
+     */
+    void reindexar(Persona persona) {
+        ConcurrentSkipListMap<String, Persona> actuales = entradas;
+        if (actuales == null) {
+            return;
+        }
+        String[] anteriores = entradasPorPersona.get(persona);
+        List<String> claves = clavesDe(persona);
+        if (anteriores != null && anteriores.length == claves.size()) {
+            boolean iguales = true;
+            for (int i = 0; i < anteriores.length && iguales; i++) {
+                iguales = anteriores[i].startsWith(claves.get(i))
+                        && anteriores[i].charAt(claves.get(i).length()) == SEPARADOR;
+            }
+            if (iguales) {
+                return;
+            }
+        }
+        // Las entradas nuevas se agregan antes de quitar las anteriores para
+        // que una sugerencia concurrente no deje de ver a la persona
+        indexar(actuales, persona);
+        if (anteriores != null) {
+            for (String entrada : anteriores) {
+                actuales.remove(entrada);
+            }
+        }
+    }
+    
+    /**
+     * Construye el índice a partir de la instantánea de personas, si aún no está construido.
+     * 
+     * @return Las entradas del índice construido
+     */
+    private ConcurrentSkipListMap<String, Persona> construir() {
+        candado.lock();
+        try {
+            ConcurrentSkipListMap<String, Persona> actuales = entradas;
+            if (actuales == null) {
+                // Las entradas se ordenan primero en un mapa no concurrente,
+                // desde el que el mapa concurrente se arma en tiempo lineal
+                TreeMap<String, Persona> ordenadas = new TreeMap<>();
+                entradasPorPersona = new IdentityHashMap<>();
+                for (Persona persona : personas.instantanea()) {
+                    indexar(ordenadas, persona);
+                }
+                actuales = new ConcurrentSkipListMap<>(ordenadas);
+                entradas = actuales;
+            }
+            return actuales;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Agrega las entradas de una persona y recuerda cuáles son.
+     * 
+     * @param actuales Entradas del índice
+     * @param persona  La persona a indexar
+     */
+    private void indexar(Map<String, Persona> actuales, Persona persona) {
+        List<String> claves = clavesDe(persona);
+        String[] propias = new String[claves.size()];
+        for (int i = 0; i < propias.length; i++) {
+            propias[i] = claves.get(i) + SEPARADOR + siguienteEntrada++;
+            actuales.put(propias[i], persona);
+        }
+        entradasPorPersona.put(persona, propias);
+    }
+    
+    /**
+     * Quita las entradas con que se indexó una persona.
+     * 
+     * @param actuales Entradas del índice
+     * @param persona  La persona a retirar
+     */
+    private void desindexar(ConcurrentSkipListMap<String, Persona> actuales, Persona persona) {
+        String[] propias = entradasPorPersona.remove(persona);
+        if (propias != null) {
+            for (String entrada : propias) {
+                actuales.remove(entrada);
+            }
+        }
+    }
+    
+    /**
+     * Obtiene las claves normalizadas bajo las que se indexa una persona.
+     * 
+     * @param persona La persona
+     * @return La cédula, el email y el nombre desde cada una de sus palabras, sin claves vacías
+     */
+    private static List<String> clavesDe(Persona persona) {
+        List<String> claves = new ArrayList<>(4);
+        agregarClave(claves, persona.getCedula());
+        agregarClave(claves, persona.getEmail());
+        if (persona.getNombre() != null) {
+            String nombre = normalizarClave(persona.getNombre());
+            for (int i = 0; i < nombre.length(); i++) {
+                if (i == 0 || nombre.charAt(i - 1) == ' ') {
+                    claves.add(nombre.substring(i));
+                }
+            }
+        }
+        return claves;
+    }
+    
+    /**
+     * Agrega la clave normalizada de un campo, si no está vacía.
+     * 
+     * @param claves Claves de la persona
+     * @param campo  Valor del campo, posiblemente nulo
+     */
+    private static void agregarClave(List<String> claves, String campo) {
+        if (campo != null) {
+            String clave = normalizarClave(campo);
+            if (!clave.isEmpty()) {
+                claves.add(clave);
+            }
+        }
+    }
+    
+    /**
+     * Normaliza un texto como clave del índice.
+     * 
+     * @param texto Texto a normalizar
+     * @return El texto en minúsculas, sin tildes, sin espacios al inicio ni al
+     *         final y con los espacios interiores reducidos a uno
+     */
+    private static String normalizarClave(String texto) {
+        String[] partes = IndiceTexto.normalizar(texto).trim().split("\\s+");
+        return String.join(" ", partes).replace(SEPARADOR, ' ');
+    }
+}
\ No newline at end of file
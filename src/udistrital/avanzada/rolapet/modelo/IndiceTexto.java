@@ -0,0 +1,731 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Índice invertido de texto completo sobre una colección del repositorio.
+ * 
+ * Cada entidad indexada es un documento formado por un campo principal
+ * (nombre o título) y una descripción. El texto se divide en términos sin
+ * distinguir mayúsculas ni tildes y sin las palabras vacías del español,
+ * y para cada término se guarda la lista de documentos que lo contienen,
+ * en orden de documento, con su frecuencia; los términos del campo
+ * principal cuentan doble. Los términos se guardan en un mapa ordenado,
+ * de modo que los términos que empiezan por un prefijo son un tramo del mapa.
+ * 
+ * Una búsqueda exige todos los términos consultados, cada uno como término
+ * completo o como prefijo de un término del índice, y ordena los documentos
+ * por su puntaje BM25. Solo recorre las listas de los términos consultados,
+ * empezando por la más corta para descartar pronto los documentos que no
+ * tienen los demás términos, y nunca recorre la colección.
+ * 
+ * Las escrituras se hacen con el candado de la colección tomado y solo
+ * agregan al final de las listas, publicando cada lista y el estado del
+ * índice con referencias volátiles; las búsquedas no toman candados y ven
+ * el índice tal como quedó tras la última escritura completada. Un
+ * documento eliminado o modificado se marca como retirado en lugar de
+ * quitarlo de sus listas, y el índice se reconstruye cuando los documentos
+ * retirados superan a los vigentes. Hasta entonces la frecuencia de
+ * documentos de cada término cuenta también los retirados, lo que solo
+ * afecta levemente al puntaje.
+ * 
+ * El índice se construye en la primera búsqueda a partir de la instantánea
+ * de la colección y desde entonces se mantiene al día con cada alta, baja
+ * y modificación, por lo que el repositorio no paga su mantenimiento si
+ * nunca se busca por texto.
+ * 
+ * @param <T> Tipo de entidad indexada
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class IndiceTexto<T> {
+    
+    /** Parámetro de saturación de la frecuencia de BM25 */
+    private static final double K1 = 1.2;
+    
+    /** Parámetro de normalización por longitud de BM25 */
+    private static final double B = 0.75;
+    
+    /** Peso de los términos del campo principal frente a los de la descripción */
+    private static final int PESO_PRINCIPAL = 2;
+    
+    /** Cantidad máxima de términos del índice en que se expande un prefijo */
+    private static final int MAXIMO_EXPANSIONES = 64;
+    
+    /** Cantidad mínima de documentos retirados antes de reconstruir el índice */
+    private static final int MINIMO_RETIRADOS = 1024;
+    
+    /** Palabras vacías del español, sin tildes, que no se indexan */
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "como", "con", "de", "del", "e", "el", "en", "es", "esta", "este",
+            "la", "las", "le", "les", "lo", "los", "mas", "muy", "o", "para", "por",
+            "que", "se", "sin", "sobre", "su", "sus", "u", "un", "una", "unas", "unos", "y");
+    
+    /** Acumuladores de puntajes de cada hilo, reutilizados entre búsquedas */
+    private static final ThreadLocal<Acumulador> ACUMULADORES = ThreadLocal.withInitial(Acumulador::new);
+    
+    /** Colección indexada */
+    private final ColeccionIndexada<T> coleccion;
+    
+    /** Candado de escritura de la colección */
+    private final ReentrantLock candado;
+    
+    /** Función que obtiene el campo principal de una entidad */
+    private final Function<? super T, String> principal;
+    
+    /** Función que obtiene la descripción de una entidad */
+    private final Function<? super T, String> descripcion;
+    
+    /** Estado publicado del índice, o null si el índice no está construido */
+    private volatile Estado estado;
+    
+    /** Número de documento de cada entidad indexada, por identidad; solo lo usan las escrituras */
+    private Map<T, Integer> documentosPorEntidad;
+    
+    /** Listas de documentos por término, para las escrituras; las búsquedas usan el mapa ordenado del estado */
+    private Map<String, Postings> postingsPorTermino;
+    
+    /** Listas con documentos escritos pendientes de publicar */
+    private List<Postings> pendientes;
+    
+    /**
+     * Lista de documentos de un término, que solo crece por el final.
+     * 
+     * Las escrituras agregan documentos a los arreglos de la lista y al
+     * terminar publican una vista inmutable hasta el nuevo tamaño. Las
+     * posiciones posteriores al tamaño de la vista vigente no las lee
+     * ninguna búsqueda, por lo que se escriben en el mismo arreglo mientras
+     * tenga espacio.
+     */
+    private static final class Postings {
+        
+        /** Vista vigente de la lista, la única que leen las búsquedas */
+        private volatile Bloque bloque = new Bloque(new int[0], new byte[0], 0);
+        
+        /** Números de documento escritos, en orden creciente */
+        private int[] documentos = new int[2];
+        
+        /** Frecuencia del término en cada documento escrito */
+        private byte[] frecuencias = new byte[2];
+        
+        /** Cantidad de documentos escritos */
+        private int tamano;
+        
+        /** Indica si hay documentos escritos que aún no se publicaron */
+        private boolean pendiente;
+        
+        /**
+         * Agrega un documento al final de la lista, sin publicarlo.
+         * 
+         * @param documento  Número del documento, mayor que los de la lista
+         * @param frecuencia Frecuencia ponderada del término en el documento
+         */
+        private void agregar(int documento, int frecuencia) {
+            if (tamano == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamano * 2);
+                frecuencias = Arrays.copyOf(frecuencias, tamano * 2);
+            }
+            documentos[tamano] = documento;
+            frecuencias[tamano] = (byte) Math.min(frecuencia, Byte.MAX_VALUE);
+            tamano++;
+        }
+        
+        /**
+         * Publica una vista con todos los documentos escritos.
+         */
+        private void publicar() {
+            bloque = new Bloque(documentos, frecuencias, tamano);
+            pendiente = false;
+        }
+    }
+    
+    /**
+     * Vista inmutable de una lista de documentos hasta un tamaño.
+     */
+    private static final class Bloque {
+        
+        /** Números de documento, en orden creciente */
+        private final int[] documentos;
+        
+        /** Frecuencia del término en cada documento */
+        private final byte[] frecuencias;
+        
+        /** Cantidad de documentos de la vista */
+        private final int tamano;
+        
+        /**
+         * Constructor de la vista.
+         * 
+         * @param documentos  Números de documento
+         * @param frecuencias Frecuencias del término
+         * @param tamano      Cantidad de documentos de la vista
+         */
+        private Bloque(int[] documentos, byte[] frecuencias, int tamano) {
+            this.documentos = documentos;
+            this.frecuencias = frecuencias;
+            this.tamano = tamano;
+        }
+    }
+    
+    /**
+     * Estado inmutable del índice que ven las búsquedas.
+     * 
+     * Los arreglos se comparten con los estados posteriores, que solo
+     * escriben posiciones a partir de la cantidad de este estado o marcan
+     * documentos como retirados.
+     */
+    private static final class Estado {
+        
+        /** Términos del índice y sus listas de documentos */
+        private final ConcurrentSkipListMap<String, Postings> terminos;
+        
+        /** Entidad de cada documento, o null si el documento fue retirado */
+        private final Object[] documentos;
+        
+        /** Longitud ponderada de cada documento */
+        private final int[] longitudes;
+        
+        /** Cantidad de documentos numerados, incluidos los retirados */
+        private final int cantidad;
+        
+        /** Cantidad de documentos vigentes */
+        private final int vigentes;
+        
+        /** Suma de las longitudes de los documentos vigentes */
+        private final long longitudTotal;
+        
+        /**
+         * Constructor del estado.
+         * 
+         * @param terminos      Términos y listas de documentos
+         * @param documentos    Entidad de cada documento
+         * @param longitudes    Longitud de cada documento
+         * @param cantidad      Cantidad de documentos numerados
+         * @param vigentes      Cantidad de documentos vigentes
+         * @param longitudTotal Suma de las longitudes de los vigentes
+         */
+        private Estado(ConcurrentSkipListMap<String, Postings> terminos, Object[] documentos, int[] longitudes,
+                       int cantidad, int vigentes, long longitudTotal) {
+            this.terminos = terminos;
+            this.documentos = documentos;
+            this.longitudes = longitudes;
+            this.cantidad = cantidad;
+            this.vigentes = vigentes;
+            this.longitudTotal = longitudTotal;
+        }
+    }
+    
+    /**
+     * Puntajes parciales de una búsqueda, reutilizados por un mismo hilo.
+     * 
+     * Cada búsqueda usa una época nueva; una posición cuya marca no es la
+     * época actual se considera vacía, por lo que los arreglos no se limpian
+     * entre búsquedas.
+     */
+    private static final class Acumulador {
+        
+        /** Época de la búsqueda en curso */
+        private int epoca;
+        
+        /** Época en que se tocó cada documento */
+        private int[] marcas = new int[0];
+        
+        /** Cantidad de términos consultados que tiene cada documento */
+        private short[] coincidencias = new short[0];
+        
+        /** Puntaje acumulado de cada documento */
+        private double[] puntajes = new double[0];
+        
+        /** Documentos tocados en la búsqueda en curso */
+        private int[] tocados = new int[0];
+        
+        /** Cantidad de documentos tocados */
+        private int cantidadTocados;
+        
+        /**
+         * Prepara el acumulador para una búsqueda sobre una cantidad de documentos.
+         * 
+         * @param documentos Cantidad de documentos numerados del índice
+         */
+        private void iniciar(int documentos) {
+            if (marcas.length < documentos) {
+                int capacidad = Math.max(documentos, marcas.length * 3 / 2);
+                marcas = Arrays.copyOf(marcas, capacidad);
+                coincidencias = Arrays.copyOf(coincidencias, capacidad);
+                puntajes = Arrays.copyOf(puntajes, capacidad);
+                tocados = Arrays.copyOf(tocados, capacidad);
+            }
+            if (++epoca == Integer.MAX_VALUE) {
+                Arrays.fill(marcas, 0);
+                epoca = 1;
+            }
+            cantidadTocados = 0;
+        }
+    }
+    
+    /**
+     * Constructor del índice, inicialmente sin construir.
+     * 
+     * @param coleccion   Colección indexada
+     * @param candado     Candado de escritura de la colección
+     * @param principal   Función que obtiene el campo principal de una entidad
+     * @param descripcion Función que obtiene la descripción de una entidad
+     */
+    IndiceTexto(ColeccionIndexada<T> coleccion, ReentrantLock candado,
+                Function<? super T, String> principal, Function<? super T, String> descripcion) {
+        this.coleccion = coleccion;
+        this.candado = candado;
+        this.principal = principal;
+        this.descripcion = descripcion;
+    }
+    
+    // === MÉTODOS DE BÚSQUEDA ===
+    
+    /**
+     * Busca las entidades que contienen todos los términos de un texto.
+     * 
+     * Cada término consultado coincide con los términos del índice que son
+     * iguales a él o, si tiene al menos tres letras, que empiezan por él;
+     * un prefijo se expande como máximo a los términos que aparecen en más
+     * documentos.
+     * 
+     * @param texto  Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista inmutable de entidades, de mayor a menor puntaje
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    @SuppressWarnings("unchecked")
+    List<T> buscar(String texto, int limite) {
+        if (limite < 0) {
+            throw new IllegalArgumentException("El límite de resultados no puede ser negativo");
+        }
+        List<String> consultados = new ArrayList<>(new LinkedHashSet<>(tokenizar(texto)));
+        if (consultados.isEmpty() || limite == 0) {
+            return List.of();
+        }
+        Estado actual = estado;
+        if (actual == null) {
+            actual = construir();
+        }
+        List<List<Bloque>> expansiones = new ArrayList<>();
+        for (String termino : consultados) {
+            List<Bloque> bloques = expandir(actual, termino);
+            if (bloques.isEmpty()) {
+                return List.of();
+            }
+            expansiones.add(bloques);
+        }
+        expansiones.sort((a, b) -> Long.compare(totalDocumentos(a), totalDocumentos(b)));
+        
+        Acumulador acumulador = ACUMULADORES.get();
+        acumulador.iniciar(actual.cantidad);
+        double longitudMedia = actual.vigentes > 0 ? (double) actual.longitudTotal / actual.vigentes : 1;
+        for (int t = 0; t < expansiones.size(); t++) {
+            for (Bloque bloque : expansiones.get(t)) {
+                puntuar(actual, bloque, t, longitudMedia, acumulador);
+            }
+        }
+        
+        PriorityQueue<Integer> mejores = new PriorityQueue<>(
+                (a, b) -> Double.compare(acumulador.puntajes[a], acumulador.puntajes[b]));
+        int requeridos = expansiones.size();
+        for (int i = 0; i < acumulador.cantidadTocados; i++) {
+            int documento = acumulador.tocados[i];
+            if (acumulador.coincidencias[documento] == requeridos) {
+                mejores.add(documento);
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+        }
+        // Un documento retirado durante la búsqueda ya no se devuelve
+        List<T> resultados = new ArrayList<>(mejores.size());
+        while (!mejores.isEmpty()) {
+            Object entidad = actual.documentos[mejores.poll()];
+            if (entidad != null) {
+                resultados.add((T) entidad);
+            }
+        }
+        Collections.reverse(resultados);
+        return Collections.unmodifiableList(resultados);
+    }
+    
+    /**
+     * Suma a los documentos de una lista el puntaje BM25 de su término.
+     * 
+     * Para el primer término consultado cada documento vigente entra como
+     * candidato; para los siguientes solo suman puntaje los documentos que
+     * ya tienen todos los términos anteriores.
+     * 
+     * @param actual        Estado del índice
+     * @param bloque        Lista de documentos del término
+     * @param orden         Posición del término consultado, desde cero
+     * @param longitudMedia Longitud media de los documentos vigentes
+     * @param acumulador    Puntajes de la búsqueda
+     */
+    private static void puntuar(Estado actual, Bloque bloque, int orden, double longitudMedia,
+                                Acumulador acumulador) {
+        int frecuenciaDocumentos = Math.min(bloque.tamano, Math.max(actual.vigentes, 1));
+        double idf = Math.log(1 + (actual.vigentes - frecuenciaDocumentos + 0.5) / (frecuenciaDocumentos + 0.5));
+        int[] marcas = acumulador.marcas;
+        short[] coincidencias = acumulador.coincidencias;
+        double[] puntajes = acumulador.puntajes;
+        int epoca = acumulador.epoca;
+        for (int i = 0; i < bloque.tamano; i++) {
+            int documento = bloque.documentos[i];
+            if (documento >= actual.cantidad) {
+                break;
+            }
+            if (orden == 0) {
+                if (actual.documentos[documento] == null) {
+                    continue;
+                }
+                if (marcas[documento] != epoca) {
+                    marcas[documento] = epoca;
+                    coincidencias[documento] = 0;
+                    puntajes[documento] = 0;
+                    acumulador.tocados[acumulador.cantidadTocados++] = documento;
+                }
+            } else if (marcas[documento] != epoca || coincidencias[documento] < orden) {
+                continue;
+            }
+            coincidencias[documento] = (short) (orden + 1);
+            double frecuencia = bloque.frecuencias[i];
+            double normalizacion = 1 - B + B * actual.longitudes[documento] / longitudMedia;
+            puntajes[documento] += idf * frecuencia * (K1 + 1) / (frecuencia + K1 * normalizacion);
+        }
+    }
+    
+    /**
+     * Obtiene las listas de los términos del índice que coinciden con un término consultado.
+     * 
+     * @param actual  Estado del índice
+     * @param termino Término consultado
+     * @return Las listas de los términos que coinciden, o una lista vacía si ninguno coincide
+     */
+    private static List<Bloque> expandir(Estado actual, String termino) {
+        if (termino.length() < 3) {
+            Postings exacto = actual.terminos.get(termino);
+            return exacto != null ? List.of(exacto.bloque) : List.of();
+        }
+        List<Bloque> bloques = new ArrayList<>();
+        for (Postings postings : actual.terminos.subMap(termino, termino + Character.MAX_VALUE).values()) {
+            bloques.add(postings.bloque);
+        }
+        if (bloques.size() > MAXIMO_EXPANSIONES) {
+            bloques.sort((a, b) -> Integer.compare(b.tamano, a.tamano));
+            bloques = bloques.subList(0, MAXIMO_EXPANSIONES);
+        }
+        return bloques;
+    }
+    
+    /**
+     * Suma los tamaños de varias listas de documentos.
+     * 
+     * @param bloques Listas de documentos
+     * @return La cantidad total de documentos
+     */
+    private static long totalDocumentos(List<Bloque> bloques) {
+        long total = 0;
+        for (Bloque bloque : bloques) {
+            total += bloque.tamano;
+        }
+        return total;
+    }
+    
+    // === MÉTODOS DE MANTENIMIENTO ===
+    
+    /**
+     * Verifica si el índice está construido y debe mantenerse al día.
+     * 
+     * @return true si el índice ya se construyó
+     */
+    boolean isConstruido() {
+        return estado != null;
+    }
+    
+    /**
+     * Agrega una entidad recién registrada al índice.
+     * 
+     * Este método debe invocarse con el candado de la colección tomado.
+     * 
+     * @param entidad La entidad registrada
+     */
+    void agregar(T entidad) {
+        Estado actual = estado;
+        if (actual != null) {
+            actual = indexar(actual, entidad);
+            publicarPendientes();
+            estado = actual;
+        }
+    }
+    
+    /**
+     * Agrega al índice las entidades registradas de un lote.
+     * 
+     * Este método debe invocarse con el candado de la colección tomado.
+     * 
+     * @param lote      Entidades del lote, en orden de registro
+     * @param guardadas Indica, para cada entidad del lote, si se registró
+     */
+    void agregarLote(List<? extends T> lote, boolean[] guardadas) {
+        Estado actual = estado;
+        if (actual != null) {
+            for (int i = 0; i < guardadas.length; i++) {
+                if (guardadas[i]) {
+                    actual = indexar(actual, lote.get(i));
+                }
+            }
+            publicarPendientes();
+            estado = actual;
+        }
+    }
+    
+    /**
+     * Retira del índice una entidad eliminada.
+     * 
+     * Este método debe invocarse con el candado de la colección tomado.
+     * 
+     * @param entidad La entidad eliminada
+     */
+    void eliminar(T entidad) {
+        Estado actual = estado;
+        if (actual != null) {
+            actual = retirar(actual, entidad);
+            if (actual.cantidad - actual.vigentes > Math.max(actual.vigentes, MINIMO_RETIRADOS)) {
+                actual = reconstruir(actual);
+            }
+            publicarPendientes();
+            estado = actual;
+        }
+    }
+    
+    /**
+     * Indexa de nuevo una entidad registrada cuyo texto pudo cambiar.
+     * 
+     * La entidad se retira con su número de documento anterior y se indexa
+     * como un documento nuevo con sus campos actuales.
+     * 
+     * Este método debe invocarse con el candado de la colección tomado.
+     * 
+     * @param entidad La entidad modificada
+     */
+    void actualizar(T entidad) {
+        Estado actual = estado;
+        if (actual != null) {
+            actual = indexar(retirar(actual, entidad), entidad);
+            if (actual.cantidad - actual.vigentes > Math.max(actual.vigentes, MINIMO_RETIRADOS)) {
+                actual = reconstruir(actual);
+            }
+            publicarPendientes();
+            estado = actual;
+        }
+    }
+    
+    /**
+     * Descarta el índice, que se construirá de nuevo en la siguiente búsqueda.
+     * 
+     * Es utilizado cuando la colección se reemplaza por completo, como al
+     * montar un almacén mapeado.
+     */
+    void descartar() {
+        estado = null;
+        documentosPorEntidad = null;
+        postingsPorTermino = null;
+        pendientes = null;
+    }
+    
+    /**
+     * Construye el índice a partir de la instantánea de la colección, si aún no está construido.
+     * 
+     * @return El estado del índice construido
+     */
+    private Estado construir() {
+        candado.lock();
+        try {
+            Estado actual = estado;
+            if (actual == null) {
+                actual = vacio(coleccion.tamano());
+                for (T entidad : coleccion.instantanea()) {
+                    actual = indexar(actual, entidad);
+                }
+                publicarPendientes();
+                estado = actual;
+            }
+            return actual;
+        } finally {
+            candado.unlock();
+        }
+    }
+    
+    /**
+     * Reconstruye el índice solo con los documentos vigentes, renumerándolos.
+     * 
+     * @param actual Estado del índice
+     * @return El estado reconstruido
+     */
+    @SuppressWarnings("unchecked")
+    private Estado reconstruir(Estado actual) {
+        Estado nuevo = vacio(actual.vigentes);
+        for (int documento = 0; documento < actual.cantidad; documento++) {
+            Object entidad = actual.documentos[documento];
+            if (entidad != null) {
+                nuevo = indexar(nuevo, (T) entidad);
+            }
+        }
+        return nuevo;
+    }
+    
+    /**
+     * Crea un estado sin documentos.
+     * 
+     * @param capacidad Cantidad de documentos que se espera indexar
+     * @return El estado vacío
+     */
+    private Estado vacio(int capacidad) {
+        documentosPorEntidad = new IdentityHashMap<>();
+        postingsPorTermino = new HashMap<>();
+        pendientes = new ArrayList<>();
+        int inicial = Math.max(16, capacidad);
+        return new Estado(new ConcurrentSkipListMap<>(), new Object[inicial], new int[inicial], 0, 0, 0);
+    }
+    
+    /**
+     * Indexa una entidad como un documento nuevo al final del índice.
+     * 
+     * @param actual  Estado del índice
+     * @param entidad La entidad a indexar
+     * @return El estado con el documento agregado
+     */
+    private Estado indexar(Estado actual, T entidad) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String termino : tokenizar(principal.apply(entidad))) {
+            frecuencias.merge(termino, PESO_PRINCIPAL, Integer::sum);
+        }
+        for (String termino : tokenizar(descripcion.apply(entidad))) {
+            frecuencias.merge(termino, 1, Integer::sum);
+        }
+        int documento = actual.cantidad;
+        Object[] documentos = actual.documentos;
+        int[] longitudes = actual.longitudes;
+        if (documento == documentos.length) {
+            documentos = Arrays.copyOf(documentos, documento * 2);
+            longitudes = Arrays.copyOf(longitudes, documento * 2);
+        }
+        int longitud = 0;
+        for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+            Postings postings = postingsPorTermino.get(entrada.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                postingsPorTermino.put(entrada.getKey(), postings);
+                actual.terminos.put(entrada.getKey(), postings);
+            }
+            if (!postings.pendiente) {
+                postings.pendiente = true;
+                pendientes.add(postings);
+            }
+            postings.agregar(documento, entrada.getValue());
+            longitud += entrada.getValue();
+        }
+        documentos[documento] = entidad;
+        longitudes[documento] = longitud;
+        documentosPorEntidad.put(entidad, documento);
+        return new Estado(actual.terminos, documentos, longitudes, documento + 1,
+                actual.vigentes + 1, actual.longitudTotal + longitud);
+    }
+    
+    /**
+     * Publica las listas de documentos escritas desde la última publicación.
+     * 
+     * Se invoca antes de publicar el estado, de modo que una búsqueda que
+     * ve el estado nuevo ve también los documentos que agrega.
+     */
+    private void publicarPendientes() {
+        for (Postings postings : pendientes) {
+            postings.publicar();
+        }
+        pendientes.clear();
+    }
+    
+    /**
+     * Marca como retirado el documento de una entidad.
+     * 
+     * @param actual  Estado del índice
+     * @param entidad La entidad a retirar
+     * @return El estado sin la entidad, o el mismo si no estaba indexada
+     */
+    private Estado retirar(Estado actual, T entidad) {
+        Integer documento = documentosPorEntidad.remove(entidad);
+        if (documento == null) {
+            return actual;
+        }
+        actual.documentos[documento] = null;
+        return new Estado(actual.terminos, actual.documentos, actual.longitudes, actual.cantidad,
+                actual.vigentes - 1, actual.longitudTotal - actual.longitudes[documento]);
+    }
+    
+    // === MÉTODOS DE TOKENIZACIÓN ===
+    
+    /**
+     * Divide un texto en los términos que se indexan o se buscan.
+     * 
+     * El texto se pasa a minúsculas y se le quitan las tildes y la diéresis
+     * (la ñ queda como n); los términos son las secuencias de letras y
+     * dígitos, sin las palabras vacías del español.
+     * 
+     * @param texto Texto a dividir, posiblemente nulo
+     * @return Los términos del texto, en orden y con repeticiones
+     */
+    static List<String> tokenizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return terminos;
+        }
+        String normalizado = normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean parte = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (parte && inicio < 0) {
+                inicio = i;
+            } else if (!parte && inicio >= 0) {
+                String termino = normalizado.substring(inicio, i);
+                if (!PALABRAS_VACIAS.contains(termino)) {
+                    terminos.add(termino);
+                }
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+    
+    /**
+     * Normaliza un texto a minúsculas y sin tildes.
+     * 
+     * @param texto Texto a normalizar
+     * @return El texto normalizado
+     */
+    static String normalizar(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 127) {
+                String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+                return sinTildes.toLowerCase(Locale.ROOT);
+            }
+        }
+        return texto.toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,453 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantánea binaria compacta del estado completo del repositorio.
+ * 
+ * Esta clase escribe y carga archivos con todas las personas, vehículos,
+ * items y publicaciones del repositorio, junto con las relaciones de
+ * amistad y de pertenencia. El archivo se divide en secciones con su
+ * posición, longitud y suma de verificación en una cabecera fija, lo que
+ * permite cargar en paralelo las secciones de cada tipo de entidad
+ * leyéndolas directamente desde memoria mapeada.
+ * 
+ * La instantánea se toma sin detener las escrituras, por lo que puede
+ * combinar estados de instantes cercanos. Es correcta porque se toma
+ * justo después de rotar el diario: todo lo anterior a la rotación ya
+ * está reflejado, y los registros posteriores se vuelven a aplicar sobre
+ * ella al iniciar, lo cual es seguro porque cada registro lleva el estado
+ * completo de lo que modifica y los cambios de clave ya reflejados se
+ * omiten.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class InstantaneaRepositorio {
+    
+    /** Número mágico que identifica los archivos de instantánea ("RPI1") */
+    private static final int MAGICO = 0x52504931;
+    
+    /** Versión del formato de la instantánea */
+    private static final int VERSION = 1;
+    
+    /** Sección de personas */
+    private static final int SECCION_PERSONAS = 0;
+    
+    /** Sección de vehículos */
+    private static final int SECCION_VEHICULOS = 1;
+    
+    /** Sección de items */
+    private static final int SECCION_ITEMS = 2;
+    
+    /** Sección de publicaciones */
+    private static final int SECCION_PUBLICACIONES = 3;
+    
+    /** Sección de relaciones entre entidades */
+    private static final int SECCION_RELACIONES = 4;
+    
+    /** Número de secciones del archivo */
+    private static final int SECCIONES = 5;
+    
+    /** Tamaño de la cabecera: mágico, versión, secuencia y por sección posición, longitud y CRC32 */
+    private static final int CABECERA = 4 + 4 + 8 + SECCIONES * 24;
+    
+    /** Marca de las relaciones de un usuario */
+    private static final byte RELACIONES_USUARIO = 0;
+    
+    /** Marca de las relaciones de un proveedor */
+    private static final byte RELACIONES_PROVEEDOR = 1;
+    
+    /** Marca de una entidad asociada que está registrada en el repositorio */
+    private static final byte REFERENCIA = 0;
+    
+    /** Marca de una entidad asociada que solo existe dentro de la relación */
+    private static final byte COMPLETA = 1;
+    
+    /**
+     * Escritura del contenido de una sección.
+     */
+    private interface EscrituraSeccion {
+        
+        /**
+         * Escribe el contenido de la sección.
+         * 
+         * @param salida Destino de la escritura
+         * @throws IOException Si ocurre un error de escritura
+         */
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+    
+    /**
+     * Constructor privado para evitar la instanciación de la clase.
+     */
+    private InstantaneaRepositorio() {
+    }
+    
+    /**
+     * Escribe una instantánea del repositorio.
+     * 
+     * Este método escribe primero un archivo temporal, lo sincroniza en
+     * disco y luego lo mueve de forma atómica al nombre definitivo, de modo
+     * que nunca quede una instantánea incompleta con ese nombre.
+     * 
+     * @param repositorio El repositorio a guardar
+     * @param secuencia   Número del segmento del diario desde el que se debe reproducir
+     * @param archivo     Archivo de destino de la instantánea
+     * @throws IOException Si ocurre un error de escritura
+     */
+    static void escribir(Repositorio repositorio, long secuencia, Path archivo) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        List<Persona> personas = repositorio.obtenerTodasLasPersonas();
+        List<Vehiculo> vehiculos = repositorio.obtenerTodosLosVehiculos();
+        List<Item> items = repositorio.obtenerTodosLosItems();
+        List<Publicacion> publicaciones = repositorio.obtenerTodasLasPublicaciones();
+        long[] secciones = new long[SECCIONES * 3];
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            canal.position(CABECERA);
+            escribirSeccion(canal, secciones, SECCION_PERSONAS, salida -> {
+                salida.writeInt(personas.size());
+                for (Persona persona : personas) {
+                    CodificadorEntidades.escribirPersona(salida, persona);
+                }
+            });
+            escribirSeccion(canal, secciones, SECCION_VEHICULOS, salida -> {
+                salida.writeInt(vehiculos.size());
+                for (Vehiculo vehiculo : vehiculos) {
+                    CodificadorEntidades.escribirVehiculo(salida, vehiculo);
+                }
+            });
+            escribirSeccion(canal, secciones, SECCION_ITEMS, salida -> {
+                salida.writeInt(items.size());
+                for (Item item : items) {
+                    CodificadorEntidades.escribirItem(salida, item);
+                }
+            });
+            escribirSeccion(canal, secciones, SECCION_PUBLICACIONES, salida -> {
+                salida.writeInt(publicaciones.size());
+                for (Publicacion publicacion : publicaciones) {
+                    CodificadorEntidades.escribirPublicacion(salida, publicacion);
+                }
+            });
+            escribirSeccion(canal, secciones, SECCION_RELACIONES,
+                    salida -> escribirRelaciones(salida, repositorio, personas));
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            cabecera.putInt(MAGICO).putInt(VERSION).putLong(secuencia);
+            for (long valor : secciones) {
+                cabecera.putLong(valor);
+            }
+            cabecera.flip();
+            long posicion = 0;
+            while (cabecera.hasRemaining()) {
+                posicion += canal.write(cabecera, posicion);
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        sincronizarDirectorio(archivo.getParent());
+    }
+    
+    /**
+     * Carga una instantánea en el repositorio.
+     * 
+     * Este método verifica la suma de verificación de cada sección y carga
+     * en paralelo las personas, vehículos, items y publicaciones, que usan
+     * candados distintos en el repositorio. Las relaciones se cargan al
+     * final, cuando todas las entidades ya están registradas.
+     * 
+     * @param archivo      Archivo de la instantánea
+     * @param persistencia Persistencia que resuelve las entidades asociadas no registradas
+     * @param repositorio  Repositorio donde se cargan las entidades
+     * @throws IOException Si el archivo no es una instantánea válida o no se puede leer
+     */
+    static void cargar(Path archivo, PersistenciaRepositorio persistencia, Repositorio repositorio) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA);
+            while (cabecera.hasRemaining()) {
+                if (canal.read(cabecera, cabecera.position()) < 0) {
+                    throw new IOException("Instantánea incompleta: " + archivo);
+                }
+            }
+            cabecera.flip();
+            if (cabecera.getInt() != MAGICO || cabecera.getInt() != VERSION) {
+                throw new IOException("Formato de instantánea no reconocido: " + archivo);
+            }
+            cabecera.getLong();
+            ByteBuffer[] secciones = new ByteBuffer[SECCIONES];
+            for (int i = 0; i < SECCIONES; i++) {
+                long posicion = cabecera.getLong();
+                long longitud = cabecera.getLong();
+                long suma = cabecera.getLong();
+                if (posicion < CABECERA || longitud < 0 || longitud > Integer.MAX_VALUE
+                        || posicion + longitud > canal.size()) {
+                    throw new IOException("Sección inválida en la instantánea: " + archivo);
+                }
+                secciones[i] = canal.map(FileChannel.MapMode.READ_ONLY, posicion, longitud);
+                CRC32 crc = new CRC32();
+                crc.update(secciones[i].duplicate());
+                if (crc.getValue() != suma) {
+                    throw new IOException("Suma de verificación incorrecta en la instantánea: " + archivo);
+                }
+            }
+            Persona[] personas = cargarEntidades(secciones, repositorio);
+            cargarRelaciones(CodificadorEntidades.entrada(secciones[SECCION_RELACIONES]), personas,
+                    persistencia, repositorio);
+        }
+    }
+    
+    /**
+     * Escribe una sección del archivo y anota su posición, longitud y CRC32.
+     * 
+     * @param canal     Canal del archivo, posicionado donde empieza la sección
+     * @param secciones Arreglo donde se anotan los datos de cada sección
+     * @param seccion   Índice de la sección
+     * @param escritura Escritura del contenido de la sección
+     * @throws IOException Si ocurre un error de escritura
+     */
+    private static void escribirSeccion(FileChannel canal, long[] secciones, int seccion,
+                                        EscrituraSeccion escritura) throws IOException {
+        long inicio = canal.position();
+        CRC32 crc = new CRC32();
+        DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Channels.newOutputStream(canal), crc), 1 << 16));
+        escritura.escribir(salida);
+        salida.flush();
+        secciones[seccion * 3] = inicio;
+        secciones[seccion * 3 + 1] = canal.position() - inicio;
+        secciones[seccion * 3 + 2] = crc.getValue();
+    }
+    
+    /**
+     * Escribe las relaciones de los usuarios y proveedores.
+     * 
+     * El dueño de cada relación se identifica por su posición en la
+     * sección de personas. Los amigos se identifican por su cédula y se
+     * omiten los que no están registrados en el repositorio, pues al cargar
+     * su cédula resolvería a otra persona o a ninguna. Los vehículos, items
+     * y publicaciones se identifican por su ID si están registrados en el
+     * repositorio, o con todos sus datos si solo existen en la relación.
+     * 
+     * @param salida      Destino de la escritura
+     * @param repositorio Repositorio que se está guardando
+     * @param personas    Personas en el orden en que se escribieron
+     * @throws IOException Si ocurre un error de escritura
+     */
+    private static void escribirRelaciones(DataOutputStream salida, Repositorio repositorio,
+                                           List<Persona> personas) throws IOException {
+        for (int i = 0; i < personas.size(); i++) {
+            Persona persona = personas.get(i);
+            if (persona instanceof Usuario) {
+                Usuario usuario = (Usuario) persona;
+                List<Usuario> amigos = new ArrayList<>();
+                for (Usuario amigo : usuario.getAmigos()) {
+                    if (repositorio.buscarPersonaPorCedula(amigo.getCedula()) == amigo) {
+                        amigos.add(amigo);
+                    }
+                }
+                List<Vehiculo> vehiculos = usuario.getVehiculos();
+                if (amigos.isEmpty() && vehiculos.isEmpty()) {
+                    continue;
+                }
+                salida.writeInt(i);
+                salida.writeByte(RELACIONES_USUARIO);
+                salida.writeInt(amigos.size());
+                for (Usuario amigo : amigos) {
+                    CodificadorEntidades.escribirTexto(salida, amigo.getCedula());
+                }
+                salida.writeInt(vehiculos.size());
+                for (Vehiculo vehiculo : vehiculos) {
+                    if (repositorio.buscarVehiculoPorId(vehiculo.getId()) == vehiculo) {
+                        salida.writeByte(REFERENCIA);
+                        CodificadorEntidades.escribirTexto(salida, vehiculo.getId());
+                    } else {
+                        salida.writeByte(COMPLETA);
+                        CodificadorEntidades.escribirVehiculo(salida, vehiculo);
+                    }
+                }
+            } else if (persona instanceof Proveedor) {
+                Proveedor proveedor = (Proveedor) persona;
+                List<Item> items = proveedor.getItems();
+                List<Publicacion> publicaciones = proveedor.getPublicaciones();
+                if (items.isEmpty() && publicaciones.isEmpty()) {
+                    continue;
+                }
+                salida.writeInt(i);
+                salida.writeByte(RELACIONES_PROVEEDOR);
+                salida.writeInt(items.size());
+                for (Item item : items) {
+                    if (repositorio.buscarItemPorId(item.getId()) == item) {
+                        salida.writeByte(REFERENCIA);
+                        CodificadorEntidades.escribirTexto(salida, item.getId());
+                    } else {
+                        salida.writeByte(COMPLETA);
+                        CodificadorEntidades.escribirItem(salida, item);
+                    }
+                }
+                salida.writeInt(publicaciones.size());
+                for (Publicacion publicacion : publicaciones) {
+                    if (repositorio.buscarPublicacionPorId(publicacion.getId()) == publicacion) {
+                        salida.writeByte(REFERENCIA);
+                        CodificadorEntidades.escribirTexto(salida, publicacion.getId());
+                    } else {
+                        salida.writeByte(COMPLETA);
+                        CodificadorEntidades.escribirPublicacion(salida, publicacion);
+                    }
+                }
+            }
+        }
+        salida.writeInt(-1);
+    }
+    
+    /**
+     * Carga en paralelo las secciones de personas, vehículos, items y publicaciones.
+     * 
+     * @param secciones   Secciones mapeadas del archivo
+     * @param repositorio Repositorio donde se registran las entidades
+     * @return Las personas en el orden de la sección, para resolver las relaciones
+     * @throws IOException Si alguna sección no se puede leer
+     */
+    private static Persona[] cargarEntidades(ByteBuffer[] secciones, Repositorio repositorio) throws IOException {
+        DataInput entradaPersonas = CodificadorEntidades.entrada(secciones[SECCION_PERSONAS]);
+        Persona[] personas = new Persona[entradaPersonas.readInt()];
+        List<Callable<Void>> tareas = new ArrayList<>();
+        tareas.add(() -> {
+            for (int i = 0; i < personas.length; i++) {
+                personas[i] = CodificadorEntidades.leerPersona(entradaPersonas);
+                repositorio.guardarPersona(personas[i]);
+            }
+            return null;
+        });
+        tareas.add(() -> {
+            DataInput entrada = CodificadorEntidades.entrada(secciones[SECCION_VEHICULOS]);
+            for (int i = entrada.readInt(); i > 0; i--) {
+                repositorio.guardarVehiculo(CodificadorEntidades.leerVehiculo(entrada));
+            }
+            return null;
+        });
+        tareas.add(() -> {
+            DataInput entrada = CodificadorEntidades.entrada(secciones[SECCION_ITEMS]);
+            for (int i = entrada.readInt(); i > 0; i--) {
+                repositorio.guardarItem(CodificadorEntidades.leerItem(entrada));
+            }
+            return null;
+        });
+        tareas.add(() -> {
+            DataInput entrada = CodificadorEntidades.entrada(secciones[SECCION_PUBLICACIONES]);
+            for (int i = entrada.readInt(); i > 0; i--) {
+                repositorio.guardarPublicacion(CodificadorEntidades.leerPublicacion(entrada));
+            }
+            return null;
+        });
+        ExecutorService ejecutor = Executors.newFixedThreadPool(tareas.size(), tarea -> {
+            Thread hilo = new Thread(tarea, "RolaPet-carga");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            for (Future<Void> resultado : ejecutor.invokeAll(tareas)) {
+                resultado.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Carga de la instantánea interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error al cargar la instantánea", e.getCause());
+        } finally {
+            ejecutor.shutdown();
+        }
+        return personas;
+    }
+    
+    /**
+     * Carga las relaciones de los usuarios y proveedores.
+     * 
+     * @param entrada      Contenido de la sección de relaciones
+     * @param personas     Personas en el orden de la sección de personas
+     * @param persistencia Persistencia que resuelve las entidades asociadas no registradas
+     * @param repositorio  Repositorio con las entidades ya cargadas
+     * @throws IOException Si la sección no se puede leer
+     */
+    private static void cargarRelaciones(DataInput entrada, Persona[] personas,
+                                         PersistenciaRepositorio persistencia,
+                                         Repositorio repositorio) throws IOException {
+        for (int indice = entrada.readInt(); indice >= 0; indice = entrada.readInt()) {
+            if (indice >= personas.length) {
+                throw new IOException("Relación con una persona inexistente en la instantánea");
+            }
+            byte tipo = entrada.readByte();
+            if (tipo == RELACIONES_USUARIO && personas[indice] instanceof Usuario) {
+                Usuario usuario = (Usuario) personas[indice];
+                List<Usuario> amigos = new ArrayList<>();
+                for (int i = entrada.readInt(); i > 0; i--) {
+                    Persona amigo = repositorio.buscarPersonaPorCedula(CodificadorEntidades.leerTexto(entrada));
+                    if (amigo instanceof Usuario) {
+                        amigos.add((Usuario) amigo);
+                    }
+                }
+                usuario.modificarAmigos(amigos, List.of());
+                for (int i = entrada.readInt(); i > 0; i--) {
+                    Vehiculo vehiculo = entrada.readByte() == REFERENCIA
+                            ? repositorio.buscarVehiculoPorId(CodificadorEntidades.leerTexto(entrada))
+                            : persistencia.resolverVehiculo(CodificadorEntidades.leerVehiculo(entrada));
+                    usuario.agregarVehiculo(vehiculo);
+                }
+            } else if (tipo == RELACIONES_PROVEEDOR && personas[indice] instanceof Proveedor) {
+                Proveedor proveedor = (Proveedor) personas[indice];
+                for (int i = entrada.readInt(); i > 0; i--) {
+                    Item item = entrada.readByte() == REFERENCIA
+                            ? repositorio.buscarItemPorId(CodificadorEntidades.leerTexto(entrada))
+                            : persistencia.resolverItem(CodificadorEntidades.leerItem(entrada));
+                    proveedor.agregarItem(item);
+                }
+                for (int i = entrada.readInt(); i > 0; i--) {
+                    Publicacion publicacion = entrada.readByte() == REFERENCIA
+                            ? repositorio.buscarPublicacionPorId(CodificadorEntidades.leerTexto(entrada))
+                            : persistencia.resolverPublicacion(CodificadorEntidades.leerPublicacion(entrada));
+                    proveedor.agregarPublicacion(publicacion);
+                }
+            } else {
+                throw new IOException("Relación inválida en la instantánea");
+            }
+        }
+    }
+    
+    /**
+     * Sincroniza en disco las entradas de un directorio.
+     * 
+     * Algunos sistemas de archivos no permiten abrir directorios; en ese
+     * caso el movimiento atómico ya es suficiente y el error se ignora.
+     * 
+     * @param directorio El directorio a sincronizar
+     */
+    private static void sincronizarDirectorio(Path directorio) {
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // El sistema de archivos no permite sincronizar directorios
+        }
+    }
+}
\ No newline at end of file
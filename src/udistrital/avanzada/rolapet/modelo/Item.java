@@ -57,11 +57,14 @@ public abstract class Item {
      * 
      * Este método permite modificar el ID del item,
      * útil para correcciones o reorganización de datos.
+     * Si está registrado, el repositorio actualiza su índice por ID.
      * 
      * @param id El nuevo identificador único del item
+     * @throws IllegalArgumentException Si el item está registrado y el ID es
+     *                                  nulo o ya pertenece a otro registro
      */
     public void setId(String id) {
-        this.id = id;
+        Repositorio.notificarCambioId(this, id, () -> this.id = id);
     }
     
     /**
@@ -86,6 +89,7 @@ public abstract class Item {
      */
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        Repositorio.notificarModificacion(this, "nombre");
     }
     
     /**
@@ -110,6 +114,7 @@ public abstract class Item {
      */
     public void setDescripcion(String descripcion) {
         this.descripcion = descripcion;
+        Repositorio.notificarModificacion(this, "descripcion");
     }
     
     /**
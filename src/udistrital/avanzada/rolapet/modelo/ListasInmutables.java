@@ -0,0 +1,71 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Utilidades para mantener listas inmutables con copia en escritura.
+ * 
+ * Las entidades que tienen listas de relaciones (vehículos y amigos de un
+ * usuario, items y publicaciones de un proveedor) guardan una lista
+ * inmutable que se reemplaza completa en cada modificación. Así los
+ * lectores reciben directamente la lista vigente, sin copiarla ni tomar
+ * un candado, y la lista que recibieron no cambia aunque después se
+ * modifique la entidad. Como estas listas se leen mucho más de lo que se
+ * modifican, el costo de copiar en cada escritura es menor que el de
+ * copiar en cada lectura.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class ListasInmutables {
+    
+    /**
+     * Constructor privado para evitar la instanciación de la clase.
+     */
+    private ListasInmutables() {
+    }
+    
+    /**
+     * Obtiene una nueva lista inmutable con un elemento agregado al final.
+     * 
+     * @param <T>      Tipo de los elementos de la lista
+     * @param lista    Lista inmutable actual
+     * @param elemento Elemento a agregar
+     * @return Lista inmutable nueva con los elementos de la actual y el agregado
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> agregar(List<T> lista, T elemento) {
+        T[] elementos = (T[]) lista.toArray(new Object[lista.size() + 1]);
+        elementos[lista.size()] = elemento;
+        return Collections.unmodifiableList(Arrays.asList(elementos));
+    }
+    
+    /**
+     * Obtiene una nueva lista inmutable sin la primera aparición de un elemento.
+     * 
+     * @param <T>      Tipo de los elementos de la lista
+     * @param lista    Lista inmutable actual
+     * @param elemento Elemento a quitar
+     * @return Lista inmutable nueva sin el elemento, o la misma lista si no lo contenía
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> quitar(List<T> lista, Object elemento) {
+        int posicion = lista.indexOf(elemento);
+        if (posicion < 0) {
+            return lista;
+        }
+        if (lista.size() == 1) {
+            return List.of();
+        }
+        T[] elementos = (T[]) new Object[lista.size() - 1];
+        for (int i = 0, j = 0; i < lista.size(); i++) {
+            if (i != posicion) {
+                elementos[j++] = lista.get(i);
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(elementos));
+    }
+}
\ No newline at end of file
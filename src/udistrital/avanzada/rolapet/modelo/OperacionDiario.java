@@ -0,0 +1,127 @@
+package udistrital.avanzada.rolapet.modelo;
+
+/**
+ * Operaciones que se registran en el diario de escritura del repositorio.
+ * 
+ * Cada operación tiene un código de un byte que se escribe al inicio de
+ * su registro en disco. Los códigos no deben cambiar, pues forman parte
+ * del formato de los diarios ya escritos.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+enum OperacionDiario {
+    
+    /** Registro de una persona nueva */
+    GUARDAR_PERSONA(1),
+    
+    /** Eliminación de una persona */
+    ELIMINAR_PERSONA(2),
+    
+    /** Modificación de los datos de una persona */
+    ACTUALIZAR_PERSONA(3),
+    
+    /** Cambio de la cédula de una persona */
+    CAMBIAR_CEDULA(4),
+    
+    /** Registro de un vehículo nuevo */
+    GUARDAR_VEHICULO(10),
+    
+    /** Eliminación de un vehículo */
+    ELIMINAR_VEHICULO(11),
+    
+    /** Modificación de los datos de un vehículo */
+    ACTUALIZAR_VEHICULO(12),
+    
+    /** Cambio del ID de un vehículo */
+    CAMBIAR_ID_VEHICULO(13),
+    
+    /** Registro de un item nuevo */
+    GUARDAR_ITEM(20),
+    
+    /** Eliminación de un item */
+    ELIMINAR_ITEM(21),
+    
+    /** Modificación de los datos de un item */
+    ACTUALIZAR_ITEM(22),
+    
+    /** Cambio del ID de un item */
+    CAMBIAR_ID_ITEM(23),
+    
+    /** Registro de una publicación nueva */
+    GUARDAR_PUBLICACION(30),
+    
+    /** Eliminación de una publicación */
+    ELIMINAR_PUBLICACION(31),
+    
+    /** Modificación de los datos de una publicación */
+    ACTUALIZAR_PUBLICACION(32),
+    
+    /** Cambio del ID de una publicación */
+    CAMBIAR_ID_PUBLICACION(33),
+    
+    /** Un usuario agrega a otro como amigo */
+    AGREGAR_AMIGO(40),
+    
+    /** Un usuario elimina a otro de sus amigos */
+    ELIMINAR_AMIGO(41),
+    
+    /** Un usuario agrega un vehículo a su colección */
+    AGREGAR_VEHICULO_USUARIO(42),
+    
+    /** Un usuario elimina un vehículo de su colección */
+    ELIMINAR_VEHICULO_USUARIO(43),
+    
+    /** Un proveedor agrega un item a su catálogo */
+    AGREGAR_ITEM_PROVEEDOR(44),
+    
+    /** Un proveedor elimina un item de su catálogo */
+    ELIMINAR_ITEM_PROVEEDOR(45),
+    
+    /** Un proveedor agrega una publicación a su perfil */
+    AGREGAR_PUBLICACION_PROVEEDOR(46),
+    
+    /** Un proveedor elimina una publicación de su perfil */
+    ELIMINAR_PUBLICACION_PROVEEDOR(47);
+    
+    /** Operaciones indexadas por su código */
+    private static final OperacionDiario[] POR_CODIGO = new OperacionDiario[128];
+    
+    static {
+        for (OperacionDiario operacion : values()) {
+            POR_CODIGO[operacion.codigo] = operacion;
+        }
+    }
+    
+    /** Código de la operación en el formato del diario */
+    private final byte codigo;
+    
+    /**
+     * Constructor de la operación.
+     * 
+     * @param codigo Código de la operación en el formato del diario
+     */
+    OperacionDiario(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+    
+    /**
+     * Obtiene el código de la operación.
+     * 
+     * @return El código de un byte de la operación
+     */
+    byte getCodigo() {
+        return codigo;
+    }
+    
+    /**
+     * Obtiene la operación correspondiente a un código.
+     * 
+     * @param codigo El código leído del diario
+     * @return La operación, o null si el código es desconocido
+     */
+    static OperacionDiario desdeCodigo(byte codigo) {
+        return codigo >= 0 ? POR_CODIGO[codigo] : null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.List;
+
+/**
+ * Página inmutable de resultados de una consulta paginada.
+ * 
+ * Una página contiene sus elementos, el total de entidades de la consulta
+ * en el momento en que se obtuvo y, si quedan más elementos, un cursor
+ * opaco para pedir la página siguiente. El cursor identifica al último
+ * elemento de la página y no su posición, por lo que la página siguiente
+ * continúa donde terminó esta aunque entre tanto se registren o eliminen
+ * entidades.
+ * 
+ * @param <T> Tipo de entidad de la página
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class Pagina<T> {
+    
+    /** Elementos de la página, en orden */
+    private final List<T> elementos;
+    
+    /** Total de entidades de la consulta */
+    private final int total;
+    
+    /** Cursor de la página siguiente, o null si esta es la última */
+    private final String cursorSiguiente;
+    
+    /**
+     * Constructor de la página.
+     * 
+     * @param elementos       Elementos de la página, en orden
+     * @param total           Total de entidades de la consulta
+     * @param cursorSiguiente Cursor de la página siguiente, o null si es la última
+     */
+    Pagina(List<T> elementos, int total, String cursorSiguiente) {
+        this.elementos = List.copyOf(elementos);
+        this.total = total;
+        this.cursorSiguiente = cursorSiguiente;
+    }
+    
+    /**
+     * Obtiene los elementos de la página.
+     * 
+     * @return Lista inmutable de elementos, en orden
+     */
+    public List<T> getElementos() {
+        return elementos;
+    }
+    
+    /**
+     * Obtiene el total de entidades de la consulta.
+     * 
+     * @return Total de entidades al momento de obtener la página
+     */
+    public int getTotal() {
+        return total;
+    }
+    
+    /**
+     * Obtiene el cursor para pedir la página siguiente.
+     * 
+     * @return El cursor, o null si esta es la última página
+     */
+    public String getCursorSiguiente() {
+        return cursorSiguiente;
+    }
+    
+    /**
+     * Verifica si esta es la última página de la consulta.
+     * 
+     * @return true si no quedan más elementos después de esta página
+     */
+    public boolean isUltima() {
+        return cursorSiguiente == null;
+    }
+    
+    /**
+     * Representación en texto de la página.
+     * 
+     * @return Resumen de la página
+     */
+    @Override
+    public String toString() {
+        return "Pagina{" +
+                "elementos=" + elementos.size() +
+                ", total=" + total +
+                ", ultima=" + isUltima() +
+                '}';
+    }
+}
\ No newline at end of file
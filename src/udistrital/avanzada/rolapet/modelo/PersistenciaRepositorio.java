@@ -0,0 +1,775 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Persistencia en disco del repositorio mediante un diario de escritura.
+ * 
+ * Esta clase traduce cada modificación del repositorio (altas, bajas,
+ * cambios de datos y cambios en las relaciones entre entidades) a un
+ * registro del {@link DiarioRepositorio}, y al iniciar reconstruye el
+ * estado del repositorio reproduciendo esos registros en orden.
+ * 
+ * El diario se divide en segmentos numerados (diario-N.log). Cuando el
+ * segmento actual crece lo suficiente, un hilo de fondo rota el diario a
+ * un segmento nuevo y escribe una instantánea del repositorio
+ * (instantanea-N.bin) sin detener las escrituras; después se eliminan
+ * los segmentos e instantáneas anteriores. Al iniciar se carga la
+ * instantánea más reciente y solo se reproducen los segmentos desde su
+ * número en adelante.
+ * 
+ * Los registros de relaciones incluyen los datos completos del vehículo,
+ * item o publicación asociado, ya que estos pueden pertenecer a un usuario
+ * o proveedor sin estar registrados en el repositorio. Al reproducir, se
+ * reutiliza siempre la misma instancia para un mismo ID, de modo que un
+ * vehículo asociado a un usuario y luego registrado en el repositorio
+ * vuelva a ser un único objeto.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class PersistenciaRepositorio implements Closeable {
+    
+    /** Nombre del diario de un solo archivo usado antes de dividirlo en segmentos */
+    private static final String ARCHIVO_DIARIO_ANTERIOR = "diario.log";
+    
+    /** Prefijo de los segmentos del diario */
+    private static final String PREFIJO_DIARIO = "diario-";
+    
+    /** Extensión de los segmentos del diario */
+    private static final String EXTENSION_DIARIO = ".log";
+    
+    /** Prefijo de las instantáneas */
+    private static final String PREFIJO_INSTANTANEA = "instantanea-";
+    
+    /** Extensión de las instantáneas */
+    private static final String EXTENSION_INSTANTANEA = ".bin";
+    
+    /** Tamaño del segmento actual a partir del cual se toma una instantánea */
+    private static final long TAMANO_COMPACTACION = 64L * 1024 * 1024;
+    
+    /** Intervalo entre revisiones del tamaño del segmento actual */
+    private static final long PERIODO_REVISION_SEGUNDOS = 30;
+    
+    /** Tiempo máximo que se espera a una instantánea en curso al cerrar */
+    private static final long ESPERA_CIERRE_SEGUNDOS = 60;
+    
+    /**
+     * Escritura del contenido de un registro después de su código de operación.
+     */
+    private interface EscrituraRegistro {
+        
+        /**
+         * Escribe el contenido del registro.
+         * 
+         * @param salida Destino de la escritura
+         * @throws IOException Si ocurre un error de escritura
+         */
+        void escribir(DataOutputStream salida) throws IOException;
+    }
+    
+    /** Repositorio que se persiste */
+    private final Repositorio repositorio;
+    
+    /** Directorio donde se guardan los archivos de datos */
+    private final Path directorio;
+    
+    /** Diario abierto para agregar registros */
+    private DiarioRepositorio diario;
+    
+    /** Número del segmento del diario donde se están agregando registros */
+    private long segmentoActual;
+    
+    /** Hilo de fondo que toma las instantáneas periódicas */
+    private ScheduledExecutorService programador;
+    
+    /** Vehículos asociados a usuarios durante la reproducción que aún no están registrados */
+    private final Map<String, Vehiculo> vehiculosSinRegistrar = new HashMap<>();
+    
+    /** Items asociados a proveedores durante la reproducción que aún no están registrados */
+    private final Map<String, Item> itemsSinRegistrar = new HashMap<>();
+    
+    /** Publicaciones asociadas a proveedores durante la reproducción que aún no están registradas */
+    private final Map<String, Publicacion> publicacionesSinRegistrar = new HashMap<>();
+    
+    /**
+     * Constructor de la persistencia.
+     * 
+     * @param repositorio Repositorio que se persiste
+     * @param directorio  Directorio donde se guardan los archivos de datos
+     */
+    PersistenciaRepositorio(Repositorio repositorio, Path directorio) {
+        this.repositorio = repositorio;
+        this.directorio = directorio;
+    }
+    
+    /**
+     * Reconstruye el repositorio desde disco y abre el diario para nuevas escrituras.
+     * 
+     * Este método carga la instantánea más reciente, si existe, reproduce
+     * en orden los segmentos del diario que no cubre y continúa agregando
+     * registros al último segmento. Debe invocarse antes de que la
+     * persistencia quede asociada al repositorio, para que las operaciones
+     * reproducidas no se vuelvan a registrar en el diario.
+     * 
+     * @throws IOException Si no se puede leer la instantánea o abrir el diario
+     */
+    void recuperar() throws IOException {
+        Files.createDirectories(directorio);
+        Path anterior = directorio.resolve(ARCHIVO_DIARIO_ANTERIOR);
+        if (Files.exists(anterior) && numerosDeArchivos(PREFIJO_DIARIO, EXTENSION_DIARIO).isEmpty()) {
+            Files.move(anterior, archivoSegmento(0));
+        }
+        List<Long> instantaneas = numerosDeArchivos(PREFIJO_INSTANTANEA, EXTENSION_INSTANTANEA);
+        long base = instantaneas.isEmpty() ? 0 : instantaneas.get(instantaneas.size() - 1);
+        if (!instantaneas.isEmpty()) {
+            InstantaneaRepositorio.cargar(archivoInstantanea(base), this, repositorio);
+        }
+        segmentoActual = base;
+        long finRegistrosValidos = 0;
+        for (long segmento : numerosDeArchivos(PREFIJO_DIARIO, EXTENSION_DIARIO)) {
+            if (segmento >= base) {
+                finRegistrosValidos = DiarioRepositorio.reproducir(archivoSegmento(segmento), this::aplicar);
+                segmentoActual = segmento;
+            }
+        }
+        vehiculosSinRegistrar.clear();
+        itemsSinRegistrar.clear();
+        publicacionesSinRegistrar.clear();
+        diario = DiarioRepositorio.abrir(archivoSegmento(segmentoActual), finRegistrosValidos);
+        eliminarArchivosAnteriores(base);
+        programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "RolaPet-instantaneas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::compactarSiEsNecesario,
+                PERIODO_REVISION_SEGUNDOS, PERIODO_REVISION_SEGUNDOS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Toma una instantánea del repositorio y elimina los archivos que ésta cubre.
+     * 
+     * Este método rota el diario a un segmento nuevo, escribe la instantánea
+     * con el número de ese segmento mientras las escrituras continúan, y
+     * finalmente elimina los segmentos e instantáneas anteriores.
+     * 
+     * @throws IOException Si no se puede rotar el diario o escribir la instantánea
+     */
+    synchronized void compactar() throws IOException {
+        long siguiente = segmentoActual + 1;
+        diario.rotar(archivoSegmento(siguiente));
+        segmentoActual = siguiente;
+        InstantaneaRepositorio.escribir(repositorio, siguiente, archivoInstantanea(siguiente));
+        eliminarArchivosAnteriores(siguiente);
+    }
+    
+    /**
+     * Toma una instantánea si el segmento actual del diario superó el tamaño de compactación.
+     * 
+     * Este método es ejecutado periódicamente por el hilo de fondo; los
+     * errores se informan sin detener las revisiones siguientes.
+     */
+    private void compactarSiEsNecesario() {
+        try {
+            if (diario.tamano() >= TAMANO_COMPACTACION) {
+                compactar();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("No se pudo tomar la instantánea del repositorio: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Espera a que todos los registros agregados hasta ahora sean durables.
+     * 
+     * @throws IOException Si el diario no pudo escribir en disco
+     */
+    void sincronizar() throws IOException {
+        diario.sincronizar();
+    }
+    
+    /**
+     * Cierra el diario después de llevar a disco los registros pendientes.
+     * 
+     * @throws IOException Si ocurre un error al escribir o cerrar el diario
+     */
+    @Override
+    public void close() throws IOException {
+        if (programador != null) {
+            programador.shutdown();
+            try {
+                programador.awaitTermination(ESPERA_CIERRE_SEGUNDOS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (diario != null) {
+            diario.close();
+        }
+    }
+    
+    // === ARCHIVOS DE DATOS ===
+    
+    /**
+     * Obtiene la ruta de un segmento del diario.
+     * 
+     * @param numero Número del segmento
+     * @return La ruta del archivo del segmento
+     */
+    private Path archivoSegmento(long numero) {
+        return directorio.resolve(String.format("%s%010d%s", PREFIJO_DIARIO, numero, EXTENSION_DIARIO));
+    }
+    
+    /**
+     * Obtiene la ruta de una instantánea.
+     * 
+     * @param numero Número del segmento desde el que se reproduce después de la instantánea
+     * @return La ruta del archivo de la instantánea
+     */
+    private Path archivoInstantanea(long numero) {
+        return directorio.resolve(String.format("%s%010d%s", PREFIJO_INSTANTANEA, numero, EXTENSION_INSTANTANEA));
+    }
+    
+    /**
+     * Obtiene los números de los archivos del directorio con un prefijo y extensión dados.
+     * 
+     * @param prefijo   Prefijo de los archivos
+     * @param extension Extensión de los archivos
+     * @return Los números encontrados, ordenados de menor a mayor
+     * @throws IOException Si no se puede listar el directorio
+     */
+    private List<Long> numerosDeArchivos(String prefijo, String extension) throws IOException {
+        List<Long> numeros = new ArrayList<>();
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.forEach(archivo -> {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.startsWith(prefijo) && nombre.endsWith(extension)) {
+                    try {
+                        numeros.add(Long.parseLong(nombre.substring(prefijo.length(),
+                                nombre.length() - extension.length())));
+                    } catch (NumberFormatException e) {
+                        // No es un archivo de datos del repositorio
+                    }
+                }
+            });
+        }
+        Collections.sort(numeros);
+        return numeros;
+    }
+    
+    /**
+     * Elimina los segmentos e instantáneas anteriores a un número dado.
+     * 
+     * @param desde Número del primer segmento e instantánea que se conservan
+     * @throws IOException Si no se puede listar el directorio o eliminar un archivo
+     */
+    private void eliminarArchivosAnteriores(long desde) throws IOException {
+        for (long numero : numerosDeArchivos(PREFIJO_DIARIO, EXTENSION_DIARIO)) {
+            if (numero < desde) {
+                Files.deleteIfExists(archivoSegmento(numero));
+            }
+        }
+        for (long numero : numerosDeArchivos(PREFIJO_INSTANTANEA, EXTENSION_INSTANTANEA)) {
+            if (numero < desde) {
+                Files.deleteIfExists(archivoInstantanea(numero));
+            }
+        }
+    }
+    
+    // === REGISTRO DE OPERACIONES ===
+    
+    /**
+     * Registra una operación sobre una persona con todos sus datos.
+     * 
+     * @param operacion La operación realizada
+     * @param persona   La persona afectada
+     */
+    void registrar(OperacionDiario operacion, Persona persona) {
+        escribir(operacion, salida -> CodificadorEntidades.escribirPersona(salida, persona));
+    }
+    
+    /**
+     * Registra una operación sobre un vehículo con todos sus datos.
+     * 
+     * @param operacion La operación realizada
+     * @param vehiculo  El vehículo afectado
+     */
+    void registrar(OperacionDiario operacion, Vehiculo vehiculo) {
+        escribir(operacion, salida -> CodificadorEntidades.escribirVehiculo(salida, vehiculo));
+    }
+    
+    /**
+     * Registra una operación sobre un item con todos sus datos.
+     * 
+     * @param operacion La operación realizada
+     * @param item      El item afectado
+     */
+    void registrar(OperacionDiario operacion, Item item) {
+        escribir(operacion, salida -> CodificadorEntidades.escribirItem(salida, item));
+    }
+    
+    /**
+     * Registra una operación sobre una publicación con todos sus datos.
+     * 
+     * @param operacion   La operación realizada
+     * @param publicacion La publicación afectada
+     */
+    void registrar(OperacionDiario operacion, Publicacion publicacion) {
+        escribir(operacion, salida -> CodificadorEntidades.escribirPublicacion(salida, publicacion));
+    }
+    
+    /**
+     * Registra una operación identificada solo por claves, como una baja o un cambio de clave.
+     * 
+     * @param operacion La operación realizada
+     * @param claves    Las claves de la operación, en el orden que espera la reproducción
+     */
+    void registrarClaves(OperacionDiario operacion, String... claves) {
+        escribir(operacion, salida -> {
+            for (String clave : claves) {
+                CodificadorEntidades.escribirTexto(salida, clave);
+            }
+        });
+    }
+    
+    /**
+     * Registra un cambio en la relación de amistad entre dos usuarios.
+     * 
+     * @param operacion La operación realizada
+     * @param usuario   El usuario que agrega o elimina al amigo
+     * @param amigo     El amigo agregado o eliminado
+     */
+    void registrarRelacion(OperacionDiario operacion, Usuario usuario, Usuario amigo) {
+        registrarClaves(operacion, usuario.getCedula(), amigo.getCedula());
+    }
+    
+    /**
+     * Registra un cambio en los vehículos de un usuario.
+     * 
+     * @param operacion La operación realizada
+     * @param usuario   El usuario dueño del vehículo
+     * @param vehiculo  El vehículo agregado o eliminado
+     */
+    void registrarRelacion(OperacionDiario operacion, Usuario usuario, Vehiculo vehiculo) {
+        escribir(operacion, salida -> {
+            CodificadorEntidades.escribirTexto(salida, usuario.getCedula());
+            CodificadorEntidades.escribirVehiculo(salida, vehiculo);
+        });
+    }
+    
+    /**
+     * Registra un cambio en el catálogo de items de un proveedor.
+     * 
+     * @param operacion La operación realizada
+     * @param proveedor El proveedor dueño del item
+     * @param item      El item agregado o eliminado
+     */
+    void registrarRelacion(OperacionDiario operacion, Proveedor proveedor, Item item) {
+        escribir(operacion, salida -> {
+            CodificadorEntidades.escribirTexto(salida, proveedor.getCedula());
+            CodificadorEntidades.escribirItem(salida, item);
+        });
+    }
+    
+    /**
+     * Registra un cambio en las publicaciones de un proveedor.
+     * 
+     * @param operacion   La operación realizada
+     * @param proveedor   El proveedor dueño de la publicación
+     * @param publicacion La publicación agregada o eliminada
+     */
+    void registrarRelacion(OperacionDiario operacion, Proveedor proveedor, Publicacion publicacion) {
+        escribir(operacion, salida -> {
+            CodificadorEntidades.escribirTexto(salida, proveedor.getCedula());
+            CodificadorEntidades.escribirPublicacion(salida, publicacion);
+        });
+    }
+    
+    /**
+     * Codifica un registro y lo agrega al diario.
+     * 
+     * @param operacion La operación del registro
+     * @param escritura Escritura del contenido del registro
+     */
+    private void escribir(OperacionDiario operacion, EscrituraRegistro escritura) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream salida = new DataOutputStream(bytes);
+        try {
+            salida.writeByte(operacion.getCodigo());
+            escritura.escribir(salida);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        diario.agregar(bytes.toByteArray());
+    }
+    
+    // === REPRODUCCIÓN DEL DIARIO ===
+    
+    /**
+     * Aplica al repositorio un registro leído del diario.
+     * 
+     * La instantánea puede reflejar ya registros escritos después de su
+     * rotación, por lo que aplicar un registro por segunda vez no debe
+     * fallar. Un cambio de cédula o de ID se omite si la nueva clave ya
+     * está registrada: en ese caso la instantánea ya contiene el cambio, y
+     * la entidad que se encuentra con la clave anterior es otra registrada
+     * después con esa clave.
+     * 
+     * @param registro Contenido del registro
+     * @throws IOException Si el registro es inválido
+     */
+    private void aplicar(DataInput registro) throws IOException {
+        OperacionDiario operacion = OperacionDiario.desdeCodigo(registro.readByte());
+        if (operacion == null) {
+            throw new IOException("Operación desconocida en el diario del repositorio");
+        }
+        switch (operacion) {
+            case GUARDAR_PERSONA:
+                repositorio.guardarPersona(CodificadorEntidades.leerPersona(registro));
+                break;
+            case ELIMINAR_PERSONA: {
+                Persona persona = repositorio.buscarPersonaPorCedula(CodificadorEntidades.leerTexto(registro));
+                if (persona != null) {
+                    repositorio.eliminarPersona(persona);
+                }
+                break;
+            }
+            case ACTUALIZAR_PERSONA: {
+                Persona datos = CodificadorEntidades.leerPersona(registro);
+                Persona persona = repositorio.buscarPersonaPorCedula(datos.getCedula());
+                if (persona != null) {
+                    copiarDatos(datos, persona);
+                }
+                break;
+            }
+            case CAMBIAR_CEDULA: {
+                Persona persona = repositorio.buscarPersonaPorCedula(CodificadorEntidades.leerTexto(registro));
+                String nueva = CodificadorEntidades.leerTexto(registro);
+                if (persona != null && repositorio.buscarPersonaPorCedula(nueva) == null) {
+                    persona.setCedula(nueva);
+                }
+                break;
+            }
+            case GUARDAR_VEHICULO: {
+                Vehiculo datos = CodificadorEntidades.leerVehiculo(registro);
+                Vehiculo vehiculo = datos.getId() != null ? vehiculosSinRegistrar.remove(datos.getId()) : null;
+                if (vehiculo != null) {
+                    copiarDatos(datos, vehiculo);
+                } else {
+                    vehiculo = datos;
+                }
+                repositorio.guardarVehiculo(vehiculo);
+                break;
+            }
+            case ELIMINAR_VEHICULO: {
+                Vehiculo vehiculo = repositorio.buscarVehiculoPorId(CodificadorEntidades.leerTexto(registro));
+                if (vehiculo != null) {
+                    repositorio.eliminarVehiculo(vehiculo);
+                }
+                break;
+            }
+            case ACTUALIZAR_VEHICULO: {
+                Vehiculo datos = CodificadorEntidades.leerVehiculo(registro);
+                Vehiculo vehiculo = repositorio.buscarVehiculoPorId(datos.getId());
+                if (vehiculo != null) {
+                    copiarDatos(datos, vehiculo);
+                }
+                break;
+            }
+            case CAMBIAR_ID_VEHICULO: {
+                Vehiculo vehiculo = repositorio.buscarVehiculoPorId(CodificadorEntidades.leerTexto(registro));
+                String nuevo = CodificadorEntidades.leerTexto(registro);
+                if (vehiculo != null && repositorio.buscarVehiculoPorId(nuevo) == null) {
+                    vehiculo.setId(nuevo);
+                }
+                break;
+            }
+            case GUARDAR_ITEM: {
+                Item datos = CodificadorEntidades.leerItem(registro);
+                Item item = datos.getId() != null ? itemsSinRegistrar.remove(datos.getId()) : null;
+                if (item != null) {
+                    copiarDatos(datos, item);
+                } else {
+                    item = datos;
+                }
+                repositorio.guardarItem(item);
+                break;
+            }
+            case ELIMINAR_ITEM: {
+                Item item = repositorio.buscarItemPorId(CodificadorEntidades.leerTexto(registro));
+                if (item != null) {
+                    repositorio.eliminarItem(item);
+                }
+                break;
+            }
+            case ACTUALIZAR_ITEM: {
+                Item datos = CodificadorEntidades.leerItem(registro);
+                Item item = repositorio.buscarItemPorId(datos.getId());
+                if (item != null) {
+                    copiarDatos(datos, item);
+                }
+                break;
+            }
+            case CAMBIAR_ID_ITEM: {
+                Item item = repositorio.buscarItemPorId(CodificadorEntidades.leerTexto(registro));
+                String nuevo = CodificadorEntidades.leerTexto(registro);
+                if (item != null && repositorio.buscarItemPorId(nuevo) == null) {
+                    item.setId(nuevo);
+                }
+                break;
+            }
+            case GUARDAR_PUBLICACION: {
+                Publicacion datos = CodificadorEntidades.leerPublicacion(registro);
+                Publicacion publicacion = datos.getId() != null ? publicacionesSinRegistrar.remove(datos.getId()) : null;
+                if (publicacion != null) {
+                    copiarDatos(datos, publicacion);
+                } else {
+                    publicacion = datos;
+                }
+                repositorio.guardarPublicacion(publicacion);
+                break;
+            }
+            case ELIMINAR_PUBLICACION: {
+                Publicacion publicacion = repositorio.buscarPublicacionPorId(CodificadorEntidades.leerTexto(registro));
+                if (publicacion != null) {
+                    repositorio.eliminarPublicacion(publicacion);
+                }
+                break;
+            }
+            case ACTUALIZAR_PUBLICACION: {
+                Publicacion datos = CodificadorEntidades.leerPublicacion(registro);
+                Publicacion publicacion = repositorio.buscarPublicacionPorId(datos.getId());
+                if (publicacion != null) {
+                    copiarDatos(datos, publicacion);
+                }
+                break;
+            }
+            case CAMBIAR_ID_PUBLICACION: {
+                Publicacion publicacion = repositorio.buscarPublicacionPorId(CodificadorEntidades.leerTexto(registro));
+                String nuevo = CodificadorEntidades.leerTexto(registro);
+                if (publicacion != null && repositorio.buscarPublicacionPorId(nuevo) == null) {
+                    publicacion.setId(nuevo);
+                }
+                break;
+            }
+            case AGREGAR_AMIGO: {
+                Usuario usuario = buscarUsuario(CodificadorEntidades.leerTexto(registro));
+                Usuario amigo = buscarUsuario(CodificadorEntidades.leerTexto(registro));
+                if (usuario != null && amigo != null) {
+                    usuario.agregarAmigo(amigo);
+                }
+                break;
+            }
+            case ELIMINAR_AMIGO: {
+                Usuario usuario = buscarUsuario(CodificadorEntidades.leerTexto(registro));
+                String cedulaAmigo = CodificadorEntidades.leerTexto(registro);
+                if (usuario != null) {
+                    for (Usuario amigo : usuario.getAmigos()) {
+                        if (amigo.getCedula() != null && amigo.getCedula().equals(cedulaAmigo)) {
+                            usuario.eliminarAmigo(amigo);
+                        }
+                    }
+                }
+                break;
+            }
+            case AGREGAR_VEHICULO_USUARIO: {
+                Usuario usuario = buscarUsuario(CodificadorEntidades.leerTexto(registro));
+                Vehiculo vehiculo = resolverVehiculo(CodificadorEntidades.leerVehiculo(registro));
+                if (usuario != null) {
+                    usuario.agregarVehiculo(vehiculo);
+                }
+                break;
+            }
+            case ELIMINAR_VEHICULO_USUARIO: {
+                Usuario usuario = buscarUsuario(CodificadorEntidades.leerTexto(registro));
+                String id = CodificadorEntidades.leerVehiculo(registro).getId();
+                if (usuario != null) {
+                    for (Vehiculo vehiculo : usuario.getVehiculos()) {
+                        if (vehiculo.getId() != null && vehiculo.getId().equals(id)) {
+                            usuario.eliminarVehiculo(vehiculo);
+                        }
+                    }
+                }
+                break;
+            }
+            case AGREGAR_ITEM_PROVEEDOR: {
+                Proveedor proveedor = buscarProveedor(CodificadorEntidades.leerTexto(registro));
+                Item item = resolverItem(CodificadorEntidades.leerItem(registro));
+                if (proveedor != null) {
+                    proveedor.agregarItem(item);
+                }
+                break;
+            }
+            case ELIMINAR_ITEM_PROVEEDOR: {
+                Proveedor proveedor = buscarProveedor(CodificadorEntidades.leerTexto(registro));
+                String id = CodificadorEntidades.leerItem(registro).getId();
+                if (proveedor != null) {
+                    for (Item item : proveedor.getItems()) {
+                        if (item.getId() != null && item.getId().equals(id)) {
+                            proveedor.eliminarItem(item);
+                        }
+                    }
+                }
+                break;
+            }
+            case AGREGAR_PUBLICACION_PROVEEDOR: {
+                Proveedor proveedor = buscarProveedor(CodificadorEntidades.leerTexto(registro));
+                Publicacion publicacion = resolverPublicacion(CodificadorEntidades.leerPublicacion(registro));
+                if (proveedor != null) {
+                    proveedor.agregarPublicacion(publicacion);
+                }
+                break;
+            }
+            case ELIMINAR_PUBLICACION_PROVEEDOR: {
+                Proveedor proveedor = buscarProveedor(CodificadorEntidades.leerTexto(registro));
+                String id = CodificadorEntidades.leerPublicacion(registro).getId();
+                if (proveedor != null) {
+                    for (Publicacion publicacion : proveedor.getPublicaciones()) {
+                        if (publicacion.getId() != null && publicacion.getId().equals(id)) {
+                            proveedor.eliminarPublicacion(publicacion);
+                        }
+                    }
+                }
+                break;
+            }
+            default:
+                throw new IOException("Operación no soportada en el diario del repositorio: " + operacion);
+        }
+    }
+    
+    /**
+     * Busca un usuario registrado por su cédula.
+     * 
+     * @param cedula La cédula del usuario
+     * @return El usuario o null si no existe o no es un usuario
+     */
+    private Usuario buscarUsuario(String cedula) {
+        Persona persona = repositorio.buscarPersonaPorCedula(cedula);
+        return persona instanceof Usuario ? (Usuario) persona : null;
+    }
+    
+    /**
+     * Busca un proveedor registrado por su cédula.
+     * 
+     * @param cedula La cédula del proveedor
+     * @return El proveedor o null si no existe o no es un proveedor
+     */
+    private Proveedor buscarProveedor(String cedula) {
+        Persona persona = repositorio.buscarPersonaPorCedula(cedula);
+        return persona instanceof Proveedor ? (Proveedor) persona : null;
+    }
+    
+    /**
+     * Obtiene la instancia de vehículo que corresponde a los datos de una relación.
+     * 
+     * @param datos El vehículo leído del registro
+     * @return El vehículo registrado con ese ID, el ya asociado a otra entidad, o el leído
+     */
+    Vehiculo resolverVehiculo(Vehiculo datos) {
+        Vehiculo registrado = repositorio.buscarVehiculoPorId(datos.getId());
+        if (registrado != null || datos.getId() == null) {
+            return registrado != null ? registrado : datos;
+        }
+        return vehiculosSinRegistrar.computeIfAbsent(datos.getId(), id -> datos);
+    }
+    
+    /**
+     * Obtiene la instancia de item que corresponde a los datos de una relación.
+     * 
+     * @param datos El item leído del registro
+     * @return El item registrado con ese ID, el ya asociado a otra entidad, o el leído
+     */
+    Item resolverItem(Item datos) {
+        Item registrado = repositorio.buscarItemPorId(datos.getId());
+        if (registrado != null || datos.getId() == null) {
+            return registrado != null ? registrado : datos;
+        }
+        return itemsSinRegistrar.computeIfAbsent(datos.getId(), id -> datos);
+    }
+    
+    /**
+     * Obtiene la instancia de publicación que corresponde a los datos de una relación.
+     * 
+     * @param datos La publicación leída del registro
+     * @return La publicación registrada con ese ID, la ya asociada a otra entidad, o la leída
+     */
+    Publicacion resolverPublicacion(Publicacion datos) {
+        Publicacion registrada = repositorio.buscarPublicacionPorId(datos.getId());
+        if (registrada != null || datos.getId() == null) {
+            return registrada != null ? registrada : datos;
+        }
+        return publicacionesSinRegistrar.computeIfAbsent(datos.getId(), id -> datos);
+    }
+    
+    /**
+     * Copia los datos modificables de una persona leída del diario a la registrada.
+     * 
+     * @param datos   La persona leída del registro
+     * @param persona La persona registrada a actualizar
+     */
+    private static void copiarDatos(Persona datos, Persona persona) {
+        persona.setNombre(datos.getNombre());
+        persona.setTelefono(datos.getTelefono());
+        persona.restaurarPassword(datos.getPassword());
+        if (persona instanceof Usuario) {
+            ((Usuario) persona).setEmail(datos.getEmail());
+        } else if (persona instanceof Administrador) {
+            ((Administrador) persona).setEmail(datos.getEmail());
+        } else if (persona instanceof Proveedor) {
+            ((Proveedor) persona).setEmail(datos.getEmail());
+        }
+    }
+    
+    /**
+     * Copia los datos modificables de un vehículo leído del diario al existente.
+     * 
+     * @param datos    El vehículo leído del registro
+     * @param vehiculo El vehículo existente a actualizar
+     */
+    private static void copiarDatos(Vehiculo datos, Vehiculo vehiculo) {
+        vehiculo.setMarca(datos.getMarca());
+        vehiculo.setModelo(datos.getModelo());
+        vehiculo.setAutonomiaKm(datos.getAutonomiaKm());
+    }
+    
+    /**
+     * Copia los datos modificables de un item leído del diario al existente.
+     * 
+     * @param datos El item leído del registro
+     * @param item  El item existente a actualizar
+     */
+    private static void copiarDatos(Item datos, Item item) {
+        item.setNombre(datos.getNombre());
+        item.setDescripcion(datos.getDescripcion());
+    }
+    
+    /**
+     * Copia los datos modificables de una publicación leída del diario a la existente.
+     * 
+     * @param datos       La publicación leída del registro
+     * @param publicacion La publicación existente a actualizar
+     */
+    private static void copiarDatos(Publicacion datos, Publicacion publicacion) {
+        publicacion.setTitulo(datos.getTitulo());
+        publicacion.setDescripcion(datos.getDescripcion());
+        publicacion.setFechaCreacion(datos.getFechaCreacion());
+    }
+}
\ No newline at end of file
@@ -23,7 +23,7 @@ public abstract class Persona {
     /** Número de teléfono de contacto de la persona */
     protected String telefono;
     
-    /** Contraseña para autenticación en el sistema */
+    /** Contraseña para autenticación en el sistema, como hash salvo en datos anteriores al hash */
     protected String password;
     
     /**
@@ -33,10 +33,15 @@ public abstract class Persona {
      * proporcionados. Es llamado por las clases hijas para establecer
      * la información fundamental de cualquier persona en el sistema.
      * 
+     * El constructor guarda la contraseña tal como la recibe, sin derivar
+     * su hash, para que restaurar datos guardados o validar filas de una
+     * importación no pague ese costo. Al registrar una persona nueva, la
+     * contraseña debe establecerse con {@link #setPassword(String)}.
+     * 
      * @param cedula   Cédula de identificación única de la persona
      * @param nombre   Nombre completo de la persona
      * @param telefono Número de teléfono de contacto
-     * @param password Contraseña para acceso al sistema
+     * @param password Contraseña para acceso al sistema, tal como se guarda
      */
     public Persona(String cedula, String nombre, String telefono, String password) {
         this.cedula = cedula;
@@ -61,12 +66,15 @@ public abstract class Persona {
      * Establece la cédula de identificación de la persona.
      * 
      * Este método permite modificar la cédula de identificación
-     * de una persona, útil para correcciones de datos.
+     * de una persona, útil para correcciones de datos. Si la persona está
+     * registrada, el repositorio actualiza su índice por cédula.
      * 
      * @param cedula La nueva cédula de identificación
+     * @throws IllegalArgumentException Si la persona está registrada y la
+     *                                  cédula es nula o ya pertenece a otra persona
      */
     public void setCedula(String cedula) {
-        this.cedula = cedula;
+        Repositorio.notificarCambioCedula(this, cedula, () -> this.cedula = cedula);
     }
     
     /**
@@ -91,6 +99,7 @@ public abstract class Persona {
      */
     public void setNombre(String nombre) {
         this.nombre = nombre;
+        Repositorio.notificarModificacion(this, "nombre");
     }
     
     /**
@@ -115,15 +124,19 @@ public abstract class Persona {
      */
     public void setTelefono(String telefono) {
         this.telefono = telefono;
+        Repositorio.notificarModificacion(this, "telefono");
     }
     
     /**
-     * Obtiene la contraseña de acceso de la persona.
+     * Obtiene la contraseña de acceso de la persona, tal como se guarda.
      * 
-     * Este método devuelve la contraseña utilizada para
-     * autenticar a la persona en el sistema.
+     * La contraseña se guarda como un hash PBKDF2, por lo que este método
+     * no devuelve el texto plano, salvo en datos anteriores al hash, que se
+     * reemplazan por su hash en el primer inicio de sesión. Para autenticar
+     * a la persona debe usarse
+     * {@link Repositorio#verificarContrasena(Persona, String)}.
      * 
-     * @return La contraseña de acceso de la persona
+     * @return La contraseña de acceso de la persona, tal como se guarda
      */
     public String getPassword() {
         return password;
@@ -133,12 +146,47 @@ public abstract class Persona {
      * Establece la contraseña de acceso de la persona.
      * 
      * Este método permite cambiar la contraseña de acceso
-     * de la persona al sistema.
+     * de la persona al sistema. La contraseña se recibe siempre
+     * en texto plano y se guarda su hash, aunque el texto tenga
+     * la forma de un hash.
      * 
-     * @param password La nueva contraseña de acceso
+     * @param password La nueva contraseña de acceso, en texto plano
      */
     public void setPassword(String password) {
-        this.password = password;
+        restaurarPassword(password != null ? HashContrasena.generar(password) : null);
+    }
+    
+    /**
+     * Protege la contraseña recibida en el constructor de una persona importada.
+     * 
+     * Si la contraseña ya es un hash con el formato que guarda el sistema
+     * y un costo que la verificación acepta, como las que escribe la
+     * exportación, se conserva tal cual, de modo que un archivo exportado
+     * vuelve a importarse con las mismas contraseñas y sin derivar un hash
+     * por persona. Si no, se toma como texto plano y se guarda su hash.
+     * 
+     * @return true si se derivó un hash nuevo, false si se conservó el recibido
+     */
+    public boolean protegerPasswordImportada() {
+        if (HashContrasena.esHashVerificable(password)) {
+            return false;
+        }
+        setPassword(password);
+        return true;
+    }
+    
+    /**
+     * Establece la contraseña de la persona tal como se guarda.
+     * 
+     * Este método solo lo usan las rutas de confianza del modelo, como
+     * la reproducción del diario, que reciben valores ya guardados por
+     * el propio sistema.
+     * 
+     * @param guardada El valor guardado de la contraseña
+     */
+    void restaurarPassword(String guardada) {
+        this.password = guardada;
+        Repositorio.notificarModificacion(this, "password");
     }
     
     /**
@@ -1,6 +1,5 @@
 package udistrital.avanzada.rolapet.modelo;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -9,7 +8,10 @@ import java.util.List;
  * Un Proveedor es una persona que puede ofrecer servicios o productos
  * a través del sistema. Esta clase define los comportamientos comunes
  * a todos los tipos de proveedores y maneja la gestión de items
- * y publicaciones que ofrecen.
+ * y publicaciones que ofrecen. Sus listas de items y publicaciones
+ * pueden consultarse y modificarse de forma segura desde varios hilos:
+ * cada modificación publica una lista inmutable nueva, por lo que las
+ * consultas devuelven la lista vigente sin copiarla ni bloquear.
  * 
  * @author Equipo RolaPet
  * @version 1.0
@@ -20,11 +22,11 @@ public abstract class Proveedor extends Persona {
     /** Dirección de correo electrónico del proveedor */
     private String email;
     
-    /** Lista de items (servicios o productos) que ofrece el proveedor */
-    private List<Item> items;
+    /** Lista inmutable de items (servicios o productos) que ofrece el proveedor */
+    private volatile List<Item> items;
     
-    /** Lista de publicaciones (eventos o promociones) del proveedor */
-    private List<Publicacion> publicaciones;
+    /** Lista inmutable de publicaciones (eventos o promociones) del proveedor */
+    private volatile List<Publicacion> publicaciones;
     
     /**
      * Constructor de la clase Proveedor.
@@ -41,8 +43,8 @@ public abstract class Proveedor extends Persona {
     public Proveedor(String cedula, String nombre, String telefono, String password, String email) {
         super(cedula, nombre, telefono, password);
         this.email = email;
-        this.items = new ArrayList<>();
-        this.publicaciones = new ArrayList<>();
+        this.items = List.of();
+        this.publicaciones = List.of();
     }
     
     /**
@@ -68,18 +70,20 @@ public abstract class Proveedor extends Persona {
      */
     public void setEmail(String email) {
         this.email = email;
+        Repositorio.notificarCambioEmail(this);
     }
     
     /**
      * Obtiene la lista de items que ofrece el proveedor.
      * 
-     * Este método devuelve una copia de la lista de items
-     * para evitar modificaciones externas no controladas.
+     * Este método devuelve la lista inmutable vigente, sin copiarla.
+     * La lista devuelta no cambia aunque después se agreguen o
+     * eliminen items del proveedor.
      * 
-     * @return Lista de items que ofrece el proveedor
+     * @return Lista inmutable de items que ofrece el proveedor
      */
     public List<Item> getItems() {
-        return new ArrayList<>(items);
+        return items;
     }
     
     /**
@@ -91,9 +95,10 @@ public abstract class Proveedor extends Persona {
      * @param item El item a agregar al catálogo del proveedor
      * @return true si el item se agregó exitosamente, false si ya existía
      */
-    public boolean agregarItem(Item item) {
+    public synchronized boolean agregarItem(Item item) {
         if (item != null && !items.contains(item)) {
-            items.add(item);
+            items = ListasInmutables.agregar(items, item);
+            Repositorio.notificarRelacion(OperacionDiario.AGREGAR_ITEM_PROVEEDOR, this, item);
             return true;
         }
         return false;
@@ -108,20 +113,27 @@ public abstract class Proveedor extends Persona {
      * @param item El item a eliminar del catálogo del proveedor
      * @return true si el item se eliminó exitosamente, false si no existía
      */
-    public boolean eliminarItem(Item item) {
-        return items.remove(item);
+    public synchronized boolean eliminarItem(Item item) {
+        List<Item> restantes = ListasInmutables.quitar(items, item);
+        if (restantes != items) {
+            items = restantes;
+            Repositorio.notificarRelacion(OperacionDiario.ELIMINAR_ITEM_PROVEEDOR, this, item);
+            return true;
+        }
+        return false;
     }
     
     /**
      * Obtiene la lista de publicaciones del proveedor.
      * 
-     * Este método devuelve una copia de la lista de publicaciones
-     * para evitar modificaciones externas no controladas.
+     * Este método devuelve la lista inmutable vigente, sin copiarla.
+     * La lista devuelta no cambia aunque después se agreguen o
+     * eliminen publicaciones del proveedor.
      * 
-     * @return Lista de publicaciones del proveedor
+     * @return Lista inmutable de publicaciones del proveedor
      */
     public List<Publicacion> getPublicaciones() {
-        return new ArrayList<>(publicaciones);
+        return publicaciones;
     }
     
     /**
@@ -133,9 +145,10 @@ public abstract class Proveedor extends Persona {
      * @param publicacion La publicación a agregar al perfil del proveedor
      * @return true si la publicación se agregó exitosamente, false si ya existía
      */
-    public boolean agregarPublicacion(Publicacion publicacion) {
+    public synchronized boolean agregarPublicacion(Publicacion publicacion) {
         if (publicacion != null && !publicaciones.contains(publicacion)) {
-            publicaciones.add(publicacion);
+            publicaciones = ListasInmutables.agregar(publicaciones, publicacion);
+            Repositorio.notificarRelacion(OperacionDiario.AGREGAR_PUBLICACION_PROVEEDOR, this, publicacion);
             return true;
         }
         return false;
@@ -150,8 +163,14 @@ public abstract class Proveedor extends Persona {
      * @param publicacion La publicación a eliminar del perfil del proveedor
      * @return true si la publicación se eliminó exitosamente, false si no existía
      */
-    public boolean eliminarPublicacion(Publicacion publicacion) {
-        return publicaciones.remove(publicacion);
+    public synchronized boolean eliminarPublicacion(Publicacion publicacion) {
+        List<Publicacion> restantes = ListasInmutables.quitar(publicaciones, publicacion);
+        if (restantes != publicaciones) {
+            publicaciones = restantes;
+            Repositorio.notificarRelacion(OperacionDiario.ELIMINAR_PUBLICACION_PROVEEDOR, this, publicacion);
+            return true;
+        }
+        return false;
     }
     
     /**
@@ -62,11 +62,14 @@ public abstract class Publicacion {
      * 
      * Este método permite modificar el ID de la publicación,
      * útil para correcciones o reorganización de datos.
+     * Si está registrada, el repositorio actualiza su índice por ID.
      * 
      * @param id El nuevo identificador único de la publicación
+     * @throws IllegalArgumentException Si la publicación está registrada y el ID es
+     *                                  nulo o ya pertenece a otro registro
      */
     public void setId(String id) {
-        this.id = id;
+        Repositorio.notificarCambioId(this, id, () -> this.id = id);
     }
     
     /**
@@ -91,6 +94,7 @@ public abstract class Publicacion {
      */
     public void setTitulo(String titulo) {
         this.titulo = titulo;
+        Repositorio.notificarModificacion(this, "titulo");
     }
     
     /**
@@ -115,6 +119,7 @@ public abstract class Publicacion {
      */
     public void setDescripcion(String descripcion) {
         this.descripcion = descripcion;
+        Repositorio.notificarModificacion(this, "descripcion");
     }
     
     /**
@@ -139,6 +144,7 @@ public abstract class Publicacion {
      */
     public void setFechaCreacion(String fechaCreacion) {
         this.fechaCreacion = fechaCreacion;
+        Repositorio.notificarModificacion(this, "fechaCreacion");
     }
     
     /**
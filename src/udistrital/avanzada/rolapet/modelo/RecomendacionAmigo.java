@@ -0,0 +1,63 @@
+package udistrital.avanzada.rolapet.modelo;
+
+/**
+ * Recomendación inmutable de un usuario como posible amigo.
+ * 
+ * Una recomendación indica el usuario recomendado y cuántos amigos tiene
+ * en común con el usuario al que se le recomienda, que es el criterio por
+ * el que se ordenan las recomendaciones.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public class RecomendacionAmigo {
+    
+    /** Usuario recomendado */
+    private final Usuario usuario;
+    
+    /** Cantidad de amigos en común con el usuario al que se le recomienda */
+    private final int amigosEnComun;
+    
+    /**
+     * Constructor de la recomendación.
+     * 
+     * @param usuario       Usuario recomendado
+     * @param amigosEnComun Cantidad de amigos en común
+     */
+    RecomendacionAmigo(Usuario usuario, int amigosEnComun) {
+        this.usuario = usuario;
+        this.amigosEnComun = amigosEnComun;
+    }
+    
+    /**
+     * Obtiene el usuario recomendado.
+     * 
+     * @return El usuario recomendado
+     */
+    public Usuario getUsuario() {
+        return usuario;
+    }
+    
+    /**
+     * Obtiene la cantidad de amigos en común.
+     * 
+     * @return Cantidad de amigos en común con el usuario al que se le recomienda
+     */
+    public int getAmigosEnComun() {
+        return amigosEnComun;
+    }
+    
+    /**
+     * Genera una representación en texto de la recomendación.
+     * 
+     * @return Una cadena con la cédula del usuario recomendado y los amigos en común
+     */
+    @Override
+    public String toString() {
+        return "RecomendacionAmigo{" +
+                "usuario='" + usuario.getCedula() + '\'' +
+                ", amigosEnComun=" + amigosEnComun +
+                '}';
+    }
+}
\ No newline at end of file
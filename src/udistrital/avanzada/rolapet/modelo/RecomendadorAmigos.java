@@ -0,0 +1,512 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomendador de amigos por amigos en común sobre el grafo de amistades.
+ * 
+ * Los amigos en común entre dos usuarios se calculan mezclando sus
+ * arreglos ordenados de identificadores, o buscando cada amigo del que
+ * tiene menos en el arreglo del otro cuando uno tiene muchos más amigos
+ * que el otro. Las recomendaciones de un usuario son los amigos de sus
+ * amigos que aún no son sus amigos, ordenados por la cantidad de amigos en
+ * común: se cuentan en un acumulador de enteros indexado por identificador,
+ * propio de cada hilo, y se eligen los mejores con un montículo acotado,
+ * sin crear objetos por candidato.
+ * 
+ * Las recomendaciones calculadas se guardan en una caché por usuario junto
+ * con los arreglos de amigos que se leyeron para calcularlas: el del
+ * usuario y el de cada uno de sus amigos. Como cada agregarAmigo o
+ * eliminarAmigo publica un arreglo nuevo, basta comparar esos arreglos por
+ * identidad con los vigentes para saber si alguna amistad de la que
+ * dependen las recomendaciones cambió; en ese caso se invalidan y se
+ * recalculan. El precálculo por lotes reparte los usuarios entre los
+ * núcleos disponibles.
+ * 
+ * La caché está acotada: cada entrada vence tras un tiempo de vida y,
+ * cuando la caché está llena, se descartan primero las vencidas y, si
+ * sigue llena, las recomendaciones nuevas no se guardan. La entrada de un
+ * usuario se descarta cuando cambian sus amistades o cuando se le da de
+ * baja, y cada entrada recuerda a qué usuario pertenece, por lo que un
+ * identificador reutilizado nunca devuelve las recomendaciones de otro.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class RecomendadorAmigos {
+    
+    /** Proporción de tamaños a partir de la cual la intersección busca en lugar de mezclar */
+    private static final int PROPORCION_BUSQUEDA = 16;
+    
+    /** Marca de los identificadores que no pueden recomendarse en el acumulador */
+    private static final int EXCLUIDO = Integer.MIN_VALUE;
+    
+    /** Tiempo de vida por omisión de las recomendaciones en caché, en milisegundos */
+    static final long VIGENCIA_POR_OMISION_MS = TimeUnit.MINUTES.toMillis(10);
+    
+    /** Cantidad máxima por omisión de usuarios con recomendaciones en caché */
+    static final int MAXIMO_CACHE_POR_OMISION = 100_000;
+    
+    /** Grafo de amistades */
+    private final GrafoAmistad grafo;
+    
+    /** Recomendaciones calculadas por identificador de usuario */
+    private final Map<Integer, Recomendaciones> cache;
+    
+    /** Tiempo de vida de las recomendaciones en caché, en milisegundos */
+    private final long vigenciaMs;
+    
+    /** Cantidad máxima de usuarios con recomendaciones en caché */
+    private final int maximoCache;
+    
+    /** Acumulador de cada hilo para contar amigos en común */
+    private final ThreadLocal<Acumulador> acumuladores;
+    
+    /**
+     * Recomendaciones calculadas de un usuario y los arreglos de amigos de los que dependen.
+     */
+    private static final class Recomendaciones {
+        
+        /** Usuario de las recomendaciones */
+        private final Usuario usuario;
+        
+        /** Arreglo de amigos del usuario al calcular */
+        private final int[] idsUsuario;
+        
+        /** Arreglo de amigos de cada amigo del usuario al calcular, en el mismo orden */
+        private final int[][] idsAmigos;
+        
+        /** Recomendaciones calculadas, de la mejor a la peor */
+        private final List<RecomendacionAmigo> lista;
+        
+        /** true si la lista contiene a todos los candidatos y no solo los mejores */
+        private final boolean completa;
+        
+        /** Instante de vencimiento, en milisegundos */
+        private final long vence;
+        
+        /**
+         * Constructor de las recomendaciones calculadas.
+         * 
+         * @param usuario    Usuario de las recomendaciones
+         * @param idsUsuario Arreglo de amigos del usuario al calcular
+         * @param idsAmigos  Arreglo de amigos de cada amigo del usuario al calcular
+         * @param lista      Recomendaciones calculadas
+         * @param completa   true si la lista contiene a todos los candidatos
+         * @param vence      Instante de vencimiento, en milisegundos
+         */
+        private Recomendaciones(Usuario usuario, int[] idsUsuario, int[][] idsAmigos, List<RecomendacionAmigo> lista,
+                                boolean completa, long vence) {
+            this.usuario = usuario;
+            this.idsUsuario = idsUsuario;
+            this.idsAmigos = idsAmigos;
+            this.lista = lista;
+            this.completa = completa;
+            this.vence = vence;
+        }
+        
+        /**
+         * Verifica si las recomendaciones siguen correspondiendo a las amistades vigentes.
+         * 
+         * @param usuario El usuario que consulta sus recomendaciones
+         * @param grafo   Grafo de amistades
+         * @param ahora   Instante actual, en milisegundos
+         * @return true si son del usuario, no vencieron y ni el usuario ni sus
+         *         amigos cambiaron de amigos desde el cálculo
+         */
+        private boolean vigentes(Usuario usuario, GrafoAmistad grafo, long ahora) {
+            if (this.usuario != usuario || vence <= ahora || usuario.getIdsAmigos() != idsUsuario) {
+                return false;
+            }
+            for (int i = 0; i < idsUsuario.length; i++) {
+                if (grafo.amigosDe(idsUsuario[i]) != idsAmigos[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Acumulador de cantidades de amigos en común por identificador.
+     */
+    private static final class Acumulador {
+        
+        /** Cantidad de amigos en común por identificador, o EXCLUIDO */
+        private int[] cuentas = new int[0];
+        
+        /** Identificadores con cuenta distinta de cero */
+        private int[] tocados = new int[64];
+        
+        /** Cantidad de identificadores tocados */
+        private int cantidadTocados;
+        
+        /**
+         * Suma uno a la cuenta de un identificador, si no está excluido.
+         * 
+         * @param id Identificador
+         */
+        private void sumar(int id) {
+            asegurarCapacidad(id);
+            int cuenta = cuentas[id];
+            if (cuenta == 0) {
+                tocar(id);
+            }
+            if (cuenta != EXCLUIDO) {
+                cuentas[id] = cuenta + 1;
+            }
+        }
+        
+        /**
+         * Excluye un identificador de las recomendaciones.
+         * 
+         * @param id Identificador
+         */
+        private void excluir(int id) {
+            asegurarCapacidad(id);
+            if (cuentas[id] == 0) {
+                tocar(id);
+            }
+            cuentas[id] = EXCLUIDO;
+        }
+        
+        /**
+         * Registra un identificador como tocado.
+         * 
+         * @param id Identificador
+         */
+        private void tocar(int id) {
+            if (cantidadTocados == tocados.length) {
+                tocados = Arrays.copyOf(tocados, tocados.length * 2);
+            }
+            tocados[cantidadTocados++] = id;
+        }
+        
+        /**
+         * Amplía las cuentas para que incluyan un identificador.
+         * 
+         * @param id Identificador
+         */
+        private void asegurarCapacidad(int id) {
+            if (id >= cuentas.length) {
+                cuentas = Arrays.copyOf(cuentas, Math.max(id + 1, cuentas.length * 2));
+            }
+        }
+        
+        /**
+         * Deja en cero las cuentas tocadas, para reutilizar el acumulador.
+         */
+        private void limpiar() {
+            for (int i = 0; i < cantidadTocados; i++) {
+                cuentas[tocados[i]] = 0;
+            }
+            cantidadTocados = 0;
+        }
+    }
+    
+    /**
+     * Constructor del recomendador, con la caché vacía.
+     * 
+     * @param grafo       Grafo de amistades
+     * @param vigenciaMs  Tiempo de vida de las recomendaciones en caché, en milisegundos
+     * @param maximoCache Cantidad máxima de usuarios con recomendaciones en caché
+     */
+    RecomendadorAmigos(GrafoAmistad grafo, long vigenciaMs, int maximoCache) {
+        this.grafo = grafo;
+        this.cache = new ConcurrentHashMap<>();
+        this.vigenciaMs = vigenciaMs;
+        this.maximoCache = maximoCache;
+        this.acumuladores = ThreadLocal.withInitial(Acumulador::new);
+    }
+    
+    /**
+     * Cuenta los amigos en común entre dos usuarios.
+     * 
+     * @param a Primer usuario
+     * @param b Segundo usuario
+     * @return La cantidad de usuarios que son amigos de ambos
+     */
+    int contarEnComun(Usuario a, Usuario b) {
+        return intersecar(a.getIdsAmigos(), b.getIdsAmigos(), null);
+    }
+    
+    /**
+     * Obtiene los amigos en común entre dos usuarios.
+     * 
+     * @param a Primer usuario
+     * @param b Segundo usuario
+     * @return Lista inmutable de los usuarios que son amigos de ambos
+     */
+    List<Usuario> enComun(Usuario a, Usuario b) {
+        int[] ids = a.getIdsAmigos();
+        int[] comunes = new int[Math.min(ids.length, b.getIdsAmigos().length)];
+        int cantidad = intersecar(ids, b.getIdsAmigos(), comunes);
+        return grafo.vista(Arrays.copyOf(comunes, cantidad));
+    }
+    
+    /**
+     * Recomienda a un usuario los amigos de sus amigos con más amigos en común.
+     * 
+     * Si las recomendaciones del usuario están en la caché y ninguna de las
+     * amistades de las que dependen cambió, se devuelven sin recalcular.
+     * 
+     * @param usuario  El usuario al que se le recomiendan amigos
+     * @param cantidad Cantidad máxima de recomendaciones
+     * @return Lista inmutable de recomendaciones, de más a menos amigos en común;
+     *         los empates se resuelven por antigüedad en el grafo
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    List<RecomendacionAmigo> recomendar(Usuario usuario, int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad de recomendaciones no puede ser negativa");
+        }
+        int id = grafo.idAsignado(usuario);
+        if (cantidad == 0 || id < 0 || usuario.getIdsAmigos().length == 0) {
+            return List.of();
+        }
+        long ahora = System.currentTimeMillis();
+        Recomendaciones calculadas = cache.get(id);
+        if (calculadas == null || !calculadas.vigentes(usuario, grafo, ahora)
+                || (!calculadas.completa && calculadas.lista.size() < cantidad)) {
+            calculadas = calcular(usuario, id, cantidad, ahora + vigenciaMs);
+            recordar(id, calculadas, ahora);
+        }
+        List<RecomendacionAmigo> lista = calculadas.lista;
+        return lista.size() <= cantidad ? lista : lista.subList(0, cantidad);
+    }
+    
+    /**
+     * Precalcula en paralelo las recomendaciones de varios usuarios.
+     * 
+     * Los usuarios se reparten entre los núcleos disponibles; cada hilo usa
+     * su propio acumulador y las recomendaciones quedan en la caché.
+     * 
+     * @param usuarios Usuarios cuyas recomendaciones se precalculan
+     * @param cantidad Cantidad de recomendaciones a precalcular por usuario
+     */
+    void precalcular(Collection<Usuario> usuarios, int cantidad) {
+        if (cantidad > 0) {
+            usuarios.parallelStream().forEach(usuario -> recomendar(usuario, cantidad));
+        }
+    }
+    
+    /**
+     * Descarta las recomendaciones en caché de un usuario.
+     * 
+     * Debe llamarse antes de liberar el identificador de un usuario dado
+     * de baja, mientras aún lo tiene asignado.
+     * 
+     * @param usuario El usuario
+     */
+    void olvidar(Usuario usuario) {
+        int id = grafo.idAsignado(usuario);
+        if (id >= 0) {
+            cache.remove(id);
+        }
+    }
+    
+    /**
+     * Descarta las recomendaciones en caché de los usuarios cuyas amistades cambiaron.
+     * 
+     * @param cambios Cambios de amistades aplicados
+     */
+    void olvidarCambios(List<CambioAmistad> cambios) {
+        for (CambioAmistad cambio : cambios) {
+            olvidar(cambio.getUsuario());
+            olvidar(cambio.getAmigo());
+        }
+    }
+    
+    /**
+     * Guarda las recomendaciones de un usuario, respetando el tamaño máximo de la caché.
+     * 
+     * Si la caché está llena se descartan primero las recomendaciones
+     * vencidas; si sigue llena, las recomendaciones no se guardan.
+     * 
+     * @param id              Identificador del usuario
+     * @param recomendaciones Sus recomendaciones calculadas
+     * @param ahora           Instante actual, en milisegundos
+     */
+    private void recordar(int id, Recomendaciones recomendaciones, long ahora) {
+        if (cache.size() >= maximoCache && !cache.containsKey(id)) {
+            for (Iterator<Recomendaciones> entradas = cache.values().iterator(); entradas.hasNext(); ) {
+                if (entradas.next().vence <= ahora) {
+                    entradas.remove();
+                }
+            }
+            if (cache.size() >= maximoCache) {
+                return;
+            }
+        }
+        cache.put(id, recomendaciones);
+    }
+    
+    /**
+     * Calcula las recomendaciones de un usuario.
+     * 
+     * @param usuario  El usuario
+     * @param id       Su identificador en el grafo
+     * @param cantidad Cantidad máxima de recomendaciones
+     * @param vence    Instante de vencimiento de las recomendaciones, en milisegundos
+     * @return Las recomendaciones calculadas y los arreglos de los que dependen
+     */
+    private Recomendaciones calcular(Usuario usuario, int id, int cantidad, long vence) {
+        int[] idsUsuario = usuario.getIdsAmigos();
+        int[][] idsAmigos = new int[idsUsuario.length][];
+        Acumulador acumulador = acumuladores.get();
+        try {
+            acumulador.excluir(id);
+            for (int amigo : idsUsuario) {
+                acumulador.excluir(amigo);
+            }
+            for (int i = 0; i < idsUsuario.length; i++) {
+                idsAmigos[i] = grafo.amigosDe(idsUsuario[i]);
+                for (int candidato : idsAmigos[i]) {
+                    acumulador.sumar(candidato);
+                }
+            }
+            // Montículo de mínimos con los mejores candidatos; cada uno se
+            // codifica en un long que ordena por cuenta y, a igual cuenta,
+            // prefiere el identificador menor
+            long[] monticulo = new long[Math.min(cantidad, acumulador.cantidadTocados)];
+            int tamano = 0;
+            int candidatos = 0;
+            for (int i = 0; i < acumulador.cantidadTocados; i++) {
+                int candidato = acumulador.tocados[i];
+                int cuenta = acumulador.cuentas[candidato];
+                if (cuenta > 0) {
+                    candidatos++;
+                    long clave = ((long) cuenta << 32) | (Integer.MAX_VALUE - candidato);
+                    if (tamano < monticulo.length) {
+                        monticulo[tamano] = clave;
+                        subir(monticulo, tamano++);
+                    } else if (clave > monticulo[0]) {
+                        monticulo[0] = clave;
+                        bajar(monticulo, tamano);
+                    }
+                }
+            }
+            boolean completa = candidatos == tamano;
+            long[] mejores = Arrays.copyOf(monticulo, tamano);
+            Arrays.sort(mejores);
+            List<RecomendacionAmigo> lista = new ArrayList<>(tamano);
+            for (int i = tamano - 1; i >= 0; i--) {
+                Usuario candidato = grafo.usuario(Integer.MAX_VALUE - (int) mejores[i]);
+                if (candidato != null) {
+                    lista.add(new RecomendacionAmigo(candidato, (int) (mejores[i] >>> 32)));
+                }
+            }
+            return new Recomendaciones(usuario, idsUsuario, idsAmigos, Collections.unmodifiableList(lista), completa,
+                    vence);
+        } finally {
+            acumulador.limpiar();
+        }
+    }
+    
+    /**
+     * Sube un elemento del montículo de mínimos hasta su posición.
+     * 
+     * @param monticulo Montículo
+     * @param posicion  Posición del elemento
+     */
+    private static void subir(long[] monticulo, int posicion) {
+        long elemento = monticulo[posicion];
+        while (posicion > 0) {
+            int padre = (posicion - 1) / 2;
+            if (monticulo[padre] <= elemento) {
+                break;
+            }
+            monticulo[posicion] = monticulo[padre];
+            posicion = padre;
+        }
+        monticulo[posicion] = elemento;
+    }
+    
+    /**
+     * Baja la raíz del montículo de mínimos hasta su posición.
+     * 
+     * @param monticulo Montículo
+     * @param tamano    Cantidad de elementos del montículo
+     */
+    private static void bajar(long[] monticulo, int tamano) {
+        long elemento = monticulo[0];
+        int posicion = 0;
+        while (true) {
+            int hijo = 2 * posicion + 1;
+            if (hijo >= tamano) {
+                break;
+            }
+            if (hijo + 1 < tamano && monticulo[hijo + 1] < monticulo[hijo]) {
+                hijo++;
+            }
+            if (monticulo[hijo] >= elemento) {
+                break;
+            }
+            monticulo[posicion] = monticulo[hijo];
+            posicion = hijo;
+        }
+        monticulo[posicion] = elemento;
+    }
+    
+    /**
+     * Interseca dos arreglos ordenados de identificadores.
+     * 
+     * Si un arreglo es mucho más corto que el otro, cada identificador del
+     * corto se busca en el largo; si no, ambos se mezclan en un solo recorrido.
+     * 
+     * @param a       Primer arreglo ordenado
+     * @param b       Segundo arreglo ordenado
+     * @param destino Arreglo donde se copian los identificadores comunes, o null para solo contarlos
+     * @return La cantidad de identificadores comunes
+     */
+    private static int intersecar(int[] a, int[] b, int[] destino) {
+        if (a.length > b.length) {
+            int[] temporal = a;
+            a = b;
+            b = temporal;
+        }
+        int cantidad = 0;
+        if ((long) a.length * PROPORCION_BUSQUEDA < b.length) {
+            int desde = 0;
+            for (int id : a) {
+                int posicion = Arrays.binarySearch(b, desde, b.length, id);
+                if (posicion >= 0) {
+                    if (destino != null) {
+                        destino[cantidad] = id;
+                    }
+                    cantidad++;
+                    desde = posicion + 1;
+                } else {
+                    desde = -posicion - 1;
+                }
+            }
+            return cantidad;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                if (destino != null) {
+                    destino[cantidad] = a[i];
+                }
+                cantidad++;
+                i++;
+                j++;
+            }
+        }
+        return cantidad;
+    }
+}
\ No newline at end of file
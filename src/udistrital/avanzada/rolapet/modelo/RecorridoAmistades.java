@@ -0,0 +1,462 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Recorridos en anchura sobre el grafo de amistades.
+ * 
+ * Responde cuántos saltos de amistad separan a dos usuarios, por qué
+ * amigos están conectados y qué usuarios están a menos de una cantidad de
+ * saltos de otro. Los recorridos trabajan solo con identificadores del
+ * {@link GrafoAmistad}: las fronteras son arreglos de enteros, los
+ * visitados son un conjunto de bits y el padre de cada usuario visitado se
+ * guarda en un arreglo de enteros, sin crear objetos por usuario visitado.
+ * Estos arreglos pertenecen a cada hilo y se reutilizan entre consultas;
+ * al terminar solo se limpian los bits de los usuarios visitados.
+ * 
+ * La distancia y el camino entre dos usuarios se buscan en las dos
+ * direcciones a la vez, expandiendo siempre la frontera más pequeña, lo
+ * que visita muchos menos usuarios que un recorrido desde un solo extremo.
+ * Esta búsqueda sigue las listas de amigos desde ambos extremos, por lo que
+ * considera recíprocas las amistades.
+ * 
+ * Cuando una frontera es grande, su expansión se reparte en tramos que se
+ * procesan en paralelo: cada hilo reclama a los usuarios que descubre con
+ * una operación atómica sobre el conjunto de visitados y los agrega a su
+ * propia frontera siguiente, que al final del nivel se concatenan.
+ * 
+ * Los usuarios que ingresan al grafo mientras se hace un recorrido pueden
+ * no ser considerados por él.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class RecorridoAmistades {
+    
+    /** Tamaño de frontera a partir del cual un nivel se expande en paralelo */
+    static final int UMBRAL_PARALELO = 4096;
+    
+    /** Cantidad de tramos por hilo en que se reparte una frontera en paralelo */
+    private static final int TRAMOS_POR_HILO = 4;
+    
+    /** Grafo de amistades */
+    private final GrafoAmistad grafo;
+    
+    /** Tamaño de frontera a partir del cual un nivel se expande en paralelo */
+    private final int umbralParalelo;
+    
+    /** Espacio de trabajo de cada hilo */
+    private final ThreadLocal<Espacio> espacios;
+    
+    /**
+     * Visitados y padres de los dos extremos de una búsqueda, reutilizables entre consultas.
+     */
+    private static final class Espacio {
+        
+        /** Visitados desde el origen, un bit por identificador */
+        private AtomicLongArray visitadosOrigen = new AtomicLongArray(0);
+        
+        /** Visitados desde el destino, un bit por identificador */
+        private AtomicLongArray visitadosDestino = new AtomicLongArray(0);
+        
+        /** Padre de cada usuario visitado desde el origen */
+        private int[] padresOrigen = new int[0];
+        
+        /** Padre de cada usuario visitado desde el destino */
+        private int[] padresDestino = new int[0];
+        
+        /** Cantidad de identificadores que caben en el espacio */
+        private int capacidad;
+        
+        /**
+         * Amplía el espacio para que quepan todos los identificadores asignados.
+         * 
+         * Los conjuntos de visitados deben estar vacíos al invocarlo.
+         * 
+         * @param cantidad Cantidad de identificadores asignados
+         */
+        private void asegurarCapacidad(int cantidad) {
+            if (cantidad > capacidad) {
+                int nueva = Math.max(cantidad, capacidad * 2);
+                visitadosOrigen = new AtomicLongArray((nueva + 63) >>> 6);
+                visitadosDestino = new AtomicLongArray((nueva + 63) >>> 6);
+                padresOrigen = new int[nueva];
+                padresDestino = new int[nueva];
+                capacidad = nueva;
+            }
+        }
+    }
+    
+    /**
+     * Lado de una búsqueda: sus visitados, sus padres y los niveles que ha visitado.
+     */
+    private static final class Lado {
+        
+        /** Visitados de este lado */
+        private final AtomicLongArray visitados;
+        
+        /** Padres de los visitados de este lado */
+        private final int[] padres;
+        
+        /** Niveles visitados, el último es la frontera actual */
+        private final List<int[]> niveles = new ArrayList<>();
+        
+        /** Cantidad de identificadores de cada nivel */
+        private final List<Integer> tamanos = new ArrayList<>();
+        
+        /**
+         * Constructor de un lado que comienza en un usuario.
+         * 
+         * @param visitados Visitados de este lado, vacíos
+         * @param padres    Padres de los visitados de este lado
+         * @param inicio    Identificador del usuario inicial
+         */
+        private Lado(AtomicLongArray visitados, int[] padres, int inicio) {
+            this.visitados = visitados;
+            this.padres = padres;
+            marcar(visitados, inicio);
+            padres[inicio] = -1;
+            niveles.add(new int[] {inicio});
+            tamanos.add(1);
+        }
+        
+        /**
+         * Obtiene la cantidad de usuarios de la frontera actual.
+         * 
+         * @return El tamaño de la frontera
+         */
+        private int tamanoFrontera() {
+            return tamanos.get(tamanos.size() - 1);
+        }
+        
+        /**
+         * Obtiene la distancia de la frontera actual al usuario inicial.
+         * 
+         * @return La cantidad de niveles expandidos
+         */
+        private int distancia() {
+            return niveles.size() - 1;
+        }
+        
+        /**
+         * Limpia los bits de todos los usuarios visitados por este lado.
+         */
+        private void limpiar() {
+            for (int i = 0; i < niveles.size(); i++) {
+                int[] nivel = niveles.get(i);
+                for (int j = tamanos.get(i) - 1; j >= 0; j--) {
+                    visitados.setPlain(nivel[j] >>> 6, 0L);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Constructor del recorrido.
+     * 
+     * @param grafo          Grafo de amistades
+     * @param umbralParalelo Tamaño de frontera a partir del cual un nivel se expande en paralelo
+     */
+    RecorridoAmistades(GrafoAmistad grafo, int umbralParalelo) {
+        this.grafo = grafo;
+        this.umbralParalelo = umbralParalelo;
+        this.espacios = ThreadLocal.withInitial(Espacio::new);
+    }
+    
+    /**
+     * Calcula los grados de separación entre dos usuarios.
+     * 
+     * @param origen       Usuario de partida
+     * @param destino      Usuario buscado
+     * @param maximoSaltos Cantidad máxima de saltos a considerar
+     * @return La cantidad de saltos del camino más corto, o -1 si no hay uno de como máximo maximoSaltos
+     */
+    int gradosDeSeparacion(Usuario origen, Usuario destino, int maximoSaltos) {
+        if (origen == destino) {
+            return 0;
+        }
+        int[] camino = buscarCamino(origen, destino, maximoSaltos);
+        return camino != null ? camino.length - 1 : -1;
+    }
+    
+    /**
+     * Obtiene el camino más corto de amistades entre dos usuarios.
+     * 
+     * @param origen       Usuario de partida
+     * @param destino      Usuario buscado
+     * @param maximoSaltos Cantidad máxima de saltos a considerar
+     * @return Lista inmutable de usuarios desde el origen hasta el destino, ambos
+     *         incluidos, o lista vacía si no hay un camino de como máximo maximoSaltos
+     */
+    List<Usuario> caminoMasCorto(Usuario origen, Usuario destino, int maximoSaltos) {
+        if (origen == destino) {
+            return List.of(origen);
+        }
+        int[] camino = buscarCamino(origen, destino, maximoSaltos);
+        return camino != null ? grafo.vista(camino) : List.of();
+    }
+    
+    /**
+     * Obtiene los usuarios a los que se llega desde uno en a lo sumo una cantidad de saltos.
+     * 
+     * @param origen Usuario de partida
+     * @param saltos Cantidad máxima de saltos
+     * @return Lista inmutable de usuarios alcanzados, sin el origen, de los más
+     *         cercanos a los más lejanos
+     */
+    List<Usuario> alcanzables(Usuario origen, int saltos) {
+        int id = grafo.idAsignado(origen);
+        if (saltos == 0 || id < 0 || origen.getIdsAmigos().length == 0) {
+            return List.of();
+        }
+        Espacio espacio = prepararEspacio();
+        Lado lado = new Lado(espacio.visitadosOrigen, espacio.padresOrigen, id);
+        try {
+            while (lado.distancia() < saltos && lado.tamanoFrontera() > 0) {
+                expandir(lado, null, espacio.capacidad);
+            }
+            int total = 0;
+            for (int i = 1; i < lado.niveles.size(); i++) {
+                total += lado.tamanos.get(i);
+            }
+            int[] alcanzados = new int[total];
+            for (int i = 1, posicion = 0; i < lado.niveles.size(); i++) {
+                System.arraycopy(lado.niveles.get(i), 0, alcanzados, posicion, lado.tamanos.get(i));
+                posicion += lado.tamanos.get(i);
+            }
+            return grafo.vista(alcanzados);
+        } finally {
+            lado.limpiar();
+        }
+    }
+    
+    /**
+     * Busca el camino más corto entre dos usuarios distintos expandiendo desde ambos extremos.
+     * 
+     * @param origen       Usuario de partida
+     * @param destino      Usuario buscado, distinto del origen
+     * @param maximoSaltos Cantidad máxima de saltos a considerar
+     * @return Identificadores del camino desde el origen hasta el destino, o null si no hay uno
+     */
+    private int[] buscarCamino(Usuario origen, Usuario destino, int maximoSaltos) {
+        int idOrigen = grafo.idAsignado(origen);
+        int idDestino = grafo.idAsignado(destino);
+        if (maximoSaltos == 0 || idOrigen < 0 || idDestino < 0
+                || origen.getIdsAmigos().length == 0 || destino.getIdsAmigos().length == 0) {
+            return null;
+        }
+        Espacio espacio = prepararEspacio();
+        Lado desdeOrigen = new Lado(espacio.visitadosOrigen, espacio.padresOrigen, idOrigen);
+        Lado desdeDestino = new Lado(espacio.visitadosDestino, espacio.padresDestino, idDestino);
+        try {
+            while (desdeOrigen.distancia() + desdeDestino.distancia() < maximoSaltos
+                    && desdeOrigen.tamanoFrontera() > 0 && desdeDestino.tamanoFrontera() > 0) {
+                boolean avanzaOrigen = desdeOrigen.tamanoFrontera() <= desdeDestino.tamanoFrontera();
+                Lado lado = avanzaOrigen ? desdeOrigen : desdeDestino;
+                Lado otro = avanzaOrigen ? desdeDestino : desdeOrigen;
+                int encuentro = expandir(lado, otro, espacio.capacidad);
+                if (encuentro >= 0) {
+                    return unirCamino(desdeOrigen, desdeDestino, encuentro);
+                }
+            }
+            return null;
+        } finally {
+            desdeOrigen.limpiar();
+            desdeDestino.limpiar();
+        }
+    }
+    
+    /**
+     * Arma el camino que pasa por el usuario donde se encontraron ambos extremos.
+     * 
+     * @param desdeOrigen  Lado del origen
+     * @param desdeDestino Lado del destino
+     * @param encuentro    Identificador visitado por ambos lados
+     * @return Identificadores del camino desde el origen hasta el destino
+     */
+    private static int[] unirCamino(Lado desdeOrigen, Lado desdeDestino, int encuentro) {
+        int[] camino = new int[desdeOrigen.distancia() + desdeDestino.distancia() + 1];
+        int posicion = 0;
+        for (int id = encuentro; id >= 0; id = desdeOrigen.padres[id]) {
+            posicion++;
+        }
+        int medio = posicion - 1;
+        for (int id = encuentro; id >= 0; id = desdeOrigen.padres[id]) {
+            camino[--posicion] = id;
+        }
+        posicion = medio;
+        for (int id = desdeDestino.padres[encuentro]; id >= 0; id = desdeDestino.padres[id]) {
+            camino[++posicion] = id;
+        }
+        return Arrays.copyOf(camino, posicion + 1);
+    }
+    
+    /**
+     * Expande un nivel de un lado de la búsqueda, en paralelo si su frontera es grande.
+     * 
+     * @param lado      Lado a expandir
+     * @param otro      Lado contrario de una búsqueda bidireccional, o null
+     * @param capacidad Cantidad de identificadores que caben en el espacio
+     * @return Identificador visitado por ambos lados, o -1 si no se encontraron
+     */
+    private int expandir(Lado lado, Lado otro, int capacidad) {
+        int[] frontera = lado.niveles.get(lado.niveles.size() - 1);
+        int tamano = lado.tamanoFrontera();
+        int hilos = ForkJoinPool.getCommonPoolParallelism();
+        if (tamano < umbralParalelo || hilos < 2) {
+            Tramo tramo = new Tramo();
+            int encuentro = tramo.expandir(grafo, frontera, 0, tamano, lado, otro, capacidad, null);
+            lado.niveles.add(tramo.siguiente);
+            lado.tamanos.add(tramo.tamano);
+            return encuentro;
+        }
+        int cantidadTramos = Math.min(hilos * TRAMOS_POR_HILO, tamano);
+        AtomicInteger encontrado = new AtomicInteger(-1);
+        Tramo[] tramos = IntStream.range(0, cantidadTramos).parallel().mapToObj(i -> {
+            Tramo tramo = new Tramo();
+            tramo.expandir(grafo, frontera, (int) ((long) tamano * i / cantidadTramos),
+                    (int) ((long) tamano * (i + 1) / cantidadTramos), lado, otro, capacidad, encontrado);
+            return tramo;
+        }).toArray(Tramo[]::new);
+        int total = 0;
+        for (Tramo tramo : tramos) {
+            total += tramo.tamano;
+        }
+        int[] siguiente = new int[total];
+        int posicion = 0;
+        for (Tramo tramo : tramos) {
+            System.arraycopy(tramo.siguiente, 0, siguiente, posicion, tramo.tamano);
+            posicion += tramo.tamano;
+        }
+        lado.niveles.add(siguiente);
+        lado.tamanos.add(total);
+        return encontrado.get();
+    }
+    
+    /**
+     * Parte de la frontera siguiente descubierta por un hilo.
+     */
+    private static final class Tramo {
+        
+        /** Identificadores descubiertos */
+        private int[] siguiente = new int[16];
+        
+        /** Cantidad de identificadores descubiertos */
+        private int tamano;
+        
+        /**
+         * Expande un tramo de la frontera de un lado.
+         * 
+         * Sin contador compartido, la expansión es secuencial y marca los
+         * visitados sin operaciones atómicas; con él, reclama cada usuario
+         * descubierto con una operación atómica y se detiene en cuanto algún
+         * hilo encuentra el lado contrario.
+         * 
+         * @param grafo      Grafo de amistades
+         * @param frontera   Frontera del lado
+         * @param desde      Primera posición del tramo
+         * @param hasta      Posición siguiente a la última del tramo
+         * @param lado       Lado a expandir
+         * @param otro       Lado contrario, o null
+         * @param capacidad  Cantidad de identificadores que caben en el espacio
+         * @param encontrado Identificador de encuentro compartido entre hilos, o null si es secuencial
+         * @return Identificador visitado por ambos lados, o -1 si no se encontraron
+         */
+        private int expandir(GrafoAmistad grafo, int[] frontera, int desde, int hasta, Lado lado, Lado otro,
+                             int capacidad, AtomicInteger encontrado) {
+            for (int i = desde; i < hasta; i++) {
+                if (encontrado != null && encontrado.get() >= 0) {
+                    return -1;
+                }
+                int actual = frontera[i];
+                for (int vecino : grafo.amigosDe(actual)) {
+                    if (vecino >= capacidad) {
+                        continue;
+                    }
+                    boolean nuevo = encontrado == null ? marcar(lado.visitados, vecino)
+                            : reclamar(lado.visitados, vecino);
+                    if (nuevo) {
+                        lado.padres[vecino] = actual;
+                        if (tamano == siguiente.length) {
+                            siguiente = Arrays.copyOf(siguiente, tamano * 2);
+                        }
+                        siguiente[tamano++] = vecino;
+                        if (otro != null && visitado(otro.visitados, vecino)) {
+                            if (encontrado != null) {
+                                encontrado.compareAndSet(-1, vecino);
+                            }
+                            return vecino;
+                        }
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * Obtiene el espacio de trabajo del hilo actual con capacidad para todo el grafo.
+     * 
+     * @return El espacio de trabajo
+     */
+    private Espacio prepararEspacio() {
+        Espacio espacio = espacios.get();
+        espacio.asegurarCapacidad(grafo.cantidad());
+        return espacio;
+    }
+    
+    /**
+     * Verifica si un identificador está en un conjunto de bits.
+     * 
+     * @param bits Conjunto de bits
+     * @param id   Identificador
+     * @return true si está marcado
+     */
+    private static boolean visitado(AtomicLongArray bits, int id) {
+        return (bits.get(id >>> 6) & (1L << id)) != 0;
+    }
+    
+    /**
+     * Marca un identificador en un conjunto de bits que usa un solo hilo.
+     * 
+     * @param bits Conjunto de bits
+     * @param id   Identificador
+     * @return true si no estaba marcado
+     */
+    private static boolean marcar(AtomicLongArray bits, int id) {
+        long palabra = bits.getPlain(id >>> 6);
+        long bit = 1L << id;
+        if ((palabra & bit) != 0) {
+            return false;
+        }
+        bits.setPlain(id >>> 6, palabra | bit);
+        return true;
+    }
+    
+    /**
+     * Marca un identificador en un conjunto de bits compartido entre hilos.
+     * 
+     * @param bits Conjunto de bits
+     * @param id   Identificador
+     * @return true si este hilo lo marcó y no otro
+     */
+    private static boolean reclamar(AtomicLongArray bits, int id) {
+        long bit = 1L << id;
+        while (true) {
+            long palabra = bits.get(id >>> 6);
+            if ((palabra & bit) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(id >>> 6, palabra, palabra | bit)) {
+                return true;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,8 +1,12 @@
 package udistrital.avanzada.rolapet.modelo;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Clase Singleton que actúa como la base de datos en memoria del sistema RolaPet.
@@ -12,6 +16,22 @@ import java.util.stream.Collectors;
  * almacenamiento de datos. Funciona como una base de datos en memoria que
  * mantiene todas las entidades del sistema organizadas y accesibles.
  * 
+ * El repositorio puede ser utilizado desde varios hilos a la vez. Cada tipo
+ * de entidad (personas, vehículos, items y publicaciones) tiene su propio
+ * candado de escritura, de modo que las escrituras sobre un mismo tipo se
+ * aplican de forma atómica junto con sus índices y las de tipos distintos
+ * no se bloquean entre sí. Las búsquedas por clave no toman candados y
+ * observan la última escritura completada; los listados devuelven una
+ * instantánea inmutable coherente con un instante dado y las consultas
+ * paginadas obtienen sus páginas de esa misma instantánea. Las operaciones que
+ * combinan varios tipos de entidad no son atómicas entre sí.
+ * 
+ * Opcionalmente, el repositorio puede persistirse en disco invocando
+ * {@link #habilitarPersistencia(Path)} al iniciar la aplicación. A partir
+ * de ese momento cada alta, baja, cambio de datos o cambio en las
+ * relaciones de una entidad registrada se agrega a un diario de escritura
+ * anticipada, que se reproduce en el siguiente inicio para recuperar el estado.
+ * 
  * @author Equipo RolaPet
  * @version 1.0
  * @since 2025
@@ -19,32 +39,111 @@ import java.util.stream.Collectors;
 public class Repositorio {
     
     /** Instancia única del repositorio (implementación del patrón Singleton) */
-    private static Repositorio instancia;
+    private static volatile Repositorio instancia;
+    
+    /** Personas registradas en el sistema, indexadas por cédula */
+    private ColeccionIndexada<Persona> personas;
+    
+    /** Vehículos registrados en el sistema, indexados por ID */
+    private ColeccionIndexada<Vehiculo> vehiculos;
+    
+    /** Items (servicios y productos) registrados en el sistema, indexados por ID */
+    private ColeccionIndexada<Item> items;
+    
+    /** Publicaciones registradas en el sistema, indexadas por ID */
+    private ColeccionIndexada<Publicacion> publicaciones;
+    
+    /** Partición de las personas que son usuarios, indexada por cédula */
+    private ColeccionIndexada<Usuario> usuarios;
+    
+    /** Partición de las personas que son administradores, indexada por cédula */
+    private ColeccionIndexada<Administrador> administradores;
+    
+    /** Partición de las personas que son proveedores, indexada por cédula */
+    private ColeccionIndexada<Proveedor> proveedores;
+    
+    /** Índice de las personas por rol y por la clave con que inician sesión */
+    private final IndiceCredenciales credenciales;
+    
+    /** Índice de prefijos de las personas por nombre, cédula y email, para sugerencias */
+    private final IndicePrefijos indicePrefijos;
+    
+    /** Índice secundario de vehículos por autonomía, para cada tipo de vehículo */
+    private final IndiceAutonomia indiceAutonomia;
+    
+    /** Índice de texto completo de los items, por nombre y descripción */
+    private final IndiceTexto<Item> indiceItems;
+    
+    /** Índice de texto completo de las publicaciones, por título y descripción */
+    private final IndiceTexto<Publicacion> indicePublicaciones;
+    
+    /** Servicio que aplica las amistades de forma recíproca y en lotes */
+    private final ServicioAmistad servicioAmistad;
+    
+    /** Recomendador de amigos por amigos en común, con su caché */
+    private final RecomendadorAmigos recomendador;
     
-    /** Lista de todas las personas registradas en el sistema */
-    private List<Persona> personas;
+    /** Recorridos en anchura sobre el grafo de amistades */
+    private final RecorridoAmistades recorrido;
     
-    /** Lista de todos los vehículos registrados en el sistema */
-    private List<Vehiculo> vehiculos;
+    /** Verificador acotado de contraseñas, con su caché de credenciales verificadas */
+    private final VerificadorContrasenas verificador;
     
-    /** Lista de todos los items (servicios y productos) registrados en el sistema */
-    private List<Item> items;
+    /** Candado de escritura de las personas y sus índices */
+    private final ReentrantLock candadoPersonas;
     
-    /** Lista de todas las publicaciones registradas en el sistema */
-    private List<Publicacion> publicaciones;
+    /** Candado de escritura de los vehículos */
+    private final ReentrantLock candadoVehiculos;
+    
+    /** Candado de escritura de los items */
+    private final ReentrantLock candadoItems;
+    
+    /** Candado de escritura de las publicaciones */
+    private final ReentrantLock candadoPublicaciones;
+    
+    /** Contadores vivos de entidades para las estadísticas */
+    private final ContadoresRepositorio contadores;
+    
+    /** Persistencia en disco del repositorio, o null si está deshabilitada */
+    private volatile PersistenciaRepositorio persistencia;
+    
+    /** Almacén mapeado montado como respaldo del catálogo, o null si no hay ninguno */
+    private volatile AlmacenMapeado almacenMapeado;
     
     /**
      * Constructor privado para implementar el patrón Singleton.
      * 
-     * Este constructor inicializa todas las listas de datos como listas vacías,
-     * preparando el repositorio para almacenar las entidades del sistema.
-     * Es privado para evitar la creación de múltiples instancias.
+     * Este constructor inicializa todas las colecciones de datos y sus índices
+     * vacíos, preparando el repositorio para almacenar las entidades del sistema.
+     * Cada colección conserva el orden de registro y permite detectar duplicados
+     * en tiempo constante. Es privado para evitar la creación de múltiples instancias.
      */
     private Repositorio() {
-        this.personas = new ArrayList<>();
-        this.vehiculos = new ArrayList<>();
-        this.items = new ArrayList<>();
-        this.publicaciones = new ArrayList<>();
+        this.candadoPersonas = new ReentrantLock();
+        this.personas = new ColeccionIndexada<>(Persona::getCedula, candadoPersonas);
+        this.usuarios = new ColeccionIndexada<>(Persona::getCedula, candadoPersonas);
+        this.administradores = new ColeccionIndexada<>(Persona::getCedula, candadoPersonas);
+        this.proveedores = new ColeccionIndexada<>(Persona::getCedula, candadoPersonas);
+        this.candadoVehiculos = new ReentrantLock();
+        this.candadoItems = new ReentrantLock();
+        this.candadoPublicaciones = new ReentrantLock();
+        this.vehiculos = new ColeccionIndexada<>(Vehiculo::getId, candadoVehiculos);
+        this.items = new ColeccionIndexada<>(Item::getId, candadoItems);
+        this.publicaciones = new ColeccionIndexada<>(Publicacion::getId, candadoPublicaciones);
+        this.credenciales = new IndiceCredenciales();
+        this.indicePrefijos = new IndicePrefijos(personas, candadoPersonas);
+        this.indiceAutonomia = new IndiceAutonomia(vehiculos, candadoVehiculos);
+        this.indiceItems = new IndiceTexto<>(items, candadoItems, Item::getNombre, Item::getDescripcion);
+        this.indicePublicaciones = new IndiceTexto<>(publicaciones, candadoPublicaciones,
+                Publicacion::getTitulo, Publicacion::getDescripcion);
+        this.servicioAmistad = new ServicioAmistad(GrafoAmistad.getInstancia());
+        this.recomendador = new RecomendadorAmigos(GrafoAmistad.getInstancia(),
+                RecomendadorAmigos.VIGENCIA_POR_OMISION_MS, RecomendadorAmigos.MAXIMO_CACHE_POR_OMISION);
+        this.servicioAmistad.agregarOyente(recomendador::olvidarCambios);
+        this.recorrido = new RecorridoAmistades(GrafoAmistad.getInstancia(), RecorridoAmistades.UMBRAL_PARALELO);
+        this.verificador = new VerificadorContrasenas(Runtime.getRuntime().availableProcessors(),
+                VerificadorContrasenas.VIGENCIA_POR_OMISION_MS, VerificadorContrasenas.MAXIMO_CACHE_POR_OMISION);
+        this.contadores = new ContadoresRepositorio();
     }
     
     /**
@@ -63,108 +162,234 @@ public class Repositorio {
         return instancia;
     }
     
+    /**
+     * Obtiene la instancia del repositorio solo si ya fue creada.
+     * 
+     * Este método es utilizado por las notificaciones de cambio
+     * de las entidades, que no deben crear el repositorio como efecto
+     * secundario de un setter.
+     * 
+     * @return La instancia del repositorio o null si aún no existe
+     */
+    private static Repositorio instanciaExistente() {
+        return instancia;
+    }
+    
     // === MÉTODOS PARA GESTIÓN DE PERSONAS ===
     
     /**
      * Guarda una persona en el repositorio.
      * 
      * Este método agrega una nueva persona al sistema, verificando que
-     * no sea nula y que no esté duplicada. Es utilizado para registrar
-     * usuarios, administradores y proveedores.
+     * no sea nula y que no exista otra persona con la misma cédula.
+     * Es utilizado para registrar usuarios, administradores y proveedores.
      * 
      * @param persona La persona a guardar en el repositorio
      * @return true si la persona se guardó exitosamente, false si ya existe o es nula
      */
     public boolean guardarPersona(Persona persona) {
-        if (persona != null && !personas.contains(persona)) {
-            personas.add(persona);
+        candadoPersonas.lock();
+        try {
+            return guardarConCandado(persona);
+        } finally {
+            candadoPersonas.unlock();
+        }
+    }
+    
+    /**
+     * Guarda una persona recién registrada si nadie de su rol usa sus credenciales.
+     * 
+     * A diferencia de {@link #guardarPersona(Persona)}, que deja en espera
+     * a una persona cuyo email o cédula de inicio de sesión ya ocupa otra
+     * del mismo rol, este método la rechaza. La verificación y el registro
+     * se hacen con el candado de personas tomado, por lo que de dos
+     * registros simultáneos con el mismo email solo se guarda uno.
+     * 
+     * @param persona La persona a guardar en el repositorio
+     * @return true si la persona se guardó, false si es nula, ya existe su
+     *         cédula o sus credenciales están ocupadas
+     */
+    public boolean guardarPersonaNueva(Persona persona) {
+        if (persona == null) {
+            return false;
+        }
+        candadoPersonas.lock();
+        try {
+            return credenciales.libres(persona) && guardarConCandado(persona);
+        } finally {
+            candadoPersonas.unlock();
+        }
+    }
+    
+    /**
+     * Guarda una persona con el candado de personas tomado.
+     * 
+     * @param persona La persona a guardar
+     * @return true si la persona se guardó, false si ya existe o es nula
+     */
+    private boolean guardarConCandado(Persona persona) {
+        if (personas.agregar(persona)) {
+            agregarAParticion(persona);
+            credenciales.agregar(persona);
+            indicePrefijos.agregar(persona);
+            contadores.persona(persona, 1);
+            registrar(OperacionDiario.GUARDAR_PERSONA, persona);
             return true;
         }
         return false;
     }
     
+    /**
+     * Guarda un lote de personas en el repositorio.
+     * 
+     * Este método aplica a cada persona las mismas verificaciones que
+     * {@link #guardarPersona(Persona)}, pero toma el candado de personas
+     * una sola vez para todo el lote. Es utilizado por la importación masiva.
+     * 
+     * @param lote Las personas a guardar, en orden de registro
+     * @return Arreglo que indica, para cada persona del lote, si se guardó
+     */
+    public boolean[] guardarPersonasEnLote(List<? extends Persona> lote) {
+        candadoPersonas.lock();
+        try {
+            boolean[] guardadas = personas.agregarLote(lote);
+            for (int i = 0; i < guardadas.length; i++) {
+                if (guardadas[i]) {
+                    Persona persona = lote.get(i);
+                    agregarAParticion(persona);
+                    credenciales.agregar(persona);
+                    indicePrefijos.agregar(persona);
+                    contadores.persona(persona, 1);
+                    registrar(OperacionDiario.GUARDAR_PERSONA, persona);
+                }
+            }
+            return guardadas;
+        } finally {
+            candadoPersonas.unlock();
+        }
+    }
+    
     /**
      * Busca una persona por su cédula de identificación.
      * 
-     * Este método recorre la lista de personas para encontrar aquella
-     * que tenga la cédula especificada. Es útil para verificar si una
-     * persona ya está registrada o para obtener sus datos.
+     * Este método consulta el índice de personas por cédula, por lo que
+     * la búsqueda se realiza en tiempo constante. Es útil para verificar
+     * si una persona ya está registrada o para obtener sus datos.
      * 
      * @param cedula La cédula de la persona a buscar
      * @return La persona encontrada o null si no existe
      */
     public Persona buscarPersonaPorCedula(String cedula) {
-        return personas.stream()
-                .filter(p -> p.getCedula().equals(cedula))
-                .findFirst()
-                .orElse(null);
+        return personas.buscar(cedula);
     }
     
     /**
      * Busca un usuario por su dirección de correo electrónico.
      * 
-     * Este método busca específicamente entre los usuarios registrados
-     * para encontrar aquel que tenga el email especificado. Es utilizado
-     * para el proceso de autenticación de usuarios.
+     * Este método consulta el índice de credenciales, por lo que la
+     * búsqueda se realiza en tiempo constante. Es utilizado para el
+     * proceso de autenticación de usuarios.
      * 
      * @param email El email del usuario a buscar
      * @return El usuario encontrado o null si no existe
      */
     public Usuario buscarUsuarioPorEmail(String email) {
-        return personas.stream()
-                .filter(p -> p instanceof Usuario)
-                .map(p -> (Usuario) p)
-                .filter(u -> u.getEmail().equals(email))
-                .findFirst()
-                .orElse(null);
+        return (Usuario) credenciales.buscar(IndiceCredenciales.USUARIO, email);
+    }
+    
+    /**
+     * Busca la persona de un rol que inicia sesión con una credencial.
+     * 
+     * Los usuarios inician sesión con su email, los administradores con
+     * su cédula y los proveedores con su cédula o su email. La búsqueda
+     * consulta una sola vez el índice de credenciales.
+     * 
+     * @param <T>        Tipo de persona del rol
+     * @param rol        Clase del rol: Usuario, Administrador o Proveedor
+     * @param credencial Email o cédula con que inicia sesión
+     * @return La persona encontrada o null si no existe
+     * @throws IllegalArgumentException Si la clase no es la de ninguno de esos roles
+     */
+    public <T extends Persona> T buscarPorCredencial(Class<T> rol, String credencial) {
+        return rol.cast(credenciales.buscar(IndiceCredenciales.rolDe(rol), credencial));
     }
     
     /**
      * Obtiene todos los usuarios registrados en el sistema.
      * 
-     * Este método filtra la lista de personas para devolver solo
-     * aquellas que son instancias de Usuario. Es útil para generar
+     * Este método devuelve directamente la partición de usuarios que el
+     * repositorio mantiene al registrar y eliminar personas, sin recorrer
+     * ni filtrar la lista completa de personas. Es útil para generar
      * reportes o listados de usuarios.
      * 
-     * @return Lista de todos los usuarios del sistema
+     * @return Lista inmutable de todos los usuarios del sistema
      */
     public List<Usuario> obtenerTodosLosUsuarios() {
-        return personas.stream()
-                .filter(p -> p instanceof Usuario)
-                .map(p -> (Usuario) p)
-                .collect(Collectors.toList());
+        return usuarios.instantanea();
+    }
+    
+    /**
+     * Obtiene el número de usuarios registrados en el sistema.
+     * 
+     * Este método consulta el tamaño de la partición de usuarios,
+     * por lo que se ejecuta en tiempo constante.
+     * 
+     * @return La cantidad de usuarios del sistema
+     */
+    public int contarUsuarios() {
+        return usuarios.tamano();
     }
     
     /**
      * Obtiene todos los administradores registrados en el sistema.
      * 
-     * Este método filtra la lista de personas para devolver solo
-     * aquellas que son instancias de Administrador. Es útil para
+     * Este método devuelve directamente la partición de administradores que el
+     * repositorio mantiene al registrar y eliminar personas, sin recorrer
+     * ni filtrar la lista completa de personas. Es útil para
      * gestionar privilegios administrativos.
      * 
-     * @return Lista de todos los administradores del sistema
+     * @return Lista inmutable de todos los administradores del sistema
      */
     public List<Administrador> obtenerTodosLosAdministradores() {
-        return personas.stream()
-                .filter(p -> p instanceof Administrador)
-                .map(p -> (Administrador) p)
-                .collect(Collectors.toList());
+        return administradores.instantanea();
+    }
+    
+    /**
+     * Obtiene el número de administradores registrados en el sistema.
+     * 
+     * Este método consulta el tamaño de la partición de administradores,
+     * por lo que se ejecuta en tiempo constante.
+     * 
+     * @return La cantidad de administradores del sistema
+     */
+    public int contarAdministradores() {
+        return administradores.tamano();
     }
     
     /**
      * Obtiene todos los proveedores registrados en el sistema.
      * 
-     * Este método filtra la lista de personas para devolver solo
-     * aquellas que son instancias de Proveedor. Es útil para
+     * Este método devuelve directamente la partición de proveedores que el
+     * repositorio mantiene al registrar y eliminar personas, sin recorrer
+     * ni filtrar la lista completa de personas. Es útil para
      * gestionar el catálogo de proveedores.
      * 
-     * @return Lista de todos los proveedores del sistema
+     * @return Lista inmutable de todos los proveedores del sistema
      */
     public List<Proveedor> obtenerTodosLosProveedores() {
-        return personas.stream()
-                .filter(p -> p instanceof Proveedor)
-                .map(p -> (Proveedor) p)
-                .collect(Collectors.toList());
+        return proveedores.instantanea();
+    }
+    
+    /**
+     * Obtiene el número de proveedores registrados en el sistema.
+     * 
+     * Este método consulta el tamaño de la partición de proveedores,
+     * por lo que se ejecuta en tiempo constante.
+     * 
+     * @return La cantidad de proveedores del sistema
+     */
+    public int contarProveedores() {
+        return proveedores.tamano();
     }
     
     /**
@@ -173,11 +398,44 @@ public class Repositorio {
      * Este método remueve una persona específica del sistema.
      * Es utilizado para dar de baja usuarios, administradores o proveedores.
      * 
+     * Si la persona es un usuario, también se terminan sus amistades de
+     * forma recíproca, de modo que sus amigos dejan de tenerlo en su lista
+     * y esas eliminaciones quedan en el diario, y se libera su
+     * identificador en el grafo de amistades. Las amistades se terminan
+     * después de soltar el candado de personas, ya que modificar los amigos
+     * de un usuario toma su monitor antes que ese candado.
+     * 
      * @param persona La persona a eliminar del repositorio
      * @return true si la persona se eliminó exitosamente, false si no existía
      */
     public boolean eliminarPersona(Persona persona) {
-        return personas.remove(persona);
+        candadoPersonas.lock();
+        try {
+            if (!personas.eliminar(persona)) {
+                return false;
+            }
+            eliminarDeParticion(persona);
+            credenciales.eliminar(persona);
+            indicePrefijos.eliminar(persona);
+            contadores.persona(persona, -1);
+            registrarClaves(OperacionDiario.ELIMINAR_PERSONA, persona.getCedula());
+        } finally {
+            candadoPersonas.unlock();
+        }
+        if (persona instanceof Usuario) {
+            terminarAmistades((Usuario) persona);
+        }
+        return true;
+    }
+    
+    /**
+     * Termina todas las amistades de un usuario dado de baja y libera su identificador en el grafo.
+     * 
+     * @param usuario El usuario eliminado
+     */
+    private void terminarAmistades(Usuario usuario) {
+        recomendador.olvidar(usuario);
+        servicioAmistad.terminar(usuario);
     }
     
     // === MÉTODOS PARA GESTIÓN DE VEHÍCULOS ===
@@ -186,48 +444,81 @@ public class Repositorio {
      * Guarda un vehículo en el repositorio.
      * 
      * Este método agrega un nuevo vehículo al sistema, verificando que
-     * no sea nulo y que no esté duplicado. Es utilizado para registrar
-     * scooters, motos eléctricas y otros vehículos.
+     * no sea nulo y que no exista otro vehículo con el mismo ID.
+     * Es utilizado para registrar scooters, motos eléctricas y otros vehículos.
      * 
      * @param vehiculo El vehículo a guardar en el repositorio
      * @return true si el vehículo se guardó exitosamente, false si ya existe o es nulo
      */
     public boolean guardarVehiculo(Vehiculo vehiculo) {
-        if (vehiculo != null && !vehiculos.contains(vehiculo)) {
-            vehiculos.add(vehiculo);
-            return true;
+        candadoVehiculos.lock();
+        try {
+            if (vehiculos.agregar(vehiculo)) {
+                indiceAutonomia.agregar(vehiculo);
+                contadores.vehiculo(vehiculo, 1);
+                registrar(OperacionDiario.GUARDAR_VEHICULO, vehiculo);
+                return true;
+            }
+            return false;
+        } finally {
+            candadoVehiculos.unlock();
+        }
+    }
+    
+    /**
+     * Guarda un lote de vehículos en el repositorio.
+     * 
+     * Este método aplica a cada vehículo las mismas verificaciones que
+     * {@link #guardarVehiculo(Vehiculo)}, pero toma el candado de vehículos
+     * una sola vez para todo el lote. Es utilizado por la importación masiva.
+     * 
+     * @param lote Los vehículos a guardar, en orden de registro
+     * @return Arreglo que indica, para cada vehículo del lote, si se guardó
+     */
+    public boolean[] guardarVehiculosEnLote(List<? extends Vehiculo> lote) {
+        candadoVehiculos.lock();
+        try {
+            boolean[] guardados = vehiculos.agregarLote(lote);
+            indiceAutonomia.agregarLote(lote, guardados);
+            for (int i = 0; i < guardados.length; i++) {
+                if (guardados[i]) {
+                    Vehiculo vehiculo = lote.get(i);
+                    contadores.vehiculo(vehiculo, 1);
+                    registrar(OperacionDiario.GUARDAR_VEHICULO, vehiculo);
+                }
+            }
+            return guardados;
+        } finally {
+            candadoVehiculos.unlock();
         }
-        return false;
     }
     
     /**
      * Busca un vehículo por su identificador único.
      * 
-     * Este método recorre la lista de vehículos para encontrar aquel
-     * que tenga el ID especificado. Es útil para verificar si un
+     * Este método consulta el índice de vehículos por ID, por lo que la
+     * búsqueda se realiza en tiempo constante. Es útil para verificar si un
      * vehículo ya está registrado o para obtener sus datos.
      * 
      * @param id El ID del vehículo a buscar
      * @return El vehículo encontrado o null si no existe
      */
     public Vehiculo buscarVehiculoPorId(String id) {
-        return vehiculos.stream()
-                .filter(v -> v.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return vehiculos.buscar(id);
     }
     
     /**
      * Obtiene todos los vehículos registrados en el sistema.
      * 
-     * Este método devuelve una copia de la lista de vehículos
-     * para evitar modificaciones externas no controladas.
+     * Este método devuelve la instantánea inmutable que comparten todas
+     * las lecturas mientras la colección no cambie, sin copiarla. La
+     * lista devuelta no refleja los registros y eliminaciones posteriores.
      * Es útil para generar reportes o listados de vehículos.
      * 
-     * @return Lista de todos los vehículos del sistema
+     * @return Lista inmutable de todos los vehículos del sistema
      */
     public List<Vehiculo> obtenerTodosLosVehiculos() {
-        return new ArrayList<>(vehiculos);
+        return vehiculos.instantanea();
     }
     
     /**
@@ -240,7 +531,18 @@ public class Repositorio {
      * @return true si el vehículo se eliminó exitosamente, false si no existía
      */
     public boolean eliminarVehiculo(Vehiculo vehiculo) {
-        return vehiculos.remove(vehiculo);
+        candadoVehiculos.lock();
+        try {
+            if (vehiculos.eliminar(vehiculo)) {
+                indiceAutonomia.eliminar(vehiculo);
+                contadores.vehiculo(vehiculo, -1);
+                registrarClaves(OperacionDiario.ELIMINAR_VEHICULO, vehiculo.getId());
+                return true;
+            }
+            return false;
+        } finally {
+            candadoVehiculos.unlock();
+        }
     }
     
     // === MÉTODOS PARA GESTIÓN DE ITEMS ===
@@ -249,48 +551,81 @@ public class Repositorio {
      * Guarda un item en el repositorio.
      * 
      * Este método agrega un nuevo item (servicio o producto) al sistema,
-     * verificando que no sea nulo y que no esté duplicado. Es utilizado
-     * para registrar servicios y productos de proveedores.
+     * verificando que no sea nulo y que no exista otro item con el mismo ID.
+     * Es utilizado para registrar servicios y productos de proveedores.
      * 
      * @param item El item a guardar en el repositorio
      * @return true si el item se guardó exitosamente, false si ya existe o es nulo
      */
     public boolean guardarItem(Item item) {
-        if (item != null && !items.contains(item)) {
-            items.add(item);
-            return true;
+        candadoItems.lock();
+        try {
+            if (items.agregar(item)) {
+                indiceItems.agregar(item);
+                contadores.item(item, 1);
+                registrar(OperacionDiario.GUARDAR_ITEM, item);
+                return true;
+            }
+            return false;
+        } finally {
+            candadoItems.unlock();
+        }
+    }
+    
+    /**
+     * Guarda un lote de items en el repositorio.
+     * 
+     * Este método aplica a cada item las mismas verificaciones que
+     * {@link #guardarItem(Item)}, pero toma el candado de items
+     * una sola vez para todo el lote. Es utilizado por la importación masiva.
+     * 
+     * @param lote Los items a guardar, en orden de registro
+     * @return Arreglo que indica, para cada item del lote, si se guardó
+     */
+    public boolean[] guardarItemsEnLote(List<? extends Item> lote) {
+        candadoItems.lock();
+        try {
+            boolean[] guardados = items.agregarLote(lote);
+            indiceItems.agregarLote(lote, guardados);
+            for (int i = 0; i < guardados.length; i++) {
+                if (guardados[i]) {
+                    Item item = lote.get(i);
+                    contadores.item(item, 1);
+                    registrar(OperacionDiario.GUARDAR_ITEM, item);
+                }
+            }
+            return guardados;
+        } finally {
+            candadoItems.unlock();
         }
-        return false;
     }
     
     /**
      * Busca un item por su identificador único.
      * 
-     * Este método recorre la lista de items para encontrar aquel
-     * que tenga el ID especificado. Es útil para verificar si un
+     * Este método consulta el índice de items por ID, por lo que la
+     * búsqueda se realiza en tiempo constante. Es útil para verificar si un
      * item ya está registrado o para obtener sus datos.
      * 
      * @param id El ID del item a buscar
      * @return El item encontrado o null si no existe
      */
     public Item buscarItemPorId(String id) {
-        return items.stream()
-                .filter(i -> i.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return items.buscar(id);
     }
     
     /**
      * Obtiene todos los items registrados en el sistema.
      * 
-     * Este método devuelve una copia de la lista de items
-     * para evitar modificaciones externas no controladas.
+     * Este método devuelve la instantánea inmutable que comparten todas
+     * las lecturas mientras la colección no cambie, sin copiarla. La
+     * lista devuelta no refleja los registros y eliminaciones posteriores.
      * Es útil para generar reportes o catálogos de items.
      * 
-     * @return Lista de todos los items del sistema
+     * @return Lista inmutable de todos los items del sistema
      */
     public List<Item> obtenerTodosLosItems() {
-        return new ArrayList<>(items);
+        return items.instantanea();
     }
     
     /**
@@ -304,7 +639,18 @@ public class Repositorio {
      * @return true si el item se eliminó exitosamente, false si no existía
      */
     public boolean eliminarItem(Item item) {
-        return items.remove(item);
+        candadoItems.lock();
+        try {
+            if (items.eliminar(item)) {
+                indiceItems.eliminar(item);
+                contadores.item(item, -1);
+                registrarClaves(OperacionDiario.ELIMINAR_ITEM, item.getId());
+                return true;
+            }
+            return false;
+        } finally {
+            candadoItems.unlock();
+        }
     }
     
     // === MÉTODOS PARA GESTIÓN DE PUBLICACIONES ===
@@ -313,48 +659,81 @@ public class Repositorio {
      * Guarda una publicación en el repositorio.
      * 
      * Este método agrega una nueva publicación (evento o promoción) al sistema,
-     * verificando que no sea nula y que no esté duplicada. Es utilizado
-     * para registrar publicaciones de proveedores.
+     * verificando que no sea nula y que no exista otra publicación con el
+     * mismo ID. Es utilizado para registrar publicaciones de proveedores.
      * 
      * @param publicacion La publicación a guardar en el repositorio
      * @return true si la publicación se guardó exitosamente, false si ya existe o es nula
      */
     public boolean guardarPublicacion(Publicacion publicacion) {
-        if (publicacion != null && !publicaciones.contains(publicacion)) {
-            publicaciones.add(publicacion);
-            return true;
+        candadoPublicaciones.lock();
+        try {
+            if (publicaciones.agregar(publicacion)) {
+                indicePublicaciones.agregar(publicacion);
+                contadores.publicacion(1);
+                registrar(OperacionDiario.GUARDAR_PUBLICACION, publicacion);
+                return true;
+            }
+            return false;
+        } finally {
+            candadoPublicaciones.unlock();
+        }
+    }
+    
+    /**
+     * Guarda un lote de publicaciones en el repositorio.
+     * 
+     * Este método aplica a cada publicación las mismas verificaciones que
+     * {@link #guardarPublicacion(Publicacion)}, pero toma el candado de publicaciones
+     * una sola vez para todo el lote. Es utilizado por la importación masiva.
+     * 
+     * @param lote Las publicaciones a guardar, en orden de registro
+     * @return Arreglo que indica, para cada publicación del lote, si se guardó
+     */
+    public boolean[] guardarPublicacionesEnLote(List<? extends Publicacion> lote) {
+        candadoPublicaciones.lock();
+        try {
+            boolean[] guardadas = publicaciones.agregarLote(lote);
+            indicePublicaciones.agregarLote(lote, guardadas);
+            for (int i = 0; i < guardadas.length; i++) {
+                if (guardadas[i]) {
+                    Publicacion publicacion = lote.get(i);
+                    contadores.publicacion(1);
+                    registrar(OperacionDiario.GUARDAR_PUBLICACION, publicacion);
+                }
+            }
+            return guardadas;
+        } finally {
+            candadoPublicaciones.unlock();
         }
-        return false;
     }
     
     /**
      * Busca una publicación por su identificador único.
      * 
-     * Este método recorre la lista de publicaciones para encontrar aquella
-     * que tenga el ID especificado. Es útil para verificar si una
+     * Este método consulta el índice de publicaciones por ID, por lo que la
+     * búsqueda se realiza en tiempo constante. Es útil para verificar si una
      * publicación ya está registrada o para obtener sus datos.
      * 
      * @param id El ID de la publicación a buscar
      * @return La publicación encontrada o null si no existe
      */
     public Publicacion buscarPublicacionPorId(String id) {
-        return publicaciones.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return publicaciones.buscar(id);
     }
     
     /**
      * Obtiene todas las publicaciones registradas en el sistema.
      * 
-     * Este método devuelve una copia de la lista de publicaciones
-     * para evitar modificaciones externas no controladas.
+     * Este método devuelve la instantánea inmutable que comparten todas
+     * las lecturas mientras la colección no cambie, sin copiarla. La
+     * lista devuelta no refleja los registros y eliminaciones posteriores.
      * Es útil para generar reportes o listados de publicaciones.
      * 
-     * @return Lista de todas las publicaciones del sistema
+     * @return Lista inmutable de todas las publicaciones del sistema
      */
     public List<Publicacion> obtenerTodasLasPublicaciones() {
-        return new ArrayList<>(publicaciones);
+        return publicaciones.instantanea();
     }
     
     /**
@@ -367,50 +746,1490 @@ public class Repositorio {
      * @return true si la publicación se eliminó exitosamente, false si no existía
      */
     public boolean eliminarPublicacion(Publicacion publicacion) {
-        return publicaciones.remove(publicacion);
+        candadoPublicaciones.lock();
+        try {
+            if (publicaciones.eliminar(publicacion)) {
+                indicePublicaciones.eliminar(publicacion);
+                contadores.publicacion(-1);
+                registrarClaves(OperacionDiario.ELIMINAR_PUBLICACION, publicacion.getId());
+                return true;
+            }
+            return false;
+        } finally {
+            candadoPublicaciones.unlock();
+        }
     }
     
-    // === MÉTODOS DE ESTADÍSTICAS ===
+    // === MÉTODOS DE RECORRIDO ===
     
     /**
-     * Obtiene todas las personas registradas en el sistema.
+     * Recorre las personas registradas sin copiarlas.
      * 
-     * Este método devuelve una copia de la lista de personas
-     * para evitar modificaciones externas no controladas.
-     * Es útil para generar reportes generales del sistema.
+     * Este método aplica la acción a cada persona de la instantánea inmutable
+     * actual, en orden de registro, que es la misma que devuelve
+     * {@link #obtenerTodasLasPersonas()}. Es utilizado para exportar grandes
+     * volúmenes de datos sin duplicarlos en memoria.
      * 
-     * @return Lista de todas las personas del sistema
+     * @param accion Acción a aplicar a cada persona
      */
-    public List<Persona> obtenerTodasLasPersonas() {
-        return new ArrayList<>(personas);
+    public void recorrerPersonas(Consumer<? super Persona> accion) {
+        personas.instantanea().forEach(accion);
     }
     
     /**
-     * Obtiene estadísticas generales del repositorio.
+     * Recorre los vehículos registrados sin copiarlos.
      * 
-     * Este método genera un reporte con el número total de entidades
-     * registradas en cada categoría del sistema. Es útil para
-     * monitorear el crecimiento y uso del sistema.
+     * Este método aplica la acción a cada vehículo de la instantánea inmutable
+     * actual, en orden de registro, que es la misma que devuelve
+     * {@link #obtenerTodosLosVehiculos()}. Es utilizado para exportar grandes
+     * volúmenes de datos sin duplicarlos en memoria.
      * 
-     * @return String con las estadísticas detalladas del repositorio
+     * @param accion Acción a aplicar a cada vehículo
      */
-    public String obtenerEstadisticas() {
-        return String.format(
-            "Estadísticas del Repositorio:\n" +
-            "Personas: %d\n" +
-            "Usuarios: %d\n" +
-            "Administradores: %d\n" +
-            "Proveedores: %d\n" +
-            "Vehículos: %d\n" +
-            "Items: %d\n" +
-            "Publicaciones: %d",
-            personas.size(),
-            obtenerTodosLosUsuarios().size(),
-            obtenerTodosLosAdministradores().size(),
-            obtenerTodosLosProveedores().size(),
-            vehiculos.size(),
-            items.size(),
-            publicaciones.size()
-        );
-    }
-}
+    public void recorrerVehiculos(Consumer<? super Vehiculo> accion) {
+        vehiculos.instantanea().forEach(accion);
+    }
+    
+    /**
+     * Recorre los items registrados sin copiarlos.
+     * 
+     * Este método aplica la acción a cada item de la instantánea inmutable
+     * actual, en orden de registro, que es la misma que devuelve
+     * {@link #obtenerTodosLosItems()}. Es utilizado para exportar grandes
+     * volúmenes de datos sin duplicarlos en memoria.
+     * 
+     * @param accion Acción a aplicar a cada item
+     */
+    public void recorrerItems(Consumer<? super Item> accion) {
+        items.instantanea().forEach(accion);
+    }
+    
+    /**
+     * Recorre las publicaciones registradas sin copiarlas.
+     * 
+     * Este método aplica la acción a cada publicación de la instantánea inmutable
+     * actual, en orden de registro, que es la misma que devuelve
+     * {@link #obtenerTodasLasPublicaciones()}. Es utilizado para exportar grandes
+     * volúmenes de datos sin duplicarlos en memoria.
+     * 
+     * @param accion Acción a aplicar a cada publicación
+     */
+    public void recorrerPublicaciones(Consumer<? super Publicacion> accion) {
+        publicaciones.instantanea().forEach(accion);
+    }
+    
+    // === MÉTODOS DE PAGINACIÓN ===
+    
+    /**
+     * Obtiene una página de las personas registradas por su número.
+     * 
+     * Este método sirve la página desde la instantánea inmutable actual,
+     * sin copiar la colección completa. Es útil para pantallas que
+     * muestran una página a la vez y permiten saltar a una página dada.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    public Pagina<Persona> obtenerPaginaPersonas(CriterioOrden<? super Persona> criterio, int numero, int tamano) {
+        return personas.pagina(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de las personas que sigue a un cursor.
+     * 
+     * El cursor identifica al último elemento de la página anterior, por
+     * lo que la consulta continúa donde terminó aunque entre tanto se
+     * registren o eliminen personas.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    public Pagina<Persona> obtenerPaginaPersonas(CriterioOrden<? super Persona> criterio, String cursor, int tamano) {
+        return personas.pagina(criterio, cursor, tamano);
+    }
+    
+    /**
+     * Obtiene una página de los vehículos registrados por su número.
+     * 
+     * Este método sirve la página desde la instantánea inmutable actual,
+     * sin copiar la colección completa. Es útil para pantallas que
+     * muestran una página a la vez y permiten saltar a una página dada.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    public Pagina<Vehiculo> obtenerPaginaVehiculos(CriterioOrden<? super Vehiculo> criterio, int numero, int tamano) {
+        return vehiculos.pagina(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de los vehículos que sigue a un cursor.
+     * 
+     * El cursor identifica al último elemento de la página anterior, por
+     * lo que la consulta continúa donde terminó aunque entre tanto se
+     * registren o eliminen vehículos.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    public Pagina<Vehiculo> obtenerPaginaVehiculos(CriterioOrden<? super Vehiculo> criterio, String cursor, int tamano) {
+        return vehiculos.pagina(criterio, cursor, tamano);
+    }
+    
+    /**
+     * Obtiene una página de los items registrados por su número.
+     * 
+     * Este método sirve la página desde la instantánea inmutable actual,
+     * sin copiar la colección completa. Es útil para pantallas que
+     * muestran una página a la vez y permiten saltar a una página dada.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    public Pagina<Item> obtenerPaginaItems(CriterioOrden<? super Item> criterio, int numero, int tamano) {
+        return items.pagina(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de los items que sigue a un cursor.
+     * 
+     * El cursor identifica al último elemento de la página anterior, por
+     * lo que la consulta continúa donde terminó aunque entre tanto se
+     * registren o eliminen items.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    public Pagina<Item> obtenerPaginaItems(CriterioOrden<? super Item> criterio, String cursor, int tamano) {
+        return items.pagina(criterio, cursor, tamano);
+    }
+    
+    /**
+     * Obtiene una página de las publicaciones registradas por su número.
+     * 
+     * Este método sirve la página desde la instantánea inmutable actual,
+     * sin copiar la colección completa. Es útil para pantallas que
+     * muestran una página a la vez y permiten saltar a una página dada.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param numero   Número de la página, empezando en 0
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página solicitada, vacía si el número supera la última
+     * @throws IllegalArgumentException Si el número es negativo o el tamaño no es positivo
+     */
+    public Pagina<Publicacion> obtenerPaginaPublicaciones(CriterioOrden<? super Publicacion> criterio, int numero, int tamano) {
+        return publicaciones.pagina(criterio, numero, tamano);
+    }
+    
+    /**
+     * Obtiene la página de las publicaciones que sigue a un cursor.
+     * 
+     * El cursor identifica al último elemento de la página anterior, por
+     * lo que la consulta continúa donde terminó aunque entre tanto se
+     * registren o eliminen publicaciones.
+     * 
+     * @param criterio Criterio de ordenamiento, o null para el orden de registro
+     * @param cursor   Cursor de la página anterior con el mismo criterio, o null para la primera
+     * @param tamano   Cantidad máxima de elementos de la página
+     * @return La página que sigue al cursor
+     * @throws IllegalArgumentException Si el cursor no es válido para el criterio o el tamaño no es positivo
+     */
+    public Pagina<Publicacion> obtenerPaginaPublicaciones(CriterioOrden<? super Publicacion> criterio, String cursor, int tamano) {
+        return publicaciones.pagina(criterio, cursor, tamano);
+    }
+    
+    // === MÉTODOS DE CONSULTA ===
+    
+    /**
+     * Crea una consulta sobre las personas registradas.
+     * 
+     * La consulta no tiene condiciones; se le agregan con
+     * {@link Consulta#donde(Condicion)} y se ejecuta al recorrerla.
+     * 
+     * @return Consulta sin condiciones sobre las personas
+     */
+    public Consulta<Persona> consultarPersonas() {
+        return new Consulta<>(personas, CriterioOrden.PERSONAS_POR_CEDULA);
+    }
+    
+    /**
+     * Crea una consulta sobre los usuarios registrados, a partir de su partición.
+     * 
+     * La consulta no tiene condiciones; se le agregan con
+     * {@link Consulta#donde(Condicion)} y se ejecuta al recorrerla.
+     * 
+     * @return Consulta sin condiciones sobre los usuarios
+     */
+    public Consulta<Usuario> consultarUsuarios() {
+        return new Consulta<>(usuarios, CriterioOrden.PERSONAS_POR_CEDULA);
+    }
+    
+    /**
+     * Crea una consulta sobre los administradores registrados, a partir de su partición.
+     * 
+     * La consulta no tiene condiciones; se le agregan con
+     * {@link Consulta#donde(Condicion)} y se ejecuta al recorrerla.
+     * 
+     * @return Consulta sin condiciones sobre los administradores
+     */
+    public Consulta<Administrador> consultarAdministradores() {
+        return new Consulta<>(administradores, CriterioOrden.PERSONAS_POR_CEDULA);
+    }
+    
+    /**
+     * Crea una consulta sobre los proveedores registrados, a partir de su partición.
+     * 
+     * La consulta no tiene condiciones; se le agregan con
+     * {@link Consulta#donde(Condicion)} y se ejecuta al recorrerla.
+     * 
+     * @return Consulta sin condiciones sobre los proveedores
+     */
+    public Consulta<Proveedor> consultarProveedores() {
+        return new Consulta<>(proveedores, CriterioOrden.PERSONAS_POR_CEDULA);
+    }
+    
+    /**
+     * Crea una consulta sobre los vehículos registrados.
+     * 
+     * La consulta no tiene condiciones; se le agregan con
+     * {@link Consulta#donde(Condicion)} y se ejecuta al recorrerla.
+     * 
+     * @return Consulta sin condiciones sobre los vehículos
+     */
+    public Consulta<Vehiculo> consultarVehiculos() {
+        return new Consulta<>(vehiculos, CriterioOrden.VEHICULOS_POR_ID);
+    }
+    
+    /**
+     * Crea una consulta sobre los items registrados.
+     * 
+     * La consulta no tiene condiciones; se le agregan con
+     * {@link Consulta#donde(Condicion)} y se ejecuta al recorrerla.
+     * 
+     * @return Consulta sin condiciones sobre los items
+     */
+    public Consulta<Item> consultarItems() {
+        return new Consulta<>(items, CriterioOrden.ITEMS_POR_ID);
+    }
+    
+    /**
+     * Crea una consulta sobre las publicaciones registradas.
+     * 
+     * La consulta no tiene condiciones; se le agregan con
+     * {@link Consulta#donde(Condicion)} y se ejecuta al recorrerla.
+     * 
+     * @return Consulta sin condiciones sobre las publicaciones
+     */
+    public Consulta<Publicacion> consultarPublicaciones() {
+        return new Consulta<>(publicaciones, CriterioOrden.PUBLICACIONES_POR_ID);
+    }
+    
+    // === MÉTODOS DE SUGERENCIAS ===
+    
+    /**
+     * Sugiere las personas cuyo nombre, cédula o email empiezan por un prefijo.
+     * 
+     * Este método consulta el índice de prefijos de las personas, que no
+     * distingue mayúsculas ni tildes y reconoce el comienzo de cualquier
+     * palabra del nombre, por lo que puede invocarse en cada pulsación de
+     * tecla sin recorrer las personas registradas.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista inmutable de personas sugeridas
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    public List<Persona> sugerirPersonas(String prefijo, int cantidad) {
+        return indicePrefijos.sugerir(prefijo, cantidad, persona -> true);
+    }
+    
+    /**
+     * Sugiere los usuarios cuyo nombre, cédula o email empiezan por un prefijo.
+     * 
+     * Este método aplica las mismas reglas que {@link #sugerirPersonas(String, int)}
+     * y omite a las personas que no son usuarios. Es utilizado al buscar amigos.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista inmutable de usuarios sugeridos
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @SuppressWarnings("unchecked")
+    public List<Usuario> sugerirUsuarios(String prefijo, int cantidad) {
+        return (List<Usuario>) (List<?>) indicePrefijos.sugerir(prefijo, cantidad, persona -> persona instanceof Usuario);
+    }
+    
+    /**
+     * Sugiere los proveedores cuyo nombre, cédula o email empiezan por un prefijo.
+     * 
+     * Este método aplica las mismas reglas que {@link #sugerirPersonas(String, int)}
+     * y omite a las personas que no son proveedores.
+     * 
+     * @param prefijo  Texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista inmutable de proveedores sugeridos
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    @SuppressWarnings("unchecked")
+    public List<Proveedor> sugerirProveedores(String prefijo, int cantidad) {
+        return (List<Proveedor>) (List<?>) indicePrefijos.sugerir(prefijo, cantidad, persona -> persona instanceof Proveedor);
+    }
+    
+    // === MÉTODOS DE BÚSQUEDA POR AUTONOMÍA ===
+    
+    /**
+     * Busca los vehículos cuya autonomía está dentro de un rango.
+     * 
+     * Este método resuelve el rango con dos búsquedas binarias sobre el
+     * índice de autonomía del tipo indicado y devuelve el tramo del índice
+     * sin recorrer ni copiar el resto de los vehículos. Es utilizado para
+     * encontrar vehículos con autonomía suficiente para un recorrido.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param minimoKm Autonomía mínima en kilómetros, incluida
+     * @param maximoKm Autonomía máxima en kilómetros, incluida
+     * @return Lista inmutable de vehículos de menor a mayor autonomía
+     */
+    public List<Vehiculo> buscarVehiculosPorAutonomia(String tipo, int minimoKm, int maximoKm) {
+        return indiceAutonomia.rango(tipo, minimoKm, maximoKm);
+    }
+    
+    /**
+     * Cuenta los vehículos cuya autonomía está dentro de un rango.
+     * 
+     * Este método obtiene la cantidad a partir de las posiciones del rango
+     * en el índice de autonomía, sin recorrer los vehículos.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param minimoKm Autonomía mínima en kilómetros, incluida
+     * @param maximoKm Autonomía máxima en kilómetros, incluida
+     * @return La cantidad de vehículos en el rango
+     */
+    public int contarVehiculosPorAutonomia(String tipo, int minimoKm, int maximoKm) {
+        return indiceAutonomia.contar(tipo, minimoKm, maximoKm);
+    }
+    
+    /**
+     * Obtiene los vehículos de mayor autonomía.
+     * 
+     * Este método toma los vehículos del final del índice de autonomía, por
+     * lo que su costo depende de la cantidad pedida y no del total de vehículos.
+     * 
+     * @param tipo     Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param cantidad Cantidad máxima de vehículos a obtener
+     * @return Lista inmutable de vehículos de mayor a menor autonomía
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    public List<Vehiculo> obtenerVehiculosConMayorAutonomia(String tipo, int cantidad) {
+        return indiceAutonomia.mayores(tipo, cantidad);
+    }
+    
+    /**
+     * Obtiene la autonomía de un percentil de los vehículos.
+     * 
+     * El percentil p es la menor autonomía tal que al menos el p por ciento
+     * de los vehículos tiene esa autonomía o una menor; por ejemplo, el
+     * percentil 50 es la mediana. Es útil para las estadísticas de la flota.
+     * 
+     * @param tipo      Tipo de vehículo (Scooter o Moto Eléctrica), o null para todos los tipos
+     * @param percentil Percentil entre 0 y 100
+     * @return La autonomía en kilómetros del percentil, o -1 si no hay vehículos
+     * @throws IllegalArgumentException Si el percentil está fuera de rango
+     */
+    public int obtenerPercentilAutonomia(String tipo, double percentil) {
+        return indiceAutonomia.percentil(tipo, percentil);
+    }
+    
+    // === MÉTODOS DE BÚSQUEDA POR TEXTO ===
+    
+    /**
+     * Busca los items cuyo nombre o descripción contienen todas las palabras de un texto.
+     * 
+     * Este método consulta el índice de texto completo de los items: la
+     * búsqueda no distingue mayúsculas ni tildes, ignora las palabras
+     * vacías del español y acepta el comienzo de una palabra, por lo que
+     * "bici" encuentra "bicicleta". Los resultados se ordenan por relevancia
+     * (BM25), y las palabras del nombre pesan más que las de la descripción.
+     * 
+     * @param texto  Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista inmutable de items, del más al menos relevante
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    public List<Item> buscarItemsPorTexto(String texto, int limite) {
+        return indiceItems.buscar(texto, limite);
+    }
+    
+    /**
+     * Busca las publicaciones cuyo título o descripción contienen todas las palabras de un texto.
+     * 
+     * Este método consulta el índice de texto completo de las publicaciones,
+     * con las mismas reglas que {@link #buscarItemsPorTexto(String, int)};
+     * las palabras del título pesan más que las de la descripción.
+     * 
+     * @param texto  Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Lista inmutable de publicaciones, de la más a la menos relevante
+     * @throws IllegalArgumentException Si el límite es negativo
+     */
+    public List<Publicacion> buscarPublicacionesPorTexto(String texto, int limite) {
+        return indicePublicaciones.buscar(texto, limite);
+    }
+    
+    // === MÉTODOS DE AMISTADES ===
+    
+    /**
+     * Hace amigos a dos usuarios, agregando a cada uno a los amigos del otro.
+     * 
+     * @param usuario El primer usuario
+     * @param amigo   El segundo usuario
+     * @return true si la amistad cambió en alguno de los dos usuarios, false si
+     *         ya eran amigos mutuos o son el mismo usuario
+     * @throws IllegalArgumentException Si algún usuario es nulo
+     */
+    public boolean agregarAmistad(Usuario usuario, Usuario amigo) {
+        return !servicioAmistad.aplicar(List.of(CambioAmistad.agregar(usuario, amigo))).isEmpty();
+    }
+    
+    /**
+     * Termina la amistad entre dos usuarios, quitando a cada uno de los amigos del otro.
+     * 
+     * @param usuario El primer usuario
+     * @param amigo   El segundo usuario
+     * @return true si la amistad cambió en alguno de los dos usuarios, false si no eran amigos
+     * @throws IllegalArgumentException Si algún usuario es nulo
+     */
+    public boolean eliminarAmistad(Usuario usuario, Usuario amigo) {
+        return !servicioAmistad.aplicar(List.of(CambioAmistad.eliminar(usuario, amigo))).isEmpty();
+    }
+    
+    /**
+     * Aplica un lote de cambios de amistades de forma recíproca.
+     * 
+     * Este método es utilizado para importar listas de contactos: el lote
+     * se aplica con una sola toma del candado de amistades y los amigos de
+     * cada usuario se modifican una sola vez, sin importar cuántas
+     * amistades del lote lo involucren. Si un mismo par aparece varias
+     * veces, cuenta el último cambio pedido.
+     * 
+     * @param cambios Cambios pedidos, en orden
+     * @return Lista inmutable de los cambios efectivamente aplicados
+     * @throws IllegalArgumentException Si la lista de cambios es nula
+     */
+    public List<CambioAmistad> aplicarCambiosDeAmistad(List<CambioAmistad> cambios) {
+        if (cambios == null) {
+            throw new IllegalArgumentException("La lista de cambios no puede ser nula");
+        }
+        return servicioAmistad.aplicar(cambios);
+    }
+    
+    /**
+     * Registra un oyente que recibe los cambios de amistades aplicados.
+     * 
+     * @param oyente El oyente a registrar
+     * @throws IllegalArgumentException Si el oyente es nulo
+     */
+    public void agregarOyenteAmistades(IOyenteAmistades oyente) {
+        servicioAmistad.agregarOyente(oyente);
+    }
+    
+    /**
+     * Retira un oyente de los cambios de amistades.
+     * 
+     * @param oyente El oyente a retirar
+     * @return true si el oyente estaba registrado
+     */
+    public boolean quitarOyenteAmistades(IOyenteAmistades oyente) {
+        return servicioAmistad.quitarOyente(oyente);
+    }
+    
+    // === MÉTODOS DE RECOMENDACIÓN DE AMIGOS ===
+    
+    /**
+     * Cuenta los amigos en común entre dos usuarios.
+     * 
+     * Este método interseca los identificadores ordenados de los amigos de
+     * ambos usuarios en el grafo de amistades, sin recorrer sus listas.
+     * 
+     * @param a Primer usuario
+     * @param b Segundo usuario
+     * @return La cantidad de usuarios que son amigos de ambos
+     */
+    public int contarAmigosEnComun(Usuario a, Usuario b) {
+        return recomendador.contarEnComun(a, b);
+    }
+    
+    /**
+     * Obtiene los amigos en común entre dos usuarios.
+     * 
+     * @param a Primer usuario
+     * @param b Segundo usuario
+     * @return Lista inmutable de los usuarios que son amigos de ambos
+     */
+    public List<Usuario> obtenerAmigosEnComun(Usuario a, Usuario b) {
+        return recomendador.enComun(a, b);
+    }
+    
+    /**
+     * Recomienda a un usuario personas que quizá conozca.
+     * 
+     * Los candidatos son los amigos de sus amigos que aún no son sus amigos,
+     * ordenados por la cantidad de amigos en común. Las recomendaciones se
+     * guardan en una caché acotada y con vencimiento, y se recalculan
+     * cuando vencen o cuando cambian los amigos del usuario o los de alguno
+     * de sus amigos.
+     * 
+     * @param usuario  El usuario al que se le recomiendan amigos
+     * @param cantidad Cantidad máxima de recomendaciones
+     * @return Lista inmutable de recomendaciones, de más a menos amigos en común
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    public List<RecomendacionAmigo> recomendarAmigos(Usuario usuario, int cantidad) {
+        return recomendador.recomendar(usuario, cantidad);
+    }
+    
+    /**
+     * Precalcula en paralelo las recomendaciones de todos los usuarios registrados.
+     * 
+     * Este método reparte los usuarios entre los núcleos disponibles y deja
+     * sus recomendaciones en la caché, de modo que las consultas siguientes
+     * no las calculen mientras no cambien las amistades de las que dependen.
+     * 
+     * @param cantidad Cantidad de recomendaciones a precalcular por usuario
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    public void precalcularRecomendaciones(int cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad de recomendaciones no puede ser negativa");
+        }
+        recomendador.precalcular(usuarios.instantanea(), cantidad);
+    }
+    
+    // === MÉTODOS DE CONEXIÓN ENTRE USUARIOS ===
+    
+    /**
+     * Calcula los grados de separación entre dos usuarios.
+     * 
+     * Este método busca el camino más corto de amistades desde ambos
+     * usuarios a la vez y se detiene al superar la cantidad máxima de
+     * saltos, por lo que una consulta acotada no recorre el grafo completo.
+     * 
+     * @param origen       Usuario de partida
+     * @param destino      Usuario buscado
+     * @param maximoSaltos Cantidad máxima de saltos a considerar
+     * @return La cantidad de saltos entre ambos, 0 si son el mismo usuario, o -1
+     *         si no están conectados en como máximo maximoSaltos saltos
+     * @throws IllegalArgumentException Si la cantidad máxima de saltos es negativa
+     */
+    public int calcularGradosDeSeparacion(Usuario origen, Usuario destino, int maximoSaltos) {
+        validarSaltos(maximoSaltos);
+        return recorrido.gradosDeSeparacion(origen, destino, maximoSaltos);
+    }
+    
+    /**
+     * Obtiene el camino más corto de amistades entre dos usuarios.
+     * 
+     * @param origen       Usuario de partida
+     * @param destino      Usuario buscado
+     * @param maximoSaltos Cantidad máxima de saltos a considerar
+     * @return Lista inmutable de usuarios desde el origen hasta el destino, ambos
+     *         incluidos, o lista vacía si no están conectados en como máximo maximoSaltos saltos
+     * @throws IllegalArgumentException Si la cantidad máxima de saltos es negativa
+     */
+    public List<Usuario> obtenerCaminoDeAmistad(Usuario origen, Usuario destino, int maximoSaltos) {
+        validarSaltos(maximoSaltos);
+        return recorrido.caminoMasCorto(origen, destino, maximoSaltos);
+    }
+    
+    /**
+     * Obtiene los usuarios a los que se llega desde uno en a lo sumo una cantidad de saltos de amistad.
+     * 
+     * Cuando un nivel del recorrido es grande, se expande en paralelo.
+     * 
+     * @param origen Usuario de partida
+     * @param saltos Cantidad máxima de saltos
+     * @return Lista inmutable de usuarios alcanzados, sin el origen, de los más
+     *         cercanos a los más lejanos
+     * @throws IllegalArgumentException Si la cantidad de saltos es negativa
+     */
+    public List<Usuario> obtenerUsuariosAMenosDe(Usuario origen, int saltos) {
+        validarSaltos(saltos);
+        return recorrido.alcanzables(origen, saltos);
+    }
+    
+    /**
+     * Valida una cantidad de saltos de amistad.
+     * 
+     * @param saltos Cantidad de saltos
+     * @throws IllegalArgumentException Si la cantidad es negativa
+     */
+    private static void validarSaltos(int saltos) {
+        if (saltos < 0) {
+            throw new IllegalArgumentException("La cantidad de saltos no puede ser negativa");
+        }
+    }
+    
+    // === MÉTODOS DE AUTENTICACIÓN ===
+    
+    /**
+     * Verifica la contraseña de una persona.
+     * 
+     * La verificación se hace contra el hash guardado de la contraseña, en
+     * un ejecutor con un hilo por núcleo que acota el costo de las ráfagas
+     * de inicios de sesión. Una contraseña verificada hace poco se confirma
+     * desde una caché sin volver a calcular el hash. Si la persona tenía la
+     * contraseña guardada en texto plano, al verificarla se reemplaza por
+     * su hash.
+     * 
+     * @param persona  La persona que inicia sesión
+     * @param password Contraseña en texto plano
+     * @return true si la contraseña es correcta; false si no lo es o si algún
+     *         argumento es nulo
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones en espera
+     */
+    public boolean verificarContrasena(Persona persona, String password) {
+        return persona != null && verificador.verificar(persona, password);
+    }
+    
+    /**
+     * Autentica a una persona de cualquier rol por su credencial y su contraseña.
+     * 
+     * El rol se resuelve con una sola consulta al índice de credenciales,
+     * que devuelve a la vez las personas de cada rol que inician sesión con
+     * la credencial. Si varias la comparten (por ejemplo, un usuario y un
+     * proveedor con el mismo email), se autentica la primera, en el orden
+     * usuario, administrador y proveedor, cuya contraseña coincide.
+     * 
+     * @param credencial Email o cédula con que inicia sesión
+     * @param password   Contraseña en texto plano
+     * @return La persona autenticada o null si las credenciales son inválidas
+     * @throws RejectedExecutionException Si hay demasiadas verificaciones en espera
+     */
+    public Persona autenticar(String credencial, String password) {
+        Persona[] candidatos = credenciales.candidatos(credencial);
+        if (candidatos != null) {
+            for (Persona candidato : candidatos) {
+                if (candidato != null && verificador.verificar(candidato, password)) {
+                    return candidato;
+                }
+            }
+        }
+        return null;
+    }
+    
+    // === MÉTODOS DE ESTADÍSTICAS ===
+    
+    /**
+     * Obtiene todas las personas registradas en el sistema.
+     * 
+     * Este método devuelve la instantánea inmutable que comparten todas
+     * las lecturas mientras la colección no cambie, sin copiarla. La
+     * lista devuelta no refleja los registros y eliminaciones posteriores.
+     * Es útil para generar reportes generales del sistema.
+     * 
+     * @return Lista inmutable de todas las personas del sistema
+     */
+    public List<Persona> obtenerTodasLasPersonas() {
+        return personas.instantanea();
+    }
+    
+    /**
+     * Obtiene una instantánea estructurada de las estadísticas del repositorio.
+     * 
+     * Este método construye la instantánea a partir de contadores atómicos
+     * que se actualizan en cada registro y eliminación, por lo que no recorre
+     * las listas de entidades y puede invocarse muchas veces por segundo.
+     * Incluye el desglose de vehículos e items por tipo.
+     * 
+     * @return Las estadísticas del repositorio en este momento
+     */
+    public EstadisticasRepositorio obtenerInstantaneaEstadisticas() {
+        return contadores.instantanea();
+    }
+    
+    /**
+     * Obtiene estadísticas generales del repositorio.
+     * 
+     * Este método genera un reporte con el número total de entidades
+     * registradas en cada categoría del sistema. Es útil para
+     * monitorear el crecimiento y uso del sistema.
+     * 
+     * @return String con las estadísticas detalladas del repositorio
+     */
+    public String obtenerEstadisticas() {
+        return obtenerInstantaneaEstadisticas().toString();
+    }
+    
+    // === MÉTODOS DE PERSISTENCIA ===
+    
+    /**
+     * Habilita la persistencia del repositorio en un directorio de datos.
+     * 
+     * Este método carga la última instantánea y reproduce el diario que
+     * existan en el directorio para recuperar las entidades y relaciones
+     * registradas en ejecuciones anteriores, y luego abre el diario para
+     * registrar las modificaciones siguientes. Debe invocarse al iniciar la aplicación, antes de que
+     * otros hilos empiecen a usar el repositorio.
+     * 
+     * Las escrituras solo copian el registro en memoria; un hilo de fondo
+     * lo lleva a disco en lotes pocos milisegundos después. Para esperar a
+     * que todo lo registrado sea durable se puede invocar {@link #sincronizarPersistencia()}.
+     * 
+     * @param directorio Directorio donde se guardan los archivos de datos
+     * @throws IOException Si no se puede leer o abrir el diario
+     * @throws IllegalStateException Si la persistencia ya estaba habilitada o hay un almacén mapeado montado
+     */
+    public synchronized void habilitarPersistencia(Path directorio) throws IOException {
+        if (persistencia != null) {
+            throw new IllegalStateException("La persistencia del repositorio ya está habilitada");
+        }
+        if (almacenMapeado != null) {
+            throw new IllegalStateException("No se puede habilitar la persistencia con un almacén mapeado montado");
+        }
+        PersistenciaRepositorio nueva = new PersistenciaRepositorio(this, directorio);
+        nueva.recuperar();
+        persistencia = nueva;
+    }
+    
+    /**
+     * Verifica si la persistencia del repositorio está habilitada.
+     * 
+     * @return true si las modificaciones se están registrando en disco
+     */
+    public boolean isPersistenciaHabilitada() {
+        return persistencia != null;
+    }
+    
+    /**
+     * Espera a que todas las modificaciones registradas hasta ahora sean durables en disco.
+     * 
+     * @throws IOException Si el diario no pudo escribir en disco
+     */
+    public void sincronizarPersistencia() throws IOException {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual != null) {
+            actual.sincronizar();
+        }
+    }
+    
+    /**
+     * Toma de inmediato una instantánea del repositorio y compacta el diario.
+     * 
+     * La persistencia ya toma instantáneas en segundo plano cuando el diario
+     * crece; este método permite forzarla, por ejemplo antes de un cierre
+     * planificado, para que el siguiente inicio sea lo más rápido posible.
+     * Las escrituras pueden continuar mientras se toma la instantánea.
+     * 
+     * @throws IOException Si no se puede escribir la instantánea
+     * @throws IllegalStateException Si la persistencia no está habilitada
+     */
+    public void compactarPersistencia() throws IOException {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual == null) {
+            throw new IllegalStateException("La persistencia del repositorio no está habilitada");
+        }
+        actual.compactar();
+    }
+    
+    /**
+     * Deshabilita la persistencia después de llevar a disco las modificaciones pendientes.
+     * 
+     * Este método toma los candados de escritura de todos los tipos de
+     * entidad para que ninguna escritura en curso quede a medio registrar.
+     * Es utilizado al cerrar la aplicación.
+     * 
+     * @throws IOException Si ocurre un error al escribir o cerrar el diario
+     */
+    public synchronized void cerrarPersistencia() throws IOException {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual == null) {
+            return;
+        }
+        candadoPersonas.lock();
+        candadoVehiculos.lock();
+        candadoItems.lock();
+        candadoPublicaciones.lock();
+        try {
+            persistencia = null;
+        } finally {
+            candadoPublicaciones.unlock();
+            candadoItems.unlock();
+            candadoVehiculos.unlock();
+            candadoPersonas.unlock();
+        }
+        actual.close();
+    }
+    
+    // === MÉTODOS DEL ALMACÉN MAPEADO ===
+    
+    /**
+     * Monta un archivo de almacén mapeado como respaldo del catálogo.
+     * 
+     * Este método abre el archivo en memoria mapeada y registra sus
+     * vehículos, items y publicaciones sin leerlos: cada entidad se
+     * materializa en el heap la primera vez que se consulta, por lo que el
+     * arranque no depende del tamaño del catálogo. Las búsquedas por ID se
+     * resuelven por búsqueda binaria sobre el archivo.
+     * 
+     * El archivo es de solo lectura; las altas, bajas y modificaciones
+     * posteriores se hacen en memoria y pueden conservarse exportando de
+     * nuevo el catálogo con {@link #exportarAlmacenMapeado(Path)}. Debe
+     * invocarse al iniciar la aplicación, antes de registrar entidades del
+     * catálogo, y no puede combinarse con la persistencia por diario.
+     * 
+     * @param archivo Archivo del almacén mapeado
+     * @throws IOException Si el archivo no es un almacén válido o no se puede leer
+     * @throws IllegalStateException Si ya hay un almacén montado, la persistencia
+     *                               está habilitada o el catálogo no está vacío
+     */
+    public synchronized void montarAlmacenMapeado(Path archivo) throws IOException {
+        if (almacenMapeado != null) {
+            throw new IllegalStateException("Ya hay un almacén mapeado montado");
+        }
+        if (persistencia != null) {
+            throw new IllegalStateException("No se puede montar un almacén mapeado con la persistencia habilitada");
+        }
+        AlmacenMapeado almacen = AlmacenMapeado.abrir(archivo);
+        candadoVehiculos.lock();
+        candadoItems.lock();
+        candadoPublicaciones.lock();
+        try {
+            if (vehiculos.tamano() > 0 || items.tamano() > 0 || publicaciones.tamano() > 0) {
+                throw new IllegalStateException("Solo se puede montar un almacén mapeado con el catálogo vacío");
+            }
+            vehiculos.montar(almacen.getVehiculos());
+            indiceAutonomia.descartar();
+            items.montar(almacen.getItems());
+            indiceItems.descartar();
+            publicaciones.montar(almacen.getPublicaciones());
+            indicePublicaciones.descartar();
+            almacen.getVehiculos().getCantidadPorTipo().forEach(contadores::vehiculos);
+            almacen.getItems().getCantidadPorTipo().forEach(contadores::items);
+            contadores.publicaciones(almacen.getPublicaciones().tamano());
+            almacenMapeado = almacen;
+        } finally {
+            candadoPublicaciones.unlock();
+            candadoItems.unlock();
+            candadoVehiculos.unlock();
+        }
+    }
+    
+    /**
+     * Verifica si hay un almacén mapeado montado como respaldo del catálogo.
+     * 
+     * @return true si el catálogo está respaldado por un almacén mapeado
+     */
+    public boolean isAlmacenMapeadoMontado() {
+        return almacenMapeado != null;
+    }
+    
+    /**
+     * Exporta los vehículos, items y publicaciones a un archivo de almacén mapeado.
+     * 
+     * El archivo generado puede montarse en un inicio posterior con
+     * {@link #montarAlmacenMapeado(Path)}. Se escribe primero en un archivo
+     * temporal que luego reemplaza al destino, por lo que un destino que
+     * ya existía no queda a medio escribir. No se puede exportar sobre el
+     * archivo montado: en algunos sistemas, como Windows, un archivo
+     * mapeado en memoria no puede reemplazarse mientras siga abierto.
+     * 
+     * @param archivo Archivo de destino
+     * @throws IOException Si ocurre un error al escribir el archivo
+     * @throws IllegalArgumentException Si el destino es el archivo del almacén montado
+     */
+    public void exportarAlmacenMapeado(Path archivo) throws IOException {
+        AlmacenMapeado montado = almacenMapeado;
+        if (montado != null && Files.exists(archivo) && Files.isSameFile(archivo, montado.getArchivo())) {
+            throw new IllegalArgumentException("No se puede exportar sobre el almacén mapeado montado: " + archivo);
+        }
+        AlmacenMapeado.escribir(archivo, vehiculos.instantanea(), items.instantanea(),
+                publicaciones.instantanea());
+    }
+    
+    /**
+     * Registra en el diario una operación sobre una persona, si la persistencia está habilitada.
+     * 
+     * @param operacion La operación realizada
+     * @param persona   La persona afectada
+     */
+    private void registrar(OperacionDiario operacion, Persona persona) {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual != null) {
+            actual.registrar(operacion, persona);
+        }
+    }
+    
+    /**
+     * Registra en el diario una operación sobre un vehículo, si la persistencia está habilitada.
+     * 
+     * @param operacion La operación realizada
+     * @param vehiculo  El vehículo afectado
+     */
+    private void registrar(OperacionDiario operacion, Vehiculo vehiculo) {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual != null) {
+            actual.registrar(operacion, vehiculo);
+        }
+    }
+    
+    /**
+     * Registra en el diario una operación sobre un item, si la persistencia está habilitada.
+     * 
+     * @param operacion La operación realizada
+     * @param item      El item afectado
+     */
+    private void registrar(OperacionDiario operacion, Item item) {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual != null) {
+            actual.registrar(operacion, item);
+        }
+    }
+    
+    /**
+     * Registra en el diario una operación sobre una publicación, si la persistencia está habilitada.
+     * 
+     * @param operacion   La operación realizada
+     * @param publicacion La publicación afectada
+     */
+    private void registrar(OperacionDiario operacion, Publicacion publicacion) {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual != null) {
+            actual.registrar(operacion, publicacion);
+        }
+    }
+    
+    /**
+     * Registra en el diario una operación identificada por claves, si la persistencia está habilitada.
+     * 
+     * @param operacion La operación realizada
+     * @param claves    Las claves de la operación
+     */
+    private void registrarClaves(OperacionDiario operacion, String... claves) {
+        PersistenciaRepositorio actual = persistencia;
+        if (actual != null) {
+            actual.registrarClaves(operacion, claves);
+        }
+    }
+    
+    // === MÉTODOS DE MANTENIMIENTO DE ÍNDICES ===
+    
+    /**
+     * Agrega una persona a la partición que corresponde a su rol.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona a agregar a su partición
+     */
+    private void agregarAParticion(Persona persona) {
+        if (persona instanceof Usuario) {
+            usuarios.agregar((Usuario) persona);
+        } else if (persona instanceof Administrador) {
+            administradores.agregar((Administrador) persona);
+        } else if (persona instanceof Proveedor) {
+            proveedores.agregar((Proveedor) persona);
+        }
+    }
+    
+    /**
+     * Retira una persona de la partición que corresponde a su rol.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona La persona a retirar de su partición
+     */
+    private void eliminarDeParticion(Persona persona) {
+        if (persona instanceof Usuario) {
+            usuarios.eliminar((Usuario) persona);
+        } else if (persona instanceof Administrador) {
+            administradores.eliminar((Administrador) persona);
+        } else if (persona instanceof Proveedor) {
+            proveedores.eliminar((Proveedor) persona);
+        }
+    }
+    
+    /**
+     * Actualiza la clave de una persona en la partición de su rol.
+     * 
+     * Este método debe invocarse con el candado de personas tomado.
+     * 
+     * @param persona  La persona cuya cédula cambió
+     * @param anterior La cédula que tenía antes del cambio
+     */
+    private void recodificarEnParticion(Persona persona, String anterior) {
+        if (persona instanceof Usuario) {
+            usuarios.recodificar((Usuario) persona, anterior);
+        } else if (persona instanceof Administrador) {
+            administradores.recodificar((Administrador) persona, anterior);
+        } else if (persona instanceof Proveedor) {
+            proveedores.recodificar((Proveedor) persona, anterior);
+        }
+    }
+    
+    /**
+     * Descarta el ordenamiento de un campo en las personas y en la partición del rol de una persona.
+     * 
+     * Este método debe invocarse con el candado de personas tomado cuando
+     * cambia un campo de una persona registrada que no es su cédula.
+     * 
+     * @param persona La persona modificada
+     * @param campo   Nombre del campo modificado
+     */
+    private void descartarOrdenamientoDePersonas(Persona persona, String campo) {
+        personas.descartarOrdenamiento(campo);
+        if (persona instanceof Usuario) {
+            usuarios.descartarOrdenamiento(campo);
+        } else if (persona instanceof Administrador) {
+            administradores.descartarOrdenamiento(campo);
+        } else if (persona instanceof Proveedor) {
+            proveedores.descartarOrdenamiento(campo);
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que la cédula de una persona va a cambiar.
+     * 
+     * Este método es invocado por {@link Persona#setCedula(String)} para
+     * mantener consistentes la colección de personas indexada por cédula
+     * y la partición correspondiente a su rol. La nueva cédula se valida
+     * y se asigna con el candado de personas tomado, de modo que un cambio
+     * hacia la cédula de otra persona se rechaza sin modificar la persona
+     * y ningún índice queda apuntando a una persona cuya cédula ya no es
+     * la de su clave. Con el mismo candado se descartan los ordenamientos
+     * por cédula, que quedarían desordenados con la nueva cédula.
+     * 
+     * @param persona La persona que se modifica
+     * @param nueva   La nueva cédula
+     * @param asignar Asignación de la nueva cédula a la persona
+     * @throws IllegalArgumentException Si la persona está registrada y la
+     *                                  cédula es nula o ya pertenece a otra persona
+     */
+    static void notificarCambioCedula(Persona persona, String nueva, Runnable asignar) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio == null) {
+            asignar.run();
+            return;
+        }
+        repositorio.candadoPersonas.lock();
+        try {
+            String anterior = persona.getCedula();
+            boolean registrada = repositorio.personas.validarCambioClave(persona, nueva);
+            asignar.run();
+            if (registrada && repositorio.personas.recodificar(persona, anterior)) {
+                repositorio.recodificarEnParticion(persona, anterior);
+                repositorio.descartarOrdenamientoDePersonas(persona, "cedula");
+                repositorio.credenciales.reindexar(persona);
+                repositorio.indicePrefijos.reindexar(persona);
+                repositorio.registrarClaves(OperacionDiario.CAMBIAR_CEDULA, anterior, nueva);
+            }
+        } finally {
+            repositorio.candadoPersonas.unlock();
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que el email de una persona cambió.
+     * 
+     * Este método es invocado por los métodos setEmail de las subclases
+     * de {@link Persona} para mantener consistente el índice de
+     * credenciales y registrar el cambio en el diario si la persona está
+     * registrada.
+     * 
+     * @param persona La persona modificada
+     */
+    static void notificarCambioEmail(Persona persona) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoPersonas.lock();
+            try {
+                repositorio.credenciales.reindexar(persona);
+                if (repositorio.personas.buscar(persona.getCedula()) == persona) {
+                    repositorio.descartarOrdenamientoDePersonas(persona, "email");
+                    repositorio.indicePrefijos.reindexar(persona);
+                    repositorio.registrar(OperacionDiario.ACTUALIZAR_PERSONA, persona);
+                }
+            } finally {
+                repositorio.candadoPersonas.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que el ID de un vehículo va a cambiar.
+     * 
+     * El nuevo ID se valida y se asigna con el candado de la colección
+     * tomado, igual que en {@link #notificarCambioCedula(Persona, String, Runnable)}.
+     * 
+     * @param vehiculo El vehículo que se modifica
+     * @param nuevo    El nuevo ID
+     * @param asignar  Asignación del nuevo ID
+     * @throws IllegalArgumentException Si el vehículo está registrado y el ID es
+     *                                  nulo o ya pertenece a otro registro
+     */
+    static void notificarCambioId(Vehiculo vehiculo, String nuevo, Runnable asignar) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio == null) {
+            asignar.run();
+            return;
+        }
+        repositorio.candadoVehiculos.lock();
+        try {
+            String anterior = vehiculo.getId();
+            boolean registrado = repositorio.vehiculos.validarCambioClave(vehiculo, nuevo);
+            asignar.run();
+            if (registrado && repositorio.vehiculos.recodificar(vehiculo, anterior)) {
+                repositorio.vehiculos.descartarOrdenamiento("id");
+                repositorio.registrarClaves(OperacionDiario.CAMBIAR_ID_VEHICULO, anterior, nuevo);
+            }
+        } finally {
+            repositorio.candadoVehiculos.unlock();
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que el ID de un item va a cambiar.
+     * 
+     * El nuevo ID se valida y se asigna con el candado de la colección
+     * tomado, igual que en {@link #notificarCambioCedula(Persona, String, Runnable)}.
+     * 
+     * @param item    El item que se modifica
+     * @param nuevo   El nuevo ID
+     * @param asignar Asignación del nuevo ID
+     * @throws IllegalArgumentException Si el item está registrado y el ID es
+     *                                  nulo o ya pertenece a otro registro
+     */
+    static void notificarCambioId(Item item, String nuevo, Runnable asignar) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio == null) {
+            asignar.run();
+            return;
+        }
+        repositorio.candadoItems.lock();
+        try {
+            String anterior = item.getId();
+            boolean registrado = repositorio.items.validarCambioClave(item, nuevo);
+            asignar.run();
+            if (registrado && repositorio.items.recodificar(item, anterior)) {
+                repositorio.items.descartarOrdenamiento("id");
+                repositorio.registrarClaves(OperacionDiario.CAMBIAR_ID_ITEM, anterior, nuevo);
+            }
+        } finally {
+            repositorio.candadoItems.unlock();
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que el ID de una publicación va a cambiar.
+     * 
+     * El nuevo ID se valida y se asigna con el candado de la colección
+     * tomado, igual que en {@link #notificarCambioCedula(Persona, String, Runnable)}.
+     * 
+     * @param publicacion La publicación que se modifica
+     * @param nuevo       El nuevo ID
+     * @param asignar     Asignación del nuevo ID
+     * @throws IllegalArgumentException Si la publicación está registrada y el ID es
+     *                                  nulo o ya pertenece a otro registro
+     */
+    static void notificarCambioId(Publicacion publicacion, String nuevo, Runnable asignar) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio == null) {
+            asignar.run();
+            return;
+        }
+        repositorio.candadoPublicaciones.lock();
+        try {
+            String anterior = publicacion.getId();
+            boolean registrado = repositorio.publicaciones.validarCambioClave(publicacion, nuevo);
+            asignar.run();
+            if (registrado && repositorio.publicaciones.recodificar(publicacion, anterior)) {
+                repositorio.publicaciones.descartarOrdenamiento("id");
+                repositorio.registrarClaves(OperacionDiario.CAMBIAR_ID_PUBLICACION, anterior, nuevo);
+            }
+        } finally {
+            repositorio.candadoPublicaciones.unlock();
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que cambiaron los datos de una persona.
+     * 
+     * Este método es invocado por los setters de {@link Persona} y sus
+     * subclases que no modifican claves, para registrar el cambio en el
+     * diario si la persistencia está habilitada y la persona está registrada,
+     * y para reindexarla en el índice de sugerencias si ya está construido.
+     * También descarta el ordenamiento de las consultas paginadas por el
+     * campo modificado, conservando los de los demás campos.
+     * 
+     * @param persona La persona modificada
+     * @param campo   Nombre del campo modificado
+     */
+    static void notificarModificacion(Persona persona, String campo) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoPersonas.lock();
+            try {
+                if (repositorio.personas.buscar(persona.getCedula()) == persona) {
+                    repositorio.descartarOrdenamientoDePersonas(persona, campo);
+                    repositorio.indicePrefijos.reindexar(persona);
+                    repositorio.registrar(OperacionDiario.ACTUALIZAR_PERSONA, persona);
+                }
+            } finally {
+                repositorio.candadoPersonas.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que cambiaron los datos de un vehículo.
+     * 
+     * @param vehiculo El vehículo modificado
+     * @param campo    Nombre del campo modificado
+     */
+    static void notificarModificacion(Vehiculo vehiculo, String campo) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoVehiculos.lock();
+            try {
+                if (repositorio.vehiculos.buscar(vehiculo.getId()) == vehiculo) {
+                    repositorio.vehiculos.descartarOrdenamiento(campo);
+                    repositorio.registrar(OperacionDiario.ACTUALIZAR_VEHICULO, vehiculo);
+                }
+            } finally {
+                repositorio.candadoVehiculos.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que la autonomía de un vehículo cambió.
+     * 
+     * Este método es invocado por {@link Vehiculo#setAutonomiaKm(int)} para
+     * reubicar el vehículo en el índice de autonomía y registrar el cambio
+     * en el diario si el vehículo está registrado.
+     * 
+     * @param vehiculo El vehículo modificado
+     * @param anterior La autonomía que tenía antes del cambio
+     */
+    static void notificarCambioAutonomia(Vehiculo vehiculo, int anterior) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoVehiculos.lock();
+            try {
+                if (repositorio.vehiculos.buscar(vehiculo.getId()) == vehiculo) {
+                    repositorio.vehiculos.descartarOrdenamiento(
+                            CriterioOrden.VEHICULOS_POR_AUTONOMIA.getNombre());
+                    repositorio.indiceAutonomia.reubicar(vehiculo, anterior);
+                    repositorio.registrar(OperacionDiario.ACTUALIZAR_VEHICULO, vehiculo);
+                }
+            } finally {
+                repositorio.candadoVehiculos.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que cambiaron los datos de un item.
+     * 
+     * Además de registrar el cambio en el diario, indexa de nuevo el item
+     * en el índice de texto si ese índice ya está construido.
+     * 
+     * @param item  El item modificado
+     * @param campo Nombre del campo modificado
+     */
+    static void notificarModificacion(Item item, String campo) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoItems.lock();
+            try {
+                if (repositorio.items.buscar(item.getId()) == item) {
+                    repositorio.items.descartarOrdenamiento(campo);
+                    repositorio.indiceItems.actualizar(item);
+                    repositorio.registrar(OperacionDiario.ACTUALIZAR_ITEM, item);
+                }
+            } finally {
+                repositorio.candadoItems.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio que cambiaron los datos de una publicación.
+     * 
+     * Además de registrar el cambio en el diario, indexa de nuevo la
+     * publicación en el índice de texto si ese índice ya está construido.
+     * 
+     * @param publicacion La publicación modificada
+     * @param campo       Nombre del campo modificado
+     */
+    static void notificarModificacion(Publicacion publicacion, String campo) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoPublicaciones.lock();
+            try {
+                if (repositorio.publicaciones.buscar(publicacion.getId()) == publicacion) {
+                    repositorio.publicaciones.descartarOrdenamiento(campo);
+                    repositorio.indicePublicaciones.actualizar(publicacion);
+                    repositorio.registrar(OperacionDiario.ACTUALIZAR_PUBLICACION, publicacion);
+                }
+            } finally {
+                repositorio.candadoPublicaciones.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio un cambio en la lista de amigos de un usuario.
+     * 
+     * Este método es invocado por {@link Usuario#agregarAmigo(Usuario)} y
+     * {@link Usuario#eliminarAmigo(Usuario)} para registrar el cambio en el
+     * diario si la persistencia está habilitada y el usuario está registrado.
+     * También descarta el ordenamiento de los usuarios por cantidad de
+     * amigos, el único que depende de la lista modificada.
+     * 
+     * @param operacion La operación realizada
+     * @param usuario   El usuario modificado
+     * @param amigo     El amigo agregado o eliminado
+     */
+    static void notificarRelacion(OperacionDiario operacion, Usuario usuario, Usuario amigo) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoPersonas.lock();
+            try {
+                if (repositorio.personas.buscar(usuario.getCedula()) == usuario) {
+                    repositorio.usuarios.descartarOrdenamiento(CriterioOrden.USUARIOS_POR_AMIGOS.getNombre());
+                    PersistenciaRepositorio actual = repositorio.persistencia;
+                    if (actual != null) {
+                        actual.registrarRelacion(operacion, usuario, amigo);
+                    }
+                }
+            } finally {
+                repositorio.candadoPersonas.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio un cambio en varios amigos de un usuario a la vez.
+     * 
+     * Este método es invocado por las modificaciones de amistades en lote y
+     * registra todos los cambios en el diario tomando el candado de personas
+     * una sola vez.
+     * 
+     * @param operacion La operación realizada sobre cada amigo
+     * @param usuario   El usuario modificado
+     * @param amigos    Los amigos agregados o eliminados
+     */
+    static void notificarRelaciones(OperacionDiario operacion, Usuario usuario, List<Usuario> amigos) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio == null || amigos.isEmpty()) {
+            return;
+        }
+        repositorio.candadoPersonas.lock();
+        try {
+            if (repositorio.personas.buscar(usuario.getCedula()) == usuario) {
+                repositorio.usuarios.descartarOrdenamiento(CriterioOrden.USUARIOS_POR_AMIGOS.getNombre());
+                PersistenciaRepositorio actual = repositorio.persistencia;
+                if (actual != null) {
+                    for (Usuario amigo : amigos) {
+                        actual.registrarRelacion(operacion, usuario, amigo);
+                    }
+                }
+            }
+        } finally {
+            repositorio.candadoPersonas.unlock();
+        }
+    }
+    
+    /**
+     * Notifica al repositorio un cambio en los vehículos de un usuario.
+     * 
+     * @param operacion La operación realizada
+     * @param usuario   El usuario modificado
+     * @param vehiculo  El vehículo agregado o eliminado
+     */
+    static void notificarRelacion(OperacionDiario operacion, Usuario usuario, Vehiculo vehiculo) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoPersonas.lock();
+            try {
+                if (repositorio.personas.buscar(usuario.getCedula()) == usuario) {
+                    repositorio.usuarios.descartarOrdenamiento(CriterioOrden.USUARIOS_POR_VEHICULOS.getNombre());
+                    PersistenciaRepositorio actual = repositorio.persistencia;
+                    if (actual != null) {
+                        actual.registrarRelacion(operacion, usuario, vehiculo);
+                    }
+                }
+            } finally {
+                repositorio.candadoPersonas.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio un cambio en el catálogo de items de un proveedor.
+     * 
+     * @param operacion La operación realizada
+     * @param proveedor El proveedor modificado
+     * @param item      El item agregado o eliminado
+     */
+    static void notificarRelacion(OperacionDiario operacion, Proveedor proveedor, Item item) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoPersonas.lock();
+            try {
+                if (repositorio.personas.buscar(proveedor.getCedula()) == proveedor) {
+                    repositorio.proveedores.descartarOrdenamiento(CriterioOrden.PROVEEDORES_POR_ITEMS.getNombre());
+                    PersistenciaRepositorio actual = repositorio.persistencia;
+                    if (actual != null) {
+                        actual.registrarRelacion(operacion, proveedor, item);
+                    }
+                }
+            } finally {
+                repositorio.candadoPersonas.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Notifica al repositorio un cambio en las publicaciones de un proveedor.
+     * 
+     * @param operacion   La operación realizada
+     * @param proveedor   El proveedor modificado
+     * @param publicacion La publicación agregada o eliminada
+     */
+    static void notificarRelacion(OperacionDiario operacion, Proveedor proveedor, Publicacion publicacion) {
+        Repositorio repositorio = instanciaExistente();
+        if (repositorio != null) {
+            repositorio.candadoPersonas.lock();
+            try {
+                if (repositorio.personas.buscar(proveedor.getCedula()) == proveedor) {
+                    repositorio.proveedores.descartarOrdenamiento(
+                            CriterioOrden.PROVEEDORES_POR_PUBLICACIONES.getNombre());
+                    PersistenciaRepositorio actual = repositorio.persistencia;
+                    if (actual != null) {
+                        actual.registrarRelacion(operacion, proveedor, publicacion);
+                    }
+                }
+            } finally {
+                repositorio.candadoPersonas.unlock();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,244 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Servicio que aplica las amistades de forma recíproca y en lotes.
+ * 
+ * Cada amistad se aplica a los dos usuarios: agregar o eliminar la amistad
+ * entre a y b modifica los amigos de a y los de b. Las operaciones del
+ * servicio se serializan con un candado propio, por lo que ninguna otra
+ * operación del servicio puede intercalarse entre las dos mitades de una
+ * amistad ni entre los cambios de un lote; las consultas concurrentes
+ * pueden ver por un instante solo una de las dos mitades.
+ * 
+ * Un lote de cambios se aplica con una sola toma del candado. Primero se
+ * resuelve el estado final pedido para cada par de usuarios (el último
+ * cambio pedido para un par es el que cuenta) y luego se agrupan los
+ * cambios por usuario, de modo que los amigos de cada usuario se
+ * modifican una sola vez por lote con una mezcla de arreglos ordenados,
+ * en lugar de una copia de su lista por cada amistad.
+ * 
+ * Al terminar cada operación que cambió algo, y ya sin el candado, se
+ * informa a los oyentes un único aviso con todos los cambios aplicados.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class ServicioAmistad {
+    
+    /** Grafo de amistades */
+    private final GrafoAmistad grafo;
+    
+    /** Candado que serializa las operaciones del servicio */
+    private final ReentrantLock candado;
+    
+    /** Oyentes de los cambios de amistades */
+    private final List<IOyenteAmistades> oyentes;
+    
+    /**
+     * Cambios pedidos para los amigos de un usuario dentro de un lote.
+     */
+    private static final class CambiosUsuario {
+        
+        /** Usuarios a agregar como amigos */
+        private final List<Usuario> agregar = new ArrayList<>();
+        
+        /** Usuarios a quitar de los amigos */
+        private final List<Usuario> quitar = new ArrayList<>();
+        
+        /** Identificadores efectivamente agregados, ordenados */
+        private int[] agregados;
+        
+        /** Identificadores efectivamente quitados, ordenados */
+        private int[] quitados;
+    }
+    
+    /**
+     * Constructor del servicio, sin oyentes.
+     * 
+     * @param grafo Grafo de amistades
+     */
+    ServicioAmistad(GrafoAmistad grafo) {
+        this.grafo = grafo;
+        this.candado = new ReentrantLock();
+        this.oyentes = new CopyOnWriteArrayList<>();
+    }
+    
+    /**
+     * Registra un oyente de los cambios de amistades.
+     * 
+     * @param oyente El oyente a registrar
+     * @throws IllegalArgumentException Si el oyente es nulo
+     */
+    void agregarOyente(IOyenteAmistades oyente) {
+        if (oyente == null) {
+            throw new IllegalArgumentException("El oyente no puede ser nulo");
+        }
+        oyentes.add(oyente);
+    }
+    
+    /**
+     * Retira un oyente de los cambios de amistades.
+     * 
+     * @param oyente El oyente a retirar
+     * @return true si el oyente estaba registrado
+     */
+    boolean quitarOyente(IOyenteAmistades oyente) {
+        return oyentes.remove(oyente);
+    }
+    
+    /**
+     * Aplica un lote de cambios de amistades de forma recíproca.
+     * 
+     * Se ignoran los cambios de un usuario consigo mismo, las amistades que
+     * ya existían al agregar y las que no existían al eliminar.
+     * 
+     * @param cambios Cambios pedidos, en orden
+     * @return Lista inmutable de los cambios efectivamente aplicados
+     */
+    List<CambioAmistad> aplicar(List<CambioAmistad> cambios) {
+        if (cambios.isEmpty()) {
+            return List.of();
+        }
+        List<CambioAmistad> aplicados;
+        candado.lock();
+        try {
+            aplicados = aplicarConCandado(cambios);
+        } finally {
+            candado.unlock();
+        }
+        if (!aplicados.isEmpty()) {
+            for (IOyenteAmistades oyente : oyentes) {
+                oyente.amistadesCambiadas(aplicados);
+            }
+        }
+        return aplicados;
+    }
+    
+    /**
+     * Termina todas las amistades de un usuario dado de baja y libera su identificador.
+     * 
+     * Las amistades se terminan y el identificador se libera con una sola
+     * toma del candado, por lo que ninguna otra operación del servicio
+     * puede volver a agregar ese identificador a un arreglo de amigos antes
+     * de que se libere.
+     * 
+     * @param usuario El usuario dado de baja
+     * @return Lista inmutable de las amistades terminadas
+     */
+    List<CambioAmistad> terminar(Usuario usuario) {
+        List<CambioAmistad> aplicados;
+        candado.lock();
+        try {
+            List<Usuario> amigos = usuario.getAmigos();
+            List<CambioAmistad> cambios = new ArrayList<>(amigos.size());
+            for (Usuario amigo : amigos) {
+                cambios.add(CambioAmistad.eliminar(usuario, amigo));
+            }
+            aplicados = cambios.isEmpty() ? List.of() : aplicarConCandado(cambios);
+            grafo.liberar(usuario);
+        } finally {
+            candado.unlock();
+        }
+        if (!aplicados.isEmpty()) {
+            for (IOyenteAmistades oyente : oyentes) {
+                oyente.amistadesCambiadas(aplicados);
+            }
+        }
+        return aplicados;
+    }
+    
+    /**
+     * Aplica un lote de cambios con el candado del servicio tomado.
+     * 
+     * @param cambios Cambios pedidos, en orden
+     * @return Lista inmutable de los cambios efectivamente aplicados
+     */
+    private List<CambioAmistad> aplicarConCandado(List<CambioAmistad> cambios) {
+        // Estado final pedido para cada par, en el orden en que apareció el par
+        Map<Long, CambioAmistad> porPar = new HashMap<>();
+        List<Long> pares = new ArrayList<>();
+        for (CambioAmistad cambio : cambios) {
+            Usuario usuario = cambio.getUsuario();
+            Usuario amigo = cambio.getAmigo();
+            if (usuario == amigo || usuario.equals(amigo)) {
+                continue;
+            }
+            // Sin identificador no hay amistad que eliminar, y no se asigna uno
+            if (cambio.getTipo() == CambioAmistad.Tipo.ELIMINADA
+                    && (grafo.idAsignado(usuario) < 0 || grafo.idAsignado(amigo) < 0)) {
+                continue;
+            }
+            int a = grafo.idDe(usuario);
+            int b = grafo.idDe(amigo);
+            long par = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+            if (porPar.put(par, cambio) == null) {
+                pares.add(par);
+            }
+        }
+        // Cambios agrupados por usuario, para modificar a cada uno una sola vez
+        Map<Usuario, CambiosUsuario> porUsuario = new IdentityHashMap<>();
+        for (Long par : pares) {
+            CambioAmistad cambio = porPar.get(par);
+            boolean agregar = cambio.getTipo() == CambioAmistad.Tipo.AGREGADA;
+            registrar(porUsuario, cambio.getUsuario(), cambio.getAmigo(), agregar);
+            registrar(porUsuario, cambio.getAmigo(), cambio.getUsuario(), agregar);
+        }
+        for (Map.Entry<Usuario, CambiosUsuario> entrada : porUsuario.entrySet()) {
+            CambiosUsuario pedidos = entrada.getValue();
+            int[][] efectivos = entrada.getKey().modificarAmigos(pedidos.agregar, pedidos.quitar);
+            pedidos.agregados = efectivos[0];
+            pedidos.quitados = efectivos[1];
+        }
+        // Un par cambió si cambió cualquiera de sus dos mitades
+        List<CambioAmistad> aplicados = new ArrayList<>();
+        for (Long par : pares) {
+            CambioAmistad cambio = porPar.get(par);
+            boolean agregar = cambio.getTipo() == CambioAmistad.Tipo.AGREGADA;
+            if (cambio(porUsuario, cambio.getUsuario(), cambio.getAmigo(), agregar)
+                    || cambio(porUsuario, cambio.getAmigo(), cambio.getUsuario(), agregar)) {
+                aplicados.add(cambio);
+            }
+        }
+        return Collections.unmodifiableList(aplicados);
+    }
+    
+    /**
+     * Registra un cambio pedido para los amigos de un usuario.
+     * 
+     * @param porUsuario Cambios agrupados por usuario
+     * @param usuario    Usuario cuyos amigos cambian
+     * @param amigo      Amigo agregado o quitado
+     * @param agregar    true para agregarlo, false para quitarlo
+     */
+    private static void registrar(Map<Usuario, CambiosUsuario> porUsuario, Usuario usuario, Usuario amigo,
+                                  boolean agregar) {
+        CambiosUsuario pedidos = porUsuario.computeIfAbsent(usuario, clave -> new CambiosUsuario());
+        (agregar ? pedidos.agregar : pedidos.quitar).add(amigo);
+    }
+    
+    /**
+     * Verifica si los amigos de un usuario cambiaron efectivamente respecto de un amigo.
+     * 
+     * @param porUsuario Cambios agrupados por usuario, ya aplicados
+     * @param usuario    Usuario cuyos amigos cambiaron
+     * @param amigo      Amigo agregado o quitado
+     * @param agregar    true si se pidió agregarlo, false si se pidió quitarlo
+     * @return true si el amigo se agregó o se quitó efectivamente
+     */
+    private static boolean cambio(Map<Usuario, CambiosUsuario> porUsuario, Usuario usuario, Usuario amigo,
+                                  boolean agregar) {
+        CambiosUsuario pedidos = porUsuario.get(usuario);
+        return Arrays.binarySearch(agregar ? pedidos.agregados : pedidos.quitados, amigo.idGrafo) >= 0;
+    }
+}
\ No newline at end of file
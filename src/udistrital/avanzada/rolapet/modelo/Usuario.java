@@ -1,6 +1,7 @@
 package udistrital.avanzada.rolapet.modelo;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -9,7 +10,13 @@ import java.util.List;
  * Un Usuario es una persona que puede registrarse en el sistema,
  * gestionar vehículos eléctricos y mantener una lista de amigos.
  * Esta clase extiende de Persona y agrega funcionalidades específicas
- * para usuarios regulares del sistema.
+ * para usuarios regulares del sistema. Sus listas de vehículos y amigos
+ * pueden consultarse y modificarse de forma segura desde varios hilos:
+ * cada modificación publica una lista inmutable nueva, por lo que las
+ * consultas devuelven la lista vigente sin copiarla ni bloquear. Los
+ * amigos se guardan como un arreglo ordenado de identificadores del
+ * {@link GrafoAmistad}, por lo que verificar una amistad toma tiempo
+ * logarítmico en la cantidad de amigos.
  * 
  * @author Equipo RolaPet
  * @version 1.0
@@ -20,11 +27,17 @@ public class Usuario extends Persona {
     /** Dirección de correo electrónico del usuario */
     private String email;
     
-    /** Lista de vehículos que posee el usuario */
-    private List<Vehiculo> vehiculos;
+    /** Lista inmutable de vehículos que posee el usuario */
+    private volatile List<Vehiculo> vehiculos;
     
-    /** Lista de amigos del usuario (otros usuarios) */
-    private List<Usuario> amigos;
+    /** Identificadores ordenados de los amigos del usuario en el grafo de amistades */
+    private volatile int[] idsAmigos;
+    
+    /** Lista inmutable de amigos del usuario, vista sobre sus identificadores */
+    private volatile List<Usuario> amigos;
+    
+    /** Identificador del usuario en el grafo de amistades, o -1 si aún no tiene */
+    volatile int idGrafo = -1;
     
     /**
      * Constructor de la clase Usuario.
@@ -41,8 +54,9 @@ public class Usuario extends Persona {
     public Usuario(String cedula, String nombre, String telefono, String password, String email) {
         super(cedula, nombre, telefono, password);
         this.email = email;
-        this.vehiculos = new ArrayList<>();
-        this.amigos = new ArrayList<>();
+        this.vehiculos = List.of();
+        this.idsAmigos = GrafoAmistad.SIN_AMIGOS;
+        this.amigos = List.of();
     }
     
     /**
@@ -62,12 +76,14 @@ public class Usuario extends Persona {
      * Establece la dirección de correo electrónico del usuario.
      * 
      * Este método permite actualizar el email del usuario
-     * en caso de cambios o correcciones.
+     * en caso de cambios o correcciones. Si el usuario está registrado,
+     * el repositorio actualiza su índice de credenciales.
      * 
      * @param email La nueva dirección de email del usuario
      */
     public void setEmail(String email) {
         this.email = email;
+        Repositorio.notificarCambioEmail(this);
     }
     
     /**
@@ -86,13 +102,14 @@ public class Usuario extends Persona {
     /**
      * Obtiene la lista de vehículos del usuario.
      * 
-     * Este método devuelve una copia de la lista de vehículos
-     * para evitar modificaciones externas no controladas.
+     * Este método devuelve la lista inmutable vigente, sin copiarla.
+     * La lista devuelta no cambia aunque después se agreguen o
+     * eliminen vehículos del usuario.
      * 
-     * @return Lista de vehículos que posee el usuario
+     * @return Lista inmutable de vehículos que posee el usuario
      */
     public List<Vehiculo> getVehiculos() {
-        return new ArrayList<>(vehiculos);
+        return vehiculos;
     }
     
     /**
@@ -104,9 +121,10 @@ public class Usuario extends Persona {
      * @param vehiculo El vehículo a agregar a la lista del usuario
      * @return true si el vehículo se agregó exitosamente, false si ya existía
      */
-    public boolean agregarVehiculo(Vehiculo vehiculo) {
+    public synchronized boolean agregarVehiculo(Vehiculo vehiculo) {
         if (vehiculo != null && !vehiculos.contains(vehiculo)) {
-            vehiculos.add(vehiculo);
+            vehiculos = ListasInmutables.agregar(vehiculos, vehiculo);
+            Repositorio.notificarRelacion(OperacionDiario.AGREGAR_VEHICULO_USUARIO, this, vehiculo);
             return true;
         }
         return false;
@@ -121,20 +139,28 @@ public class Usuario extends Persona {
      * @param vehiculo El vehículo a eliminar de la lista del usuario
      * @return true si el vehículo se eliminó exitosamente, false si no existía
      */
-    public boolean eliminarVehiculo(Vehiculo vehiculo) {
-        return vehiculos.remove(vehiculo);
+    public synchronized boolean eliminarVehiculo(Vehiculo vehiculo) {
+        List<Vehiculo> restantes = ListasInmutables.quitar(vehiculos, vehiculo);
+        if (restantes != vehiculos) {
+            vehiculos = restantes;
+            Repositorio.notificarRelacion(OperacionDiario.ELIMINAR_VEHICULO_USUARIO, this, vehiculo);
+            return true;
+        }
+        return false;
     }
     
     /**
      * Obtiene la lista de amigos del usuario.
      * 
-     * Este método devuelve una copia de la lista de amigos
-     * para evitar modificaciones externas no controladas.
+     * Este método devuelve la lista inmutable vigente, sin copiarla.
+     * La lista devuelta no cambia aunque después se agreguen o
+     * eliminen amigos del usuario. Los amigos aparecen en el orden en
+     * que ingresaron al grafo de amistades.
      * 
-     * @return Lista de amigos del usuario
+     * @return Lista inmutable de amigos del usuario
      */
     public List<Usuario> getAmigos() {
-        return new ArrayList<>(amigos);
+        return amigos;
     }
     
     /**
@@ -142,13 +168,22 @@ public class Usuario extends Persona {
      * 
      * Este método permite al usuario agregar otro usuario como amigo,
      * verificando que no sea el mismo usuario y que no esté duplicado.
+     * La verificación es una búsqueda binaria sobre los identificadores
+     * de los amigos.
      * 
      * @param amigo El usuario a agregar como amigo
      * @return true si el amigo se agregó exitosamente, false si ya era amigo o es el mismo usuario
      */
-    public boolean agregarAmigo(Usuario amigo) {
-        if (amigo != null && !amigo.equals(this) && !amigos.contains(amigo)) {
-            amigos.add(amigo);
+    public synchronized boolean agregarAmigo(Usuario amigo) {
+        if (amigo == null || amigo.equals(this)) {
+            return false;
+        }
+        GrafoAmistad grafo = GrafoAmistad.getInstancia();
+        int[] nuevos = GrafoAmistad.agregar(idsAmigos, grafo.idDe(amigo));
+        if (nuevos != idsAmigos) {
+            idsAmigos = nuevos;
+            amigos = grafo.vista(nuevos);
+            Repositorio.notificarRelacion(OperacionDiario.AGREGAR_AMIGO, this, amigo);
             return true;
         }
         return false;
@@ -163,21 +198,121 @@ public class Usuario extends Persona {
      * @param amigo El usuario a eliminar de la lista de amigos
      * @return true si el amigo se eliminó exitosamente, false si no era amigo
      */
-    public boolean eliminarAmigo(Usuario amigo) {
-        return amigos.remove(amigo);
+    public synchronized boolean eliminarAmigo(Usuario amigo) {
+        if (amigo == null || amigo.idGrafo < 0) {
+            return false;
+        }
+        int[] restantes = GrafoAmistad.quitar(idsAmigos, amigo.idGrafo);
+        if (restantes != idsAmigos) {
+            idsAmigos = restantes;
+            amigos = GrafoAmistad.getInstancia().vista(restantes);
+            Repositorio.notificarRelacion(OperacionDiario.ELIMINAR_AMIGO, this, amigo);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Agrega y quita varios amigos del usuario en una sola modificación.
+     * 
+     * Los identificadores de los amigos a agregar se ordenan y se mezclan
+     * con los actuales en un solo recorrido, por lo que agregar k amigos a
+     * un usuario con d amigos cuesta O(d + k log k) en lugar de k copias
+     * de la lista. Se ignoran los nulos, el propio usuario, los que ya eran
+     * amigos al agregar y los que no lo eran al quitar. Un mismo usuario no
+     * debe aparecer en ambas colecciones.
+     * 
+     * @param agregar Usuarios a agregar como amigos
+     * @param quitar  Usuarios a quitar de los amigos
+     * @return Dos arreglos ordenados con los identificadores en el grafo de
+     *         los amigos efectivamente agregados y quitados
+     */
+    synchronized int[][] modificarAmigos(Collection<Usuario> agregar, Collection<Usuario> quitar) {
+        GrafoAmistad grafo = GrafoAmistad.getInstancia();
+        int[] nuevos = new int[agregar.size()];
+        int cantidadNuevos = 0;
+        for (Usuario amigo : agregar) {
+            if (amigo != null && !amigo.equals(this)) {
+                nuevos[cantidadNuevos++] = grafo.idDe(amigo);
+            }
+        }
+        int[] retirados = new int[quitar.size()];
+        int cantidadRetirados = 0;
+        for (Usuario amigo : quitar) {
+            if (amigo != null && amigo.idGrafo >= 0) {
+                retirados[cantidadRetirados++] = amigo.idGrafo;
+            }
+        }
+        Arrays.sort(nuevos, 0, cantidadNuevos);
+        Arrays.sort(retirados, 0, cantidadRetirados);
+        int[] actuales = idsAmigos;
+        int[] resultado = new int[actuales.length + cantidadNuevos];
+        int[] agregados = new int[cantidadNuevos];
+        int[] quitados = new int[Math.min(cantidadRetirados, actuales.length)];
+        int tamano = 0;
+        int cantidadAgregados = 0;
+        int cantidadQuitados = 0;
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < actuales.length || j < cantidadNuevos) {
+            if (j < cantidadNuevos && (i == actuales.length || nuevos[j] < actuales[i])) {
+                int id = nuevos[j++];
+                if (cantidadAgregados == 0 || agregados[cantidadAgregados - 1] != id) {
+                    agregados[cantidadAgregados++] = id;
+                    resultado[tamano++] = id;
+                }
+                continue;
+            }
+            int id = actuales[i++];
+            while (j < cantidadNuevos && nuevos[j] == id) {
+                j++;
+            }
+            while (k < cantidadRetirados && retirados[k] < id) {
+                k++;
+            }
+            if (k < cantidadRetirados && retirados[k] == id) {
+                quitados[cantidadQuitados++] = id;
+            } else {
+                resultado[tamano++] = id;
+            }
+        }
+        agregados = Arrays.copyOf(agregados, cantidadAgregados);
+        quitados = Arrays.copyOf(quitados, cantidadQuitados);
+        if (cantidadAgregados > 0 || cantidadQuitados > 0) {
+            idsAmigos = tamano == 0 ? GrafoAmistad.SIN_AMIGOS : Arrays.copyOf(resultado, tamano);
+            amigos = grafo.vista(idsAmigos);
+            Repositorio.notificarRelaciones(OperacionDiario.AGREGAR_AMIGO, this, grafo.vista(agregados));
+            Repositorio.notificarRelaciones(OperacionDiario.ELIMINAR_AMIGO, this, grafo.vista(quitados));
+        }
+        return new int[][] {agregados, quitados};
     }
     
     /**
      * Verifica si un usuario es amigo del usuario actual.
      * 
      * Este método permite verificar si un usuario específico
-     * está en la lista de amigos del usuario actual.
+     * está en la lista de amigos del usuario actual, con una búsqueda
+     * binaria sobre los identificadores de los amigos.
      * 
      * @param usuario El usuario a verificar si es amigo
      * @return true si el usuario es amigo, false en caso contrario
      */
     public boolean esAmigo(Usuario usuario) {
-        return amigos.contains(usuario);
+        if (usuario == null) {
+            return false;
+        }
+        int id = usuario.idGrafo;
+        return id >= 0 && GrafoAmistad.contiene(idsAmigos, id);
+    }
+    
+    /**
+     * Obtiene los identificadores ordenados de los amigos del usuario.
+     * 
+     * @return Arreglo inmutable de identificadores en el grafo de amistades; no debe modificarse
+     */
+    int[] getIdsAmigos() {
+        return idsAmigos;
     }
     
     /**
@@ -62,11 +62,14 @@ public abstract class Vehiculo {
      * 
      * Este método permite modificar el ID del vehículo,
      * útil para correcciones o reorganización de datos.
+     * Si está registrado, el repositorio actualiza su índice por ID.
      * 
      * @param id El nuevo identificador único del vehículo
+     * @throws IllegalArgumentException Si el vehículo está registrado y el ID es
+     *                                  nulo o ya pertenece a otro registro
      */
     public void setId(String id) {
-        this.id = id;
+        Repositorio.notificarCambioId(this, id, () -> this.id = id);
     }
     
     /**
@@ -91,6 +94,7 @@ public abstract class Vehiculo {
      */
     public void setMarca(String marca) {
         this.marca = marca;
+        Repositorio.notificarModificacion(this, "marca");
     }
     
     /**
@@ -115,6 +119,7 @@ public abstract class Vehiculo {
      */
     public void setModelo(String modelo) {
         this.modelo = modelo;
+        Repositorio.notificarModificacion(this, "modelo");
     }
     
     /**
@@ -138,7 +143,9 @@ public abstract class Vehiculo {
      * @param autonomiaKm La nueva autonomía en kilómetros del vehículo
      */
     public void setAutonomiaKm(int autonomiaKm) {
+        int anterior = this.autonomiaKm;
         this.autonomiaKm = autonomiaKm;
+        Repositorio.notificarCambioAutonomia(this, anterior);
     }
     
     /**
@@ -0,0 +1,241 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Verificador de contraseñas con un ejecutor acotado y una caché de credenciales verificadas.
+ * 
+ * Verificar un hash PBKDF2 cuesta decenas de milisegundos de CPU, por lo
+ * que las verificaciones se hacen en un ejecutor propio con un hilo por
+ * núcleo y una cola de espera acotada: una ráfaga de inicios de sesión no
+ * puede ocupar más CPU que esos hilos, y cuando la cola está llena la
+ * verificación se rechaza con una excepción en lugar de acumular trabajo
+ * sin límite, para que no se confunda con una contraseña incorrecta. Así el
+ * rendimiento máximo es de un hilo por núcleo dividido por el costo de un
+ * hash, lo que permite planificar la capacidad.
+ * 
+ * Cada verificación exitosa se recuerda por un tiempo corto en una caché
+ * acotada. La caché no guarda la contraseña: guarda un HMAC-SHA256 de ella
+ * con una clave aleatoria del proceso, junto con el hash guardado que se
+ * verificó. Un nuevo inicio de sesión con la misma contraseña solo calcula
+ * el HMAC, que cuesta microsegundos; si la persona cambió su contraseña el
+ * hash guardado ya no coincide y la entrada se ignora.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+final class VerificadorContrasenas {
+    
+    /** Tiempo de vida por omisión de una credencial verificada, en milisegundos */
+    static final long VIGENCIA_POR_OMISION_MS = TimeUnit.MINUTES.toMillis(5);
+    
+    /** Cantidad máxima por omisión de credenciales verificadas en caché */
+    static final int MAXIMO_CACHE_POR_OMISION = 100_000;
+    
+    /** Verificaciones en espera permitidas por cada hilo del ejecutor */
+    private static final int ESPERA_POR_HILO = 64;
+    
+    /** Algoritmo de la huella de las contraseñas en caché */
+    private static final String ALGORITMO_HUELLA = "HmacSHA256";
+    
+    /** Ejecutor acotado de las verificaciones */
+    private final ThreadPoolExecutor ejecutor;
+    
+    /** Credenciales verificadas por cédula de la persona */
+    private final Map<String, Verificada> cache;
+    
+    /** Tiempo de vida de una credencial verificada, en milisegundos */
+    private final long vigenciaMs;
+    
+    /** Cantidad máxima de credenciales verificadas en caché */
+    private final int maximoCache;
+    
+    /** Clave aleatoria de las huellas, propia de este proceso */
+    private final SecretKeySpec clave;
+    
+    /** Generador de huellas de cada hilo */
+    private final ThreadLocal<Mac> huellas;
+    
+    /**
+     * Credencial verificada recientemente.
+     */
+    private static final class Verificada {
+        
+        /** Persona verificada */
+        private final Persona persona;
+        
+        /** Valor guardado de la contraseña que se verificó */
+        private final String guardada;
+        
+        /** Huella de la contraseña verificada */
+        private final byte[] huella;
+        
+        /** Instante de vencimiento, en milisegundos */
+        private final long vence;
+        
+        /**
+         * Constructor de la credencial verificada.
+         * 
+         * @param persona  Persona verificada
+         * @param guardada Valor guardado de la contraseña que se verificó
+         * @param huella   Huella de la contraseña verificada
+         * @param vence    Instante de vencimiento, en milisegundos
+         */
+        private Verificada(Persona persona, String guardada, byte[] huella, long vence) {
+            this.persona = persona;
+            this.guardada = guardada;
+            this.huella = huella;
+            this.vence = vence;
+        }
+    }
+    
+    /**
+     * Constructor del verificador.
+     * 
+     * @param hilos       Cantidad de hilos del ejecutor
+     * @param vigenciaMs  Tiempo de vida de una credencial verificada, en milisegundos
+     * @param maximoCache Cantidad máxima de credenciales verificadas en caché
+     */
+    VerificadorContrasenas(int hilos, long vigenciaMs, int maximoCache) {
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hilos * ESPERA_POR_HILO), tarea -> {
+                    Thread hilo = new Thread(tarea, "rolapet-verificador-contrasenas");
+                    hilo.setDaemon(true);
+                    return hilo;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.cache = new ConcurrentHashMap<>();
+        this.vigenciaMs = vigenciaMs;
+        this.maximoCache = maximoCache;
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        this.clave = new SecretKeySpec(bytes, ALGORITMO_HUELLA);
+        this.huellas = ThreadLocal.withInitial(this::crearMac);
+    }
+    
+    /**
+     * Verifica la contraseña de una persona.
+     * 
+     * Si la misma contraseña se verificó hace poco y la persona no la ha
+     * cambiado, la respuesta sale de la caché. Si no, la verificación se
+     * hace en el ejecutor acotado y este método espera su resultado.
+     * 
+     * @param persona    La persona que inicia sesión
+     * @param contrasena Contraseña en texto plano
+     * @return true si la contraseña es correcta
+     * @throws RejectedExecutionException Si el ejecutor está saturado y la
+     *         verificación no pudo hacerse
+     */
+    boolean verificar(Persona persona, String contrasena) {
+        String guardada = persona.getPassword();
+        if (guardada == null || contrasena == null) {
+            return false;
+        }
+        byte[] huella = huella(contrasena);
+        long ahora = System.currentTimeMillis();
+        String cedula = persona.getCedula();
+        Verificada verificada = cedula != null ? cache.get(cedula) : null;
+        if (verificada != null && verificada.persona == persona && verificada.vence > ahora
+                && verificada.guardada.equals(guardada)
+                && MessageDigest.isEqual(verificada.huella, huella)) {
+            return true;
+        }
+        boolean correcta;
+        try {
+            Future<Boolean> resultado = ejecutor.submit(() -> verificarYActualizar(persona, contrasena, guardada));
+            correcta = resultado.get();
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("Hay demasiadas verificaciones de contraseña en espera", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo verificar la contraseña", e.getCause());
+        }
+        if (correcta && cedula != null) {
+            recordar(cedula, new Verificada(persona, persona.getPassword(), huella, ahora + vigenciaMs), ahora);
+        } else if (verificada != null) {
+            cache.remove(cedula, verificada);
+        }
+        return correcta;
+    }
+    
+    /**
+     * Verifica una contraseña y, si estaba guardada en texto plano, la reemplaza por su hash.
+     * 
+     * @param persona    La persona que inicia sesión
+     * @param contrasena Contraseña en texto plano
+     * @param guardada   Valor guardado de la contraseña al iniciar la verificación
+     * @return true si la contraseña es correcta
+     */
+    private static boolean verificarYActualizar(Persona persona, String contrasena, String guardada) {
+        boolean correcta = HashContrasena.verificar(contrasena, guardada);
+        if (correcta && !HashContrasena.esHash(guardada) && persona.getPassword() == guardada) {
+            persona.setPassword(contrasena);
+        }
+        return correcta;
+    }
+    
+    /**
+     * Guarda una credencial verificada, respetando el tamaño máximo de la caché.
+     * 
+     * Si la caché está llena se descartan primero las credenciales vencidas;
+     * si sigue llena, la credencial no se guarda.
+     * 
+     * @param cedula     Cédula de la persona
+     * @param verificada Su credencial verificada
+     * @param ahora      Instante actual, en milisegundos
+     */
+    private void recordar(String cedula, Verificada verificada, long ahora) {
+        if (cache.size() >= maximoCache && !cache.containsKey(cedula)) {
+            for (Iterator<Verificada> entradas = cache.values().iterator(); entradas.hasNext(); ) {
+                if (entradas.next().vence <= ahora) {
+                    entradas.remove();
+                }
+            }
+            if (cache.size() >= maximoCache) {
+                return;
+            }
+        }
+        cache.put(cedula, verificada);
+    }
+    
+    /**
+     * Calcula la huella de una contraseña con la clave del proceso.
+     * 
+     * @param contrasena Contraseña en texto plano
+     * @return El HMAC-SHA256 de la contraseña
+     */
+    private byte[] huella(String contrasena) {
+        return huellas.get().doFinal(contrasena.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Crea un generador de huellas inicializado con la clave del proceso.
+     * 
+     * @return El generador de huellas
+     */
+    private Mac crearMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_HUELLA);
+            mac.init(clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("El algoritmo " + ALGORITMO_HUELLA + " no está disponible", e);
+        }
+    }
+}
\ No newline at end of file
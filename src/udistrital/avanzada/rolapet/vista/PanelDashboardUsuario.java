@@ -1,12 +1,23 @@
 package udistrital.avanzada.rolapet.vista;
 
+import udistrital.avanzada.rolapet.controlador.CategoriaEntidad;
+import udistrital.avanzada.rolapet.controlador.FormatoArchivo;
 import udistrital.avanzada.rolapet.controlador.IControladorRolaPET;
+import udistrital.avanzada.rolapet.controlador.IProgresoExportacion;
 import udistrital.avanzada.rolapet.modelo.*;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Panel de dashboard del usuario en el sistema RolaPet.
@@ -386,16 +397,86 @@ public class PanelDashboardUsuario extends JPanel {
     /**
      * Muestra el diálogo para agregar un amigo.
      * 
-     * Este método crea y muestra un diálogo que permite al usuario
-     * ingresar la cédula de otro usuario para agregarlo como amigo.
+     * Este método crea y muestra un diálogo modal en el que el usuario
+     * escribe el nombre, la cédula o el email de otro usuario y elige entre
+     * las sugerencias que aparecen mientras escribe. Las sugerencias se
+     * piden al controlador cuando el usuario deja de escribir por un
+     * instante y se calculan fuera del hilo de eventos, de modo que la
+     * escritura no se interrumpe aunque haya muchas personas registradas.
      */
     private void mostrarDialogoAgregarAmigo() {
-        String cedulaAmigo = JOptionPane.showInputDialog(this, "Ingrese la cédula del amigo:", "Agregar Amigo", JOptionPane.QUESTION_MESSAGE);
+        // Crear el diálogo modal
+        JDialog dialogo = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Agregar Amigo", true);
+        dialogo.setSize(450, 320);
+        dialogo.setLocationRelativeTo(this);
+        
+        // Crear el campo de búsqueda y la lista de sugerencias
+        JTextField campoBusqueda = new JTextField(30);
+        JList<Usuario> listaSugerencias = new JList<>();
+        listaSugerencias.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        listaSugerencias.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> lista, Object valor, int indice,
+                                                          boolean seleccionado, boolean conFoco) {
+                Usuario usuario = (Usuario) valor;
+                String texto = usuario.getNombre() + " (" + usuario.getCedula() + ") - " + usuario.getEmail();
+                return super.getListCellRendererComponent(lista, texto, indice, seleccionado, conFoco);
+            }
+        });
+        
+        // Crear el panel superior con la etiqueta y el campo
+        JPanel panelBusqueda = new JPanel(new BorderLayout(5, 5));
+        panelBusqueda.add(new JLabel("Nombre, cédula o email del amigo:"), BorderLayout.NORTH);
+        panelBusqueda.add(campoBusqueda, BorderLayout.CENTER);
+        
+        // Crear los botones del diálogo
+        JPanel panelBotones = new JPanel(new FlowLayout());
+        JButton botonAceptar = new JButton("Aceptar");
+        JButton botonCancelar = new JButton("Cancelar");
+        panelBotones.add(botonAceptar);
+        panelBotones.add(botonCancelar);
         
-        if (cedulaAmigo != null && !cedulaAmigo.trim().isEmpty()) {
-            // Aquí se implementaría la lógica para agregar el amigo
+        // Organizar los componentes del diálogo
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        panel.add(panelBusqueda, BorderLayout.NORTH);
+        panel.add(new JScrollPane(listaSugerencias), BorderLayout.CENTER);
+        panel.add(panelBotones, BorderLayout.SOUTH);
+        
+        // Pedir sugerencias mientras el usuario escribe
+        BuscadorSugerencias buscador = new BuscadorSugerencias(campoBusqueda, listaSugerencias);
+        campoBusqueda.getDocument().addDocumentListener(buscador);
+        
+        // Configurar los eventos de los botones
+        botonAceptar.addActionListener(e -> {
+            // Tomar la cédula del usuario sugerido o, si no eligió ninguno, el texto escrito
+            Usuario seleccionado = listaSugerencias.getSelectedValue();
+            String cedulaAmigo = seleccionado != null ? seleccionado.getCedula() : campoBusqueda.getText().trim();
+            
+            if (cedulaAmigo.isEmpty()) {
+                ventanaPrincipal.mostrarError("Por favor, elija un usuario de las sugerencias.", "Error de Validación");
+                return;
+            }
+            
+            // Agregar el amigo al usuario de la sesión actual
+            IControladorRolaPET controlador = ventanaPrincipal.getControlador();
+            if (!controlador.agregarAmigo(ventanaPrincipal.getSesion(), cedulaAmigo)) {
+                ventanaPrincipal.mostrarError("No se pudo agregar el amigo.", "Error");
+                return;
+            }
+            buscador.detener();
+            dialogo.dispose();
             ventanaPrincipal.mostrarMensaje("Amigo agregado exitosamente.", "Éxito");
-        }
+        });
+        
+        botonCancelar.addActionListener(e -> {
+            buscador.detener();
+            dialogo.dispose();
+        });
+        
+        // Agregar el panel al diálogo y mostrarlo
+        dialogo.add(panel);
+        dialogo.setVisible(true);
     }
     
     /**
@@ -422,8 +503,13 @@ public class PanelDashboardUsuario extends JPanel {
                 "¿Está seguro de que desea eliminar a " + amigoSeleccionado.getNombre() + " de su lista de amigos?",
                 "Confirmar Eliminación")) {
             
-            // Aquí se implementaría la lógica para eliminar el amigo
-            ventanaPrincipal.mostrarMensaje("Amigo eliminado exitosamente.", "Éxito");
+            // Eliminar el amigo del usuario de la sesión actual
+            IControladorRolaPET controlador = ventanaPrincipal.getControlador();
+            if (controlador.eliminarAmigo(ventanaPrincipal.getSesion(), amigoSeleccionado.getCedula())) {
+                ventanaPrincipal.mostrarMensaje("Amigo eliminado exitosamente.", "Éxito");
+            } else {
+                ventanaPrincipal.mostrarError("No se pudo eliminar el amigo.", "Error");
+            }
             actualizarListaAmigos(listaAmigos);
         }
     }
@@ -431,18 +517,15 @@ public class PanelDashboardUsuario extends JPanel {
     /**
      * Actualiza la lista de amigos mostrada.
      * 
-     * Este método obtiene todos los usuarios del sistema
+     * Este método obtiene los amigos del usuario de la sesión actual
      * y actualiza la lista de amigos mostrada en la interfaz.
      * 
      * @param listaAmigos Lista de amigos a actualizar
      */
     private void actualizarListaAmigos(JList<Usuario> listaAmigos) {
         IControladorRolaPET controlador = ventanaPrincipal.getControlador();
-        List<Usuario> usuarios = controlador.obtenerTodasLasPersonas().stream()
-                .filter(p -> p instanceof Usuario)
-                .map(p -> (Usuario) p)
-                .toList();
-        listaAmigos.setListData(usuarios.toArray(new Usuario[0]));
+        List<Usuario> amigos = controlador.obtenerAmigos(ventanaPrincipal.getSesion());
+        listaAmigos.setListData(amigos.toArray(new Usuario[0]));
     }
     
     /**
@@ -460,14 +543,279 @@ public class PanelDashboardUsuario extends JPanel {
     }
     
     /**
-     * Exporta el reporte de estadísticas.
+     * Exporta el reporte de estadísticas o los datos del repositorio.
      * 
-     * Este método permite exportar las estadísticas actuales
-     * a un archivo o realizar otras acciones de exportación.
+     * Este método pregunta qué se desea exportar y el archivo o directorio
+     * de destino, y luego realiza la exportación en un hilo de fondo para
+     * no congelar la interfaz. Mientras se exporta se muestra un monitor de
+     * progreso que permite cancelar la operación.
      * 
-     * @param areaEstadisticas Área de texto con las estadísticas a exportar
+     * @param areaEstadisticas Área de texto con las estadísticas, que se actualiza al terminar
      */
     private void exportarReporte(JTextArea areaEstadisticas) {
-        ventanaPrincipal.mostrarMensaje("Funcionalidad de exportación en desarrollo.", "Información");
+        // Preguntar qué se desea exportar
+        String[] opciones = {"Reporte de estadísticas", "Personas", "Vehículos", "Items", "Publicaciones", "Repositorio completo"};
+        String opcion = (String) JOptionPane.showInputDialog(this, "Seleccione qué desea exportar:", "Exportar",
+                JOptionPane.QUESTION_MESSAGE, null, opciones, opciones[0]);
+        if (opcion == null) {
+            return;
+        }
+        
+        // Seleccionar el destino de la exportación
+        boolean completo = opcion.equals("Repositorio completo");
+        JFileChooser selector = new JFileChooser();
+        selector.setDialogTitle("Exportar " + opcion);
+        if (completo) {
+            selector.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        }
+        if (selector.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path destino = selector.getSelectedFile().toPath();
+        
+        IControladorRolaPET controlador = ventanaPrincipal.getControlador();
+        TareaExportacion tarea;
+        if (completo) {
+            FormatoArchivo formato = (FormatoArchivo) JOptionPane.showInputDialog(this, "Seleccione el formato:",
+                    "Exportar", JOptionPane.QUESTION_MESSAGE, null, FormatoArchivo.values(), FormatoArchivo.CSV);
+            if (formato == null) {
+                return;
+            }
+            tarea = new TareaExportacion(opcion, areaEstadisticas,
+                    progreso -> controlador.exportarRepositorio(destino, formato, progreso));
+        } else if (opcion.equals(opciones[0])) {
+            Path archivo = conExtension(destino, ".txt", ".txt", ".csv", ".jsonl", ".ndjson");
+            tarea = new TareaExportacion(opcion, areaEstadisticas, progreso -> {
+                controlador.exportarEstadisticas(archivo);
+                return 1;
+            });
+        } else {
+            CategoriaEntidad categoria = CategoriaEntidad.values()[Arrays.asList(opciones).indexOf(opcion) - 1];
+            Path archivo = conExtension(destino, ".csv", ".csv", ".jsonl", ".ndjson");
+            tarea = new TareaExportacion(opcion, areaEstadisticas,
+                    progreso -> controlador.exportarDatos(archivo, categoria, progreso));
+        }
+        tarea.execute();
+    }
+    
+    /**
+     * Agrega una extensión al archivo elegido si no tiene ninguna de las admitidas.
+     * 
+     * @param archivo             Archivo elegido por el usuario
+     * @param extensionPorDefecto Extensión a agregar si hace falta
+     * @param admitidas           Extensiones admitidas
+     * @return El archivo con una extensión admitida
+     */
+    private static Path conExtension(Path archivo, String extensionPorDefecto, String... admitidas) {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String extension : admitidas) {
+            if (nombre.endsWith(extension)) {
+                return archivo;
+            }
+        }
+        return archivo.resolveSibling(archivo.getFileName() + extensionPorDefecto);
+    }
+    
+    /**
+     * Buscador que sugiere usuarios mientras se escribe en un campo de texto.
+     * 
+     * Cada cambio del campo reinicia una espera corta; solo cuando el
+     * usuario deja de escribir durante esa espera se piden las sugerencias
+     * al controlador, en un hilo de fondo. Si el campo cambia antes de que
+     * llegue el resultado, la búsqueda anterior se cancela y su resultado
+     * se descarta, de modo que la lista siempre corresponde al último texto.
+     */
+    private class BuscadorSugerencias implements DocumentListener {
+        
+        /** Milisegundos sin escribir antes de pedir las sugerencias */
+        private static final int ESPERA_MS = 250;
+        
+        /** Cantidad máxima de sugerencias mostradas */
+        private static final int MAXIMO_SUGERENCIAS = 10;
+        
+        /** Campo en el que se escribe */
+        private final JTextField campo;
+        
+        /** Lista en la que se muestran las sugerencias */
+        private final JList<Usuario> lista;
+        
+        /** Temporizador que espera a que el usuario deje de escribir */
+        private final Timer espera;
+        
+        /** Búsqueda en curso, o null si no hay ninguna */
+        private SwingWorker<List<Usuario>, Void> busqueda;
+        
+        /**
+         * Constructor del buscador.
+         * 
+         * @param campo Campo en el que se escribe
+         * @param lista Lista en la que se muestran las sugerencias
+         */
+        private BuscadorSugerencias(JTextField campo, JList<Usuario> lista) {
+            this.campo = campo;
+            this.lista = lista;
+            this.espera = new Timer(ESPERA_MS, evento -> buscar());
+            this.espera.setRepeats(false);
+        }
+        
+        @Override
+        public void insertUpdate(DocumentEvent evento) {
+            espera.restart();
+        }
+        
+        @Override
+        public void removeUpdate(DocumentEvent evento) {
+            espera.restart();
+        }
+        
+        @Override
+        public void changedUpdate(DocumentEvent evento) {
+            espera.restart();
+        }
+        
+        /**
+         * Cancela la búsqueda anterior e inicia una nueva con el texto actual del campo.
+         */
+        private void buscar() {
+            if (busqueda != null) {
+                busqueda.cancel(false);
+            }
+            String texto = campo.getText();
+            IControladorRolaPET controlador = ventanaPrincipal.getControlador();
+            busqueda = new SwingWorker<List<Usuario>, Void>() {
+                @Override
+                protected List<Usuario> doInBackground() {
+                    return controlador.sugerirUsuarios(texto, MAXIMO_SUGERENCIAS);
+                }
+                
+                @Override
+                protected void done() {
+                    if (isCancelled()) {
+                        return;
+                    }
+                    try {
+                        lista.setListData(get().toArray(new Usuario[0]));
+                    } catch (ExecutionException e) {
+                        lista.setListData(new Usuario[0]);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            busqueda.execute();
+        }
+        
+        /**
+         * Detiene la espera y cancela la búsqueda en curso, al cerrar el diálogo.
+         */
+        private void detener() {
+            espera.stop();
+            if (busqueda != null) {
+                busqueda.cancel(false);
+            }
+        }
+    }
+    
+    /**
+     * Operación de exportación que se ejecuta en un hilo de fondo.
+     */
+    private interface OperacionExportacion {
+        
+        /**
+         * Ejecuta la exportación.
+         * 
+         * @param progreso Seguimiento del avance y de la cancelación
+         * @return Número de registros exportados
+         * @throws IOException Si ocurre un error al escribir
+         */
+        long ejecutar(IProgresoExportacion progreso) throws IOException;
+    }
+    
+    /**
+     * Tarea que exporta fuera del hilo de eventos y muestra su progreso.
+     * 
+     * La tarea informa su avance a un monitor de progreso y atiende el
+     * botón de cancelar del monitor; al terminar informa el resultado al
+     * usuario desde el hilo de eventos.
+     */
+    private class TareaExportacion extends SwingWorker<Long, Void> implements IProgresoExportacion {
+        
+        /** Descripción de lo que se exporta */
+        private final String descripcion;
+        
+        /** Área de estadísticas a actualizar al terminar */
+        private final JTextArea areaEstadisticas;
+        
+        /** Operación de exportación a ejecutar */
+        private final OperacionExportacion operacion;
+        
+        /** Monitor de progreso con el botón de cancelar */
+        private final ProgressMonitor monitor;
+        
+        /** Temporizador que revisa en el hilo de eventos si se pulsó cancelar */
+        private final Timer revisionCancelacion;
+        
+        /**
+         * Constructor de la tarea.
+         * 
+         * @param descripcion      Descripción de lo que se exporta
+         * @param areaEstadisticas Área de estadísticas a actualizar al terminar
+         * @param operacion        Operación de exportación a ejecutar
+         */
+        private TareaExportacion(String descripcion, JTextArea areaEstadisticas, OperacionExportacion operacion) {
+            this.descripcion = descripcion;
+            this.areaEstadisticas = areaEstadisticas;
+            this.operacion = operacion;
+            this.monitor = new ProgressMonitor(PanelDashboardUsuario.this, "Exportando " + descripcion + "...", null, 0, 100);
+            this.monitor.setMillisToDecideToPopup(200);
+            addPropertyChangeListener(evento -> {
+                if ("progress".equals(evento.getPropertyName())) {
+                    monitor.setProgress((Integer) evento.getNewValue());
+                }
+            });
+            this.revisionCancelacion = new Timer(200, evento -> {
+                if (monitor.isCanceled()) {
+                    cancel(false);
+                }
+            });
+            this.revisionCancelacion.start();
+        }
+        
+        @Override
+        protected Long doInBackground() throws IOException {
+            return operacion.ejecutar(this);
+        }
+        
+        @Override
+        public void actualizar(long exportados, long total) {
+            setProgress(total > 0 ? (int) Math.min(99, exportados * 100 / total) : 0);
+        }
+        
+        @Override
+        public boolean isCancelada() {
+            return isCancelled();
+        }
+        
+        @Override
+        protected void done() {
+            revisionCancelacion.stop();
+            monitor.close();
+            try {
+                long exportados = get();
+                ventanaPrincipal.mostrarMensaje("Exportación de " + descripcion + " completada: "
+                        + exportados + " registros.", "Éxito");
+            } catch (CancellationException e) {
+                ventanaPrincipal.mostrarMensaje("La exportación fue cancelada.", "Información");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof CancellationException) {
+                    ventanaPrincipal.mostrarMensaje("La exportación fue cancelada.", "Información");
+                } else {
+                    ventanaPrincipal.mostrarError("No se pudo exportar: " + e.getCause().getMessage(), "Error de Exportación");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            actualizarEstadisticas(areaEstadisticas);
+        }
     }
-}
+}
\ No newline at end of file
@@ -1,17 +1,20 @@
 package udistrital.avanzada.rolapet.vista;
 
 import udistrital.avanzada.rolapet.controlador.IControladorRolaPET;
+import udistrital.avanzada.rolapet.controlador.Sesion;
 import udistrital.avanzada.rolapet.modelo.*;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Panel de login del sistema RolaPet.
  * 
- * Este panel permite a los usuarios autenticarse en el sistema
- * con sus credenciales (email/contraseña para usuarios, cédula/contraseña para otros).
+ * Este panel permite a las personas autenticarse en el sistema con su
+ * credencial y su contraseña: email para usuarios, cédula para administradores
+ * y cédula o email para proveedores. El rol se deduce de la credencial.
  * Proporciona una interfaz intuitiva para el proceso de autenticación
  * y navegación hacia el registro de nuevos usuarios.
  * 
@@ -24,15 +27,12 @@ public class PanelLogin extends JPanel {
     /** Referencia a la ventana principal para comunicación entre paneles */
     private final VentanaPrincipal ventanaPrincipal;
     
-    /** Campo de texto para ingresar email o cédula según el tipo de usuario */
+    /** Campo de texto para ingresar el email o la cédula */
     private JTextField campoCredencial;
     
     /** Campo de texto para ingresar la contraseña de acceso */
     private JPasswordField campoPassword;
     
-    /** Combo box para seleccionar el tipo de usuario (Usuario, Administrador, Proveedor) */
-    private JComboBox<String> comboBoxTipoUsuario;
-    
     /** Botón para iniciar sesión con las credenciales ingresadas */
     private JButton botonLogin;
     
@@ -63,14 +63,6 @@ public class PanelLogin extends JPanel {
      * y estableciendo sus propiedades básicas.
      */
     private void inicializarComponentes() {
-        // Crear etiquetas para los campos
-        JLabel etiquetaTipoUsuario = new JLabel("Tipo de Usuario:");
-        JLabel etiquetaCredencial = new JLabel("Email/Cédula:");
-        JLabel etiquetaPassword = new JLabel("Contraseña:");
-        
-        // Crear el combo box para seleccionar tipo de usuario
-        comboBoxTipoUsuario = new JComboBox<>(new String[]{"Usuario", "Administrador", "Proveedor"});
-        
         // Crear los campos de entrada
         campoCredencial = new JTextField(20);
         campoPassword = new JPasswordField(20);
@@ -80,7 +72,7 @@ public class PanelLogin extends JPanel {
         botonRegistro = new JButton("Registrarse");
         
         // Configurar tooltips para ayudar al usuario
-        campoCredencial.setToolTipText("Ingrese su email (usuarios) o cédula (administradores/proveedores)");
+        campoCredencial.setToolTipText("Ingrese su email (usuarios), cédula (administradores) o cédula o email (proveedores)");
         campoPassword.setToolTipText("Ingrese su contraseña de acceso");
         
         // Establecer tamaños preferidos para los botones
@@ -114,31 +106,22 @@ public class PanelLogin extends JPanel {
         gbc.insets = new Insets(0, 0, 30, 0);
         panelPrincipal.add(etiquetaTitulo, gbc);
         
-        // Configurar el campo de tipo de usuario
+        // Configurar el campo de credencial
         gbc.gridx = 0; gbc.gridy = 1; gbc.gridwidth = 1;
         gbc.insets = new Insets(5, 0, 5, 10);
         gbc.anchor = GridBagConstraints.EAST;
-        panelPrincipal.add(new JLabel("Tipo de Usuario:"), gbc);
-        
-        gbc.gridx = 1; gbc.gridy = 1;
-        gbc.anchor = GridBagConstraints.WEST;
-        panelPrincipal.add(comboBoxTipoUsuario, gbc);
-        
-        // Configurar el campo de credencial
-        gbc.gridx = 0; gbc.gridy = 2;
-        gbc.anchor = GridBagConstraints.EAST;
         panelPrincipal.add(new JLabel("Email/Cédula:"), gbc);
         
-        gbc.gridx = 1; gbc.gridy = 2;
+        gbc.gridx = 1; gbc.gridy = 1;
         gbc.anchor = GridBagConstraints.WEST;
         panelPrincipal.add(campoCredencial, gbc);
         
         // Configurar el campo de contraseña
-        gbc.gridx = 0; gbc.gridy = 3;
+        gbc.gridx = 0; gbc.gridy = 2;
         gbc.anchor = GridBagConstraints.EAST;
         panelPrincipal.add(new JLabel("Contraseña:"), gbc);
         
-        gbc.gridx = 1; gbc.gridy = 3;
+        gbc.gridx = 1; gbc.gridy = 2;
         gbc.anchor = GridBagConstraints.WEST;
         panelPrincipal.add(campoPassword, gbc);
         
@@ -147,7 +130,7 @@ public class PanelLogin extends JPanel {
         panelBotones.add(botonLogin);
         panelBotones.add(botonRegistro);
         
-        gbc.gridx = 0; gbc.gridy = 4; gbc.gridwidth = 2;
+        gbc.gridx = 0; gbc.gridy = 3; gbc.gridwidth = 2;
         gbc.insets = new Insets(20, 0, 0, 0);
         gbc.anchor = GridBagConstraints.CENTER;
         panelPrincipal.add(panelBotones, gbc);
@@ -183,24 +166,24 @@ public class PanelLogin extends JPanel {
         // Configurar eventos de Enter en los campos de texto
         campoCredencial.addActionListener(e -> realizarLogin());
         campoPassword.addActionListener(e -> realizarLogin());
-        
-        // Configurar el evento de cambio en el combo box
-        comboBoxTipoUsuario.addActionListener(e -> actualizarEtiquetaCredencial());
     }
     
     /**
-     * Realiza el proceso de autenticación del usuario.
+     * Realiza el proceso de autenticación de la persona.
      * 
-     * Este método obtiene las credenciales ingresadas por el usuario,
-     * valida que no estén vacías, y según el tipo de usuario seleccionado,
-     * intenta autenticarlo utilizando el controlador del sistema.
-     * Muestra mensajes apropiados según el resultado de la autenticación.
+     * Este método obtiene las credenciales ingresadas, valida que no estén
+     * vacías e intenta iniciar una sesión con ellas utilizando el controlador
+     * del sistema, que deduce el rol de la persona a partir de su credencial.
+     * Como verificar la contraseña toma un tiempo apreciable, el inicio de
+     * sesión se hace en un hilo de fondo y los controles del panel quedan
+     * deshabilitados mientras tanto. La sesión iniciada queda en la ventana
+     * principal. Muestra mensajes apropiados según el resultado de la
+     * autenticación.
      */
     private void realizarLogin() {
-        // Obtener los datos ingresados por el usuario
+        // Obtener los datos ingresados por la persona
         String credencial = campoCredencial.getText().trim();
         String password = new String(campoPassword.getPassword());
-        String tipoUsuario = (String) comboBoxTipoUsuario.getSelectedItem();
         
         // Validar que los campos no estén vacíos
         if (credencial.isEmpty() || password.isEmpty()) {
@@ -211,65 +194,53 @@ public class PanelLogin extends JPanel {
         // Obtener el controlador del sistema
         IControladorRolaPET controlador = ventanaPrincipal.getControlador();
         
-        try {
-            // Realizar la autenticación según el tipo de usuario
-            switch (tipoUsuario) {
-                case "Usuario":
-                    // Autenticar usuario con email y contraseña
-                    Usuario usuario = controlador.autenticarUsuario(credencial, password);
-                    if (usuario != null) {
-                        ventanaPrincipal.mostrarMensaje("¡Bienvenido " + usuario.getNombre() + "!", "Login Exitoso");
-                        ventanaPrincipal.mostrarPanelDashboard();
-                        limpiarCampos();
-                    } else {
-                        ventanaPrincipal.mostrarError("Credenciales inválidas para usuario.", "Error de Autenticación");
-                    }
-                    break;
-                    
-                case "Administrador":
-                    // Autenticar administrador con cédula y contraseña
-                    Administrador admin = controlador.autenticarAdministrador(credencial, password);
-                    if (admin != null) {
-                        ventanaPrincipal.mostrarMensaje("¡Bienvenido Administrador " + admin.getNombre() + "!", "Login Exitoso");
-                        ventanaPrincipal.mostrarPanelDashboard();
-                        limpiarCampos();
-                    } else {
-                        ventanaPrincipal.mostrarError("Credenciales inválidas para administrador.", "Error de Autenticación");
+        // Evitar un segundo intento mientras se verifica el actual
+        habilitarControles(false);
+        new SwingWorker<Sesion, Void>() {
+            @Override
+            protected Sesion doInBackground() {
+                // Iniciar sesión con la credencial; el rol lo resuelve el controlador
+                return controlador.iniciarSesion(credencial, password);
+            }
+            
+            @Override
+            protected void done() {
+                habilitarControles(true);
+                try {
+                    Sesion sesion = get();
+                    if (sesion == null) {
+                        ventanaPrincipal.mostrarError("Credenciales inválidas.", "Error de Autenticación");
+                        return;
                     }
-                    break;
+                    ventanaPrincipal.setSesion(sesion);
                     
-                case "Proveedor":
-                    // Autenticar proveedor con cédula y contraseña
-                    Proveedor proveedor = controlador.autenticarProveedor(credencial, password);
-                    if (proveedor != null) {
-                        ventanaPrincipal.mostrarMensaje("¡Bienvenido Proveedor " + proveedor.getNombre() + "!", "Login Exitoso");
-                        ventanaPrincipal.mostrarPanelDashboard();
-                        limpiarCampos();
-                    } else {
-                        ventanaPrincipal.mostrarError("Credenciales inválidas para proveedor.", "Error de Autenticación");
-                    }
-                    break;
+                    Persona persona = sesion.getPersona();
+                    // Saludar según el rol de la persona autenticada
+                    String saludo = persona instanceof Usuario ? "¡Bienvenido " : "¡Bienvenido " + persona.getRol() + " ";
+                    ventanaPrincipal.mostrarMensaje(saludo + persona.getNombre() + "!", "Login Exitoso");
+                    ventanaPrincipal.mostrarPanelDashboard();
+                    limpiarCampos();
+                } catch (ExecutionException ex) {
+                    // Manejar cualquier error durante el proceso de autenticación
+                    ventanaPrincipal.mostrarError("Error durante el proceso de autenticación: "
+                            + ex.getCause().getMessage(), "Error del Sistema");
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
             }
-        } catch (Exception ex) {
-            // Manejar cualquier error durante el proceso de autenticación
-            ventanaPrincipal.mostrarError("Error durante el proceso de autenticación: " + ex.getMessage(), "Error del Sistema");
-        }
+        }.execute();
     }
     
     /**
-     * Actualiza la etiqueta de credencial según el tipo de usuario seleccionado.
+     * Habilita o deshabilita los campos y botones del panel.
      * 
-     * Este método cambia el tooltip del campo de credencial para indicar
-     * al usuario qué tipo de información debe ingresar según el tipo
-     * de usuario seleccionado (email para usuarios, cédula para otros).
+     * @param habilitar true para habilitarlos, false para deshabilitarlos
      */
-    private void actualizarEtiquetaCredencial() {
-        String tipoUsuario = (String) comboBoxTipoUsuario.getSelectedItem();
-        if ("Usuario".equals(tipoUsuario)) {
-            campoCredencial.setToolTipText("Ingrese su email");
-        } else {
-            campoCredencial.setToolTipText("Ingrese su cédula");
-        }
+    private void habilitarControles(boolean habilitar) {
+        campoCredencial.setEnabled(habilitar);
+        campoPassword.setEnabled(habilitar);
+        botonLogin.setEnabled(habilitar);
+        botonRegistro.setEnabled(habilitar);
     }
     
     /**
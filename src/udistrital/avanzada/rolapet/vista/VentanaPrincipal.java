@@ -2,6 +2,7 @@ package udistrital.avanzada.rolapet.vista;
 
 import udistrital.avanzada.rolapet.controlador.IControladorRolaPET;
 import udistrital.avanzada.rolapet.controlador.ControladorRolaPET;
+import udistrital.avanzada.rolapet.controlador.Sesion;
 import javax.swing.*;
 import java.awt.*;
 
@@ -34,6 +35,9 @@ public class VentanaPrincipal extends JFrame {
     /** Panel de dashboard para usuarios autenticados */
     private PanelDashboardUsuario panelDashboardUsuario;
     
+    /** Sesión de la persona autenticada, o null si nadie ha iniciado sesión */
+    private Sesion sesion;
+    
     /**
      * Constructor de la ventana principal.
      * 
@@ -184,6 +188,27 @@ public class VentanaPrincipal extends JFrame {
         return controlador;
     }
     
+    /**
+     * Obtiene la sesión de la persona autenticada.
+     * 
+     * Los paneles usan esta sesión para operar en nombre de la persona
+     * autenticada sin volver a indicar su cédula.
+     * 
+     * @return La sesión actual, o null si nadie ha iniciado sesión
+     */
+    public Sesion getSesion() {
+        return sesion;
+    }
+    
+    /**
+     * Establece la sesión de la persona autenticada.
+     * 
+     * @param sesion La sesión iniciada, o null al cerrarla
+     */
+    public void setSesion(Sesion sesion) {
+        this.sesion = sesion;
+    }
+    
     /**
      * Muestra un diálogo de información al usuario.
      * 
@@ -244,4 +269,4 @@ public class VentanaPrincipal extends JFrame {
                 JOptionPane.INFORMATION_MESSAGE);
     }
     
-}
+}
\ No newline at end of file
@@ -0,0 +1,563 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import udistrital.avanzada.rolapet.modelo.Repositorio;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga del servidor HTTP/JSON sobre la interfaz de loopback.
+ * 
+ * Levanta un {@link ServidorApi} en un puerto libre y lo carga con clientes
+ * concurrentes, cada uno con su propia dirección de origen dentro de
+ * 127.0.0.0/8 para que el limitador de intentos los trate como clientes
+ * distintos. Las fases son:
+ * - Registros: cada cliente registra sus propios usuarios.
+ * - Inicios de sesión: cada cliente inicia sesión con sus usuarios.
+ * - Consultas: los clientes con sesión listan usuarios, piden sugerencias
+ *   y estadísticas, con cantidades crecientes de clientes a la vez, para
+ *   ver cómo escala el rendimiento con los núcleos.
+ * - Límites: un origen que inicia sesión demasiadas veces seguidas, una
+ *   cuenta con demasiados fallos, aunque lleguen a la vez, y un origen
+ *   que registra demasiados usuarios seguidos se rechazan con 429 y la
+ *   cabecera "Retry-After".
+ * 
+ * Al terminar cada fase se verifica que ninguna solicitud se perdió: cada
+ * solicitud enviada recibió una respuesta, cada registro aceptado está en
+ * el repositorio y la cantidad de usuarios coincide con los registros
+ * aceptados.
+ * 
+ * Salvo que se indique la propiedad del sistema rolapet.pbkdf2.iteraciones,
+ * la prueba la fija en {@link #ITERACIONES_POR_OMISION} para que el costo
+ * de los hashes no domine la carga. Se ejecuta desde la raíz del proyecto con:
+ * 
+ * javac -encoding UTF-8 -d salida $(find src test -name '*.java')
+ * java -cp salida udistrital.avanzada.rolapet.controlador.CargaServidorApi [clientes] [consultasPorCliente]
+ * 
+ * Termina con código 0 si todas las verificaciones se cumplen y con 1 si
+ * alguna falla.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class CargaServidorApi {
+    
+    /** Iteraciones de PBKDF2 de la prueba si no se indican otras */
+    private static final String ITERACIONES_POR_OMISION = "10000";
+    
+    /** Usuarios que registra cada cliente, dentro de los intentos permitidos a su origen */
+    private static final int USUARIOS_POR_CLIENTE = 10;
+    
+    /** Contraseña de los usuarios de la prueba */
+    private static final String CONTRASENA = "clave-de-prueba";
+    
+    /** Token en la respuesta de un inicio de sesión */
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    
+    /** Cabecera "Retry-After" de una respuesta, sin distinguir mayúsculas */
+    private static final Pattern REINTENTO = Pattern.compile("(?im)^Retry-After:\\s*(\\d+)");
+    
+    /** Servidor bajo prueba */
+    private final ServidorApi servidor;
+    
+    /** Repositorio del servidor */
+    private final Repositorio repositorio;
+    
+    /** Cantidad de clientes concurrentes */
+    private final int clientes;
+    
+    /** Consultas que hace cada cliente en cada nivel de concurrencia */
+    private final int consultasPorCliente;
+    
+    /** Siguiente dirección de origen libre */
+    private final AtomicInteger siguienteOrigen;
+    
+    /** Solicitudes enviadas */
+    private final AtomicInteger enviadas;
+    
+    /** Solicitudes respondidas */
+    private final AtomicInteger respondidas;
+    
+    /** Verificaciones fallidas */
+    private final List<String> fallas;
+    
+    /**
+     * Respuesta HTTP recibida.
+     */
+    private static final class Respuesta {
+        
+        /** Código de estado */
+        private final int estado;
+        
+        /** Cuerpo de la respuesta */
+        private final String cuerpo;
+        
+        /** Segundos de la cabecera "Retry-After", o -1 si no la trae */
+        private final long reintento;
+        
+        /**
+         * Constructor de la respuesta.
+         * 
+         * @param estado    Código de estado
+         * @param cuerpo    Cuerpo de la respuesta
+         * @param reintento Segundos de la cabecera "Retry-After", o -1 si no la trae
+         */
+        private Respuesta(int estado, String cuerpo, long reintento) {
+            this.estado = estado;
+            this.cuerpo = cuerpo;
+            this.reintento = reintento;
+        }
+    }
+    
+    /**
+     * Trabajo de un cliente concurrente.
+     */
+    @FunctionalInterface
+    private interface Trabajo {
+        
+        /**
+         * Ejecuta el trabajo.
+         * 
+         * @param cliente Número del cliente
+         * @throws IOException Si falla la comunicación con el servidor
+         */
+        void ejecutar(int cliente) throws IOException;
+    }
+    
+    /**
+     * Constructor de la prueba.
+     * 
+     * @param clientes            Cantidad de clientes concurrentes
+     * @param consultasPorCliente Consultas que hace cada cliente en cada nivel de concurrencia
+     * @throws IOException Si no se puede abrir el puerto del servidor
+     */
+    private CargaServidorApi(int clientes, int consultasPorCliente) throws IOException {
+        this.servidor = new ServidorApi(new ControladorRolaPET(), new InetSocketAddress("127.0.0.1", 0));
+        this.repositorio = Repositorio.getInstancia();
+        this.clientes = clientes;
+        this.consultasPorCliente = consultasPorCliente;
+        this.siguienteOrigen = new AtomicInteger();
+        this.enviadas = new AtomicInteger();
+        this.respondidas = new AtomicInteger();
+        this.fallas = new ArrayList<>();
+    }
+    
+    /**
+     * Ejecuta la prueba.
+     * 
+     * @param args Cantidad de clientes concurrentes (por defecto 16) y de
+     *             consultas por cliente en cada nivel (por defecto 200)
+     * @throws Exception Si la prueba no puede ejecutarse
+     */
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("rolapet.pbkdf2.iteraciones") == null) {
+            System.setProperty("rolapet.pbkdf2.iteraciones", ITERACIONES_POR_OMISION);
+        }
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int consultas = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        CargaServidorApi prueba = new CargaServidorApi(clientes, consultas);
+        prueba.servidor.iniciar();
+        try {
+            System.out.printf("Servidor en el puerto %d con %s, %d núcleos, PBKDF2 con %s iteraciones%n",
+                    prueba.servidor.getPuerto(), prueba.servidor.isHilosVirtuales() ? "hilos virtuales" : "grupo fijo",
+                    Runtime.getRuntime().availableProcessors(), System.getProperty("rolapet.pbkdf2.iteraciones"));
+            prueba.ejecutar();
+        } finally {
+            prueba.servidor.detener(0);
+        }
+        System.out.printf("%d solicitudes enviadas, %d respondidas%n", prueba.enviadas.get(), prueba.respondidas.get());
+        if (!prueba.fallas.isEmpty()) {
+            prueba.fallas.forEach(falla -> System.out.println("FALLA: " + falla));
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones se cumplieron");
+    }
+    
+    /**
+     * Ejecuta las fases de la prueba y sus verificaciones.
+     * 
+     * @throws Exception Si una fase no puede ejecutarse
+     */
+    private void ejecutar() throws Exception {
+        String[] origenes = new String[clientes];
+        for (int i = 0; i < clientes; i++) {
+            origenes[i] = nuevoOrigen();
+        }
+        
+        int base = repositorio.contarUsuarios();
+        AtomicInteger registrados = new AtomicInteger();
+        long duracion = concurrentemente(clientes, cliente -> {
+            for (int i = 0; i < USUARIOS_POR_CLIENTE; i++) {
+                Respuesta respuesta = registrar(origenes[cliente], cedula(cliente, i));
+                verificar(respuesta.estado == 201, "Registro de " + cedula(cliente, i) + ": " + respuesta.estado);
+                if (respuesta.estado == 201) {
+                    registrados.incrementAndGet();
+                }
+            }
+        });
+        reportar("Registros", registrados.get(), duracion);
+        verificar(repositorio.contarUsuarios() == base + registrados.get(),
+                "Usuarios tras registrar: " + repositorio.contarUsuarios() + ", esperados " + (base + registrados.get()));
+        for (int cliente = 0; cliente < clientes; cliente++) {
+            for (int i = 0; i < USUARIOS_POR_CLIENTE; i++) {
+                verificar(repositorio.buscarPersonaPorCedula(cedula(cliente, i)) != null,
+                        "No se encuentra el usuario registrado " + cedula(cliente, i));
+            }
+        }
+        
+        String[] tokens = new String[clientes];
+        AtomicInteger sesiones = new AtomicInteger();
+        duracion = concurrentemente(clientes, cliente -> {
+            for (int i = 0; i < USUARIOS_POR_CLIENTE; i++) {
+                Respuesta respuesta = iniciarSesion(origenes[cliente], email(cliente, i), CONTRASENA);
+                verificar(respuesta.estado == 201, "Inicio de sesión de " + cedula(cliente, i) + ": " + respuesta.estado);
+                Matcher token = TOKEN.matcher(respuesta.cuerpo);
+                if (respuesta.estado == 201 && token.find()) {
+                    tokens[cliente] = token.group(1);
+                    sesiones.incrementAndGet();
+                }
+            }
+        });
+        reportar("Inicios de sesión", sesiones.get(), duracion);
+        if (sesiones.get() < clientes * USUARIOS_POR_CLIENTE) {
+            return;
+        }
+        
+        for (int concurrencia = 1; concurrencia <= clientes; concurrencia *= 2) {
+            AtomicInteger consultas = new AtomicInteger();
+            duracion = concurrentemente(concurrencia, cliente -> {
+                for (int i = 0; i < consultasPorCliente; i++) {
+                    String ruta = i % 3 == 0 ? "/api/usuarios?limite=50"
+                            : i % 3 == 1 ? "/api/sugerencias?prefijo=Usuario&cantidad=10" : "/api/estadisticas";
+                    Respuesta respuesta = enviar(origenes[cliente], "GET", ruta, tokens[cliente], null);
+                    verificar(respuesta.estado == 200, "Consulta " + ruta + ": " + respuesta.estado);
+                    consultas.incrementAndGet();
+                }
+            });
+            reportar("Consultas, " + concurrencia + " clientes", consultas.get(), duracion);
+        }
+        
+        verificarLimiteDeOrigen();
+        verificarBloqueoDeCuenta();
+        verificarBloqueoConcurrente();
+        verificarLimiteDeRegistros();
+        verificar(enviadas.get() == respondidas.get(),
+                "Solicitudes sin respuesta: " + (enviadas.get() - respondidas.get()));
+    }
+    
+    /**
+     * Verifica que un origen que inicia sesión demasiadas veces seguidas se rechace.
+     * 
+     * Todos los intentos usan credenciales correctas, por lo que solo se
+     * esperan 201 o el 429 del limitador con su cabecera "Retry-After". Se
+     * aceptan a lo sumo los intentos permitidos más los recuperados durante
+     * la fase.
+     * 
+     * @throws IOException Si falla la comunicación con el servidor
+     */
+    private void verificarLimiteDeOrigen() throws IOException {
+        String origen = nuevoOrigen();
+        int intentos = 2 * LimitadorIntentos.INTENTOS_POR_ORIGEN;
+        int aceptados = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < intentos; i++) {
+            Respuesta respuesta = iniciarSesion(origen, email(0, 0), CONTRASENA);
+            int estado = respuesta.estado;
+            verificar(estado == 201 || estado == 429 && respuesta.reintento >= 1,
+                    "Estado de un inicio de sesión limitado: " + estado + ", Retry-After " + respuesta.reintento);
+            if (estado == 201) {
+                aceptados++;
+            }
+        }
+        int maximo = LimitadorIntentos.INTENTOS_POR_ORIGEN + recuperados(inicio, LimitadorIntentos.RECARGA_POR_ORIGEN_MS);
+        System.out.printf("Límite de origen: %d de %d inicios de sesión aceptados (máximo %d)%n",
+                aceptados, intentos, maximo);
+        verificar(aceptados >= LimitadorIntentos.INTENTOS_POR_ORIGEN && aceptados <= maximo,
+                "Inicios de sesión aceptados a un mismo origen: " + aceptados + ", máximo " + maximo);
+        verificar(iniciarSesion(nuevoOrigen(), email(0, 1), CONTRASENA).estado == 201,
+                "Otro origen fue rechazado por el límite de un origen distinto");
+    }
+    
+    /**
+     * Verifica que una cuenta con demasiados fallos se bloquee sin afectar a las demás.
+     * 
+     * Cada intento se hace desde un origen distinto, para que solo actúe el
+     * límite de la cuenta.
+     * 
+     * @throws IOException Si falla la comunicación con el servidor
+     */
+    private void verificarBloqueoDeCuenta() throws IOException {
+        String cuenta = email(1, 0);
+        for (int i = 0; i < LimitadorIntentos.FALLOS_POR_CUENTA; i++) {
+            int estado = iniciarSesion(nuevoOrigen(), cuenta, CONTRASENA + "x").estado;
+            verificar(estado == 401, "Estado de un inicio de sesión con contraseña incorrecta: " + estado);
+        }
+        Respuesta bloqueo = iniciarSesion(nuevoOrigen(), cuenta, CONTRASENA);
+        int bloqueada = bloqueo.estado;
+        int otra = iniciarSesion(nuevoOrigen(), email(1, 1), CONTRASENA).estado;
+        System.out.printf("Bloqueo de cuenta: tras %d fallos la cuenta responde %d y otra cuenta %d%n",
+                LimitadorIntentos.FALLOS_POR_CUENTA, bloqueada, otra);
+        verificar(bloqueada == 429, "La cuenta con " + LimitadorIntentos.FALLOS_POR_CUENTA
+                + " fallos no se bloqueó: " + bloqueada);
+        verificar(bloqueo.reintento >= 1 && bloqueo.reintento <= TimeUnit.MILLISECONDS.toSeconds(
+                LimitadorIntentos.RECARGA_POR_CUENTA_MS), "Retry-After de la cuenta bloqueada: " + bloqueo.reintento);
+        verificar(otra == 201, "Otra cuenta fue rechazada por el bloqueo de una distinta: " + otra);
+    }
+    
+    /**
+     * Verifica que los fallos simultáneos contra una cuenta no superen su límite.
+     * 
+     * Varios clientes, cada uno desde su propio origen, prueban a la vez
+     * una contraseña incorrecta en la misma cuenta. Solo los intentos que
+     * llegan a verificarse se responden con 401, y no deben pasar de los
+     * fallos permitidos a la cuenta más los recuperados durante la fase.
+     * 
+     * @throws InterruptedException Si se interrumpe la espera de los clientes
+     */
+    private void verificarBloqueoConcurrente() throws InterruptedException {
+        String cuenta = email(1, 2);
+        int intentos = 4 * LimitadorIntentos.FALLOS_POR_CUENTA;
+        AtomicInteger verificados = new AtomicInteger();
+        long inicio = System.nanoTime();
+        concurrentemente(intentos, cliente -> {
+            int estado = iniciarSesion(nuevoOrigen(), cuenta, CONTRASENA + "x").estado;
+            verificar(estado == 401 || estado == 429, "Estado de un fallo simultáneo: " + estado);
+            if (estado == 401) {
+                verificados.incrementAndGet();
+            }
+        });
+        int maximo = LimitadorIntentos.FALLOS_POR_CUENTA + recuperados(inicio, LimitadorIntentos.RECARGA_POR_CUENTA_MS);
+        System.out.printf("Bloqueo simultáneo: %d de %d fallos simultáneos verificados (máximo %d)%n",
+                verificados.get(), intentos, maximo);
+        verificar(verificados.get() <= maximo,
+                "Fallos simultáneos verificados contra una cuenta: " + verificados.get() + ", máximo " + maximo);
+    }
+    
+    /**
+     * Verifica que un origen que registra demasiados usuarios seguidos se rechace sin perder registros.
+     * 
+     * @throws IOException Si falla la comunicación con el servidor
+     */
+    private void verificarLimiteDeRegistros() throws IOException {
+        String origen = nuevoOrigen();
+        int intentos = 2 * LimitadorIntentos.INTENTOS_POR_ORIGEN;
+        int base = repositorio.contarUsuarios();
+        int aceptados = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < intentos; i++) {
+            Respuesta respuesta = registrar(origen, "limite-" + i);
+            int estado = respuesta.estado;
+            verificar(estado == 201 || estado == 429 && respuesta.reintento >= 1,
+                    "Estado de un registro limitado: " + estado + ", Retry-After " + respuesta.reintento);
+            if (estado == 201) {
+                aceptados++;
+            }
+        }
+        int maximo = LimitadorIntentos.INTENTOS_POR_ORIGEN + recuperados(inicio, LimitadorIntentos.RECARGA_POR_ORIGEN_MS);
+        System.out.printf("Límite de registros: %d de %d registros aceptados (máximo %d)%n", aceptados, intentos, maximo);
+        verificar(aceptados >= LimitadorIntentos.INTENTOS_POR_ORIGEN && aceptados <= maximo,
+                "Registros aceptados a un mismo origen: " + aceptados + ", máximo " + maximo);
+        verificar(repositorio.contarUsuarios() == base + aceptados,
+                "Usuarios tras el límite de registros: " + repositorio.contarUsuarios()
+                        + ", esperados " + (base + aceptados));
+    }
+    
+    /**
+     * Calcula cuántos intentos pudo recuperar un origen desde un instante, con uno de margen.
+     * 
+     * @param inicio    Instante de inicio, en nanosegundos
+     * @param recargaMs Tiempo en que se recupera un intento, en milisegundos
+     * @return Intentos recuperados como máximo
+     */
+    private static int recuperados(long inicio, long recargaMs) {
+        return (int) ((System.nanoTime() - inicio) / 1_000_000 / recargaMs) + 1;
+    }
+    
+    /**
+     * Registra un usuario.
+     * 
+     * @param origen Dirección de origen
+     * @param cedula Cédula del usuario
+     * @return La respuesta
+     * @throws IOException Si falla la comunicación con el servidor
+     */
+    private Respuesta registrar(String origen, String cedula) throws IOException {
+        String cuerpo = "{\"cedula\":\"" + cedula + "\",\"nombre\":\"Usuario " + cedula
+                + "\",\"telefono\":\"3000000000\",\"password\":\"" + CONTRASENA
+                + "\",\"email\":\"" + cedula + "@prueba.co\"}";
+        return enviar(origen, "POST", "/api/usuarios", null, cuerpo);
+    }
+    
+    /**
+     * Inicia sesión.
+     * 
+     * @param origen     Dirección de origen
+     * @param credencial Credencial de la persona
+     * @param contrasena Contraseña
+     * @return La respuesta
+     * @throws IOException Si falla la comunicación con el servidor
+     */
+    private Respuesta iniciarSesion(String origen, String credencial, String contrasena) throws IOException {
+        String cuerpo = "{\"credencial\":\"" + credencial + "\",\"password\":\"" + contrasena + "\"}";
+        return enviar(origen, "POST", "/api/sesiones", null, cuerpo);
+    }
+    
+    /**
+     * Envía una solicitud HTTP/1.1 desde una dirección de origen y lee la respuesta completa.
+     * 
+     * @param origen Dirección de origen, dentro de 127.0.0.0/8
+     * @param metodo Método HTTP
+     * @param ruta   Ruta y parámetros
+     * @param token  Token de la sesión, o null
+     * @param cuerpo Cuerpo JSON, o null
+     * @return La respuesta
+     * @throws IOException Si falla la comunicación con el servidor
+     */
+    private Respuesta enviar(String origen, String metodo, String ruta, String token, String cuerpo)
+            throws IOException {
+        byte[] datos = cuerpo != null ? cuerpo.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        StringBuilder solicitud = new StringBuilder();
+        solicitud.append(metodo).append(' ').append(ruta).append(" HTTP/1.1\r\n")
+                .append("Host: 127.0.0.1\r\nConnection: close\r\n");
+        if (token != null) {
+            solicitud.append("Authorization: Bearer ").append(token).append("\r\n");
+        }
+        if (cuerpo != null) {
+            solicitud.append("Content-Type: application/json\r\n");
+        }
+        solicitud.append("Content-Length: ").append(datos.length).append("\r\n\r\n");
+        enviadas.incrementAndGet();
+        try (Socket socket = new Socket()) {
+            socket.bind(new InetSocketAddress(origen, 0));
+            socket.connect(new InetSocketAddress("127.0.0.1", servidor.getPuerto()), 10_000);
+            socket.setSoTimeout(60_000);
+            OutputStream salida = socket.getOutputStream();
+            salida.write(solicitud.toString().getBytes(StandardCharsets.US_ASCII));
+            salida.write(datos);
+            salida.flush();
+            InputStream entrada = socket.getInputStream();
+            ByteArrayOutputStream leido = new ByteArrayOutputStream();
+            entrada.transferTo(leido);
+            String respuesta = leido.toString(StandardCharsets.UTF_8);
+            int finLinea = respuesta.indexOf("\r\n");
+            int finCabeceras = respuesta.indexOf("\r\n\r\n");
+            if (finLinea < 0 || finCabeceras < 0) {
+                throw new IOException("Respuesta incompleta a " + metodo + " " + ruta);
+            }
+            respondidas.incrementAndGet();
+            Matcher reintento = REINTENTO.matcher(respuesta.substring(0, finCabeceras));
+            return new Respuesta(Integer.parseInt(respuesta.substring(0, finLinea).split(" ")[1]),
+                    respuesta.substring(finCabeceras + 4), reintento.find() ? Long.parseLong(reintento.group(1)) : -1);
+        }
+    }
+    
+    /**
+     * Ejecuta un trabajo en varios clientes que empiezan a la vez y espera a que terminen.
+     * 
+     * Un error de comunicación de un cliente se registra como falla y
+     * termina solo a ese cliente.
+     * 
+     * @param cantidad Cantidad de clientes
+     * @param trabajo  El trabajo de cada cliente
+     * @return Duración del trabajo, en nanosegundos
+     * @throws InterruptedException Si se interrumpe la espera de los clientes
+     */
+    private long concurrentemente(int cantidad, Trabajo trabajo) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int cliente = i;
+            Thread hilo = new Thread(() -> {
+                try {
+                    salida.await();
+                    trabajo.ejecutar(cliente);
+                } catch (IOException e) {
+                    verificar(false, "Error de comunicación del cliente " + cliente + ": " + e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            hilo.start();
+            hilos.add(hilo);
+        }
+        long inicio = System.nanoTime();
+        salida.countDown();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        return System.nanoTime() - inicio;
+    }
+    
+    /**
+     * Imprime la cantidad de operaciones de una fase y su rendimiento.
+     * 
+     * @param fase        Nombre de la fase
+     * @param operaciones Operaciones completadas
+     * @param nanos       Duración de la fase, en nanosegundos
+     */
+    private static void reportar(String fase, int operaciones, long nanos) {
+        System.out.printf("%-24s %7d en %6.2f s, %9.0f por segundo%n",
+                fase + ":", operaciones, nanos / 1e9, operaciones / (nanos / 1e9));
+    }
+    
+    /**
+     * Obtiene una dirección de origen de loopback que no se ha usado.
+     * 
+     * @return La dirección, de la forma 127.0.x.y
+     */
+    private String nuevoOrigen() {
+        int numero = siguienteOrigen.getAndIncrement();
+        return "127.0." + (1 + numero / 250) + "." + (2 + numero % 250);
+    }
+    
+    /**
+     * Obtiene la cédula de un usuario de un cliente.
+     * 
+     * @param cliente Número del cliente
+     * @param usuario Número del usuario dentro del cliente
+     * @return La cédula
+     */
+    private static String cedula(int cliente, int usuario) {
+        return "carga-" + cliente + "-" + usuario;
+    }
+    
+    /**
+     * Obtiene el email de un usuario de un cliente.
+     * 
+     * @param cliente Número del cliente
+     * @param usuario Número del usuario dentro del cliente
+     * @return El email
+     */
+    private static String email(int cliente, int usuario) {
+        return cedula(cliente, usuario) + "@prueba.co";
+    }
+    
+    /**
+     * Registra una falla si una condición no se cumple.
+     * 
+     * @param condicion La condición verificada
+     * @param mensaje   Descripción de la falla
+     */
+    private void verificar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            synchronized (fallas) {
+                if (fallas.size() < 20) {
+                    fallas.add(mensaje);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package udistrital.avanzada.rolapet.controlador;
+
+import udistrital.avanzada.rolapet.modelo.Persona;
+import udistrital.avanzada.rolapet.modelo.Repositorio;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Prueba de ida y vuelta de las personas entre la exportación y la importación.
+ * 
+ * Registra a un usuario, exporta las personas en CSV y en JSON lines, lo
+ * elimina y vuelve a importar cada archivo. Después de cada importación
+ * verifica que:
+ * - Se importó exactamente una fila.
+ * - La contraseña guardada es el mismo hash que se exportó, sin volver a
+ *   derivarse.
+ * - El usuario inicia sesión con su contraseña original.
+ * 
+ * Además importa una fila con la contraseña en texto plano y verifica que
+ * se guarde su hash y que el usuario inicie sesión con ella.
+ * 
+ * Se ejecuta desde la raíz del proyecto con:
+ * 
+ * javac -encoding UTF-8 -d salida $(find src test -name '*.java')
+ * java -cp salida udistrital.avanzada.rolapet.controlador.ReimportacionPersonas
+ * 
+ * Termina con código 0 si todas las verificaciones se cumplen y con 1 si
+ * alguna falla.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class ReimportacionPersonas {
+    
+    /** Contraseña del usuario exportado */
+    private static final String CONTRASENA = "clave-exportada";
+    
+    /** Controlador bajo prueba */
+    private final ControladorRolaPET controlador;
+    
+    /** Repositorio del controlador */
+    private final Repositorio repositorio;
+    
+    /** Verificaciones fallidas */
+    private final List<String> fallas;
+    
+    /**
+     * Constructor de la prueba.
+     */
+    private ReimportacionPersonas() {
+        this.controlador = new ControladorRolaPET();
+        this.repositorio = Repositorio.getInstancia();
+        this.fallas = new ArrayList<>();
+    }
+    
+    /**
+     * Ejecuta la prueba.
+     * 
+     * @param args No se usan
+     * @throws Exception Si la prueba no puede ejecutarse
+     */
+    public static void main(String[] args) throws Exception {
+        ReimportacionPersonas prueba = new ReimportacionPersonas();
+        prueba.ejecutar();
+        if (!prueba.fallas.isEmpty()) {
+            prueba.fallas.forEach(falla -> System.out.println("FALLA: " + falla));
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones se cumplieron");
+    }
+    
+    /**
+     * Ejecuta la ida y vuelta en cada formato y la importación en texto plano.
+     * 
+     * @throws Exception Si la exportación o la importación fallan
+     */
+    private void ejecutar() throws Exception {
+        verificar(controlador.registrarUsuario("r0", "Usuario r0", "3000000000", CONTRASENA, "r0@prueba.co"),
+                "No se registró el usuario r0");
+        String exportada = repositorio.buscarPersonaPorCedula("r0").getPassword();
+        Path directorio = Files.createTempDirectory("rolapet-reimportacion");
+        try {
+            for (String extension : new String[] {".csv", ".jsonl"}) {
+                Path archivo = directorio.resolve("personas" + extension);
+                controlador.exportarDatos(archivo, CategoriaEntidad.PERSONAS, IProgresoExportacion.NINGUNO);
+                repositorio.eliminarPersona(repositorio.buscarPersonaPorCedula("r0"));
+                ResultadoImportacion resultado = controlador.importarDatos(archivo, CategoriaEntidad.PERSONAS);
+                verificar(resultado.getFilasImportadas() == 1,
+                        "Filas importadas de " + extension + ": " + resultado);
+                Persona importada = repositorio.buscarPersonaPorCedula("r0");
+                verificar(importada != null && exportada.equals(importada.getPassword()),
+                        "La contraseña importada de " + extension + " no es el hash exportado");
+                verificar(controlador.autenticarUsuario("r0@prueba.co", CONTRASENA) != null,
+                        "El usuario importado de " + extension + " no inicia sesión con su contraseña");
+                System.out.println("Ida y vuelta en " + extension + ": " + resultado.getFilasImportadas()
+                        + " fila importada");
+            }
+        } finally {
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                archivos.forEach(archivo -> archivo.toFile().delete());
+            }
+            Files.delete(directorio);
+        }
+        
+        String csv = String.join(",", CategoriaEntidad.PERSONAS.getColumnas()) + "\n"
+                + "p0,Usuario p0,3000000000,clave-plana,p0@prueba.co,Usuario\n";
+        ResultadoImportacion resultado = new ImportadorMasivo(repositorio, 1)
+                .importar(new StringReader(csv), FormatoArchivo.CSV, CategoriaEntidad.PERSONAS);
+        Persona plana = repositorio.buscarPersonaPorCedula("p0");
+        verificar(resultado.getFilasImportadas() == 1 && plana != null,
+                "Filas importadas en texto plano: " + resultado);
+        if (plana != null) {
+            verificar(plana.getPassword().startsWith("pbkdf2-sha256$"),
+                    "La contraseña importada en texto plano no se guardó como hash");
+        }
+        verificar(controlador.autenticarUsuario("p0@prueba.co", "clave-plana") != null,
+                "El usuario importado en texto plano no inicia sesión con su contraseña");
+    }
+    
+    /**
+     * Registra una falla si una condición no se cumple.
+     * 
+     * @param condicion La condición verificada
+     * @param mensaje   Descripción de la falla
+     */
+    private void verificar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            fallas.add(mensaje);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prueba de estrés del repositorio bajo escrituras y lecturas concurrentes.
+ * 
+ * Varios hilos escritores registran, eliminan y hacen amigos a usuarios a
+ * la vez, mientras hilos lectores toman instantáneas de los usuarios. Al
+ * terminar cada fase se verifica que no se perdió ninguna actualización:
+ * - Cada cédula disputada por varios hilos la registra exactamente uno.
+ * - Cada email disputado por varios hilos, con cédulas distintas, lo
+ *   registra exactamente uno como usuario nuevo.
+ * - La cantidad de usuarios coincide con los registros y eliminaciones exitosos.
+ * - Cada usuario registrado se encuentra por su cédula y cada eliminado no.
+ * - Las amistades son simétricas y su cantidad coincide con las agregadas.
+ * - Los usuarios eliminados liberan su identificador en el grafo de
+ *   amistades, las consultas sobre ellos no les asignan uno nuevo y los
+ *   usuarios nuevos reutilizan los liberados sin ampliar el grafo.
+ * - Ninguna instantánea ni el recorrido paginado repiten una cédula.
+ * - Tras eliminaciones sueltas, antes y después de compactarse, cada
+ *   instantánea y su paginación coinciden con el orden de registro de las
+ *   entidades vigentes, y las instantáneas anteriores no cambian.
+ * 
+ * Se ejecuta desde la raíz del proyecto con:
+ * 
+ * javac -encoding UTF-8 -d salida $(find src test -name '*.java')
+ * java -cp salida udistrital.avanzada.rolapet.modelo.EstresRepositorio [hilos] [usuariosPorHilo]
+ * 
+ * Termina con código 0 si todas las verificaciones se cumplen y con 1 si
+ * alguna falla.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class EstresRepositorio {
+    
+    /** Cédulas que todos los hilos intentan registrar a la vez */
+    private static final int CEDULAS_DISPUTADAS = 200;
+    
+    /** Hilos lectores que toman instantáneas durante cada fase */
+    private static final int LECTORES = 2;
+    
+    /** Repositorio bajo prueba */
+    private final Repositorio repositorio;
+    
+    /** Cantidad de hilos escritores */
+    private final int hilos;
+    
+    /** Usuarios propios que registra cada hilo escritor */
+    private final int usuariosPorHilo;
+    
+    /** Verificaciones fallidas */
+    private final List<String> fallas;
+    
+    /** Indica si los lectores deben seguir tomando instantáneas */
+    private final AtomicBoolean leyendo;
+    
+    /** Instantáneas verificadas por los lectores */
+    private final AtomicInteger instantaneas;
+    
+    /**
+     * Constructor de la prueba.
+     * 
+     * @param hilos           Cantidad de hilos escritores
+     * @param usuariosPorHilo Usuarios propios que registra cada hilo escritor
+     */
+    private EstresRepositorio(int hilos, int usuariosPorHilo) {
+        this.repositorio = Repositorio.getInstancia();
+        this.hilos = hilos;
+        this.usuariosPorHilo = usuariosPorHilo;
+        this.fallas = new ArrayList<>();
+        this.leyendo = new AtomicBoolean();
+        this.instantaneas = new AtomicInteger();
+    }
+    
+    /**
+     * Ejecuta la prueba.
+     * 
+     * @param args Cantidad de hilos escritores (por defecto 8) y de usuarios
+     *             propios por hilo (por defecto 2000)
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int usuariosPorHilo = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        EstresRepositorio prueba = new EstresRepositorio(hilos, usuariosPorHilo);
+        long inicio = System.nanoTime();
+        prueba.ejecutar();
+        System.out.printf("%d hilos, %d usuarios por hilo, %d instantáneas verificadas en %.2f s%n",
+                hilos, usuariosPorHilo, prueba.instantaneas.get(), (System.nanoTime() - inicio) / 1e9);
+        if (!prueba.fallas.isEmpty()) {
+            prueba.fallas.forEach(falla -> System.out.println("FALLA: " + falla));
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones se cumplieron");
+    }
+    
+    /**
+     * Ejecuta las fases de la prueba y sus verificaciones.
+     * 
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    private void ejecutar() throws InterruptedException {
+        int base = repositorio.contarUsuarios();
+        AtomicInteger disputadasGanadas = new AtomicInteger();
+        AtomicInteger emailsGanados = new AtomicInteger();
+        concurrentemente(hilo -> {
+            for (int i = 0; i < usuariosPorHilo; i++) {
+                if (!repositorio.guardarPersona(usuario("h" + hilo + "-" + i))) {
+                    fallar("No se registró el usuario propio h" + hilo + "-" + i);
+                }
+                if (i < CEDULAS_DISPUTADAS && repositorio.guardarPersona(usuario("disputada-" + i))) {
+                    disputadasGanadas.incrementAndGet();
+                }
+                if (i < CEDULAS_DISPUTADAS && repositorio.guardarPersonaNueva(new Usuario("correo-" + hilo + "-" + i,
+                        "Usuario disputado", "3000000000", null, "disputado-" + i + "@prueba.co"))) {
+                    emailsGanados.incrementAndGet();
+                }
+            }
+        });
+        verificar(disputadasGanadas.get() == CEDULAS_DISPUTADAS,
+                "Cédulas disputadas registradas: " + disputadasGanadas.get() + " de " + CEDULAS_DISPUTADAS);
+        verificar(emailsGanados.get() == CEDULAS_DISPUTADAS,
+                "Emails disputados registrados: " + emailsGanados.get() + " de " + CEDULAS_DISPUTADAS);
+        int esperados = base + hilos * usuariosPorHilo + 2 * CEDULAS_DISPUTADAS;
+        verificar(repositorio.contarUsuarios() == esperados,
+                "Usuarios tras registrar: " + repositorio.contarUsuarios() + ", esperados " + esperados);
+        
+        AtomicInteger amistades = new AtomicInteger();
+        concurrentemente(hilo -> {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            for (int i = 0; i < usuariosPorHilo; i++) {
+                Usuario a = buscar("h" + aleatorio.nextInt(hilos) + "-" + aleatorio.nextInt(usuariosPorHilo));
+                Usuario b = buscar("h" + aleatorio.nextInt(hilos) + "-" + aleatorio.nextInt(usuariosPorHilo));
+                if (a != b && repositorio.agregarAmistad(a, b)) {
+                    amistades.incrementAndGet();
+                }
+            }
+        });
+        int extremos = 0;
+        for (int hilo = 0; hilo < hilos; hilo++) {
+            for (int i = 0; i < usuariosPorHilo; i++) {
+                Usuario usuario = buscar("h" + hilo + "-" + i);
+                for (Usuario amigo : usuario.getAmigos()) {
+                    extremos++;
+                    verificar(amigo.getAmigos().contains(usuario),
+                            "Amistad no simétrica entre " + usuario.getCedula() + " y " + amigo.getCedula());
+                }
+            }
+        }
+        verificar(extremos == 2 * amistades.get(),
+                "Amistades registradas: " + extremos / 2 + ", agregadas " + amistades.get());
+        
+        GrafoAmistad grafo = GrafoAmistad.getInstancia();
+        int asignados = grafo.cantidad();
+        List<Usuario> eliminados = new ArrayList<>();
+        int liberados = 0;
+        for (int hilo = 0; hilo < hilos; hilo++) {
+            for (int i = 0; i < usuariosPorHilo; i += 2) {
+                Usuario usuario = buscar("h" + hilo + "-" + i);
+                eliminados.add(usuario);
+                if (grafo.idAsignado(usuario) >= 0) {
+                    liberados++;
+                }
+            }
+        }
+        concurrentemente(hilo -> {
+            for (int i = 0; i < usuariosPorHilo; i += 2) {
+                if (!repositorio.eliminarPersona(buscar("h" + hilo + "-" + i))) {
+                    fallar("No se eliminó el usuario h" + hilo + "-" + i);
+                }
+                if (!repositorio.guardarPersona(usuario("n" + hilo + "-" + i))) {
+                    fallar("No se registró el usuario nuevo n" + hilo + "-" + i);
+                }
+            }
+        });
+        verificar(repositorio.contarUsuarios() == esperados,
+                "Usuarios tras eliminar y registrar: " + repositorio.contarUsuarios() + ", esperados " + esperados);
+        for (int hilo = 0; hilo < hilos; hilo++) {
+            for (int i = 0; i < usuariosPorHilo; i++) {
+                boolean eliminado = i % 2 == 0;
+                verificar((repositorio.buscarPersonaPorCedula("h" + hilo + "-" + i) == null) == eliminado,
+                        "Estado incorrecto del usuario h" + hilo + "-" + i);
+                verificar((repositorio.buscarPersonaPorCedula("n" + hilo + "-" + i) != null) == eliminado,
+                        "Estado incorrecto del usuario n" + hilo + "-" + i);
+            }
+        }
+        verificarSinRepetidos(repositorio.obtenerTodosLosUsuarios(), esperados);
+        verificarPaginacion(esperados);
+        verificarIdentificadoresLiberados(grafo, eliminados, liberados, asignados);
+        verificarEliminacionesEnInstantaneas(hilos * usuariosPorHilo);
+    }
+    
+    /**
+     * Verifica las instantáneas de una colección tras eliminar entidades sueltas.
+     * 
+     * Alterna eliminaciones de entidades al azar con lecturas, de modo que
+     * las posiciones retiradas se acumulen y se compacten varias veces, y
+     * compara cada instantánea y su recorrido por cursores con una lista
+     * de referencia. La primera instantánea debe conservar todas las
+     * entidades.
+     * 
+     * @param cantidad Cantidad de entidades de la colección
+     */
+    private void verificarEliminacionesEnInstantaneas(int cantidad) {
+        ColeccionIndexada<String> coleccion = new ColeccionIndexada<>(valor -> valor, new ReentrantLock());
+        List<String> vigentes = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            String entidad = "e" + i;
+            coleccion.agregar(entidad);
+            vigentes.add(entidad);
+        }
+        List<String> inicial = coleccion.instantanea();
+        List<String> todas = new ArrayList<>(vigentes);
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        for (int paso = 0; paso < cantidad / 2; paso++) {
+            String eliminada = vigentes.remove(aleatorio.nextInt(vigentes.size()));
+            verificar(coleccion.eliminar(eliminada), "No se eliminó la entidad " + eliminada);
+            if (paso % 7 == 0) {
+                String agregada = "a" + paso;
+                coleccion.agregar(agregada);
+                vigentes.add(agregada);
+            }
+            if (paso % 50 == 0 || paso == cantidad / 2 - 1) {
+                verificar(coleccion.instantanea().equals(vigentes),
+                        "La instantánea tras " + (paso + 1) + " eliminaciones no coincide con las vigentes");
+                List<String> recorridas = new ArrayList<>();
+                String cursor = null;
+                do {
+                    Pagina<String> pagina = coleccion.pagina(null, cursor, 97);
+                    recorridas.addAll(pagina.getElementos());
+                    cursor = pagina.getCursorSiguiente();
+                } while (cursor != null);
+                verificar(recorridas.equals(vigentes),
+                        "La paginación tras " + (paso + 1) + " eliminaciones no coincide con las vigentes");
+            }
+        }
+        verificar(inicial.equals(todas), "La primera instantánea cambió tras las eliminaciones");
+    }
+    
+    /**
+     * Verifica que los usuarios eliminados liberaron su identificador y que los nuevos lo reutilizan.
+     * 
+     * @param grafo      Grafo de amistades
+     * @param eliminados Usuarios eliminados
+     * @param liberados  Cantidad de usuarios eliminados que tenían identificador
+     * @param asignados  Cantidad de identificadores asignados antes de eliminar
+     */
+    private void verificarIdentificadoresLiberados(GrafoAmistad grafo, List<Usuario> eliminados, int liberados,
+                                                   int asignados) {
+        Usuario ancla = null;
+        for (Usuario eliminado : eliminados) {
+            repositorio.recomendarAmigos(eliminado, 5);
+            repositorio.obtenerUsuariosAMenosDe(eliminado, 2);
+            verificar(grafo.idAsignado(eliminado) < 0 && eliminado.getAmigos().isEmpty(),
+                    "El usuario eliminado " + eliminado.getCedula() + " conserva su identificador o sus amigos");
+        }
+        for (Usuario usuario : repositorio.obtenerTodosLosUsuarios()) {
+            if (ancla == null && grafo.idAsignado(usuario) >= 0) {
+                ancla = usuario;
+            }
+        }
+        int nuevos = 0;
+        for (int hilo = 0; hilo < hilos && ancla != null; hilo++) {
+            for (int i = 0; i < usuariosPorHilo && nuevos < liberados; i += 2, nuevos++) {
+                repositorio.agregarAmistad(ancla, buscar("n" + hilo + "-" + i));
+            }
+        }
+        verificar(grafo.cantidad() == asignados,
+                "Identificadores asignados tras reutilizar " + nuevos + " liberados: " + grafo.cantidad()
+                        + ", antes " + asignados);
+    }
+    
+    /**
+     * Trabajo de un hilo escritor.
+     */
+    @FunctionalInterface
+    private interface Trabajo {
+        
+        /**
+         * Ejecuta el trabajo.
+         * 
+         * @param hilo Número del hilo escritor
+         */
+        void ejecutar(int hilo);
+    }
+    
+    /**
+     * Ejecuta un trabajo en todos los hilos escritores a la vez, con lectores tomando instantáneas.
+     * 
+     * @param trabajo El trabajo de cada hilo escritor
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    private void concurrentemente(Trabajo trabajo) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> escritores = new ArrayList<>();
+        List<Thread> lectores = new ArrayList<>();
+        leyendo.set(true);
+        for (int hilo = 0; hilo < hilos; hilo++) {
+            int numero = hilo;
+            escritores.add(iniciar(() -> {
+                esperar(salida);
+                trabajo.ejecutar(numero);
+            }));
+        }
+        for (int i = 0; i < LECTORES; i++) {
+            lectores.add(iniciar(() -> {
+                esperar(salida);
+                while (leyendo.get()) {
+                    verificarSinRepetidos(repositorio.obtenerTodosLosUsuarios(), -1);
+                    instantaneas.incrementAndGet();
+                }
+            }));
+        }
+        salida.countDown();
+        for (Thread escritor : escritores) {
+            escritor.join();
+        }
+        leyendo.set(false);
+        for (Thread lector : lectores) {
+            lector.join();
+        }
+    }
+    
+    /**
+     * Verifica que una instantánea de usuarios no repita cédulas.
+     * 
+     * @param usuarios  La instantánea
+     * @param esperados Cantidad esperada de usuarios, o -1 si no se verifica
+     */
+    private void verificarSinRepetidos(List<Usuario> usuarios, int esperados) {
+        Set<String> cedulas = new HashSet<>();
+        for (Usuario usuario : usuarios) {
+            verificar(cedulas.add(usuario.getCedula()), "Cédula repetida en una instantánea: " + usuario.getCedula());
+        }
+        verificar(esperados < 0 || usuarios.size() == esperados,
+                "Tamaño de la instantánea: " + usuarios.size() + ", esperado " + esperados);
+    }
+    
+    /**
+     * Verifica que recorrer las personas por páginas con cursor visite a cada usuario una vez.
+     * 
+     * @param esperados Cantidad esperada de usuarios
+     */
+    private void verificarPaginacion(int esperados) {
+        Set<String> cedulas = new HashSet<>();
+        String cursor = null;
+        do {
+            Pagina<Persona> pagina = repositorio.obtenerPaginaPersonas(CriterioOrden.PERSONAS_POR_NOMBRE, cursor, 500);
+            for (Persona persona : pagina.getElementos()) {
+                verificar(cedulas.add(persona.getCedula()), "Cédula repetida al paginar: " + persona.getCedula());
+            }
+            cursor = pagina.getCursorSiguiente();
+        } while (cursor != null);
+        verificar(cedulas.size() >= esperados, "Personas recorridas al paginar: " + cedulas.size());
+    }
+    
+    /**
+     * Crea un usuario de prueba.
+     * 
+     * @param cedula Cédula del usuario
+     * @return El usuario
+     */
+    private static Usuario usuario(String cedula) {
+        return new Usuario(cedula, "Usuario " + cedula, "3000000000", null, cedula + "@prueba.co");
+    }
+    
+    /**
+     * Busca un usuario registrado por su cédula.
+     * 
+     * @param cedula Cédula del usuario
+     * @return El usuario
+     */
+    private Usuario buscar(String cedula) {
+        return (Usuario) repositorio.buscarPersonaPorCedula(cedula);
+    }
+    
+    /**
+     * Registra una falla si una condición no se cumple.
+     * 
+     * @param condicion La condición verificada
+     * @param mensaje   Descripción de la falla
+     */
+    private void verificar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            fallar(mensaje);
+        }
+    }
+    
+    /**
+     * Registra una falla.
+     * 
+     * @param mensaje Descripción de la falla
+     */
+    private void fallar(String mensaje) {
+        synchronized (fallas) {
+            if (fallas.size() < 20) {
+                fallas.add(mensaje);
+            }
+        }
+    }
+    
+    /**
+     * Inicia un hilo.
+     * 
+     * @param tarea Tarea del hilo
+     * @return El hilo iniciado
+     */
+    private static Thread iniciar(Runnable tarea) {
+        Thread hilo = new Thread(tarea);
+        hilo.start();
+        return hilo;
+    }
+    
+    /**
+     * Espera la señal de salida de los hilos.
+     * 
+     * @param salida La señal de salida
+     */
+    private static void esperar(CountDownLatch salida) {
+        try {
+            salida.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
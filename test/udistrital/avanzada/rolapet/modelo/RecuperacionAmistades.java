@@ -0,0 +1,239 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Prueba de recuperación de las amistades después de reiniciar.
+ * 
+ * Registra a tres usuarios c0, c1 y c2, hace amigos a c1 con c0 y con c2
+ * y a c0 con c2, elimina a c1 y registra con su cédula a otra persona.
+ * Luego cierra la persistencia y verifica en un proceso nuevo, que
+ * recupera el repositorio desde disco, que:
+ * - Ningún usuario conserva como amigo al usuario eliminado ni a quien
+ *   tomó su cédula.
+ * - La persona registrada con la cédula del eliminado no tiene amigos.
+ * - La amistad entre c0 y c2 se conserva.
+ * - Todas las amistades recuperadas son simétricas.
+ * 
+ * El escenario se ejecuta dos veces: una compactando el diario en una
+ * instantánea antes de cerrar y otra solo con el diario, y ambas deben
+ * recuperar el mismo estado. Cada fase corre en su propio proceso porque
+ * el repositorio es único por proceso.
+ * 
+ * Se ejecuta desde la raíz del proyecto con:
+ * 
+ * javac -encoding UTF-8 -d salida $(find src test -name '*.java')
+ * java -cp salida udistrital.avanzada.rolapet.modelo.RecuperacionAmistades
+ * 
+ * Termina con código 0 si todas las verificaciones se cumplen y con 1 si
+ * alguna falla.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class RecuperacionAmistades {
+    
+    /** Nombre de la persona que toma la cédula del usuario eliminado */
+    private static final String NOMBRE_OTRO = "Otro";
+    
+    /** Verificaciones fallidas */
+    private final List<String> fallas;
+    
+    /**
+     * Constructor de la prueba.
+     */
+    private RecuperacionAmistades() {
+        this.fallas = new ArrayList<>();
+    }
+    
+    /**
+     * Ejecuta la prueba o una de sus fases.
+     * 
+     * @param args Sin argumentos ejecuta la prueba completa; "escribir" o
+     *             "verificar" seguido del directorio de datos ejecuta una
+     *             fase, y "escribir" admite además "compactar"
+     * @throws Exception Si una fase no puede ejecutarse
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("escribir")) {
+            escribir(Paths.get(args[1]), args.length > 2 && args[2].equals("compactar"));
+            System.exit(0);
+        }
+        if (args.length >= 2 && args[0].equals("verificar")) {
+            RecuperacionAmistades prueba = new RecuperacionAmistades();
+            prueba.verificar(Paths.get(args[1]));
+            terminar(prueba.fallas);
+        }
+        List<String> fallas = new ArrayList<>();
+        for (boolean compactar : new boolean[] {true, false}) {
+            String escenario = compactar ? "con instantánea" : "solo con el diario";
+            Path directorio = Files.createTempDirectory("rolapet-amistades");
+            try {
+                if (ejecutarFase("escribir", directorio, compactar ? "compactar" : "") != 0) {
+                    fallas.add("Falló la escritura " + escenario);
+                } else if (ejecutarFase("verificar", directorio, "") != 0) {
+                    fallas.add("Falló la recuperación " + escenario);
+                } else {
+                    System.out.println("Recuperación " + escenario + ": correcta");
+                }
+            } finally {
+                eliminarDirectorio(directorio);
+            }
+        }
+        terminar(fallas);
+    }
+    
+    /**
+     * Construye el escenario y lo deja persistido en disco.
+     * 
+     * @param directorio Directorio de datos
+     * @param compactar  true para compactar el diario en una instantánea antes de cerrar
+     * @throws IOException Si la persistencia falla
+     */
+    private static void escribir(Path directorio, boolean compactar) throws IOException {
+        Repositorio repositorio = Repositorio.getInstancia();
+        repositorio.habilitarPersistencia(directorio);
+        Usuario c0 = usuario("c0", "Usuario c0");
+        Usuario c1 = usuario("c1", "Usuario c1");
+        Usuario c2 = usuario("c2", "Usuario c2");
+        repositorio.guardarPersona(c0);
+        repositorio.guardarPersona(c1);
+        repositorio.guardarPersona(c2);
+        repositorio.agregarAmistad(c0, c1);
+        repositorio.agregarAmistad(c2, c1);
+        repositorio.agregarAmistad(c0, c2);
+        repositorio.eliminarPersona(c1);
+        repositorio.guardarPersona(usuario("c1", NOMBRE_OTRO));
+        if (compactar) {
+            repositorio.compactarPersistencia();
+        }
+        repositorio.sincronizarPersistencia();
+        repositorio.cerrarPersistencia();
+    }
+    
+    /**
+     * Recupera el repositorio desde disco y verifica las amistades.
+     * 
+     * @param directorio Directorio de datos
+     * @throws IOException Si la recuperación falla
+     */
+    private void verificar(Path directorio) throws IOException {
+        Repositorio repositorio = Repositorio.getInstancia();
+        repositorio.habilitarPersistencia(directorio);
+        try {
+            Usuario c0 = (Usuario) repositorio.buscarPersonaPorCedula("c0");
+            Usuario otro = (Usuario) repositorio.buscarPersonaPorCedula("c1");
+            Usuario c2 = (Usuario) repositorio.buscarPersonaPorCedula("c2");
+            verificar(c0 != null && otro != null && c2 != null, "No se recuperaron los tres usuarios");
+            if (!fallas.isEmpty()) {
+                return;
+            }
+            verificar(NOMBRE_OTRO.equals(otro.getNombre()),
+                    "La cédula c1 pertenece a " + otro.getNombre() + ", no a " + NOMBRE_OTRO);
+            verificar(otro.getAmigos().isEmpty(), "Amigos de " + NOMBRE_OTRO + ": " + cedulas(otro.getAmigos()));
+            verificar(cedulas(c0.getAmigos()).equals(List.of("c2")), "Amigos de c0: " + cedulas(c0.getAmigos()));
+            verificar(cedulas(c2.getAmigos()).equals(List.of("c0")), "Amigos de c2: " + cedulas(c2.getAmigos()));
+            for (Usuario usuario : repositorio.obtenerTodosLosUsuarios()) {
+                for (Usuario amigo : usuario.getAmigos()) {
+                    verificar(amigo.getAmigos().contains(usuario),
+                            "Amistad no simétrica entre " + usuario.getCedula() + " y " + amigo.getCedula());
+                }
+            }
+        } finally {
+            repositorio.cerrarPersistencia();
+        }
+    }
+    
+    /**
+     * Ejecuta una fase de la prueba en un proceso nuevo.
+     * 
+     * @param fase       Nombre de la fase
+     * @param directorio Directorio de datos
+     * @param opcion     Opción adicional de la fase, o vacía
+     * @return Código de salida del proceso
+     * @throws IOException Si no se puede iniciar el proceso
+     * @throws InterruptedException Si se interrumpe la espera del proceso
+     */
+    private static int ejecutarFase(String fase, Path directorio, String opcion)
+            throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                RecuperacionAmistades.class.getName(), fase, directorio.toString()));
+        if (!opcion.isEmpty()) {
+            comando.add(opcion);
+        }
+        return new ProcessBuilder(comando).inheritIO().start().waitFor();
+    }
+    
+    /**
+     * Crea un usuario de prueba.
+     * 
+     * @param cedula Cédula del usuario
+     * @param nombre Nombre del usuario
+     * @return El usuario
+     */
+    private static Usuario usuario(String cedula, String nombre) {
+        return new Usuario(cedula, nombre, "3000000000", null, cedula + "@prueba.co");
+    }
+    
+    /**
+     * Obtiene las cédulas de una lista de usuarios, ordenadas.
+     * 
+     * @param usuarios Los usuarios
+     * @return Las cédulas ordenadas
+     */
+    private static List<String> cedulas(List<Usuario> usuarios) {
+        List<String> cedulas = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            cedulas.add(usuario.getCedula());
+        }
+        cedulas.sort(null);
+        return cedulas;
+    }
+    
+    /**
+     * Registra una falla si una condición no se cumple.
+     * 
+     * @param condicion La condición verificada
+     * @param mensaje   Descripción de la falla
+     */
+    private void verificar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            fallas.add(mensaje);
+        }
+    }
+    
+    /**
+     * Informa las fallas y termina el proceso con el código correspondiente.
+     * 
+     * @param fallas Verificaciones fallidas
+     */
+    private static void terminar(List<String> fallas) {
+        if (!fallas.isEmpty()) {
+            fallas.forEach(falla -> System.out.println("FALLA: " + falla));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+    
+    /**
+     * Elimina un directorio temporal con todo su contenido.
+     * 
+     * @param directorio El directorio a eliminar
+     * @throws IOException Si no se puede recorrer el directorio
+     */
+    private static void eliminarDirectorio(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> archivo.toFile().delete());
+        }
+    }
+}
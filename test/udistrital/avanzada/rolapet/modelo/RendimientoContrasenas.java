@@ -0,0 +1,259 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Medición de la verificación de contraseñas, en frío y desde la caché, y de la saturación del verificador.
+ * 
+ * Crea personas con contraseñas derivadas con PBKDF2 y mide:
+ * - La latencia de una verificación en frío, desde un solo hilo.
+ * - Las verificaciones en frío por segundo con tantos hilos llamadores
+ *   como hilos tiene el verificador, y por núcleo.
+ * - La latencia y las verificaciones por segundo de las credenciales que
+ *   ya están en la caché.
+ * - La saturación de un verificador de un solo hilo al que muchos hilos
+ *   piden verificaciones en frío a la vez: cuántas acepta, cuántas rechaza
+ *   y cuánto tarda en rechazarlas.
+ * 
+ * Además verifica que las contraseñas correctas se acepten, que una
+ * incorrecta se rechace también cuando la correcta está en caché, que cada
+ * verificación pedida durante la saturación se acepte o se rechace, sin
+ * perderse, y que un verificador saturado rechace con una excepción en
+ * lugar de responder como si la contraseña fuera incorrecta.
+ * 
+ * El costo de cada hash se ajusta con la propiedad del sistema
+ * rolapet.pbkdf2.iteraciones. Se ejecuta desde la raíz del proyecto con:
+ * 
+ * javac -encoding UTF-8 -d salida $(find src test -name '*.java')
+ * java -cp salida udistrital.avanzada.rolapet.modelo.RendimientoContrasenas [personas] [llamadores]
+ * 
+ * Termina con código 0 si todas las verificaciones se cumplen y con 1 si
+ * alguna falla.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class RendimientoContrasenas {
+    
+    /** Contraseña de todas las personas de la medición */
+    private static final String CONTRASENA = "clave-de-prueba";
+    
+    /** Rondas de verificaciones desde la caché que se miden */
+    private static final int RONDAS_CACHE = 200;
+    
+    /** Núcleos disponibles */
+    private static final int NUCLEOS = Runtime.getRuntime().availableProcessors();
+    
+    /** Verificaciones fallidas */
+    private final List<String> fallas;
+    
+    /** Personas con la contraseña derivada */
+    private final Persona[] personas;
+    
+    /**
+     * Constructor de la medición.
+     * 
+     * @param cantidad Cantidad de personas a crear
+     */
+    private RendimientoContrasenas(int cantidad) {
+        this.fallas = new ArrayList<>();
+        this.personas = new Persona[cantidad];
+        IntStream.range(0, cantidad).parallel().forEach(i -> {
+            personas[i] = new Usuario("v" + i, "Usuario " + i, "3000000000", null, "v" + i + "@prueba.co");
+            personas[i].setPassword(CONTRASENA);
+        });
+    }
+    
+    /**
+     * Ejecuta la medición.
+     * 
+     * @param args Cantidad de personas (por defecto 256) y de hilos que piden
+     *             verificaciones a la vez al verificador saturado (por defecto 256)
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int llamadores = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        System.out.printf("PBKDF2 con %d iteraciones, %d núcleos, %d personas%n",
+                HashContrasena.ITERACIONES, NUCLEOS, cantidad);
+        RendimientoContrasenas medicion = new RendimientoContrasenas(cantidad);
+        medicion.medirEnFrioYCache();
+        medicion.medirSaturacion(llamadores);
+        if (!medicion.fallas.isEmpty()) {
+            medicion.fallas.forEach(falla -> System.out.println("FALLA: " + falla));
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones se cumplieron");
+    }
+    
+    /**
+     * Mide las verificaciones en frío y desde la caché con un verificador de un hilo por núcleo.
+     * 
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    private void medirEnFrioYCache() throws InterruptedException {
+        VerificadorContrasenas verificador = nuevoVerificador(NUCLEOS);
+        int muestras = Math.min(8, personas.length);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < muestras; i++) {
+            verificar(verificador.verificar(personas[i], CONTRASENA),
+                    "En frío se rechazó a " + personas[i].getCedula());
+        }
+        double latencia = (System.nanoTime() - inicio) / 1e6 / muestras;
+        System.out.printf("En frío, un hilo:      %10.2f ms por verificación%n", latencia);
+        
+        AtomicInteger siguiente = new AtomicInteger(muestras);
+        inicio = System.nanoTime();
+        concurrentemente(NUCLEOS, hilo -> {
+            for (int i = siguiente.getAndIncrement(); i < personas.length; i = siguiente.getAndIncrement()) {
+                verificar(verificador.verificar(personas[i], CONTRASENA),
+                        "En frío se rechazó a " + personas[i].getCedula());
+            }
+        });
+        int verificadas = personas.length - muestras;
+        double porSegundo = verificadas / ((System.nanoTime() - inicio) / 1e9);
+        System.out.printf("En frío, %3d hilos:    %10.0f verificaciones/s (%.1f por núcleo)%n",
+                NUCLEOS, porSegundo, porSegundo / NUCLEOS);
+        
+        for (Persona persona : personas) {
+            verificar(!verificador.verificar(persona, CONTRASENA + "x"),
+                    "Se aceptó una contraseña incorrecta de " + persona.getCedula());
+            verificador.verificar(persona, CONTRASENA);
+        }
+        inicio = System.nanoTime();
+        for (int ronda = 0; ronda < RONDAS_CACHE; ronda++) {
+            for (Persona persona : personas) {
+                verificar(verificador.verificar(persona, CONTRASENA),
+                        "Desde la caché se rechazó a " + persona.getCedula());
+            }
+        }
+        long total = (long) RONDAS_CACHE * personas.length;
+        double nanos = System.nanoTime() - inicio;
+        System.out.printf("Caché, un hilo:        %10.2f µs por verificación, %.0f verificaciones/s%n",
+                nanos / 1e3 / total, total / (nanos / 1e9));
+        System.out.printf("Caché frente a frío:   %10.0f veces más rápida%n", latencia * 1e6 / (nanos / total));
+    }
+    
+    /**
+     * Mide la saturación de un verificador de un solo hilo.
+     * 
+     * Cada llamador pide una verificación en frío de una persona distinta,
+     * todos a la vez, por lo que el verificador solo puede aceptar las que
+     * caben en su hilo y su cola de espera.
+     * 
+     * @param llamadores Cantidad de hilos que piden verificaciones a la vez
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    private void medirSaturacion(int llamadores) throws InterruptedException {
+        VerificadorContrasenas verificador = nuevoVerificador(1);
+        AtomicInteger aceptadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        AtomicInteger incorrectas = new AtomicInteger();
+        AtomicLong nanosRechazo = new AtomicLong();
+        long inicio = System.nanoTime();
+        concurrentemente(llamadores, hilo -> {
+            Persona persona = personas[hilo % personas.length];
+            long antes = System.nanoTime();
+            try {
+                if (verificador.verificar(persona, CONTRASENA)) {
+                    aceptadas.incrementAndGet();
+                } else {
+                    incorrectas.incrementAndGet();
+                }
+            } catch (RejectedExecutionException e) {
+                rechazadas.incrementAndGet();
+                nanosRechazo.addAndGet(System.nanoTime() - antes);
+            }
+        });
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("Saturación, 1 hilo:    %d llamadores, %d aceptadas, %d rechazadas en %.2f s%n",
+                llamadores, aceptadas.get(), rechazadas.get(), segundos);
+        if (rechazadas.get() > 0) {
+            System.out.printf("                       %10.2f µs en promedio por rechazo%n",
+                    nanosRechazo.get() / 1e3 / rechazadas.get());
+        }
+        verificar(aceptadas.get() + rechazadas.get() + incorrectas.get() == llamadores,
+                "Verificaciones perdidas durante la saturación");
+        verificar(incorrectas.get() == 0,
+                "Un verificador saturado respondió " + incorrectas.get() + " veces como contraseña incorrecta");
+        verificar(aceptadas.get() > 0, "El verificador saturado no aceptó ninguna verificación");
+    }
+    
+    /**
+     * Crea un verificador con la vigencia y el tamaño de caché por omisión.
+     * 
+     * @param hilos Cantidad de hilos del verificador
+     * @return El verificador
+     */
+    private static VerificadorContrasenas nuevoVerificador(int hilos) {
+        return new VerificadorContrasenas(hilos, VerificadorContrasenas.VIGENCIA_POR_OMISION_MS,
+                VerificadorContrasenas.MAXIMO_CACHE_POR_OMISION);
+    }
+    
+    /**
+     * Trabajo de un hilo llamador.
+     */
+    @FunctionalInterface
+    private interface Trabajo {
+        
+        /**
+         * Ejecuta el trabajo.
+         * 
+         * @param hilo Número del hilo llamador
+         */
+        void ejecutar(int hilo);
+    }
+    
+    /**
+     * Ejecuta un trabajo en varios hilos que empiezan a la vez y espera a que terminen.
+     * 
+     * @param hilos   Cantidad de hilos
+     * @param trabajo El trabajo de cada hilo
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    private static void concurrentemente(int hilos, Trabajo trabajo) throws InterruptedException {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Thread> iniciados = new ArrayList<>();
+        for (int i = 0; i < hilos; i++) {
+            int numero = i;
+            Thread hilo = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                trabajo.ejecutar(numero);
+            });
+            hilo.start();
+            iniciados.add(hilo);
+        }
+        salida.countDown();
+        for (Thread hilo : iniciados) {
+            hilo.join();
+        }
+    }
+    
+    /**
+     * Registra una falla si una condición no se cumple.
+     * 
+     * @param condicion La condición verificada
+     * @param mensaje   Descripción de la falla
+     */
+    private void verificar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            synchronized (fallas) {
+                if (fallas.size() < 20) {
+                    fallas.add(mensaje);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package udistrital.avanzada.rolapet.modelo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Medición de los grados de separación y el camino más corto sobre grafos sintéticos.
+ * 
+ * Para cada tamaño de grafo crea usuarios con amistades recíprocas al azar
+ * y mide, sobre los mismos pares de usuarios, el tiempo promedio por
+ * consulta de:
+ * - Los grados de separación con el recorrido en un solo hilo.
+ * - Los grados de separación con la expansión en paralelo de las fronteras grandes.
+ * - El camino más corto con el recorrido en un solo hilo.
+ * - Un recorrido en anchura simple sobre objetos, como referencia.
+ * 
+ * Antes de medir los recorridos del grafo se calientan todos con las
+ * mismas consultas, para que ninguno se beneficie de ser el primero en
+ * compilarse; el de referencia se mide una sola vez, mientras
+ * calcula las distancias esperadas, porque es mucho más lento. Además
+ * se verifica que los dos modos den la misma distancia que el recorrido de
+ * referencia y que cada camino tenga esa longitud y esté formado por
+ * amigos consecutivos.
+ * 
+ * Se ejecuta desde la raíz del proyecto con:
+ * 
+ * javac -encoding UTF-8 -d salida $(find src test -name '*.java')
+ * java -cp salida udistrital.avanzada.rolapet.modelo.RendimientoRecorridos [tamaños] [amigos] [consultas]
+ * 
+ * Los tamaños se separan con comas. Termina con código 0 si todas las
+ * verificaciones se cumplen y con 1 si alguna falla.
+ * 
+ * @author Equipo RolaPet
+ * @version 1.0
+ * @since 2025
+ */
+public final class RendimientoRecorridos {
+    
+    /** Saltos máximos de las consultas, suficientes para no acotar los grafos medidos */
+    private static final int MAXIMO_SALTOS = 64;
+    
+    /** Semilla de los grafos y las consultas, para que las mediciones sean comparables */
+    private static final long SEMILLA = 42;
+    
+    /** Rondas de calentamiento de todas las mediciones antes de medir */
+    private static final int RONDAS_CALENTAMIENTO = 10;
+    
+    /** Verificaciones fallidas */
+    private final List<String> fallas;
+    
+    /** Acumulador de resultados, para que el compilador no descarte las consultas */
+    private long sumidero;
+    
+    /**
+     * Medición de un tipo de consulta.
+     */
+    @FunctionalInterface
+    private interface Consulta {
+        
+        /**
+         * Ejecuta la consulta sobre un par de usuarios.
+         * 
+         * @param origen  Usuario de partida
+         * @param destino Usuario buscado
+         * @return Un valor que depende del resultado de la consulta
+         */
+        int ejecutar(Usuario origen, Usuario destino);
+    }
+    
+    /**
+     * Constructor de la medición.
+     */
+    private RendimientoRecorridos() {
+        this.fallas = new ArrayList<>();
+    }
+    
+    /**
+     * Ejecuta la medición.
+     * 
+     * @param args Tamaños de los grafos separados por comas (por defecto
+     *             1000,200000), amigos promedio por usuario (por defecto 10)
+     *             y consultas por medición (por defecto 500)
+     */
+    public static void main(String[] args) {
+        String[] tamanos = (args.length > 0 ? args[0] : "1000,200000").split(",");
+        int amigos = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int consultas = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        RendimientoRecorridos medicion = new RendimientoRecorridos();
+        for (String tamano : tamanos) {
+            medicion.medir(Integer.parseInt(tamano.trim()), amigos, consultas);
+        }
+        if (!medicion.fallas.isEmpty()) {
+            medicion.fallas.forEach(falla -> System.out.println("FALLA: " + falla));
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones se cumplieron");
+    }
+    
+    /**
+     * Mide las consultas sobre un grafo sintético.
+     * 
+     * @param tamano    Cantidad de usuarios del grafo
+     * @param amigos    Amigos promedio por usuario
+     * @param consultas Cantidad de pares de usuarios consultados
+     */
+    private void medir(int tamano, int amigos, int consultas) {
+        Random aleatorio = new Random(SEMILLA + tamano);
+        Usuario[] usuarios = crearGrafo(tamano, amigos, aleatorio);
+        Usuario[] origenes = new Usuario[consultas];
+        Usuario[] destinos = new Usuario[consultas];
+        for (int i = 0; i < consultas; i++) {
+            origenes[i] = usuarios[aleatorio.nextInt(tamano)];
+            destinos[i] = usuarios[aleatorio.nextInt(tamano)];
+        }
+        GrafoAmistad grafo = GrafoAmistad.getInstancia();
+        RecorridoAmistades secuencial = new RecorridoAmistades(grafo, Integer.MAX_VALUE);
+        RecorridoAmistades paralelo = new RecorridoAmistades(grafo, RecorridoAmistades.UMBRAL_PARALELO);
+        
+        int[] esperadas = new int[consultas];
+        long inicio = System.nanoTime();
+        for (int i = 0; i < consultas; i++) {
+            esperadas[i] = distanciaSimple(origenes[i], destinos[i]);
+        }
+        long referencia = System.nanoTime() - inicio;
+        verificarDistancias(secuencial, origenes, destinos, esperadas, "un hilo");
+        verificarDistancias(paralelo, origenes, destinos, esperadas, "paralelo");
+        verificarCaminos(secuencial, origenes, destinos, esperadas);
+        
+        System.out.printf("Grafo de %d usuarios con %d amigos en promedio, %d consultas%n",
+                tamano, amigos, consultas);
+        String[] nombres = {"grados, un hilo", "grados, paralelo", "camino más corto"};
+        Consulta[] mediciones = {
+            (origen, destino) -> secuencial.gradosDeSeparacion(origen, destino, MAXIMO_SALTOS),
+            (origen, destino) -> paralelo.gradosDeSeparacion(origen, destino, MAXIMO_SALTOS),
+            (origen, destino) -> secuencial.caminoMasCorto(origen, destino, MAXIMO_SALTOS).size()
+        };
+        for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO; ronda++) {
+            for (Consulta consulta : mediciones) {
+                ejecutarTodas(consulta, origenes, destinos);
+            }
+        }
+        for (int i = 0; i < mediciones.length; i++) {
+            long inicioMedicion = System.nanoTime();
+            ejecutarTodas(mediciones[i], origenes, destinos);
+            imprimir(nombres[i], System.nanoTime() - inicioMedicion, consultas);
+        }
+        imprimir("recorrido simple", referencia, consultas);
+    }
+    
+    /**
+     * Crea un grafo de usuarios con amistades recíprocas al azar.
+     * 
+     * Los amigos de cada usuario se agregan en una sola modificación, sin
+     * registrar a los usuarios en el repositorio.
+     * 
+     * @param tamano    Cantidad de usuarios
+     * @param amigos    Amigos promedio por usuario
+     * @param aleatorio Generador de números aleatorios
+     * @return Los usuarios creados
+     */
+    private static Usuario[] crearGrafo(int tamano, int amigos, Random aleatorio) {
+        Usuario[] usuarios = new Usuario[tamano];
+        List<List<Usuario>> adyacencia = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            usuarios[i] = new Usuario("r" + tamano + "-" + i, "Usuario " + i, "3000000000", null,
+                    "r" + tamano + "-" + i + "@prueba.co");
+            adyacencia.add(new ArrayList<>());
+        }
+        long aristas = (long) tamano * amigos / 2;
+        for (long i = 0; i < aristas; i++) {
+            int a = aleatorio.nextInt(tamano);
+            int b = aleatorio.nextInt(tamano);
+            if (a != b) {
+                adyacencia.get(a).add(usuarios[b]);
+                adyacencia.get(b).add(usuarios[a]);
+            }
+        }
+        for (int i = 0; i < tamano; i++) {
+            usuarios[i].modificarAmigos(adyacencia.get(i), List.of());
+        }
+        return usuarios;
+    }
+    
+    /**
+     * Ejecuta una consulta sobre todos los pares de usuarios.
+     * 
+     * @param consulta La consulta
+     * @param origenes Usuarios de partida
+     * @param destinos Usuarios buscados
+     */
+    private void ejecutarTodas(Consulta consulta, Usuario[] origenes, Usuario[] destinos) {
+        for (int i = 0; i < origenes.length; i++) {
+            sumidero += consulta.ejecutar(origenes[i], destinos[i]);
+        }
+    }
+    
+    /**
+     * Imprime el tiempo promedio por consulta y las consultas por segundo de una medición.
+     * 
+     * @param nombre    Nombre de la medición
+     * @param nanos     Tiempo total de la medición, en nanosegundos
+     * @param consultas Cantidad de consultas medidas
+     */
+    private static void imprimir(String nombre, long nanos, int consultas) {
+        double microsegundos = nanos / 1e3 / consultas;
+        System.out.printf("  %-18s %10.1f µs por consulta %12.0f consultas/s%n",
+                nombre, microsegundos, 1e6 / microsegundos);
+    }
+    
+    /**
+     * Verifica que un recorrido dé las distancias esperadas.
+     * 
+     * @param recorrido El recorrido
+     * @param origenes  Usuarios de partida
+     * @param destinos  Usuarios buscados
+     * @param esperadas Distancias del recorrido de referencia
+     * @param modo      Nombre del modo del recorrido
+     */
+    private void verificarDistancias(RecorridoAmistades recorrido, Usuario[] origenes, Usuario[] destinos,
+                                     int[] esperadas, String modo) {
+        for (int i = 0; i < origenes.length; i++) {
+            int distancia = recorrido.gradosDeSeparacion(origenes[i], destinos[i], MAXIMO_SALTOS);
+            verificar(distancia == esperadas[i], "Distancia en modo " + modo + " entre " + origenes[i].getCedula()
+                    + " y " + destinos[i].getCedula() + ": " + distancia + ", esperada " + esperadas[i]);
+        }
+    }
+    
+    /**
+     * Verifica que los caminos más cortos tengan la longitud esperada y estén formados por amigos.
+     * 
+     * @param recorrido El recorrido
+     * @param origenes  Usuarios de partida
+     * @param destinos  Usuarios buscados
+     * @param esperadas Distancias del recorrido de referencia
+     */
+    private void verificarCaminos(RecorridoAmistades recorrido, Usuario[] origenes, Usuario[] destinos,
+                                  int[] esperadas) {
+        for (int i = 0; i < origenes.length; i++) {
+            List<Usuario> camino = recorrido.caminoMasCorto(origenes[i], destinos[i], MAXIMO_SALTOS);
+            String par = origenes[i].getCedula() + " y " + destinos[i].getCedula();
+            if (esperadas[i] < 0) {
+                verificar(camino.isEmpty(), "Camino entre usuarios no conectados " + par);
+                continue;
+            }
+            verificar(camino.size() == esperadas[i] + 1, "Longitud del camino entre " + par + ": " + camino.size());
+            verificar(!camino.isEmpty() && camino.get(0) == origenes[i]
+                    && camino.get(camino.size() - 1) == destinos[i], "Extremos del camino entre " + par);
+            for (int j = 1; j < camino.size(); j++) {
+                verificar(camino.get(j - 1).esAmigo(camino.get(j)), "Camino no formado por amigos entre " + par);
+            }
+        }
+    }
+    
+    /**
+     * Calcula la distancia entre dos usuarios con un recorrido en anchura simple sobre objetos.
+     * 
+     * @param origen  Usuario de partida
+     * @param destino Usuario buscado
+     * @return La cantidad de saltos, o -1 si no están conectados en como máximo {@link #MAXIMO_SALTOS}
+     */
+    private static int distanciaSimple(Usuario origen, Usuario destino) {
+        Map<Usuario, Integer> distancias = new HashMap<>();
+        ArrayDeque<Usuario> cola = new ArrayDeque<>();
+        distancias.put(origen, 0);
+        cola.add(origen);
+        while (!cola.isEmpty()) {
+            Usuario actual = cola.poll();
+            int distancia = distancias.get(actual);
+            if (actual == destino) {
+                return distancia;
+            }
+            if (distancia == MAXIMO_SALTOS) {
+                continue;
+            }
+            for (Usuario amigo : actual.getAmigos()) {
+                if (distancias.putIfAbsent(amigo, distancia + 1) == null) {
+                    cola.add(amigo);
+                }
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Registra una falla si una condición no se cumple.
+     * 
+     * @param condicion La condición verificada
+     * @param mensaje   Descripción de la falla
+     */
+    private void verificar(boolean condicion, String mensaje) {
+        if (!condicion && fallas.size() < 20) {
+            fallas.add(mensaje);
+        }
+    }
+}